@@ -1,7 +1,8 @@
 package de.adito;
 
 import de.adito.context.ContextResolver;
-import de.adito.convert.FormatConverter;
+import de.adito.convert.*;
+import de.adito.serve.RequestServer;
 import picocli.CommandLine;
 
 /**
@@ -15,7 +16,9 @@ import picocli.CommandLine;
     mixinStandardHelpOptions = true,
     subcommands = {
         ContextResolver.class,
-        FormatConverter.class
+        FormatConverter.class,
+        ShardMerger.class,
+        RequestServer.class
     })
 public class LiquibaseExtendedCli implements Runnable
 {
@@ -30,7 +33,10 @@ public class LiquibaseExtendedCli implements Runnable
   }
 
   /**
-   * Entry-Point to all CLI commands
+   * Entry-Point to all CLI commands.
+   * <p>
+   * The commands itself do not exit the JVM and write only to the writers of the {@link CommandLine}.
+   * Therefore, they can also be executed in-process, e.g. by the {@link RequestServer}.
    *
    * @param args the arguments passed on the command line. This includes the command name, parameters and options
    */
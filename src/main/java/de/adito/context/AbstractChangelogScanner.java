@@ -0,0 +1,191 @@
+package de.adito.context;
+
+import liquibase.ContextExpression;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Abstract scanner for reading the contexts and includes of one changelog file without parsing the whole changelog via Liquibase.
+ * <p>
+ * The scanners only read the attributes that are needed for resolving the contexts. They handle these attributes the same way
+ * {@link liquibase.changelog.DatabaseChangeLog} and {@link liquibase.changelog.ChangeSet} handle them.
+ * Whenever a changelog contains anything that may lead to a different result than Liquibase, an {@link UnsupportedChangelogException} is thrown.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+abstract class AbstractChangelogScanner
+{
+  static final String DATABASE_CHANGE_LOG = "databaseChangeLog";
+  static final String CHANGE_SET = "changeSet";
+  static final String INCLUDE = "include";
+  static final String INCLUDE_ALL = "includeAll";
+  static final String MODIFY_CHANGE_SETS = "modifyChangeSets";
+  static final String CONTEXT = "context";
+  static final String CONTEXT_FILTER = "contextFilter";
+  static final String FILE = "file";
+  static final String PATH = "path";
+  static final String RELATIVE_TO_CHANGELOG_FILE = "relativeToChangelogFile";
+
+  /**
+   * The attributes of {@code includeAll} that change the files that are included. These are not supported by the scanners.
+   */
+  private static final Set<String> UNSUPPORTED_INCLUDE_ALL_ATTRIBUTES = Set.of("filter", "resourceFilter", "resourceComparator", "minDepth", "maxDepth",
+                                                                                 "endsWithFilter", "errorIfMissingOrEmpty");
+
+  /**
+   * All attributes, that are read by the scanners. If any of these attributes has no simple value, the changelog is not supported.
+   */
+  static final Set<String> READ_ATTRIBUTES;
+
+  static
+  {
+    Set<String> readAttributes = new HashSet<>(UNSUPPORTED_INCLUDE_ALL_ATTRIBUTES);
+    readAttributes.addAll(List.of(CONTEXT, CONTEXT_FILTER, FILE, PATH, RELATIVE_TO_CHANGELOG_FILE));
+    READ_ATTRIBUTES = Collections.unmodifiableSet(readAttributes);
+  }
+
+  /**
+   * Scans one changelog file.
+   *
+   * @param pFile the changelog file
+   * @return the contexts and includes of the file
+   * @throws IOException                    Error while reading the file
+   * @throws UnsupportedChangelogException the file contains anything that needs to be handled by Liquibase
+   */
+  @NonNull
+  abstract ChangelogScan scan(@NonNull Path pFile) throws IOException, UnsupportedChangelogException;
+
+  /**
+   * Adds one entry of the {@code databaseChangeLog} to the scan. Entries that are not needed for the contexts are ignored.
+   *
+   * @param pScan       the scan of the current file
+   * @param pFile       the current file
+   * @param pName       the name of the entry, e.g. {@code changeSet}
+   * @param pAttributes the simple attributes of the entry
+   * @throws UnsupportedChangelogException the entry can not be handled without Liquibase
+   */
+  protected void addEntry(@NonNull ChangelogScan pScan, @NonNull Path pFile, @NonNull String pName, @NonNull Map<String, String> pAttributes)
+      throws UnsupportedChangelogException
+  {
+    switch (pName)
+    {
+      case CHANGE_SET:
+        pScan.addChangeSet(getContexts(pFile, pAttributes));
+        break;
+
+      case INCLUDE:
+        pScan.getIncludes().add(createInclude(pFile, pAttributes, FILE, false));
+        break;
+
+      case INCLUDE_ALL:
+        for (String attribute : UNSUPPORTED_INCLUDE_ALL_ATTRIBUTES)
+        {
+          if (pAttributes.containsKey(attribute))
+            throw new UnsupportedChangelogException(pFile, "includeAll with attribute '" + attribute + "'");
+        }
+        pScan.getIncludes().add(createInclude(pFile, pAttributes, PATH, true));
+        break;
+
+      default:
+        // all other entries have no influence on the contexts
+        break;
+    }
+  }
+
+  /**
+   * Adds the contexts that are given on the changelog itself.
+   *
+   * @param pScan       the scan of the current file
+   * @param pFile       the current file
+   * @param pAttributes the attributes of the changelog
+   * @throws UnsupportedChangelogException the contexts can not be handled without Liquibase
+   */
+  protected void addChangelogContexts(@NonNull ChangelogScan pScan, @NonNull Path pFile, @NonNull Map<String, String> pAttributes)
+      throws UnsupportedChangelogException
+  {
+    // the changelog itself only uses the context, when no contextFilter is given at all
+    String context = checkValue(pFile, pAttributes.get(CONTEXT_FILTER));
+    if (context == null)
+      context = checkValue(pFile, pAttributes.get(CONTEXT));
+
+    pScan.getChangelogContexts().addAll(new ContextExpression(context).getContexts());
+  }
+
+  /**
+   * Creates an include.
+   *
+   * @param pFile          the current file
+   * @param pAttributes    the attributes of the include
+   * @param pPathAttribute the name of the attribute with the path
+   * @param pAll           if it is an {@code includeAll}
+   * @return the created include
+   * @throws UnsupportedChangelogException the include can not be handled without Liquibase
+   */
+  @NonNull
+  private ChangelogScan.Include createInclude(@NonNull Path pFile, @NonNull Map<String, String> pAttributes, @NonNull String pPathAttribute, boolean pAll)
+      throws UnsupportedChangelogException
+  {
+    String path = checkValue(pFile, pAttributes.get(pPathAttribute));
+    if (path == null)
+      throw new UnsupportedChangelogException(pFile, "missing attribute '" + pPathAttribute + "'");
+
+    return new ChangelogScan.Include(path, getRelativeToChangelogFile(pFile, pAttributes), pAll, getContexts(pFile, pAttributes));
+  }
+
+  /**
+   * Gets the contexts of a changeSet or include. The {@code context} is only used, when the {@code contextFilter} has no contexts.
+   *
+   * @param pFile       the current file
+   * @param pAttributes the attributes of the changeSet or include
+   * @return the contexts
+   * @throws UnsupportedChangelogException the contexts can not be handled without Liquibase
+   */
+  @NonNull
+  private Set<String> getContexts(@NonNull Path pFile, @NonNull Map<String, String> pAttributes) throws UnsupportedChangelogException
+  {
+    ContextExpression contextExpression = new ContextExpression(checkValue(pFile, pAttributes.get(CONTEXT_FILTER)));
+    if (contextExpression.isEmpty())
+      contextExpression = new ContextExpression(checkValue(pFile, pAttributes.get(CONTEXT)));
+
+    return new HashSet<>(contextExpression.getContexts());
+  }
+
+  /**
+   * Reads the value of {@code relativeToChangelogFile}.
+   *
+   * @param pFile       the current file
+   * @param pAttributes the attributes of the include
+   * @return the value of the attribute or {@code false}, if it is not given
+   * @throws UnsupportedChangelogException the value is not a valid boolean
+   */
+  private boolean getRelativeToChangelogFile(@NonNull Path pFile, @NonNull Map<String, String> pAttributes) throws UnsupportedChangelogException
+  {
+    String value = checkValue(pFile, pAttributes.get(RELATIVE_TO_CHANGELOG_FILE));
+    if (value == null)
+      return false;
+    if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false"))
+      return Boolean.parseBoolean(value);
+
+    throw new UnsupportedChangelogException(pFile, "invalid value '" + value + "' for '" + RELATIVE_TO_CHANGELOG_FILE + "'");
+  }
+
+  /**
+   * Checks that the value does not use any changelog parameters. These would be replaced by Liquibase.
+   *
+   * @param pFile  the current file
+   * @param pValue the value
+   * @return the given value
+   * @throws UnsupportedChangelogException the value uses changelog parameters
+   */
+  @Nullable
+  protected String checkValue(@NonNull Path pFile, @Nullable String pValue) throws UnsupportedChangelogException
+  {
+    if (pValue != null && pValue.contains("${"))
+      throw new UnsupportedChangelogException(pFile, "changelog parameters are used in '" + pValue + "'");
+    return pValue;
+  }
+}
@@ -0,0 +1,257 @@
+package de.adito.context;
+
+import com.google.gson.*;
+import de.adito.util.*;
+import lombok.*;
+import lombok.extern.java.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Index of the scans of all changelog files, that is stored on the disk next to the root changelog.
+ * <p>
+ * For every file, the size, the last modified time and the hash of the content is stored. A file is only scanned again, if any of these changed.
+ * The included files are always resolved again, so new files in an {@code includeAll} directory are found.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+class ChangelogIndex
+{
+  /**
+   * The path of the index file, relative to the directory of the root changelog.
+   */
+  static final String INDEX_FILE = ".liquibase-extended-cli/context-index";
+
+  /**
+   * The version of the index file. If the format of the index changes, this version needs to be increased, so old indexes are not used.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * The time in milliseconds, in which a file could be changed without changing its last modified time, because of the resolution of the file system.
+   * Files that were changed within this time before they were added to the index are always checked by their hash.
+   */
+  private static final long MODIFIED_TIME_RESOLUTION = 2000;
+
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  /**
+   * The directory of the root changelog. All paths in the index are relative to this directory.
+   */
+  private final Path rootDirectory;
+
+  /**
+   * The index file.
+   */
+  private final Path indexFile;
+
+  /**
+   * The entries, that were read from the index file.
+   */
+  private final Map<String, Entry> storedEntries;
+
+  /**
+   * The entries of all files, that were used since this index was loaded. They replace the stored entries of the same files, when the index is saved.
+   */
+  private final Map<String, Entry> usedEntries = new TreeMap<>();
+
+  /**
+   * If any entry was scanned again.
+   */
+  private boolean changed;
+
+  /**
+   * Loads the index of the given directory. If there is no valid index, an empty index is created.
+   *
+   * @param pRootDirectory the directory of the root changelog
+   */
+  ChangelogIndex(@NonNull Path pRootDirectory)
+  {
+    rootDirectory = pRootDirectory.toAbsolutePath().normalize();
+    indexFile = rootDirectory.resolve(INDEX_FILE);
+    storedEntries = load();
+  }
+
+  /**
+   * Gets the scan of a file. If the file did not change since it was stored in the index, the stored scan is used.
+   * Otherwise, the file is scanned by the given scanner.
+   *
+   * @param pFile    the absolute and normalized path of the changelog file
+   * @param pScanner the scanner for the file
+   * @return the scan of the file
+   * @throws IOException                    Error while reading the file
+   * @throws UnsupportedChangelogException the file can not be handled without Liquibase
+   */
+  @NonNull
+  ChangelogScan getScan(@NonNull Path pFile, @NonNull AbstractChangelogScanner pScanner) throws IOException, UnsupportedChangelogException
+  {
+    String key = rootDirectory.relativize(pFile).toString().replace('\\', '/');
+    // the time needs to be taken before the file is read, so any change while reading is detected by the next call
+    long checked = System.currentTimeMillis();
+    BasicFileAttributes attributes = Files.readAttributes(pFile, BasicFileAttributes.class);
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+
+    Entry entry = storedEntries.get(key);
+    if (entry != null && entry.size == size)
+    {
+      if (entry.lastModified == lastModified && lastModified + MODIFIED_TIME_RESOLUTION < entry.checked)
+        return use(key, entry);
+
+      // the file may have been changed, but only the content matters
+      String hash = FileHashes.hash(pFile);
+      if (hash.equals(entry.hash))
+      {
+        changed = true;
+        return use(key, new Entry(size, lastModified, checked, hash, entry.scan));
+      }
+    }
+
+    changed = true;
+    String hash = FileHashes.hash(pFile);
+    return use(key, new Entry(size, lastModified, checked, hash, pScanner.scan(pFile)));
+  }
+
+  /**
+   * Saves the index, if anything changed. The entries of the files that were used since the index was loaded are merged into the stored entries,
+   * so the index can be shared by multiple root changelogs in the same directory. Only the entries of files, that no longer exist, are dropped.
+   * Errors while saving are only logged, because the index is only a cache.
+   */
+  void save()
+  {
+    Map<String, Entry> entries = new TreeMap<>(storedEntries);
+    boolean removed = entries.keySet().removeIf(pKey -> !usedEntries.containsKey(pKey) && !Files.isRegularFile(rootDirectory.resolve(pKey)));
+    if (!changed && !removed && entries.keySet().containsAll(usedEntries.keySet()))
+      return;
+    entries.putAll(usedEntries);
+
+    try
+    {
+      Files.createDirectories(indexFile.getParent());
+      Path tempFile = TempFiles.createSibling(indexFile);
+      try
+      {
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8))
+        {
+          GSON.toJson(new IndexData(VERSION, entries), writer);
+        }
+        // the index should never be read while it is only written partly
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally
+      {
+        Files.deleteIfExists(tempFile);
+      }
+    }
+    catch (IOException pE)
+    {
+      log.log(Level.WARNING, "Could not save the context index " + indexFile, pE);
+    }
+  }
+
+  /**
+   * Marks an entry as used.
+   *
+   * @param pKey   the key of the entry
+   * @param pEntry the entry
+   * @return the scan of the entry
+   */
+  @NonNull
+  private ChangelogScan use(@NonNull String pKey, @NonNull Entry pEntry)
+  {
+    usedEntries.put(pKey, pEntry);
+    return pEntry.scan;
+  }
+
+  /**
+   * Loads the entries of the index file.
+   *
+   * @return the entries or an empty map, if there is no valid index file
+   */
+  @NonNull
+  private Map<String, Entry> load()
+  {
+    if (!Files.isRegularFile(indexFile))
+      return Map.of();
+
+    try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8))
+    {
+      IndexData data = GSON.fromJson(reader, IndexData.class);
+      if (data != null && data.version == VERSION && data.files != null && data.files.values().stream().allMatch(Entry::isValid))
+        return data.files;
+    }
+    catch (IOException | JsonParseException pE)
+    {
+      log.log(Level.FINE, "Could not read the context index " + indexFile, pE);
+    }
+    return Map.of();
+  }
+
+  /**
+   * The content of the index file.
+   */
+  @AllArgsConstructor
+  private static class IndexData
+  {
+    /**
+     * The version of the index.
+     */
+    private final int version;
+
+    /**
+     * The entries by the path of the file, relative to the directory of the root changelog.
+     */
+    private final Map<String, Entry> files;
+  }
+
+  /**
+   * The entry of one file.
+   */
+  @AllArgsConstructor
+  private static class Entry
+  {
+    /**
+     * The size of the file in bytes.
+     */
+    private final long size;
+
+    /**
+     * The last modified time of the file in milliseconds.
+     */
+    private final long lastModified;
+
+    /**
+     * The time in milliseconds, when the size and the last modified time were read.
+     */
+    private final long checked;
+
+    /**
+     * The hash of the content of the file.
+     */
+    @NonNull
+    private final String hash;
+
+    /**
+     * The scan of the file.
+     */
+    @NonNull
+    private final ChangelogScan scan;
+
+    /**
+     * Checks that all values were read from the index file.
+     *
+     * @return {@code true}, if the entry can be used
+     */
+    private boolean isValid()
+    {
+      return hash != null && scan != null && scan.getChangeSetContexts() != null && scan.getChangelogContexts() != null && scan.getIncludes() != null
+          && scan.getIncludes().stream().allMatch(pInclude -> pInclude != null && pInclude.getPath() != null && pInclude.getContexts() != null);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package de.adito.context;
+
+import lombok.*;
+
+import java.util.*;
+
+/**
+ * The information of one changelog file that is needed for resolving the contexts.
+ * <p>
+ * This contains only the contexts and the includes of the file, and not the whole content of the changelog.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Getter
+@NoArgsConstructor
+class ChangelogScan
+{
+  /**
+   * If the changelog file contains at least one changeSet.
+   * Contexts given on the changelog or on an include are only used by Liquibase, if there is any changeSet they can be applied to.
+   */
+  private boolean containsChangeSets;
+
+  /**
+   * The contexts of all changeSets in this changelog file.
+   */
+  @NonNull
+  private final Set<String> changeSetContexts = new HashSet<>();
+
+  /**
+   * The contexts that are given on the changelog itself. These will be inherited by every changeSet in this and all included changelogs.
+   */
+  @NonNull
+  private final Set<String> changelogContexts = new HashSet<>();
+
+  /**
+   * All {@code include} and {@code includeAll} of this changelog in the order of the file.
+   */
+  @NonNull
+  private final List<Include> includes = new ArrayList<>();
+
+  /**
+   * Adds a changeSet with its contexts.
+   *
+   * @param pContexts the contexts of the changeSet
+   */
+  void addChangeSet(@NonNull Collection<String> pContexts)
+  {
+    containsChangeSets = true;
+    changeSetContexts.addAll(pContexts);
+  }
+
+  /**
+   * An {@code include} or {@code includeAll} in a changelog file.
+   */
+  @AllArgsConstructor
+  @Getter
+  static class Include
+  {
+    /**
+     * The value of the {@code file} attribute of an {@code include} or the value of the {@code path} attribute of an {@code includeAll}.
+     */
+    @NonNull
+    private final String path;
+
+    /**
+     * If the path is relative to the changelog file. Otherwise, the path is relative to the directory of the root changelog.
+     */
+    private final boolean relativeToChangelogFile;
+
+    /**
+     * {@code true}, if this is an {@code includeAll} and the path points to a directory.
+     */
+    private final boolean all;
+
+    /**
+     * The contexts given on the include. These will be inherited by every changeSet in the included changelogs.
+     */
+    @NonNull
+    private final Set<String> contexts;
+  }
+}
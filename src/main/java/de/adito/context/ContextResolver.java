@@ -1,25 +1,36 @@
 package de.adito.context;
 
 import com.google.gson.Gson;
-import de.adito.util.ExistingPathConverter;
+import de.adito.util.*;
 import liquibase.Liquibase;
 import liquibase.database.Database;
+import liquibase.parser.*;
 import liquibase.resource.DirectoryResourceAccessor;
-import lombok.NoArgsConstructor;
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
 import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.logging.Level;
 import java.util.stream.*;
 
 /**
  * CLI Command to resolve contexts
+ * <p>
+ * The contexts are read by the {@link StreamingContextResolver} without parsing the whole changelogs. Only if any changelog can not be handled this way,
+ * the changelogs are parsed by Liquibase.
  *
  * @author r.hartinger, 31.01.2024
  */
 @Command(name = "context", description = "Resolves the context from a root changelog and all depending changelogs",
     version = "1.0.0", mixinStandardHelpOptions = true)
 @NoArgsConstructor
+@Log
 public class ContextResolver implements Callable<Integer>
 {
   /**
@@ -28,6 +39,29 @@ public class ContextResolver implements Callable<Integer>
   @Parameters(index = "0", arity = "1", description = "The absolute path to the changelog", converter = ExistingPathConverter.class)
   private Path changelogFile;
 
+  /**
+   * If the changelogs should always be parsed by Liquibase.
+   */
+  @Option(names = "--full-parse", description = "Always parse the changelogs with Liquibase instead of only reading the contexts of the changelogs")
+  private boolean fullParse;
+
+  /**
+   * If the contexts of every changelog file should be stored in an index, so unchanged files do not need to be read again.
+   */
+  @Option(names = "--index", description = "Stores the contexts of every changelog file in " + ChangelogIndex.INDEX_FILE
+      + " in the directory of the changelog. Only changed files are read again by the next call")
+  private boolean useIndex;
+
+  /**
+   * If the XML changelogs should not be validated against their XSDs, when they are parsed by Liquibase.
+   */
+  @Option(names = "--skip-xsd-validation", description = "Does not validate the XML changelogs against their XSDs, when they are parsed by Liquibase. "
+      + "This should only be used for trusted input.")
+  private boolean skipXsdValidation;
+
+  @Spec
+  private CommandSpec spec;
+
   @Override
   public Integer call() throws Exception
   {
@@ -35,24 +69,81 @@ public class ContextResolver implements Callable<Integer>
     // This is needed for the DirectoryResourceAccessor
     Path parent = changelogFile.getParent();
 
+    Stream<String> allContexts = null;
+    if (!fullParse)
+      allContexts = resolveWithoutLiquibase(parent);
+    if (allContexts == null)
+      allContexts = resolveWithLiquibase(parent);
+
+    String contexts = allContexts
+        // sort and distinct all contexts
+        .sorted(String.CASE_INSENSITIVE_ORDER)
+        .distinct()
+        .collect(Collectors.collectingAndThen(Collectors.toList(), new Gson()::toJson));
+
+    // the output writer of the command is needed to write to stdout, a logger would write to stderr
+    spec.commandLine().getOut().println(contexts);
+    return 0;
+  }
+
+  /**
+   * Resolves the contexts by only reading the contexts and includes of the changelogs.
+   *
+   * @param pParent the directory of the changelog
+   * @return the contexts or {@code null}, if the changelogs need to be parsed by Liquibase
+   */
+  @Nullable
+  private Stream<String> resolveWithoutLiquibase(@NonNull Path pParent)
+  {
+    try
+    {
+      ChangelogIndex index = useIndex ? new ChangelogIndex(pParent) : null;
+      Set<String> contexts = new StreamingContextResolver(pParent, index).resolve(changelogFile);
+      if (index != null)
+        index.save();
+      return contexts.stream();
+    }
+    catch (UnsupportedChangelogException | IOException pE)
+    {
+      log.log(Level.FINE, "Falling back to parsing the changelogs with Liquibase", pE);
+      return null;
+    }
+  }
+
+  /**
+   * Resolves the contexts by parsing all changelogs with Liquibase.
+   *
+   * @param pParent the directory of the changelog
+   * @return the contexts of all changeSets
+   * @throws Exception Error while parsing the changelogs
+   */
+  @NonNull
+  private Stream<String> resolveWithLiquibase(@NonNull Path pParent) throws Exception
+  {
     // get the relative changelog to the parent for liquibase
-    Path relativePathToChangelog = parent.relativize(changelogFile);
+    Path relativePathToChangelog = pParent.relativize(changelogFile);
 
-    try (Liquibase liquibase = new Liquibase(relativePathToChangelog.toString(), new DirectoryResourceAccessor(parent), (Database) null))
+    // the parsers are only registered while parsing, so every XSD is only compiled once for all included changelogs
+    // and JSON changelogs are not read by SnakeYAML
+    ChangeLogParser xmlParser = new SchemaCachingXmlChangeLogParser(!skipXsdValidation);
+    ChangeLogParser jsonParser = new GsonJsonChangeLogParser();
+    ChangeLogParserFactory.getInstance().register(xmlParser);
+    ChangeLogParserFactory.getInstance().register(jsonParser);
+    try (Liquibase liquibase = new Liquibase(relativePathToChangelog.toString(), new DirectoryResourceAccessor(pParent), (Database) null))
     {
-      String contexts = liquibase.getDatabaseChangeLog().getChangeSets().stream()
+      return liquibase.getDatabaseChangeLog().getChangeSets().stream()
           .flatMap(pChangeSet -> Stream.concat(pChangeSet.getContextFilter().getContexts().stream(),
                                                pChangeSet.getInheritableContextFilter().stream()
                                                    .flatMap(pContextExpr -> pContextExpr.getContexts().stream()))
           )
-          // sort and distinct all contexts
-          .sorted(String.CASE_INSENSITIVE_ORDER)
-          .distinct()
-          .collect(Collectors.collectingAndThen(Collectors.toList(), new Gson()::toJson));
-
-      // System.out is needed to write to stdout, a logger would write to stderr
-      System.out.println(contexts);
-      return 0;
+          // collect the contexts before the liquibase object is closed
+          .collect(Collectors.toList())
+          .stream();
+    }
+    finally
+    {
+      ChangeLogParserFactory.getInstance().unregister(xmlParser);
+      ChangeLogParserFactory.getInstance().unregister(jsonParser);
     }
   }
 }
@@ -0,0 +1,182 @@
+package de.adito.context;
+
+import com.google.gson.stream.*;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Scanner for JSON changelogs. This uses a {@link JsonReader}, so the content of the changeSets is skipped without creating any objects.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class JsonChangelogScanner extends AbstractChangelogScanner
+{
+  @Override
+  @NonNull
+  ChangelogScan scan(@NonNull Path pFile) throws IOException, UnsupportedChangelogException
+  {
+    ChangelogScan scan = new ChangelogScan();
+
+    // Liquibase reads JSON changelogs with SnakeYAML, this reader handles the BOM the same way
+    try (JsonReader reader = new JsonReader(new UnicodeReader(new BufferedInputStream(Files.newInputStream(pFile)))))
+    {
+      expect(pFile, reader, JsonToken.BEGIN_OBJECT);
+      reader.beginObject();
+
+      boolean foundChangelog = false;
+      while (reader.hasNext())
+      {
+        if (DATABASE_CHANGE_LOG.equals(reader.nextName()))
+        {
+          if (foundChangelog)
+            throw new UnsupportedChangelogException(pFile, "multiple " + DATABASE_CHANGE_LOG);
+          foundChangelog = true;
+          scanChangelog(pFile, reader, scan);
+        }
+        else
+          reader.skipValue();
+      }
+      reader.endObject();
+
+      if (!foundChangelog)
+        throw new UnsupportedChangelogException(pFile, "missing " + DATABASE_CHANGE_LOG);
+      expect(pFile, reader, JsonToken.END_DOCUMENT);
+    }
+    catch (MalformedJsonException pE)
+    {
+      // Liquibase should report the syntax error
+      throw new UnsupportedChangelogException(pFile, pE.getMessage());
+    }
+
+    return scan;
+  }
+
+  /**
+   * Scans the value of {@code databaseChangeLog}.
+   *
+   * @param pFile   the current file
+   * @param pReader the reader, positioned after the name {@code databaseChangeLog}
+   * @param pScan   the scan of the current file
+   * @throws IOException                    Error while reading the file
+   * @throws UnsupportedChangelogException the file can not be handled without Liquibase
+   */
+  private void scanChangelog(@NonNull Path pFile, @NonNull JsonReader pReader, @NonNull ChangelogScan pScan) throws IOException, UnsupportedChangelogException
+  {
+    if (pReader.peek() == JsonToken.NULL)
+    {
+      // an empty changelog
+      pReader.nextNull();
+      return;
+    }
+    if (pReader.peek() != JsonToken.BEGIN_ARRAY)
+      throw new UnsupportedChangelogException(pFile, DATABASE_CHANGE_LOG + " does not contain a list of entries");
+
+    Map<String, String> changelogAttributes = new HashMap<>();
+    pReader.beginArray();
+    while (pReader.hasNext())
+    {
+      if (pReader.peek() != JsonToken.BEGIN_OBJECT)
+        throw new UnsupportedChangelogException(pFile, "entry of " + DATABASE_CHANGE_LOG + " is not an object");
+
+      pReader.beginObject();
+      while (pReader.hasNext())
+      {
+        String name = pReader.nextName();
+        if (CONTEXT.equals(name) || CONTEXT_FILTER.equals(name))
+        {
+          // these are attributes of the changelog itself
+          if (changelogAttributes.containsKey(name))
+            throw new UnsupportedChangelogException(pFile, "multiple entries '" + name + "'");
+          changelogAttributes.put(name, getValue(pFile, pReader, name));
+        }
+        else if (CHANGE_SET.equals(name) || INCLUDE.equals(name) || INCLUDE_ALL.equals(name))
+          addEntry(pScan, pFile, name, getAttributes(pFile, pReader, name));
+        else
+          pReader.skipValue();
+      }
+      pReader.endObject();
+    }
+    pReader.endArray();
+
+    addChangelogContexts(pScan, pFile, changelogAttributes);
+  }
+
+  /**
+   * Reads the attributes of an entry. Only attributes that are needed by the scanner are read, all others are skipped.
+   *
+   * @param pFile   the current file
+   * @param pReader the reader, positioned after the name of the entry
+   * @param pName   the name of the entry
+   * @return the attributes of the entry
+   * @throws IOException                    Error while reading the file
+   * @throws UnsupportedChangelogException the entry can not be handled without Liquibase
+   */
+  @NonNull
+  private Map<String, String> getAttributes(@NonNull Path pFile, @NonNull JsonReader pReader, @NonNull String pName)
+      throws IOException, UnsupportedChangelogException
+  {
+    if (pReader.peek() != JsonToken.BEGIN_OBJECT)
+      throw new UnsupportedChangelogException(pFile, "entry '" + pName + "' is not an object");
+
+    Map<String, String> attributes = new HashMap<>();
+    pReader.beginObject();
+    while (pReader.hasNext())
+    {
+      String key = pReader.nextName();
+      if (READ_ATTRIBUTES.contains(key))
+        attributes.put(key, getValue(pFile, pReader, key));
+      else
+        pReader.skipValue();
+    }
+    pReader.endObject();
+    return attributes;
+  }
+
+  /**
+   * Reads the value of an attribute.
+   *
+   * @param pFile   the current file
+   * @param pReader the reader, positioned after the name of the attribute
+   * @param pName   the name of the attribute
+   * @return the string, {@code true} or {@code false} for booleans or {@code null}
+   * @throws IOException                    Error while reading the file
+   * @throws UnsupportedChangelogException the value is any other type
+   */
+  @Nullable
+  private String getValue(@NonNull Path pFile, @NonNull JsonReader pReader, @NonNull String pName) throws IOException, UnsupportedChangelogException
+  {
+    switch (pReader.peek())
+    {
+      case STRING:
+        return pReader.nextString();
+      case BOOLEAN:
+        return String.valueOf(pReader.nextBoolean());
+      case NULL:
+        pReader.nextNull();
+        return null;
+      default:
+        throw new UnsupportedChangelogException(pFile, "attribute '" + pName + "' has no simple value");
+    }
+  }
+
+  /**
+   * Checks that the next token has the expected type.
+   *
+   * @param pFile     the current file
+   * @param pReader   the reader
+   * @param pExpected the expected type of the next token
+   * @throws IOException                    Error while reading the file
+   * @throws UnsupportedChangelogException the next token has another type
+   */
+  private void expect(@NonNull Path pFile, @NonNull JsonReader pReader, @NonNull JsonToken pExpected) throws IOException, UnsupportedChangelogException
+  {
+    JsonToken token = pReader.peek();
+    if (token != pExpected)
+      throw new UnsupportedChangelogException(pFile, "expected " + pExpected + ", but found " + token);
+  }
+}
@@ -0,0 +1,95 @@
+package de.adito.context;
+
+import liquibase.ContextExpression;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Set;
+import java.util.regex.*;
+
+/**
+ * Scanner for SQL changelogs. Only the {@code --changeset} lines of a formatted SQL changelog are evaluated, all other lines are skipped.
+ * SQL files that are not formatted SQL changelogs contain exactly one changeSet without any context.
+ * <p>
+ * The patterns are the same that are used by {@link liquibase.parser.core.formattedsql.FormattedSqlChangeLogParser}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class SqlChangelogScanner extends AbstractChangelogScanner
+{
+  private static final Pattern FIRST_LINE_PATTERN = Pattern.compile("^\\s*\\-\\-\\s*liquibase\\s*formatted.*", Pattern.CASE_INSENSITIVE);
+  private static final Pattern CHANGE_SET_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*changeset\\s+(\"[^\"]+\"|[^:]+):\\s*(\"[^\"]+\"|\\S+).*",
+                                                                    Pattern.CASE_INSENSITIVE);
+  private static final Pattern CONTEXT_PATTERN = Pattern.compile(".*context:(\".*?\"|\\S*).*", Pattern.CASE_INSENSITIVE);
+  private static final Pattern CONTEXT_FILTER_PATTERN = Pattern.compile(".*contextFilter:(\".*?\"|\\S*).*", Pattern.CASE_INSENSITIVE);
+
+  /**
+   * Lines, that make Liquibase skip other lines. These could hide changeSets, so they are not supported.
+   */
+  private static final Pattern SKIPPING_LINES_PATTERN = Pattern.compile("(\\s*\\-+[\\s]*ignore(Lines)?:.*)|(\\s*\\/\\*\\s*liquibase\\s*rollback\\s*$)",
+                                                                        Pattern.CASE_INSENSITIVE);
+
+  @Override
+  @NonNull
+  ChangelogScan scan(@NonNull Path pFile) throws IOException, UnsupportedChangelogException
+  {
+    ChangelogScan scan = new ChangelogScan();
+
+    try (BufferedReader reader = new BufferedReader(new UnicodeReader(Files.newInputStream(pFile))))
+    {
+      String line = reader.readLine();
+      while (line != null && line.isBlank())
+        line = reader.readLine();
+
+      if (line == null)
+        throw new UnsupportedChangelogException(pFile, "empty file");
+
+      if (!FIRST_LINE_PATTERN.matcher(line).matches())
+      {
+        // a plain SQL file is one changeSet without any contexts
+        scan.addChangeSet(Set.of());
+        return scan;
+      }
+
+      while ((line = reader.readLine()) != null)
+      {
+        if (SKIPPING_LINES_PATTERN.matcher(line).matches())
+          throw new UnsupportedChangelogException(pFile, "lines are ignored or rollback comments are used");
+
+        Matcher changeSetMatcher = CHANGE_SET_PATTERN.matcher(line);
+        if (changeSetMatcher.matches())
+        {
+          // the contextFilter is used, if it is not empty
+          String context = parseString(CONTEXT_FILTER_PATTERN.matcher(line));
+          if (context == null || context.isEmpty())
+            context = parseString(CONTEXT_PATTERN.matcher(line));
+          // the context can be enclosed by single or double quotes
+          if (context != null)
+            context = checkValue(pFile, StringUtils.unwrap(context, context.startsWith("'") ? '\'' : '"'));
+
+          scan.addChangeSet(new ContextExpression(context).getContexts());
+        }
+      }
+    }
+
+    return scan;
+  }
+
+  /**
+   * Reads the first group of the matcher.
+   *
+   * @param pMatcher the matcher
+   * @return the trimmed value of the first group or {@code null}, if the matcher does not match
+   */
+  @Nullable
+  private String parseString(@NonNull Matcher pMatcher)
+  {
+    if (pMatcher.matches())
+      return pMatcher.group(1).trim();
+    return null;
+  }
+}
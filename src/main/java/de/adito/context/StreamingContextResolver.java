@@ -0,0 +1,217 @@
+package de.adito.context;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Resolves the contexts of a root changelog and all included changelogs without parsing the changelogs via Liquibase.
+ * <p>
+ * Only the contexts and the includes of every changelog are read. The contexts are combined the same way
+ * {@link liquibase.changelog.ChangeSet#getInheritableContextFilter()} does it: every changeSet has its own contexts and the contexts of
+ * all changelogs and includes it is nested in. Therefore, the contexts of a changelog or an include are only used, if there is at least one changeSet in it.
+ * <p>
+ * Whenever the result could differ from the result of Liquibase, an {@link UnsupportedChangelogException} is thrown.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class StreamingContextResolver
+{
+  /**
+   * The directory of the root changelog. Liquibase resolves all paths that are not relative to the changelog file against this directory.
+   */
+  private final Path rootDirectory;
+
+  /**
+   * The index with the stored scans of the files or {@code null}, if every file should be scanned.
+   */
+  @Nullable
+  private final ChangelogIndex index;
+
+  private final AbstractChangelogScanner xmlScanner = new XmlChangelogScanner();
+  private final AbstractChangelogScanner yamlScanner = new YamlChangelogScanner();
+  private final AbstractChangelogScanner jsonScanner = new JsonChangelogScanner();
+  private final AbstractChangelogScanner sqlScanner = new SqlChangelogScanner();
+
+  /**
+   * All contexts that were found.
+   */
+  private final Set<String> contexts = new HashSet<>();
+
+  /**
+   * The files that were already scanned and if they contain any changeSets, including the changeSets of their included files.
+   */
+  private final Map<Path, Boolean> scannedFiles = new HashMap<>();
+
+  /**
+   * The files that are currently scanned. If any of these files is included again, there is a circular include.
+   */
+  private final Set<Path> filesInProgress = new HashSet<>();
+
+  /**
+   * The directories that were used by an {@code includeAll}. Liquibase does not allow any directory to be used twice.
+   */
+  private final Set<Path> includedDirectories = new HashSet<>();
+
+  /**
+   * Creates a new resolver, that scans every file.
+   *
+   * @param pRootDirectory the directory of the root changelog
+   */
+  StreamingContextResolver(@NonNull Path pRootDirectory)
+  {
+    this(pRootDirectory, null);
+  }
+
+  /**
+   * Creates a new resolver.
+   *
+   * @param pRootDirectory the directory of the root changelog
+   * @param pIndex         the index with the stored scans of the files or {@code null}, if every file should be scanned
+   */
+  StreamingContextResolver(@NonNull Path pRootDirectory, @Nullable ChangelogIndex pIndex)
+  {
+    rootDirectory = pRootDirectory.toAbsolutePath().normalize();
+    index = pIndex;
+  }
+
+  /**
+   * Resolves the contexts of the given changelog and all its included changelogs.
+   *
+   * @param pChangelog the root changelog
+   * @return all contexts, that are used by any changeSet
+   * @throws IOException                    Error while reading a file
+   * @throws UnsupportedChangelogException any file needs to be parsed by Liquibase
+   */
+  @NonNull
+  Set<String> resolve(@NonNull Path pChangelog) throws IOException, UnsupportedChangelogException
+  {
+    scan(pChangelog.toAbsolutePath().normalize());
+    return contexts;
+  }
+
+  /**
+   * Scans one changelog file and all its included files.
+   *
+   * @param pFile the absolute and normalized path of the changelog file
+   * @return {@code true}, if the file or any of its included files contains a changeSet
+   * @throws IOException                    Error while reading a file
+   * @throws UnsupportedChangelogException any file needs to be parsed by Liquibase
+   */
+  private boolean scan(@NonNull Path pFile) throws IOException, UnsupportedChangelogException
+  {
+    Boolean containsChangeSets = scannedFiles.get(pFile);
+    if (containsChangeSets != null)
+      return containsChangeSets;
+
+    if (!filesInProgress.add(pFile))
+      throw new UnsupportedChangelogException(pFile, "circular include");
+
+    AbstractChangelogScanner scanner = getScanner(pFile);
+    if (scanner == null)
+      throw new UnsupportedChangelogException(pFile, "unknown file format");
+
+    ChangelogScan scan = index == null ? scanner.scan(pFile) : index.getScan(pFile, scanner);
+    contexts.addAll(scan.getChangeSetContexts());
+
+    boolean foundChangeSets = scan.isContainsChangeSets();
+    for (ChangelogScan.Include include : scan.getIncludes())
+    {
+      boolean includeContainsChangeSets = false;
+      for (Path includedFile : getIncludedFiles(pFile, include))
+        includeContainsChangeSets |= scan(includedFile);
+
+      if (includeContainsChangeSets)
+        contexts.addAll(include.getContexts());
+      foundChangeSets |= includeContainsChangeSets;
+    }
+
+    if (foundChangeSets)
+      contexts.addAll(scan.getChangelogContexts());
+
+    filesInProgress.remove(pFile);
+    scannedFiles.put(pFile, foundChangeSets);
+    return foundChangeSets;
+  }
+
+  /**
+   * Gets the files that are included by an {@code include} or {@code includeAll}.
+   *
+   * @param pFile    the file that contains the include
+   * @param pInclude the include
+   * @return the absolute and normalized paths of the included files in the order Liquibase includes them
+   * @throws IOException                    Error while reading the directory of an {@code includeAll}
+   * @throws UnsupportedChangelogException the include can not be resolved the same way Liquibase would resolve it
+   */
+  @NonNull
+  private List<Path> getIncludedFiles(@NonNull Path pFile, @NonNull ChangelogScan.Include pInclude) throws IOException, UnsupportedChangelogException
+  {
+    String path = pInclude.getPath().replace('\\', '/');
+    if (path.isBlank() || path.startsWith("/") || path.contains(":"))
+      throw new UnsupportedChangelogException(pFile, "include of '" + pInclude.getPath() + "' is not a relative path");
+
+    Path base = pInclude.isRelativeToChangelogFile() ? pFile.getParent() : rootDirectory;
+    Path includedPath = base.resolve(path).normalize();
+    if (!includedPath.startsWith(rootDirectory))
+      throw new UnsupportedChangelogException(pFile, "include of '" + pInclude.getPath() + "' is outside of " + rootDirectory);
+
+    if (!pInclude.isAll())
+    {
+      if (!Files.isRegularFile(includedPath))
+        throw new UnsupportedChangelogException(pFile, "included file '" + pInclude.getPath() + "' does not exist");
+      return List.of(includedPath);
+    }
+
+    if (!Files.isDirectory(includedPath) || !includedDirectories.add(includedPath))
+      throw new UnsupportedChangelogException(pFile, "included directory '" + pInclude.getPath() + "' does not exist or is included twice");
+
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(includedPath, FileVisitOption.FOLLOW_LINKS))
+    {
+      files = walk.filter(Files::isRegularFile)
+          .sorted(Comparator.comparing(pPath -> rootDirectory.relativize(pPath).toString().replace('\\', '/')))
+          .collect(Collectors.toList());
+    }
+
+    if (files.isEmpty())
+      throw new UnsupportedChangelogException(pFile, "included directory '" + pInclude.getPath() + "' is empty");
+
+    List<Path> changelogs = new ArrayList<>();
+    for (Path file : files)
+    {
+      String fileName = file.getFileName().toString().toLowerCase();
+      if (getScanner(file) != null)
+        changelogs.add(file);
+      else if (fileName.endsWith("xml"))
+        // Liquibase would also try to parse this file as XML
+        throw new UnsupportedChangelogException(file, "unknown file format");
+      // all other files are skipped by Liquibase with a warning
+    }
+    return changelogs;
+  }
+
+  /**
+   * Gets the scanner for a file, based on the file ending. These are the same file endings that are supported by the Liquibase parsers.
+   *
+   * @param pFile the file
+   * @return the scanner or {@code null}, if the file ending is not supported
+   */
+  @Nullable
+  private AbstractChangelogScanner getScanner(@NonNull Path pFile)
+  {
+    String fileName = pFile.getFileName().toString().toLowerCase();
+    if (fileName.endsWith(".xml"))
+      return xmlScanner;
+    if (fileName.endsWith(".yaml") || fileName.endsWith(".yml"))
+      return yamlScanner;
+    if (fileName.endsWith(".json"))
+      return jsonScanner;
+    if (fileName.endsWith(".sql"))
+      return sqlScanner;
+    return null;
+  }
+}
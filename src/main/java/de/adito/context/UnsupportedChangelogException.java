@@ -0,0 +1,27 @@
+package de.adito.context;
+
+import lombok.NonNull;
+
+import java.nio.file.Path;
+
+/**
+ * Thrown when a changelog contains anything that can not be handled by the {@link StreamingContextResolver}.
+ * In this case, the changelogs need to be parsed by Liquibase.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class UnsupportedChangelogException extends Exception
+{
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new exception.
+   *
+   * @param pFile   the changelog file that can not be handled
+   * @param pReason the reason, why the file can not be handled
+   */
+  UnsupportedChangelogException(@NonNull Path pFile, @NonNull String pReason)
+  {
+    super("Changelog '" + pFile + "' can not be read without Liquibase: " + pReason);
+  }
+}
@@ -0,0 +1,128 @@
+package de.adito.context;
+
+import lombok.NonNull;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Scanner for XML changelogs. This uses a StAX reader, so only the start tags of the changelog entries are read and the content of
+ * the changeSets is skipped.
+ * <p>
+ * The changelog is not validated against the XSD.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class XmlChangelogScanner extends AbstractChangelogScanner
+{
+  private final XMLInputFactory inputFactory;
+
+  /**
+   * Creates a new scanner. DTDs and external entities are not supported.
+   */
+  XmlChangelogScanner()
+  {
+    inputFactory = XMLInputFactory.newFactory();
+    inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  @Override
+  @NonNull
+  ChangelogScan scan(@NonNull Path pFile) throws IOException, UnsupportedChangelogException
+  {
+    ChangelogScan scan = new ChangelogScan();
+
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(pFile)))
+    {
+      XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+      try
+      {
+        reader.nextTag();
+        if (!DATABASE_CHANGE_LOG.equals(reader.getLocalName()))
+          throw new UnsupportedChangelogException(pFile, "root element '" + reader.getLocalName() + "' is not " + DATABASE_CHANGE_LOG);
+
+        addChangelogContexts(scan, pFile, getAttributes(reader));
+        scanEntries(reader, scan, pFile);
+      }
+      finally
+      {
+        reader.close();
+      }
+    }
+    catch (XMLStreamException pE)
+    {
+      // Liquibase should report the error in the XML
+      throw new UnsupportedChangelogException(pFile, pE.getMessage());
+    }
+
+    return scan;
+  }
+
+  /**
+   * Scans all child elements of the current element.
+   *
+   * @param pReader the reader, that is positioned at the start tag of the parent element
+   * @param pScan   the scan of the current file
+   * @param pFile   the current file
+   * @throws XMLStreamException            Error while reading the XML
+   * @throws UnsupportedChangelogException the file can not be handled without Liquibase
+   */
+  private void scanEntries(@NonNull XMLStreamReader pReader, @NonNull ChangelogScan pScan, @NonNull Path pFile)
+      throws XMLStreamException, UnsupportedChangelogException
+  {
+    while (pReader.nextTag() == XMLStreamConstants.START_ELEMENT)
+    {
+      String name = pReader.getLocalName();
+      if (MODIFY_CHANGE_SETS.equals(name))
+        // the changeSets and includes inside modifyChangeSets are handled like the ones directly in the changelog
+        scanEntries(pReader, pScan, pFile);
+      else
+      {
+        addEntry(pScan, pFile, name, getAttributes(pReader));
+        skipElement(pReader);
+      }
+    }
+  }
+
+  /**
+   * Gets all attributes without a namespace of the current element.
+   *
+   * @param pReader the reader, that is positioned at a start tag
+   * @return the attributes by their name
+   */
+  @NonNull
+  private Map<String, String> getAttributes(@NonNull XMLStreamReader pReader)
+  {
+    Map<String, String> attributes = new HashMap<>();
+    for (int i = 0; i < pReader.getAttributeCount(); i++)
+    {
+      String namespace = pReader.getAttributeNamespace(i);
+      if (namespace == null || namespace.isEmpty())
+        attributes.put(pReader.getAttributeLocalName(i), pReader.getAttributeValue(i));
+    }
+    return attributes;
+  }
+
+  /**
+   * Skips the content of the current element.
+   *
+   * @param pReader the reader, that is positioned at a start tag. After this method, it is positioned at the matching end tag.
+   * @throws XMLStreamException Error while reading the XML
+   */
+  private void skipElement(@NonNull XMLStreamReader pReader) throws XMLStreamException
+  {
+    int depth = 1;
+    while (depth > 0)
+    {
+      int event = pReader.next();
+      if (event == XMLStreamConstants.START_ELEMENT)
+        depth++;
+      else if (event == XMLStreamConstants.END_ELEMENT)
+        depth--;
+    }
+  }
+}
@@ -0,0 +1,292 @@
+package de.adito.context;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.*;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.*;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Scanner for YAML changelogs. This uses the events of SnakeYAML, so no objects are created for the content of the changeSets.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class YamlChangelogScanner extends AbstractChangelogScanner
+{
+  /**
+   * The plain values that are read as {@code true} by SnakeYAML.
+   */
+  private static final Set<String> TRUE_VALUES = Set.of("true", "yes", "on");
+
+  private final Resolver resolver = new Resolver();
+
+  @Override
+  @NonNull
+  ChangelogScan scan(@NonNull Path pFile) throws IOException, UnsupportedChangelogException
+  {
+    LoaderOptions loaderOptions = new LoaderOptions();
+    // the same limit that Liquibase uses
+    loaderOptions.setCodePointLimit(Integer.MAX_VALUE);
+
+    try (Reader reader = new UnicodeReader(new BufferedInputStream(Files.newInputStream(pFile))))
+    {
+      return scan(pFile, new Yaml(loaderOptions).parse(reader).iterator());
+    }
+    catch (YAMLException pE)
+    {
+      // Liquibase should report the syntax error
+      throw new UnsupportedChangelogException(pFile, pE.getMessage());
+    }
+  }
+
+  /**
+   * Scans the events of a YAML file.
+   *
+   * @param pFile   the current file
+   * @param pEvents the events of the file
+   * @return the scan of the file
+   * @throws UnsupportedChangelogException the file can not be handled without Liquibase
+   */
+  @NonNull
+  private ChangelogScan scan(@NonNull Path pFile, @NonNull Iterator<Event> pEvents) throws UnsupportedChangelogException
+  {
+    ChangelogScan scan = new ChangelogScan();
+
+    expect(pFile, pEvents, Event.ID.StreamStart);
+    expect(pFile, pEvents, Event.ID.DocumentStart);
+    expect(pFile, pEvents, Event.ID.MappingStart);
+
+    boolean foundChangelog = false;
+    Event event;
+    while (!(event = next(pFile, pEvents)).is(Event.ID.MappingEnd))
+    {
+      if (DATABASE_CHANGE_LOG.equals(getKey(pFile, event)))
+      {
+        if (foundChangelog)
+          throw new UnsupportedChangelogException(pFile, "multiple " + DATABASE_CHANGE_LOG);
+        foundChangelog = true;
+        scanChangelog(pFile, pEvents, scan);
+      }
+      else
+        skipNode(pFile, pEvents, next(pFile, pEvents));
+    }
+
+    if (!foundChangelog)
+      throw new UnsupportedChangelogException(pFile, "missing " + DATABASE_CHANGE_LOG);
+
+    // Liquibase only accepts exactly one document
+    expect(pFile, pEvents, Event.ID.DocumentEnd);
+    expect(pFile, pEvents, Event.ID.StreamEnd);
+
+    return scan;
+  }
+
+  /**
+   * Scans the value of {@code databaseChangeLog}.
+   *
+   * @param pFile   the current file
+   * @param pEvents the events of the file, positioned after the key {@code databaseChangeLog}
+   * @param pScan   the scan of the current file
+   * @throws UnsupportedChangelogException the file can not be handled without Liquibase
+   */
+  private void scanChangelog(@NonNull Path pFile, @NonNull Iterator<Event> pEvents, @NonNull ChangelogScan pScan) throws UnsupportedChangelogException
+  {
+    Event event = next(pFile, pEvents);
+    if (event instanceof ScalarEvent && getValue(pFile, (ScalarEvent) event) == null)
+      // an empty changelog
+      return;
+    if (!event.is(Event.ID.SequenceStart))
+      throw new UnsupportedChangelogException(pFile, DATABASE_CHANGE_LOG + " does not contain a list of entries");
+
+    Map<String, String> changelogAttributes = new HashMap<>();
+    while (!(event = next(pFile, pEvents)).is(Event.ID.SequenceEnd))
+    {
+      if (!event.is(Event.ID.MappingStart))
+        throw new UnsupportedChangelogException(pFile, "entry of " + DATABASE_CHANGE_LOG + " is not a mapping");
+
+      while (!(event = next(pFile, pEvents)).is(Event.ID.MappingEnd))
+      {
+        String name = getKey(pFile, event);
+        if (CONTEXT.equals(name) || CONTEXT_FILTER.equals(name))
+        {
+          // these are attributes of the changelog itself
+          if (changelogAttributes.containsKey(name))
+            throw new UnsupportedChangelogException(pFile, "multiple entries '" + name + "'");
+          changelogAttributes.put(name, getScalarValue(pFile, name, next(pFile, pEvents)));
+        }
+        else if (CHANGE_SET.equals(name) || INCLUDE.equals(name) || INCLUDE_ALL.equals(name))
+          addEntry(pScan, pFile, name, getAttributes(pFile, pEvents, name));
+        else
+          skipNode(pFile, pEvents, next(pFile, pEvents));
+      }
+    }
+
+    addChangelogContexts(pScan, pFile, changelogAttributes);
+  }
+
+  /**
+   * Reads the attributes of an entry. Only attributes that are needed by the scanner are read, all others are skipped.
+   *
+   * @param pFile   the current file
+   * @param pEvents the events of the file, positioned after the name of the entry
+   * @param pName   the name of the entry
+   * @return the attributes of the entry
+   * @throws UnsupportedChangelogException the entry can not be handled without Liquibase
+   */
+  @NonNull
+  private Map<String, String> getAttributes(@NonNull Path pFile, @NonNull Iterator<Event> pEvents, @NonNull String pName)
+      throws UnsupportedChangelogException
+  {
+    if (!next(pFile, pEvents).is(Event.ID.MappingStart))
+      throw new UnsupportedChangelogException(pFile, "entry '" + pName + "' is not a mapping");
+
+    Map<String, String> attributes = new HashMap<>();
+    Event event;
+    while (!(event = next(pFile, pEvents)).is(Event.ID.MappingEnd))
+    {
+      String key = getKey(pFile, event);
+      if (READ_ATTRIBUTES.contains(key))
+        attributes.put(key, getScalarValue(pFile, key, next(pFile, pEvents)));
+      else
+        skipNode(pFile, pEvents, next(pFile, pEvents));
+    }
+    return attributes;
+  }
+
+  /**
+   * Gets the value of a key in a mapping.
+   *
+   * @param pFile  the current file
+   * @param pEvent the event of the key
+   * @return the key
+   * @throws UnsupportedChangelogException the key is not a simple text
+   */
+  @NonNull
+  private String getKey(@NonNull Path pFile, @NonNull Event pEvent) throws UnsupportedChangelogException
+  {
+    String key = pEvent instanceof ScalarEvent ? getValue(pFile, (ScalarEvent) pEvent) : null;
+    if (key == null)
+      throw new UnsupportedChangelogException(pFile, "complex or empty key");
+    return key;
+  }
+
+  /**
+   * Gets the value of an attribute, that needs to be a scalar.
+   *
+   * @param pFile  the current file
+   * @param pName  the name of the attribute
+   * @param pEvent the event of the value
+   * @return the value as text
+   * @throws UnsupportedChangelogException the value is not a scalar
+   */
+  @Nullable
+  private String getScalarValue(@NonNull Path pFile, @NonNull String pName, @NonNull Event pEvent) throws UnsupportedChangelogException
+  {
+    if (!(pEvent instanceof ScalarEvent))
+      throw new UnsupportedChangelogException(pFile, "attribute '" + pName + "' has no simple value");
+    return getValue(pFile, (ScalarEvent) pEvent);
+  }
+
+  /**
+   * Gets the value of a scalar, the same way SnakeYAML would construct it.
+   *
+   * @param pFile  the current file
+   * @param pEvent the scalar
+   * @return the text of a string, {@code true} or {@code false} for booleans or {@code null}
+   * @throws UnsupportedChangelogException the scalar is any other type
+   */
+  @Nullable
+  private String getValue(@NonNull Path pFile, @NonNull ScalarEvent pEvent) throws UnsupportedChangelogException
+  {
+    if (pEvent.getTag() != null)
+      throw new UnsupportedChangelogException(pFile, "explicit tag '" + pEvent.getTag() + "'");
+
+    String value = pEvent.getValue();
+    if (pEvent.getScalarStyle() != DumperOptions.ScalarStyle.PLAIN)
+      return value;
+
+    Tag tag = resolver.resolve(NodeId.scalar, value, true);
+    if (Tag.STR.equals(tag))
+      return value;
+    if (Tag.NULL.equals(tag))
+      return null;
+    if (Tag.BOOL.equals(tag))
+      return String.valueOf(TRUE_VALUES.contains(value.toLowerCase()));
+
+    throw new UnsupportedChangelogException(pFile, "value '" + value + "' is no text");
+  }
+
+  /**
+   * Skips a whole node.
+   *
+   * @param pFile   the current file
+   * @param pEvents the events of the file
+   * @param pStart  the first event of the node
+   * @throws UnsupportedChangelogException the node contains an alias
+   */
+  private void skipNode(@NonNull Path pFile, @NonNull Iterator<Event> pEvents, @NonNull Event pStart) throws UnsupportedChangelogException
+  {
+    int depth = isStart(pStart) ? 1 : 0;
+    while (depth > 0)
+    {
+      Event event = next(pFile, pEvents);
+      if (isStart(event))
+        depth++;
+      else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd))
+        depth--;
+    }
+  }
+
+  /**
+   * Checks if the event starts a mapping or a sequence.
+   *
+   * @param pEvent the event
+   * @return {@code true}, if it is the start of a mapping or a sequence
+   */
+  private boolean isStart(@NonNull Event pEvent)
+  {
+    return pEvent.is(Event.ID.MappingStart) || pEvent.is(Event.ID.SequenceStart);
+  }
+
+  /**
+   * Reads the next event and checks that it has the expected type.
+   *
+   * @param pFile     the current file
+   * @param pEvents   the events of the file
+   * @param pExpected the expected type of the event
+   * @throws UnsupportedChangelogException the event has another type
+   */
+  private void expect(@NonNull Path pFile, @NonNull Iterator<Event> pEvents, @NonNull Event.ID pExpected) throws UnsupportedChangelogException
+  {
+    Event event = next(pFile, pEvents);
+    if (!event.is(pExpected))
+      throw new UnsupportedChangelogException(pFile, "expected " + pExpected + ", but found " + event);
+  }
+
+  /**
+   * Reads the next event. Aliases are not supported, because the scanner does not keep the anchored nodes.
+   *
+   * @param pFile   the current file
+   * @param pEvents the events of the file
+   * @return the next event
+   * @throws UnsupportedChangelogException the next event is an alias or there are no more events
+   */
+  @NonNull
+  private Event next(@NonNull Path pFile, @NonNull Iterator<Event> pEvents) throws UnsupportedChangelogException
+  {
+    if (!pEvents.hasNext())
+      throw new UnsupportedChangelogException(pFile, "unexpected end of file");
+
+    Event event = pEvents.next();
+    if (event.is(Event.ID.Alias))
+      throw new UnsupportedChangelogException(pFile, "aliases are used");
+    return event;
+  }
+}
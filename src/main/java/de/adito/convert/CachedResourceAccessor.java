@@ -0,0 +1,67 @@
+package de.adito.convert;
+
+import de.adito.util.FileContentCache;
+import liquibase.resource.*;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.file.Path;
+
+/**
+ * Resource accessor for a directory, that takes the content of the files from the cache, if they were already read.
+ * All other files are read from the disk like in {@link DirectoryResourceAccessor}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class CachedResourceAccessor extends DirectoryResourceAccessor
+{
+  @NonNull
+  private final FileContentCache contentCache;
+
+  /**
+   * Creates a new resource accessor.
+   *
+   * @param pDirectory    the root directory of the resources
+   * @param pContentCache the cache with the content of the files, that were already read
+   * @throws FileNotFoundException the directory does not exist
+   */
+  CachedResourceAccessor(@NonNull Path pDirectory, @NonNull FileContentCache pContentCache) throws FileNotFoundException
+  {
+    super(pDirectory);
+    contentCache = pContentCache;
+  }
+
+  @Override
+  protected Resource createResource(Path pFile, String pPathToAdd)
+  {
+    return new CachedPathResource(pPathToAdd, pFile);
+  }
+
+  /**
+   * Resource of a file, whose content is taken from the cache, if it is there.
+   */
+  private class CachedPathResource extends PathResource
+  {
+    @NonNull
+    private final Path file;
+
+    /**
+     * Creates a new resource.
+     *
+     * @param pLogicalPath the path of the resource in the resource accessor
+     * @param pFile        the file
+     */
+    private CachedPathResource(@NonNull String pLogicalPath, @NonNull Path pFile)
+    {
+      super(pLogicalPath, pFile);
+      file = pFile;
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException
+    {
+      byte[] content = contentCache.get(file);
+      return content == null ? super.openInputStream() : new ByteArrayInputStream(content);
+    }
+  }
+}
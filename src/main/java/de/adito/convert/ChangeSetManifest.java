@@ -0,0 +1,467 @@
+package de.adito.convert;
+
+import com.google.gson.*;
+import de.adito.util.*;
+import liquibase.changelog.ChangeSet;
+import liquibase.parser.ChangeLogParser;
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Manifest of the changeSets of the converted files. It is stored in the output directory next to the {@link ConvertManifest}.
+ * <p>
+ * For every converted file, the hash of the content of every changeSet in the input file and the position of the changeSet in the produced file is stored.
+ * When the input file changes, only the new and changed changeSets are parsed and written again. The other changeSets are copied from the produced file.
+ * <p>
+ * The written changeSets are only stored, if the produced file consists of a header, the changeSets with the same separator between all changeSets
+ * and a footer, and every changeSet is written the same way as the only changeSet of a file. A file is converted as a whole, if its header,
+ * its properties or the produced file changed, or if the new changeSets are not written the same way.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+class ChangeSetManifest
+{
+  /**
+   * The path of the directory with the manifests of all files, relative to the output directory.
+   */
+  static final String MANIFEST_DIRECTORY = ".liquibase-extended-cli/changesets";
+
+  /**
+   * The version of the manifest files. If the format of the manifests changes, this version needs to be increased, so old manifests are not used.
+   */
+  private static final int VERSION = 1;
+
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  /**
+   * The output directory of the converting.
+   */
+  private final Path output;
+
+  /**
+   * Creates a new manifest for an output directory.
+   *
+   * @param pOutput the output directory
+   */
+  ChangeSetManifest(@NonNull Path pOutput)
+  {
+    output = pOutput;
+  }
+
+  /**
+   * Stores the changeSets of a file, that was converted as a whole. If the changeSets can not be found in the produced file,
+   * the old manifest of the file is deleted, so the file is converted as a whole the next time.
+   * Errors are only logged, because the manifest is only a cache.
+   *
+   * @param pTarget     the target of the produced file
+   * @param pChangelog  the scanned input file or {@code null}, if the input file could not be scanned
+   * @param pChangeSets the changeSets, that were written
+   * @param pOutputFile the produced file
+   */
+  void add(@NonNull ConvertTarget pTarget, @Nullable ChangelogSplitter.Document pChangelog, @NonNull List<ChangeSet> pChangeSets,
+           @NonNull Path pOutputFile)
+  {
+    Path manifestFile = getManifestFile(pOutputFile);
+    try
+    {
+      FileData data = pChangelog == null ? null : createData(pTarget, pChangelog, pChangeSets, Files.readAllBytes(pOutputFile));
+      if (data == null)
+        Files.deleteIfExists(manifestFile);
+      else
+        save(manifestFile, data);
+    }
+    catch (Exception pE)
+    {
+      log.log(Level.WARNING, "Could not save the changeSet manifest " + manifestFile, pE);
+    }
+  }
+
+  /**
+   * Converts only the new and changed changeSets of a file and copies all other changeSets from the produced file of the last converting.
+   *
+   * @param pTarget     the target of the produced file
+   * @param pChangelog  the scanned input file
+   * @param pParser     the parser for the input file
+   * @param pInputFile  the input file
+   * @param pOutputFile the produced file
+   * @return the number of changeSets, that were copied, or -1, if the file needs to be converted as a whole
+   * @throws Exception Error while writing the produced file
+   */
+  int convertChanged(@NonNull ConvertTarget pTarget, @NonNull ChangelogSplitter.Document pChangelog, @NonNull ChangeLogParser pParser,
+                     @NonNull Path pInputFile, @NonNull Path pOutputFile) throws Exception
+  {
+    Path manifestFile = getManifestFile(pOutputFile);
+    FileData data = load(manifestFile);
+    if (data == null || !Files.isRegularFile(pOutputFile) || !data.context.equals(pChangelog.hashContext()))
+      return -1;
+
+    byte[] oldOutput = Files.readAllBytes(pOutputFile);
+    if (!data.output.equals(FileHashes.hash(oldOutput, 0, oldOutput.length)))
+      // the produced file was changed by someone else
+      return -1;
+
+    Map<String, ChangeSetData> oldChangeSets = new HashMap<>();
+    data.changeSets.forEach(pChangeSet -> oldChangeSets.putIfAbsent(pChangeSet.hash, pChangeSet));
+
+    List<String> hashes = pChangelog.hashChangeSets();
+    Set<Integer> changedIndexes = new TreeSet<>();
+    Set<String> keys = new HashSet<>();
+    for (int i = 0; i < hashes.size(); i++)
+    {
+      ChangeSetData oldChangeSet = oldChangeSets.get(hashes.get(i));
+      if (oldChangeSet == null)
+        changedIndexes.add(i);
+      else if (!keys.add(oldChangeSet.getKey()))
+        // a duplicate changeSet is handled by Liquibase
+        return -1;
+    }
+    if (changedIndexes.size() == hashes.size())
+      return -1;
+
+    List<ChangeSet> changedChangeSets = changedIndexes.isEmpty() ? List.of()
+        : SplitChangelogParser.parseChunk(pParser, pInputFile, pChangelog.createChangelog(changedIndexes));
+    if (changedChangeSets.size() != changedIndexes.size())
+      return -1;
+
+    // the new changeSets are written without the header and the footer of the file
+    Map<Integer, byte[]> changedBodies = new HashMap<>();
+    Iterator<Integer> indexIterator = changedIndexes.iterator();
+    for (ChangeSet changeSet : changedChangeSets)
+    {
+      // a duplicate changeSet is handled by Liquibase only within one changelog
+      if (!keys.add(ChangeSetData.getKey(changeSet)))
+        return -1;
+
+      changeSet.setFilePath(pOutputFile.getFileName().toString());
+      byte[] written = write(pTarget, changeSet);
+      if (written.length < data.headerLength + data.footerLength
+          || !Arrays.equals(written, 0, data.headerLength, oldOutput, 0, data.headerLength)
+          || !Arrays.equals(written, written.length - data.footerLength, written.length, oldOutput, oldOutput.length - data.footerLength, oldOutput.length))
+        return -1;
+      changedBodies.put(indexIterator.next(), Arrays.copyOfRange(written, data.headerLength, written.length - data.footerLength));
+    }
+
+    Iterator<ChangeSet> changeSetIterator = changedChangeSets.iterator();
+    ByteArrayOutputStream newOutput = new ByteArrayOutputStream(oldOutput.length);
+    newOutput.write(oldOutput, 0, data.headerLength);
+    List<ChangeSetData> newChangeSets = new ArrayList<>();
+    for (int i = 0; i < hashes.size(); i++)
+    {
+      if (i > 0)
+        newOutput.write(oldOutput, data.separatorOffset, data.separatorLength);
+
+      int offset = newOutput.size();
+      byte[] body = changedBodies.get(i);
+      if (body == null)
+      {
+        ChangeSetData oldChangeSet = oldChangeSets.get(hashes.get(i));
+        newOutput.write(oldOutput, oldChangeSet.offset, oldChangeSet.length);
+        newChangeSets.add(new ChangeSetData(oldChangeSet.hash, oldChangeSet.id, oldChangeSet.author, offset, oldChangeSet.length));
+      }
+      else
+      {
+        ChangeSet changeSet = changeSetIterator.next();
+        newOutput.write(body);
+        newChangeSets.add(new ChangeSetData(hashes.get(i), changeSet.getId(), changeSet.getAuthor(), offset, body.length));
+      }
+    }
+    newOutput.write(oldOutput, oldOutput.length - data.footerLength, data.footerLength);
+
+    byte[] content = newOutput.toByteArray();
+    writeFile(pOutputFile, content);
+    if (newChangeSets.size() < 2)
+      // the separator can only be found between two changeSets
+      Files.deleteIfExists(manifestFile);
+    else
+    {
+      int separatorOffset = newChangeSets.get(0).offset + newChangeSets.get(0).length;
+      save(manifestFile, new FileData(VERSION, data.context, FileHashes.hash(content, 0, content.length), data.headerLength, data.footerLength,
+                                      separatorOffset, data.separatorLength, newChangeSets));
+    }
+    return hashes.size() - changedIndexes.size();
+  }
+
+  /**
+   * Finds the changeSets in a produced file.
+   *
+   * @param pTarget     the target of the produced file
+   * @param pChangelog  the scanned input file
+   * @param pChangeSets the changeSets, that were written
+   * @param pOutput     the content of the produced file
+   * @return the data of the manifest or {@code null}, if the changeSets can not be found
+   * @throws Exception Error while writing a single changeSet
+   */
+  @Nullable
+  private static FileData createData(@NonNull ConvertTarget pTarget, @NonNull ChangelogSplitter.Document pChangelog, @NonNull List<ChangeSet> pChangeSets,
+                                     byte @NonNull [] pOutput) throws Exception
+  {
+    List<String> hashes = pChangelog.hashChangeSets();
+    // the separator can only be found between two changeSets
+    if (hashes.size() != pChangeSets.size() || pChangeSets.size() < 2)
+      return null;
+
+    // the header and the footer are the same for every changeSet written alone and for the whole file
+    List<byte[]> written = new ArrayList<>();
+    int headerLength = pOutput.length;
+    int footerLength = pOutput.length;
+    int minLength = Integer.MAX_VALUE;
+    for (ChangeSet changeSet : pChangeSets)
+    {
+      byte[] single = write(pTarget, changeSet);
+      int mismatch = Arrays.mismatch(single, pOutput);
+      headerLength = Math.min(headerLength, mismatch < 0 ? single.length : mismatch);
+      footerLength = Math.min(footerLength, getCommonSuffixLength(single, pOutput));
+      minLength = Math.min(minLength, single.length);
+      written.add(single);
+    }
+    footerLength = Math.min(footerLength, minLength - headerLength);
+
+    long bodyLength = 0;
+    for (byte[] single : written)
+      bodyLength += single.length - headerLength - footerLength;
+    long separatorsLength = pOutput.length - headerLength - footerLength - bodyLength;
+    if (separatorsLength < 0 || separatorsLength % (pChangeSets.size() - 1) != 0)
+      return null;
+    int separatorLength = (int) (separatorsLength / (pChangeSets.size() - 1));
+
+    // the whole file needs to consist of the changeSets written alone
+    List<ChangeSetData> changeSets = new ArrayList<>();
+    int position = headerLength;
+    int separatorOffset = -1;
+    for (int i = 0; i < written.size(); i++)
+    {
+      if (i > 0)
+      {
+        if (separatorOffset < 0)
+          separatorOffset = position;
+        else if (!Arrays.equals(pOutput, separatorOffset, separatorOffset + separatorLength, pOutput, position, position + separatorLength))
+          return null;
+        position += separatorLength;
+      }
+
+      byte[] single = written.get(i);
+      int length = single.length - headerLength - footerLength;
+      if (!Arrays.equals(single, headerLength, headerLength + length, pOutput, position, position + length))
+        return null;
+
+      ChangeSet changeSet = pChangeSets.get(i);
+      changeSets.add(new ChangeSetData(hashes.get(i), changeSet.getId(), changeSet.getAuthor(), position, length));
+      position += length;
+    }
+
+    return new FileData(VERSION, pChangelog.hashContext(), FileHashes.hash(pOutput, 0, pOutput.length), headerLength, footerLength,
+                        separatorOffset, separatorLength, changeSets);
+  }
+
+  /**
+   * Writes a single changeSet as the only changeSet of a file.
+   *
+   * @param pTarget    the target
+   * @param pChangeSet the changeSet
+   * @return the content of the file
+   * @throws Exception Error while writing
+   */
+  private static byte @NonNull [] write(@NonNull ConvertTarget pTarget, @NonNull ChangeSet pChangeSet) throws Exception
+  {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    pTarget.write(List.of(pChangeSet), outputStream);
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Gets the length of the common suffix of two arrays.
+   *
+   * @param pFirst  the first array
+   * @param pSecond the second array
+   * @return the length of the common suffix
+   */
+  private static int getCommonSuffixLength(byte @NonNull [] pFirst, byte @NonNull [] pSecond)
+  {
+    int length = 0;
+    while (length < pFirst.length && length < pSecond.length && pFirst[pFirst.length - 1 - length] == pSecond[pSecond.length - 1 - length])
+      length++;
+    return length;
+  }
+
+  /**
+   * Writes a file into a temporary file, that is moved to the file afterwards. So a failure never leaves a partly written file.
+   *
+   * @param pFile    the file
+   * @param pContent the content of the file
+   * @throws IOException Error while writing
+   */
+  private static void writeFile(@NonNull Path pFile, byte @NonNull [] pContent) throws IOException
+  {
+    Path tempFile = TempFiles.createSibling(pFile);
+    try
+    {
+      Files.write(tempFile, pContent);
+      Files.move(tempFile, pFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally
+    {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Gets the manifest file of a produced file.
+   *
+   * @param pOutputFile the produced file
+   * @return the manifest file
+   */
+  @NonNull
+  private Path getManifestFile(@NonNull Path pOutputFile)
+  {
+    return output.resolve(MANIFEST_DIRECTORY).resolve(output.relativize(pOutputFile) + ".json");
+  }
+
+  /**
+   * Loads the manifest of a produced file.
+   *
+   * @param pManifestFile the manifest file
+   * @return the data of the manifest or {@code null}, if there is no valid manifest
+   */
+  @Nullable
+  private static FileData load(@NonNull Path pManifestFile)
+  {
+    if (!Files.isRegularFile(pManifestFile))
+      return null;
+
+    try (Reader reader = Files.newBufferedReader(pManifestFile, StandardCharsets.UTF_8))
+    {
+      FileData data = GSON.fromJson(reader, FileData.class);
+      if (data != null && data.version == VERSION && data.context != null && data.output != null && data.changeSets != null
+          && data.changeSets.stream().allMatch(pChangeSet -> pChangeSet != null && pChangeSet.hash != null))
+        return data;
+    }
+    catch (IOException | JsonParseException pE)
+    {
+      log.log(Level.FINE, "Could not read the changeSet manifest " + pManifestFile, pE);
+    }
+    return null;
+  }
+
+  /**
+   * Saves the manifest of a produced file.
+   *
+   * @param pManifestFile the manifest file
+   * @param pData         the data of the manifest
+   * @throws IOException Error while writing
+   */
+  private static void save(@NonNull Path pManifestFile, @NonNull FileData pData) throws IOException
+  {
+    Files.createDirectories(pManifestFile.getParent());
+    writeFile(pManifestFile, GSON.toJson(pData).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The content of the manifest of one produced file.
+   */
+  @AllArgsConstructor
+  private static class FileData
+  {
+    /**
+     * The version of the manifest.
+     */
+    private final int version;
+
+    /**
+     * The hash of everything in the input file except its changeSets.
+     */
+    private final String context;
+
+    /**
+     * The hash of the produced file.
+     */
+    private final String output;
+
+    /**
+     * The length of the header of the produced file.
+     */
+    private final int headerLength;
+
+    /**
+     * The length of the footer of the produced file.
+     */
+    private final int footerLength;
+
+    /**
+     * The position of the separator between the first two changeSets in the produced file.
+     */
+    private final int separatorOffset;
+
+    /**
+     * The length of the separator between two changeSets.
+     */
+    private final int separatorLength;
+
+    /**
+     * The changeSets in the order of the input file.
+     */
+    private final List<ChangeSetData> changeSets;
+  }
+
+  /**
+   * One changeSet of a produced file.
+   */
+  @AllArgsConstructor
+  private static class ChangeSetData
+  {
+    /**
+     * The hash of the content of the changeSet in the input file.
+     */
+    private final String hash;
+
+    /**
+     * The id of the changeSet.
+     */
+    private final String id;
+
+    /**
+     * The author of the changeSet.
+     */
+    private final String author;
+
+    /**
+     * The position of the changeSet in the produced file.
+     */
+    private final int offset;
+
+    /**
+     * The length of the changeSet in the produced file.
+     */
+    private final int length;
+
+    /**
+     * Gets the key, that identifies the changeSet in a changelog.
+     *
+     * @return the key
+     */
+    @NonNull
+    private String getKey()
+    {
+      return id + "::" + author;
+    }
+
+    /**
+     * Gets the key, that identifies a changeSet in a changelog.
+     *
+     * @param pChangeSet the changeSet
+     * @return the key
+     */
+    @NonNull
+    private static String getKey(@NonNull ChangeSet pChangeSet)
+    {
+      return pChangeSet.getId() + "::" + pChangeSet.getAuthor();
+    }
+  }
+}
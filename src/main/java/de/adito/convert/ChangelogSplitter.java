@@ -0,0 +1,531 @@
+package de.adito.convert;
+
+import de.adito.util.FileHashes;
+import lombok.*;
+import org.apache.commons.io.FilenameUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a changelog at its top-level changeSets into chunks, that are complete changelogs on their own.
+ * <p>
+ * The splitter only finds the boundaries of the top-level entries with a cheap scan of the bytes. Nothing is decoded, because all searched
+ * characters are ASCII and the bytes of other characters in UTF-8 can never be ASCII. Every chunk consists of the header of the changelog,
+ * the entries that are no changeSets and are needed for the changeSets of the chunk, the changeSets of the chunk and the footer of the changelog.
+ * <p>
+ * If the changelog has a structure, that is not understood by the splitter, it is not split at all.
+ * <p>
+ * The scanned changelog can also be used to compare the changeSets of two versions of a changelog without parsing them.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ChangelogSplitter
+{
+  private static final String CHANGE_SET = "changeSet";
+  private static final String DATABASE_CHANGE_LOG = "databaseChangeLog:";
+
+  /**
+   * Splits a changelog into chunks.
+   *
+   * @param pContent    the content of the changelog
+   * @param pFormat     the format of the changelog, only XML and YAML can be split
+   * @param pChunkCount the maximum number of chunks
+   * @return the content of the chunks or {@code null}, if the changelog can not be split into at least two chunks
+   */
+  @Nullable
+  static List<byte[]> split(byte @NonNull [] pContent, @NonNull Format pFormat, int pChunkCount)
+  {
+    Document document = scan(pContent, pFormat);
+    if (document == null)
+      return null;
+    return document.createChunks(pChunkCount);
+  }
+
+  /**
+   * Gets the format of a changelog, that can be scanned.
+   *
+   * @param pFileName the file name of the changelog
+   * @return the format or {@code null}, if changelogs with this file name can not be scanned
+   */
+  @Nullable
+  static Format getFormat(@NonNull String pFileName)
+  {
+    String extension = FilenameUtils.getExtension(pFileName);
+    if (Format.XML.isTargetFormat(extension))
+      return Format.XML;
+    if (Format.YAML.isTargetFormat(extension))
+      return Format.YAML;
+    return null;
+  }
+
+  /**
+   * Scans the top-level entries of a changelog.
+   *
+   * @param pContent the content of the changelog
+   * @param pFormat  the format of the changelog, only XML and YAML can be scanned
+   * @return the scanned changelog or {@code null}, if the changelog can not be scanned
+   */
+  @Nullable
+  static Document scan(byte @NonNull [] pContent, @NonNull Format pFormat)
+  {
+    if (pFormat == Format.XML)
+      return scanXml(pContent);
+    if (pFormat == Format.YAML)
+      return scanYaml(pContent);
+    return null;
+  }
+
+  /**
+   * Scans the top-level elements of a XML changelog.
+   *
+   * @param pContent the content of the changelog
+   * @return the scanned document or {@code null}, if the changelog can not be split
+   */
+  @Nullable
+  private static Document scanXml(byte @NonNull [] pContent)
+  {
+    // a DTD could define entities, that are used in any element, and other encodings than UTF-8 are not supported
+    if (indexOf(pContent, "<!DOCTYPE", 0) >= 0 || (pContent.length > 1 && (pContent[0] == (byte) 0xFE || pContent[0] == (byte) 0xFF || pContent[0] == 0)))
+      return null;
+
+    int headerEnd = -1;
+    int depth = 0;
+    int entryStart = -1;
+    boolean entryIsChangeSet = false;
+    // the properties are only known for the following changeSets
+    Document document = new Document(pContent, false);
+
+    int position = 0;
+    while ((position = indexOf(pContent, "<", position)) >= 0)
+    {
+      if (startsWith(pContent, position, "<!--"))
+        position = skipTo(pContent, position, "-->");
+      else if (startsWith(pContent, position, "<![CDATA["))
+        position = skipTo(pContent, position, "]]>");
+      else if (startsWith(pContent, position, "<?"))
+        position = skipTo(pContent, position, "?>");
+      else if (startsWith(pContent, position, "</"))
+      {
+        int tagEnd = skipTo(pContent, position, ">");
+        if (tagEnd < 0)
+          return null;
+        depth--;
+        if (depth == 0)
+        {
+          document.footerStart = position;
+          break;
+        }
+        if (depth == 1)
+          document.entries.add(new Entry(entryStart, tagEnd, entryIsChangeSet));
+        position = tagEnd;
+      }
+      else
+      {
+        int tagEnd = skipTag(pContent, position);
+        if (tagEnd < 0)
+          return null;
+        boolean empty = pContent[tagEnd - 2] == '/';
+        if (depth == 0)
+        {
+          if (empty)
+            return null;
+          headerEnd = tagEnd;
+        }
+        else if (depth == 1)
+        {
+          entryStart = position;
+          entryIsChangeSet = CHANGE_SET.equals(getLocalName(pContent, position + 1));
+          if (empty)
+            document.entries.add(new Entry(entryStart, tagEnd, entryIsChangeSet));
+        }
+        if (!empty)
+          depth++;
+        position = tagEnd;
+      }
+
+      if (position < 0)
+        return null;
+    }
+
+    if (headerEnd < 0 || document.footerStart < 0)
+      return null;
+    document.headerEnd = headerEnd;
+    return document;
+  }
+
+  /**
+   * Scans the entries of the top-level sequence {@code databaseChangeLog} of a YAML changelog.
+   * Only the indentation of the lines is used, because a line at the indentation of the sequence can only start a new entry.
+   *
+   * @param pContent the content of the changelog
+   * @return the scanned document or {@code null}, if the changelog can not be split
+   */
+  @Nullable
+  private static Document scanYaml(byte @NonNull [] pContent)
+  {
+    if (pContent.length > 1 && (pContent[0] == (byte) 0xFE || pContent[0] == (byte) 0xFF || pContent[0] == 0))
+      return null;
+
+    // Liquibase replaces the properties in the whole changelog, so all other entries are needed in every chunk
+    Document document = new Document(pContent, true);
+    int sequenceIndent = -1;
+    int entryStart = -1;
+    boolean entryIsChangeSet = false;
+
+    int lineStart = 0;
+    while (lineStart < pContent.length)
+    {
+      int lineEnd = indexOf(pContent, "\n", lineStart);
+      lineEnd = lineEnd < 0 ? pContent.length : lineEnd + 1;
+      int indent = lineStart;
+      while (indent < lineEnd && pContent[indent] == ' ')
+        indent++;
+      boolean blank = indent == lineEnd || pContent[indent] == '\n' || pContent[indent] == '\r' || pContent[indent] == '#';
+      int column = indent - lineStart;
+
+      if (document.headerEnd < 0)
+      {
+        if (column == 0 && isKey(pContent, lineStart, lineEnd, DATABASE_CHANGE_LOG))
+          document.headerEnd = lineEnd;
+      }
+      else if (!blank)
+      {
+        if (sequenceIndent < 0)
+          sequenceIndent = column;
+
+        if (column < sequenceIndent || (column == sequenceIndent && pContent[indent] != '-'))
+        {
+          // the end of the sequence
+          document.footerStart = lineStart;
+          break;
+        }
+        if (column == sequenceIndent)
+        {
+          if (entryStart >= 0)
+            document.entries.add(new Entry(entryStart, lineStart, entryIsChangeSet));
+          if (indent + 1 >= lineEnd || pContent[indent + 1] != ' ')
+            // an entry, whose key is not on the first line, can not be recognized
+            return null;
+          entryStart = lineStart;
+          entryIsChangeSet = isKey(pContent, indent + 2, lineEnd, CHANGE_SET + ":");
+        }
+      }
+      lineStart = lineEnd;
+    }
+
+    if (document.headerEnd < 0 || entryStart < 0)
+      return null;
+    if (document.footerStart < 0)
+      document.footerStart = pContent.length;
+    document.entries.add(new Entry(entryStart, document.footerStart, entryIsChangeSet));
+    return document;
+  }
+
+  /**
+   * Checks if a line starts with a key, that is only followed by whitespaces or a comment.
+   *
+   * @param pContent   the content
+   * @param pStart     the start of the key
+   * @param pLineEnd   the end of the line
+   * @param pKey       the key including the colon
+   * @return {@code true}, if the line starts with the key
+   */
+  private static boolean isKey(byte @NonNull [] pContent, int pStart, int pLineEnd, @NonNull String pKey)
+  {
+    if (!startsWith(pContent, pStart, pKey))
+      return false;
+    for (int i = pStart + pKey.length(); i < pLineEnd; i++)
+    {
+      if (pContent[i] == '#')
+        return i > pStart + pKey.length() && pContent[i - 1] == ' ';
+      if (pContent[i] != ' ' && pContent[i] != '\r' && pContent[i] != '\n')
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Skips a start tag. The attribute values may contain any characters.
+   *
+   * @param pContent the content
+   * @param pStart   the position of the {@code <}
+   * @return the position after the {@code >} or -1, if the tag does not end
+   */
+  private static int skipTag(byte @NonNull [] pContent, int pStart)
+  {
+    byte quote = 0;
+    for (int i = pStart + 1; i < pContent.length; i++)
+    {
+      byte current = pContent[i];
+      if (quote != 0)
+      {
+        if (current == quote)
+          quote = 0;
+      }
+      else if (current == '"' || current == '\'')
+        quote = current;
+      else if (current == '>')
+        return i + 1;
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the local name of an element, without its prefix.
+   *
+   * @param pContent the content
+   * @param pStart   the start of the name
+   * @return the local name
+   */
+  @NonNull
+  private static String getLocalName(byte @NonNull [] pContent, int pStart)
+  {
+    int end = pStart;
+    int localStart = pStart;
+    while (end < pContent.length && pContent[end] != '>' && pContent[end] != '/' && !Character.isWhitespace(pContent[end]))
+    {
+      if (pContent[end] == ':')
+        localStart = end + 1;
+      end++;
+    }
+    return new String(pContent, localStart, end - localStart, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Skips to the end of a text.
+   *
+   * @param pContent the content
+   * @param pStart   the position to start the search
+   * @param pEnd     the text that is searched
+   * @return the position after the text or -1, if the text was not found
+   */
+  private static int skipTo(byte @NonNull [] pContent, int pStart, @NonNull String pEnd)
+  {
+    int index = indexOf(pContent, pEnd, pStart);
+    return index < 0 ? -1 : index + pEnd.length();
+  }
+
+  /**
+   * Searches an ASCII text in the content.
+   *
+   * @param pContent the content
+   * @param pText    the searched text
+   * @param pStart   the position to start the search
+   * @return the position of the text or -1, if the text was not found
+   */
+  private static int indexOf(byte @NonNull [] pContent, @NonNull String pText, int pStart)
+  {
+    for (int i = pStart; i <= pContent.length - pText.length(); i++)
+    {
+      if (startsWith(pContent, i, pText))
+        return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if the content contains an ASCII text at a position.
+   *
+   * @param pContent  the content
+   * @param pPosition the position
+   * @param pText     the text
+   * @return {@code true}, if the text is at the position
+   */
+  private static boolean startsWith(byte @NonNull [] pContent, int pPosition, @NonNull String pText)
+  {
+    if (pPosition + pText.length() > pContent.length)
+      return false;
+    for (int i = 0; i < pText.length(); i++)
+    {
+      if (pContent[pPosition + i] != pText.charAt(i))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * A top-level entry of a changelog.
+   */
+  @AllArgsConstructor
+  private static class Entry
+  {
+    /**
+     * The position of the first byte of the entry.
+     */
+    private final int start;
+
+    /**
+     * The position after the last byte of the entry.
+     */
+    private final int end;
+
+    /**
+     * If the entry is a changeSet.
+     */
+    private final boolean changeSet;
+  }
+
+  /**
+   * A scanned changelog.
+   */
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  static class Document
+  {
+    private final byte @NonNull [] content;
+
+    /**
+     * {@code true}, if all entries that are no changeSets are needed in every chunk,
+     * {@code false}, if only the entries before the changeSets of a chunk are needed.
+     */
+    private final boolean allOtherEntries;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private int headerEnd = -1;
+    private int footerStart = -1;
+
+    /**
+     * Creates the chunks. Every chunk contains about the same number of bytes of changeSets.
+     *
+     * @param pChunkCount the maximum number of chunks
+     * @return the content of the chunks or {@code null}, if there are less than two chunks
+     */
+    @Nullable
+    List<byte[]> createChunks(int pChunkCount)
+    {
+      long changeSetBytes = entries.stream().filter(pEntry -> pEntry.changeSet).mapToLong(pEntry -> pEntry.end - pEntry.start).sum();
+      if (changeSetBytes == 0)
+        return null;
+
+      List<byte[]> chunks = new ArrayList<>();
+      int chunkStart = 0;
+      int previousChangeSetEnd = 0;
+      long chunkIndex = -1;
+      long position = 0;
+      for (int i = 0; i < entries.size(); i++)
+      {
+        Entry entry = entries.get(i);
+        if (!entry.changeSet)
+          continue;
+
+        // the chunk of a changeSet is given by its middle, so a large changeSet can not leave a chunk empty
+        long size = entry.end - entry.start;
+        long index = (position + size / 2) * pChunkCount / changeSetBytes;
+        position += size;
+        if (chunkIndex >= 0 && index != chunkIndex)
+        {
+          // the entries between the changeSets belong to the next chunk
+          chunks.add(createChunk(chunkStart, previousChangeSetEnd));
+          chunkStart = previousChangeSetEnd;
+        }
+        chunkIndex = index;
+        previousChangeSetEnd = i + 1;
+      }
+      chunks.add(createChunk(chunkStart, entries.size()));
+      return chunks.size() < 2 ? null : chunks;
+    }
+
+    /**
+     * Creates a changelog, that only contains some of the changeSets. All other entries are kept at their positions,
+     * so every changeSet is parsed the same way as in the whole changelog.
+     *
+     * @param pChangeSetIndexes the indexes of the changeSets in the list of all changeSets of the changelog
+     * @return the content of the changelog
+     */
+    byte @NonNull [] createChangelog(@NonNull Set<Integer> pChangeSetIndexes)
+    {
+      int[] changeSetIndexes = new int[entries.size()];
+      int changeSetIndex = 0;
+      for (int i = 0; i < entries.size(); i++)
+        changeSetIndexes[i] = entries.get(i).changeSet ? changeSetIndex++ : -1;
+
+      return createChunk(pIndex -> changeSetIndexes[pIndex] < 0 || pChangeSetIndexes.contains(changeSetIndexes[pIndex]));
+    }
+
+    /**
+     * Calculates the hash of everything in the changelog except its changeSets. If this hash is the same for two versions of a changelog,
+     * every changeSet with the same content is parsed the same way in both versions.
+     *
+     * @return the hash
+     */
+    @NonNull
+    String hashContext()
+    {
+      ByteArrayOutputStream context = new ByteArrayOutputStream();
+      context.write(content, 0, headerEnd);
+      int changeSetCount = 0;
+      for (Entry entry : entries)
+      {
+        if (entry.changeSet)
+          changeSetCount++;
+        else
+        {
+          // the other entries only apply to the following changeSets, so their position is part of the context
+          if (!allOtherEntries)
+            context.writeBytes((changeSetCount + ":").getBytes(StandardCharsets.US_ASCII));
+          context.write(content, entry.start, entry.end - entry.start);
+          context.write('\n');
+        }
+      }
+      context.write(content, footerStart, content.length - footerStart);
+      byte[] contextBytes = context.toByteArray();
+      return FileHashes.hash(contextBytes, 0, contextBytes.length);
+    }
+
+    /**
+     * Calculates the hash of the content of every changeSet.
+     *
+     * @return the hashes in the order of the changeSets
+     */
+    @NonNull
+    List<String> hashChangeSets()
+    {
+      return entries.stream()
+          .filter(pEntry -> pEntry.changeSet)
+          .map(pEntry -> FileHashes.hash(content, pEntry.start, pEntry.end - pEntry.start))
+          .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates one chunk.
+     *
+     * @param pFrom the index of the first entry of the chunk
+     * @param pTo   the index after the last entry of the chunk
+     * @return the content of the chunk
+     */
+    private byte @NonNull [] createChunk(int pFrom, int pTo)
+    {
+      // the other entries before the chunk are needed, so the properties are defined before the changeSets
+      return createChunk(pIndex -> (pIndex >= pFrom && pIndex < pTo) || (!entries.get(pIndex).changeSet && (allOtherEntries || pIndex < pFrom)));
+    }
+
+    /**
+     * Creates a changelog with the header, the given entries and the footer of this changelog.
+     *
+     * @param pIncluded checks, if the entry with the given index is part of the changelog
+     * @return the content of the changelog
+     */
+    private byte @NonNull [] createChunk(@NonNull IntPredicate pIncluded)
+    {
+      ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+      chunk.write(content, 0, headerEnd);
+      chunk.write('\n');
+      for (int i = 0; i < entries.size(); i++)
+      {
+        if (pIncluded.test(i))
+        {
+          Entry entry = entries.get(i);
+          chunk.write(content, entry.start, entry.end - entry.start);
+          chunk.write('\n');
+        }
+      }
+      chunk.write(content, footerStart, content.length - footerStart);
+      return chunk.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,425 @@
+package de.adito.convert;
+
+import com.google.gson.*;
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Write-ahead journal of a converting, so a converting that was killed can be resumed without converting the finished files again.
+ * <p>
+ * After a file was handled successfully for a target, one line is appended to the journal. The journal is only forced to the disk after a number of
+ * entries or some time, so writing it is cheap. After a crash, at most the entries since the last force are lost and these files are converted again.
+ * A line, that was only written partly, is ignored. The journal is deleted, when the converting finished.
+ * <p>
+ * The first line of the journal describes the converting. A journal of another converting, e.g. with other formats, is never resumed.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+class ConvertJournal implements Closeable
+{
+  /**
+   * The path of the journal file, relative to the output directory.
+   */
+  static final String JOURNAL_FILE = ".liquibase-extended-cli/convert-journal";
+
+  /**
+   * The version of the journal file. If the format of the journal changes, this version needs to be increased, so old journals are not resumed.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * The number of entries, after which the journal is forced to the disk.
+   */
+  private static final int SYNC_ENTRIES = 256;
+
+  /**
+   * The time in nanoseconds, after which the journal is forced to the disk with the next entry.
+   */
+  private static final long SYNC_NANOS = 1_000_000_000L;
+
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  /**
+   * The input file or directory of the converting.
+   */
+  private final Path input;
+
+  /**
+   * The output directory of the converting.
+   */
+  private final Path output;
+
+  /**
+   * The journal file.
+   */
+  @Getter
+  private final Path journalFile;
+
+  /**
+   * The entries of the files, that were finished by the converting, that is resumed, by their target and file.
+   */
+  private final Map<String, Entry> finishedEntries;
+
+  /**
+   * The channel to which the entries are appended.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The number of entries, that were appended since the journal was forced to the disk.
+   */
+  private int unsyncedEntries;
+
+  /**
+   * The time from {@link System#nanoTime()}, when the journal was forced to the disk.
+   */
+  private long lastSync = System.nanoTime();
+
+  /**
+   * Opens the journal of the given output directory. When the converting is resumed, the entries of a journal of the same converting are kept.
+   * Otherwise, a new journal is started.
+   *
+   * @param pInput         the input file or directory
+   * @param pOutput        the output directory
+   * @param pConfiguration the description of the converting, e.g. the formats and the database types
+   * @param pShard         the shard, that is converted, or {@code null}, if all files are converted. Every shard has its own journal.
+   * @param pResume        whether the finished files of the last converting should be kept
+   * @throws IOException Error while opening the journal
+   */
+  ConvertJournal(@NonNull Path pInput, @NonNull Path pOutput, @NonNull String pConfiguration, @Nullable Shard pShard, boolean pResume) throws IOException
+  {
+    input = pInput;
+    output = pOutput;
+    journalFile = pOutput.resolve(pShard == null ? JOURNAL_FILE : JOURNAL_FILE + "-" + pShard.getName());
+    Header header = new Header(VERSION, pConfiguration);
+    finishedEntries = pResume ? load(header) : new HashMap<>();
+
+    Files.createDirectories(journalFile.getParent());
+    if (finishedEntries.isEmpty())
+    {
+      channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      write(GSON.toJson(header));
+      channel.force(false);
+    }
+    else
+    {
+      channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      // the last line could only be written partly, so the next entry needs to start on a new line
+      ByteBuffer lastByte = ByteBuffer.allocate(1);
+      channel.read(lastByte, channel.size() - 1);
+      channel.position(channel.size());
+      if (lastByte.get(0) != '\n')
+        write("");
+    }
+  }
+
+  /**
+   * Gets the number of files, that were finished by the converting, that is resumed.
+   *
+   * @return the number of entries
+   */
+  int getFinishedCount()
+  {
+    return finishedEntries.size();
+  }
+
+  /**
+   * Gets the entry of a file, that was finished by the converting, that is resumed, and that did not change since then.
+   *
+   * @param pTarget the target
+   * @param pFile   the input file
+   * @return the entry or {@code null}, if the file needs to be converted
+   */
+  @Nullable
+  Entry getFinishedEntry(@NonNull ConvertTarget pTarget, @NonNull Path pFile)
+  {
+    Entry entry = finishedEntries.get(getKey(pTarget, pFile));
+    if (entry == null)
+      return null;
+
+    try
+    {
+      BasicFileAttributes attributes = Files.readAttributes(pFile, BasicFileAttributes.class);
+      if (attributes.size() != entry.size || attributes.lastModifiedTime().toMillis() != entry.modified)
+        return null;
+      // a file with includes is transformed after all other files, so its output does not need to exist
+      if (entry.kind != ConvertManifest.Kind.INCLUDE && (entry.output == null || !Files.isRegularFile(getOutputFile(entry))))
+        return null;
+    }
+    catch (IOException pE)
+    {
+      log.log(Level.FINE, String.format("could not check file '%s' of the journal", pFile), pE);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Appends a file, that was handled successfully for a target.
+   *
+   * @param pTarget     the target
+   * @param pFile       the input file
+   * @param pKind       how the file was handled
+   * @param pOutputFile the produced file or {@code null}, if the file contains includes
+   * @throws IOException Error while writing the journal
+   */
+  void add(@NonNull ConvertTarget pTarget, @NonNull Path pFile, @NonNull ConvertManifest.Kind pKind, @Nullable Path pOutputFile) throws IOException
+  {
+    BasicFileAttributes attributes = Files.readAttributes(pFile, BasicFileAttributes.class);
+    Entry entry = new Entry(getTargetKey(pTarget), getFileKey(pFile), pKind, pOutputFile == null ? null : toKey(output.relativize(pOutputFile)),
+                            attributes.size(), attributes.lastModifiedTime().toMillis());
+    String line = GSON.toJson(entry);
+
+    synchronized (this)
+    {
+      write(line);
+      unsyncedEntries++;
+      if (unsyncedEntries >= SYNC_ENTRIES || System.nanoTime() - lastSync >= SYNC_NANOS)
+        sync();
+    }
+  }
+
+  /**
+   * Gets the produced file of an entry.
+   *
+   * @param pEntry the entry
+   * @return the full path of the produced file
+   */
+  @NonNull
+  Path getOutputFile(@NonNull Entry pEntry)
+  {
+    return output.resolve(Objects.requireNonNull(pEntry.output));
+  }
+
+  /**
+   * Closes the journal and deletes it, because the converting finished. Its directory is deleted, if it is empty.
+   *
+   * @throws IOException Error while deleting the journal
+   */
+  void finish() throws IOException
+  {
+    close();
+    Files.deleteIfExists(journalFile);
+    try
+    {
+      // the directory is only kept, if it contains other files, e.g. the manifest
+      Files.deleteIfExists(journalFile.getParent());
+    }
+    catch (DirectoryNotEmptyException pE)
+    {
+      // the other files are still needed
+    }
+  }
+
+  /**
+   * Forces all entries to the disk and closes the journal. The journal is kept, so the converting can be resumed.
+   *
+   * @throws IOException Error while closing
+   */
+  @Override
+  public synchronized void close() throws IOException
+  {
+    if (channel.isOpen())
+    {
+      sync();
+      channel.close();
+    }
+  }
+
+  /**
+   * Forces the appended entries to the disk.
+   *
+   * @throws IOException Error while forcing
+   */
+  private void sync() throws IOException
+  {
+    if (unsyncedEntries > 0)
+      channel.force(false);
+    unsyncedEntries = 0;
+    lastSync = System.nanoTime();
+  }
+
+  /**
+   * Writes one line to the journal.
+   *
+   * @param pLine the line without a line break
+   * @throws IOException Error while writing
+   */
+  private void write(@NonNull String pLine) throws IOException
+  {
+    ByteBuffer buffer = ByteBuffer.wrap((pLine + "\n").getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining())
+      channel.write(buffer);
+  }
+
+  /**
+   * Loads the entries of the journal, if it belongs to the same converting.
+   *
+   * @param pHeader the header of the current converting
+   * @return the entries by their target and file or an empty map, if there is no journal of the same converting
+   */
+  @NonNull
+  private Map<String, Entry> load(@NonNull Header pHeader)
+  {
+    Map<String, Entry> entries = new HashMap<>();
+    if (!Files.isRegularFile(journalFile))
+      return entries;
+
+    try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8))
+    {
+      String headerLine = reader.readLine();
+      if (headerLine == null || !GSON.toJson(pHeader).equals(headerLine))
+      {
+        log.log(Level.WARNING, String.format("The journal %s belongs to another converting and is not resumed", journalFile));
+        return entries;
+      }
+
+      String line;
+      while ((line = reader.readLine()) != null)
+      {
+        try
+        {
+          Entry entry = GSON.fromJson(line, Entry.class);
+          if (entry != null && entry.isValid())
+            entries.put(entry.target + "\n" + entry.file, entry);
+        }
+        catch (JsonParseException pE)
+        {
+          // the last line could only be written partly, when the converting was killed
+          log.log(Level.FINE, "ignoring invalid line of the journal " + journalFile, pE);
+        }
+      }
+    }
+    catch (IOException pE)
+    {
+      log.log(Level.FINE, "Could not read the journal " + journalFile, pE);
+    }
+    return entries;
+  }
+
+  /**
+   * Gets the key of a file of a target.
+   *
+   * @param pTarget the target
+   * @param pFile   the input file
+   * @return the key
+   */
+  @NonNull
+  private String getKey(@NonNull ConvertTarget pTarget, @NonNull Path pFile)
+  {
+    return getTargetKey(pTarget) + "\n" + getFileKey(pFile);
+  }
+
+  /**
+   * Gets the key of a target, that is its output directory relative to the output directory of the converting.
+   *
+   * @param pTarget the target
+   * @return the key
+   */
+  @NonNull
+  private String getTargetKey(@NonNull ConvertTarget pTarget)
+  {
+    return toKey(output.relativize(pTarget.getOutput()));
+  }
+
+  /**
+   * Gets the key of an input file.
+   *
+   * @param pFile the input file
+   * @return the path relative to the input directory or the file name, if only a single file is converted
+   */
+  @NonNull
+  private String getFileKey(@NonNull Path pFile)
+  {
+    return toKey(input.equals(pFile) ? pFile.getFileName() : input.relativize(pFile));
+  }
+
+  /**
+   * Transforms a relative path to a key, that is the same on every operating system.
+   *
+   * @param pRelativePath the relative path
+   * @return the key
+   */
+  @NonNull
+  private static String toKey(@NonNull Path pRelativePath)
+  {
+    return pRelativePath.toString().replace('\\', '/');
+  }
+
+  /**
+   * The first line of the journal.
+   */
+  @AllArgsConstructor
+  private static class Header
+  {
+    /**
+     * The version of the journal.
+     */
+    private final int version;
+
+    /**
+     * The description of the converting.
+     */
+    private final String configuration;
+  }
+
+  /**
+   * The entry of one file, that was handled successfully for one target.
+   */
+  @AllArgsConstructor
+  @Getter
+  static class Entry
+  {
+    /**
+     * The output directory of the target, relative to the output directory of the converting.
+     */
+    private final String target;
+
+    /**
+     * The path of the input file, relative to the input directory.
+     */
+    private final String file;
+
+    /**
+     * How the file was handled.
+     */
+    private final ConvertManifest.Kind kind;
+
+    /**
+     * The path of the produced file, relative to the output directory of the converting, or {@code null}, if the file contains includes.
+     */
+    @Nullable
+    private final String output;
+
+    /**
+     * The size of the input file.
+     */
+    private final long size;
+
+    /**
+     * The last modified time of the input file in milliseconds.
+     */
+    private final long modified;
+
+    /**
+     * Checks that all values were read from the journal.
+     *
+     * @return {@code true}, if the entry can be used
+     */
+    private boolean isValid()
+    {
+      return target != null && file != null && kind != null;
+    }
+  }
+}
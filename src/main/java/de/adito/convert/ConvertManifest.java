@@ -0,0 +1,327 @@
+package de.adito.convert;
+
+import com.google.gson.*;
+import de.adito.util.*;
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Manifest of all files that were converted into an output directory. It is stored in the output directory.
+ * <p>
+ * For every input file, the hash of the content and the produced file is stored. A file is only converted again, if its content changed,
+ * the produced file no longer exists or the target format or the database type changed.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+class ConvertManifest
+{
+  /**
+   * The path of the manifest file, relative to the output directory.
+   */
+  static final String MANIFEST_FILE = ".liquibase-extended-cli/convert-manifest";
+
+  /**
+   * The version of the manifest file. If the format of the manifest changes, this version needs to be increased, so old manifests are not used.
+   */
+  private static final int VERSION = 1;
+
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  /**
+   * The input file or directory of the converting.
+   */
+  private final Path input;
+
+  /**
+   * The output directory of the converting.
+   */
+  private final Path output;
+
+  /**
+   * The manifest file.
+   */
+  private final Path manifestFile;
+
+  /**
+   * The target format of the converting.
+   */
+  private final Format format;
+
+  /**
+   * The database type of the converting.
+   */
+  @Nullable
+  private final String databaseType;
+
+  /**
+   * The entries, that were read from the manifest file.
+   */
+  private final Map<String, Entry> storedEntries;
+
+  /**
+   * The entries of all files, that were converted or skipped since this manifest was loaded. Only these entries will be saved.
+   */
+  private final Map<String, Entry> usedEntries = new ConcurrentHashMap<>();
+
+  /**
+   * The hashes of the input files, that were calculated while checking for unchanged files.
+   */
+  private final Map<Path, String> hashes = new ConcurrentHashMap<>();
+
+  /**
+   * If any file was converted again or any entry is no longer used.
+   */
+  private volatile boolean changed;
+
+  /**
+   * Loads the manifest of the given output directory. If there is no valid manifest for the given format and database type, an empty manifest is created.
+   *
+   * @param pInput        the input file or directory
+   * @param pOutput       the output directory
+   * @param pFormat       the target format
+   * @param pDatabaseType the database type
+   * @param pShard        the shard, that is converted, or {@code null}, if all files are converted. Every shard has its own manifest file.
+   */
+  ConvertManifest(@NonNull Path pInput, @NonNull Path pOutput, @NonNull Format pFormat, @Nullable String pDatabaseType, @Nullable Shard pShard)
+  {
+    input = pInput;
+    output = pOutput;
+    manifestFile = pOutput.resolve(pShard == null ? MANIFEST_FILE : MANIFEST_FILE + "-" + pShard.getName());
+    format = pFormat;
+    databaseType = pDatabaseType;
+    storedEntries = load();
+  }
+
+  /**
+   * Gets the entry of a file, that did not change since it was stored in the manifest.
+   * The entry is marked as used, so it will be saved again.
+   *
+   * @param pFile the input file
+   * @return the entry or {@code null}, if the file needs to be converted again
+   * @throws IOException Error while reading the file
+   */
+  @Nullable
+  Entry getUnchangedEntry(@NonNull Path pFile) throws IOException
+  {
+    String hash = FileHashes.hash(pFile);
+    hashes.put(pFile, hash);
+
+    String key = getKey(pFile);
+    Entry entry = storedEntries.get(key);
+    if (entry == null || !hash.equals(entry.hash))
+      return null;
+
+    // a file with includes is always transformed again, so its output does not need to exist
+    if (entry.kind != Kind.INCLUDE && (entry.output == null || !Files.isRegularFile(getOutputFile(entry))))
+      return null;
+
+    usedEntries.put(key, entry);
+    return entry;
+  }
+
+  /**
+   * Adds a file, that was handled successfully.
+   *
+   * @param pFile       the input file
+   * @param pKind       how the file was handled
+   * @param pOutputFile the produced file or {@code null}, if the file contains includes
+   * @throws IOException Error while reading the file
+   */
+  void add(@NonNull Path pFile, @NonNull Kind pKind, @Nullable Path pOutputFile) throws IOException
+  {
+    String hash = hashes.get(pFile);
+    if (hash == null)
+      hash = FileHashes.hash(pFile);
+
+    changed = true;
+    usedEntries.put(getKey(pFile), new Entry(hash, pKind, pOutputFile == null ? null : toKey(output.relativize(pOutputFile))));
+  }
+
+  /**
+   * Gets the produced file of an entry.
+   *
+   * @param pEntry the entry
+   * @return the full path of the produced file
+   */
+  @NonNull
+  Path getOutputFile(@NonNull Entry pEntry)
+  {
+    return output.resolve(Objects.requireNonNull(pEntry.output));
+  }
+
+  /**
+   * Saves the manifest, if anything changed. Only the entries of the files that were handled since the manifest was loaded are saved.
+   * Errors while saving are only logged, because the manifest is only a cache.
+   */
+  void save()
+  {
+    if (!changed && usedEntries.keySet().equals(storedEntries.keySet()))
+      return;
+
+    try
+    {
+      Files.createDirectories(manifestFile.getParent());
+      Path tempFile = TempFiles.createSibling(manifestFile);
+      try
+      {
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8))
+        {
+          GSON.toJson(new ManifestData(VERSION, format, databaseType, new TreeMap<>(usedEntries)), writer);
+        }
+        // the manifest should never be read while it is only written partly
+        Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally
+      {
+        Files.deleteIfExists(tempFile);
+      }
+    }
+    catch (IOException pE)
+    {
+      log.log(Level.WARNING, "Could not save the convert manifest " + manifestFile, pE);
+    }
+  }
+
+  /**
+   * Loads the entries of the manifest file.
+   *
+   * @return the entries or an empty map, if there is no valid manifest file for the current format and database type
+   */
+  @NonNull
+  private Map<String, Entry> load()
+  {
+    if (!Files.isRegularFile(manifestFile))
+      return Map.of();
+
+    try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8))
+    {
+      ManifestData data = GSON.fromJson(reader, ManifestData.class);
+      if (data != null && data.version == VERSION && data.format == format && Objects.equals(data.databaseType, databaseType)
+          && data.files != null && data.files.values().stream().allMatch(Entry::isValid))
+        return data.files;
+    }
+    catch (IOException | JsonParseException pE)
+    {
+      log.log(Level.FINE, "Could not read the convert manifest " + manifestFile, pE);
+    }
+    return Map.of();
+  }
+
+  /**
+   * Gets the key of an input file.
+   *
+   * @param pFile the input file
+   * @return the path relative to the input directory or the file name, if only a single file is converted
+   */
+  @NonNull
+  private String getKey(@NonNull Path pFile)
+  {
+    return toKey(input.equals(pFile) ? pFile.getFileName() : input.relativize(pFile));
+  }
+
+  /**
+   * Transforms a relative path to a key, that is the same on every operating system.
+   *
+   * @param pRelativePath the relative path
+   * @return the key
+   */
+  @NonNull
+  private static String toKey(@NonNull Path pRelativePath)
+  {
+    return pRelativePath.toString().replace('\\', '/');
+  }
+
+  /**
+   * How a file was handled by the converting.
+   */
+  enum Kind
+  {
+    /**
+     * The file was converted to the target format.
+     */
+    CONVERTED,
+
+    /**
+     * The file was copied, because it is not a changelog or already in the target format.
+     */
+    COPIED,
+
+    /**
+     * The file contains includes and is transformed after all other files.
+     */
+    INCLUDE
+  }
+
+  /**
+   * The content of the manifest file.
+   */
+  @AllArgsConstructor
+  private static class ManifestData
+  {
+    /**
+     * The version of the manifest.
+     */
+    private final int version;
+
+    /**
+     * The target format of the converting.
+     */
+    private final Format format;
+
+    /**
+     * The database type of the converting.
+     */
+    @Nullable
+    private final String databaseType;
+
+    /**
+     * The entries by the path of the file, relative to the input directory.
+     */
+    private final Map<String, Entry> files;
+  }
+
+  /**
+   * The entry of one input file.
+   */
+  @AllArgsConstructor
+  @Getter
+  static class Entry
+  {
+    /**
+     * The hash of the content of the input file.
+     */
+    @NonNull
+    private final String hash;
+
+    /**
+     * How the file was handled.
+     */
+    @NonNull
+    private final Kind kind;
+
+    /**
+     * The path of the produced file, relative to the output directory, or {@code null}, if the file contains includes.
+     */
+    @Nullable
+    private final String output;
+
+    /**
+     * Checks that all values were read from the manifest file.
+     *
+     * @return {@code true}, if the entry can be used
+     */
+    private boolean isValid()
+    {
+      return hash != null && kind != null;
+    }
+  }
+}
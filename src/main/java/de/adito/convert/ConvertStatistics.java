@@ -0,0 +1,174 @@
+package de.adito.convert;
+
+import lombok.*;
+
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one converting. They show how much time every step of the converting needs in total and per file,
+ * so the fixed overhead of every file can be compared.
+ * <p>
+ * All values can be added by multiple threads. The times of all threads are summed up.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ConvertStatistics
+{
+  /**
+   * The steps of the converting, whose time is measured.
+   */
+  @AllArgsConstructor
+  enum Step
+  {
+    READ_AHEAD("reading ahead"),
+    CHECK_INCLUDES("checking for includes"),
+    PARSE("parsing"),
+    WRITE("writing"),
+    CONVERT_CHANGED_CHANGE_SETS("converting changed changeSets"),
+    TRANSFORM_INCLUDES("transforming includes");
+
+    /**
+     * The description of the step in the output.
+     */
+    private final @NonNull String description;
+  }
+
+  /**
+   * The number of handled files.
+   */
+  private final LongAdder files = new LongAdder();
+
+  /**
+   * The number of created resource accessors.
+   */
+  private final LongAdder resourceAccessors = new LongAdder();
+
+  /**
+   * The number of parsers, that were looked up in the factory.
+   */
+  private final LongAdder parserLookups = new LongAdder();
+
+  /**
+   * The number of files, that were parsed in chunks.
+   */
+  private final LongAdder splitFiles = new LongAdder();
+
+  /**
+   * The number of changeSets, that were taken from the last converting.
+   */
+  private final LongAdder reusedChangeSets = new LongAdder();
+
+  /**
+   * The number of files, that were not copied, because the existing file in the output directory was identical.
+   */
+  private final LongAdder identicalFiles = new LongAdder();
+
+  /**
+   * The number of executions of every step.
+   */
+  private final Map<Step, LongAdder> counts = new EnumMap<>(Step.class);
+
+  /**
+   * The time of every step in nanoseconds.
+   */
+  private final Map<Step, LongAdder> nanos = new EnumMap<>(Step.class);
+
+  /**
+   * Creates new statistics without any values.
+   */
+  ConvertStatistics()
+  {
+    for (Step step : Step.values())
+    {
+      counts.put(step, new LongAdder());
+      nanos.put(step, new LongAdder());
+    }
+  }
+
+  /**
+   * Counts a handled file.
+   */
+  void addFile()
+  {
+    files.increment();
+  }
+
+  /**
+   * Counts a created resource accessor.
+   */
+  void addResourceAccessor()
+  {
+    resourceAccessors.increment();
+  }
+
+  /**
+   * Counts a parser, that was looked up in the factory.
+   */
+  void addParserLookup()
+  {
+    parserLookups.increment();
+  }
+
+  /**
+   * Counts a file, that was parsed in chunks.
+   */
+  void addSplitFile()
+  {
+    splitFiles.increment();
+  }
+
+  /**
+   * Counts the changeSets, that were taken from the last converting.
+   *
+   * @param pCount the number of changeSets
+   */
+  void addReusedChangeSets(int pCount)
+  {
+    reusedChangeSets.add(pCount);
+  }
+
+  /**
+   * Counts a file, that was not copied, because the existing file in the output directory was identical.
+   */
+  void addIdenticalFile()
+  {
+    identicalFiles.increment();
+  }
+
+  /**
+   * Adds the time of one execution of a step.
+   *
+   * @param pStep      the step
+   * @param pStartTime the time from {@link System#nanoTime()}, when the step was started
+   */
+  void addTime(@NonNull Step pStep, long pStartTime)
+  {
+    counts.get(pStep).increment();
+    nanos.get(pStep).add(System.nanoTime() - pStartTime);
+  }
+
+  /**
+   * Prints the statistics.
+   *
+   * @param pOut the writer for the output
+   */
+  void print(@NonNull PrintWriter pOut)
+  {
+    long fileCount = files.sum();
+    pOut.println("Statistics:");
+    pOut.printf(" - files: %d%n", fileCount);
+    pOut.printf(" - resource accessors: %d%n", resourceAccessors.sum());
+    pOut.printf(" - parser lookups: %d%n", parserLookups.sum());
+    pOut.printf(" - split files: %d%n", splitFiles.sum());
+    pOut.printf(" - reused changeSets: %d%n", reusedChangeSets.sum());
+    pOut.printf(" - identical files: %d%n", identicalFiles.sum());
+    for (Step step : Step.values())
+    {
+      double millis = nanos.get(step).sum() / 1_000_000d;
+      pOut.printf(Locale.ROOT, " - %s: %d times, %.1f ms, %.3f ms per file%n", step.description, counts.get(step).sum(), millis,
+                  fileCount == 0 ? 0d : millis / fileCount);
+    }
+  }
+}
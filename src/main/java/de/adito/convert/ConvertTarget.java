@@ -0,0 +1,144 @@
+package de.adito.convert;
+
+import de.adito.convert.include.IncludeTransformer;
+import de.adito.util.FileContentCache;
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.*;
+import liquibase.diff.output.changelog.DiffToChangeLog;
+import liquibase.serializer.*;
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * One target format of the converting. Every target has its own output directory and keeps track of its own converted and included files.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+@Getter
+class ConvertTarget
+{
+  /**
+   * The format to which the files are converted.
+   */
+  @NonNull
+  private final Format format;
+
+  /**
+   * The directory in which the files of this format are written.
+   */
+  @NonNull
+  private final Path output;
+
+  /**
+   * The database type, that is part of the new file names, or {@code null}, if the file names do not contain a database type.
+   */
+  @Nullable
+  private final String databaseType;
+
+  /**
+   * The database for which the SQL is generated or {@code null}, if this is no SQL target or the database type is unknown.
+   * It is only resolved once for all files of this target.
+   */
+  @Getter(AccessLevel.NONE)
+  @Nullable
+  private final Database database;
+
+  /**
+   * The transformer for the include files of this format.
+   */
+  @NonNull
+  private final IncludeTransformer includeTransformer;
+
+  /**
+   * The manifest of the files in the output directory or {@code null}, if every file should be converted.
+   */
+  @Nullable
+  private final ConvertManifest manifest;
+
+  /**
+   * The manifest of the changeSets of the converted files or {@code null}, if every changed file should be converted as a whole.
+   */
+  @Nullable
+  private final ChangeSetManifest changeSetManifest;
+
+  /**
+   * The serializer of every thread. The serializers of Liquibase are not thread-safe, therefore every thread needs its own serializer.
+   */
+  @Getter(AccessLevel.NONE)
+  private final ThreadLocal<ChangeLogSerializer> serializers = ThreadLocal.withInitial(this::createSerializer);
+
+  /**
+   * Creates a new target.
+   *
+   * @param pFormat             the format to which the files are converted
+   * @param pOutput             the directory in which the files of this format are written
+   * @param pDatabaseType       the database type, that is part of the new file names, or {@code null}, if the file names do not contain a database type
+   * @param pManifest           the manifest of the files in the output directory or {@code null}, if every file should be converted
+   * @param pChangeSetManifest  the manifest of the changeSets of the converted files or {@code null}, if every changed file should be converted as a whole
+   * @param pContentCache       the cache with the content of the files, that were already read
+   * @param pYamlCodePointLimit the maximum number of code points of a YAML file with includes, that is loaded as a whole
+   */
+  ConvertTarget(@NonNull Format pFormat, @NonNull Path pOutput, @Nullable String pDatabaseType, @Nullable ConvertManifest pManifest,
+                @Nullable ChangeSetManifest pChangeSetManifest, @NonNull FileContentCache pContentCache, int pYamlCodePointLimit)
+  {
+    format = pFormat;
+    output = pOutput;
+    databaseType = pDatabaseType == null ? null : pDatabaseType.toLowerCase();
+    manifest = pManifest;
+    changeSetManifest = pChangeSetManifest;
+    includeTransformer = new IncludeTransformer(pContentCache, pYamlCodePointLimit);
+    // an unknown database type is reported by the serializer for every file
+    database = pFormat == Format.SQL && databaseType != null ? DatabaseFactory.getInstance().getDatabase(databaseType) : null;
+  }
+
+  /**
+   * Writes the changeSets in the format of this target. For SQL, the database of this target is used,
+   * so the serializer does not need to find the database by the file name of every changeSet.
+   *
+   * @param pChangeSets   the changeSets that should be written
+   * @param pOutputStream the stream to write to
+   * @throws Exception Error while writing
+   */
+  void write(@NonNull List<ChangeSet> pChangeSets, @NonNull OutputStream pOutputStream) throws Exception
+  {
+    ChangeLogSerializer serializer = serializers.get();
+    if (database == null)
+      serializer.write(pChangeSets, pOutputStream);
+    else
+      Scope.child(Map.of(DiffToChangeLog.DIFF_SNAPSHOT_DATABASE, database), () -> serializer.write(pChangeSets, pOutputStream));
+  }
+
+  /**
+   * Creates a new serializer for the format. Every thread gets its own instance, because the serializers have a state while writing.
+   * YAML is written by the {@link StreamingYamlChangeLogSerializer}.
+   *
+   * @return the new serializer
+   */
+  @NonNull
+  private ChangeLogSerializer createSerializer()
+  {
+    ChangeLogSerializer serializer = ChangeLogSerializerFactory.getInstance().getSerializer(format.getFileEnding());
+    if (serializer.getClass() == YamlChangeLogSerializer.class)
+      // the YAML serializer of Liquibase creates the whole document in the memory
+      return new StreamingYamlChangeLogSerializer();
+    try
+    {
+      return serializer.getClass().getDeclaredConstructor().newInstance();
+    }
+    catch (ReflectiveOperationException pE)
+    {
+      // the shared serializer can only be used, if there is no new instance
+      log.log(Level.FINE, "could not create a new instance of " + serializer.getClass(), pE);
+      return serializer;
+    }
+  }
+}
@@ -1,15 +1,18 @@
 package de.adito.convert;
 
-import de.adito.convert.include.IncludeTransformer;
 import de.adito.util.*;
 import liquibase.changelog.*;
+import liquibase.exception.*;
 import liquibase.parser.*;
+import liquibase.parser.core.json.JsonChangeLogParser;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
 import liquibase.resource.*;
 import liquibase.serializer.*;
 import lombok.*;
 import lombok.extern.java.Log;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
 import picocli.CommandLine;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.*;
@@ -17,9 +20,10 @@ import picocli.CommandLine.*;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.function.Predicate;
+import java.util.concurrent.*;
+import java.util.function.*;
 import java.util.logging.*;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.*;
 
 /**
@@ -39,12 +43,91 @@ import java.util.stream.*;
 public class FormatConverter implements Callable<Integer>
 {
 
-  @Option(names = {"-f", "--format"}, description = "The format you want to convert to. Valid values: ${COMPLETION-CANDIDATES}",
-      required = true)
-  private Format format;
+  @Option(names = {"-f", "--format"}, description = "The formats you want to convert to, separated by comma. "
+      + "When more than one format is given, every format is written into its own sub directory of the output. Valid values: ${COMPLETION-CANDIDATES}",
+      required = true, split = ",", paramLabel = "<format>")
+  private List<Format> formats;
 
-  @Option(names = {"-d", "--database-type"}, description = "The type of the database. This is only required when converting to SQL")
-  private String databaseType;
+  @Option(names = {"-d", "--database-type"}, description = "The types of the database, separated by comma. This is only required when converting to SQL. "
+      + "For every database type, SQL is generated into its own sub directory of the output.", split = ",", paramLabel = "<databaseType>")
+  private List<String> databaseTypes;
+
+  @Option(names = "--threads", description = "The number of threads that convert the files concurrently. Default: ${DEFAULT-VALUE}", defaultValue = "1")
+  private int threads;
+
+  @Option(names = "--io-threads", description = "The number of threads that read the files ahead of the converting, so the files are read "
+      + "while other files are parsed and written. 0 reads every file, when it is converted. Default: ${DEFAULT-VALUE}", defaultValue = "0")
+  private int ioThreads;
+
+  @Option(names = "--queue-capacity", description = "The maximum number of files, that are read, converted or waiting for the output "
+      + "of the previous files at the same time, when more than one thread is used. Default: ${DEFAULT-VALUE}", defaultValue = "64")
+  private int queueCapacity;
+
+  @Option(names = "--virtual-threads", description = "Reads and copies every file on its own virtual thread, when running on Java 21 or newer. "
+      + "Then --io-threads is the maximum number of files, that are read or copied at the same time. The parsing stays on the --threads. "
+      + "On older Java versions, the --io-threads are used as platform threads.")
+  private boolean virtualThreads;
+
+  @Option(names = "--include", description = "Glob patterns of the files of the input directory, that are converted or copied, separated by comma. "
+      + "Patterns without a slash are matched against the file name, all other patterns against the path relative to the input directory. "
+      + "Default: all files", split = ",", paramLabel = "<glob>")
+  private List<String> includes;
+
+  @Option(names = "--exclude", description = "Glob patterns of the files and directories of the input directory, that are ignored, separated by comma, "
+      + "e.g. .git,node_modules,target. They are matched like the --include patterns. Excluded directories are not read at all.",
+      split = ",", paramLabel = "<glob>")
+  private List<String> excludes;
+
+  @Option(names = "--gitignore", description = "Ignores the files and directories of the input directory, that are ignored by its .gitignore files, "
+      + "and the .git directory.")
+  private boolean gitignore;
+
+  @Option(names = "--shard", description = "Only converts the files of the input directory, that belong to this shard, e.g. 2/4 for the second of four shards. "
+      + "The files are assigned by a stable hash of their relative path, so the shards can run on different machines. The includes are not transformed, "
+      + "instead the converted files are stored in the directory " + ShardState.SHARD_DIRECTORY + " in the output directory of every format. "
+      + "After the output directories of all shards were combined, the includes are transformed by the merge-shards command.",
+      converter = Shard.Converter.class, paramLabel = "<index>/<count>")
+  private Shard shard;
+
+  @Option(names = "--incremental", description = "Only converts the files that changed since the last converting into the same output directory. "
+      + "The converted files are stored in the file " + ConvertManifest.MANIFEST_FILE + " in the output directory of every format.")
+  private boolean incremental;
+
+  @Option(names = "--incremental-changesets", description = "Like --incremental, but also stores the changeSets of the converted XML and YAML changelogs "
+      + "in the directory " + ChangeSetManifest.MANIFEST_DIRECTORY + " in the output directory of every format. Only the new and changed changeSets "
+      + "of a changed changelog are converted again, all other changeSets are taken from the last converting.")
+  private boolean incrementalChangeSets;
+
+  @Option(names = "--resume", description = "Resumes a converting into the same output directory, that was killed, from its journal "
+      + ConvertJournal.JOURNAL_FILE + ". The files, that were finished and did not change since then, are not converted again. "
+      + "The journal is written by every converting and deleted, when the converting finished. "
+      + "The temporary files, that were left over by the killed converting, are deleted.")
+  private boolean resume;
+
+  @Option(names = "--yaml-code-point-limit", description = "The maximum number of code points of a YAML file with includes, "
+      + "that can not be transformed event by event and is loaded as a whole. Default: ${DEFAULT-VALUE}", defaultValue = "" + Integer.MAX_VALUE)
+  private int yamlCodePointLimit;
+
+  @Option(names = "--content-cache-size", description = "The maximum size in MiB of the content of the files, that are kept in the memory, "
+      + "so they do not need to be read again for parsing and transforming the includes. 0 disables the cache. Default: ${DEFAULT-VALUE}", defaultValue = "64")
+  private int contentCacheSize;
+
+  @Option(names = "--split-threshold", description = "The minimum size in MiB of the XML and YAML changelogs, that are split at their changeSets "
+      + "and parsed in chunks on all processors. The changeSets are written in the same order as without splitting. 0 disables the splitting. "
+      + "Default: ${DEFAULT-VALUE}", defaultValue = "0")
+  private int splitThreshold;
+
+  @Option(names = "--pass-through", description = "How the files, that are not converted, are brought into the output directory: "
+      + "copy copies every file, skip-identical only copies files whose size, modification time or content differ from the existing file, "
+      + "hardlink creates hard links to the input files and reflink clones the files with at least 1 MiB on file systems with copy on write. "
+      + "Valid values: ${COMPLETION-CANDIDATES}. Default: ${DEFAULT-VALUE}", defaultValue = "copy", converter = PassThrough.Converter.class)
+  private PassThrough passThrough;
+
+  @Option(names = "--skip-xsd-validation", description = "Does not validate the XML changelogs against their XSDs. This should only be used for trusted input.")
+  private boolean skipXsdValidation;
+
+  @Option(names = "--statistics", description = "Prints how many files were handled and how much time every step of the converting needed in total and per file.")
+  private boolean printStatistics;
 
   @Parameters(description = "The input file or directory", index = "0", converter = ExistingPathConverter.class)
   private Path input;
@@ -57,51 +140,271 @@ public class FormatConverter implements Callable<Integer>
 
   /**
    * The files that could not be converted. These will be put out at the end of the command execution.
+   * The files are sorted, so the output does not depend on the order in which the files were converted.
+   */
+  private final Map<Error, Set<Path>> errorFiles = Collections.synchronizedMap(new EnumMap<>(Error.class));
+
+  /**
+   * The formats to which the files are converted. Every file is only parsed once for all these targets.
+   */
+  private final List<ConvertTarget> targets = new ArrayList<>();
+
+  /**
+   * The journal of the finished files, so the converting can be resumed.
+   */
+  private ConvertJournal journal;
+
+  /**
+   * Collects the files of the input directory.
+   */
+  private InputWalker inputWalker;
+
+  /**
+   * The content of the files, that are needed again after checking for includes. Every file is evicted as soon as it was handled.
    */
-  private final Map<Error, Set<Path>> errorFiles = new EnumMap<>(Error.class);
+  private FileContentCache contentCache;
 
   /**
-   * The transformer for the include files.
+   * The resource accessor of every directory, that contains a parsed file. They are shared by all files of the directory and closed at the end of the run.
    */
-  private final IncludeTransformer includeTransformer = new IncludeTransformer();
+  private final Map<Path, ResourceAccessor> resourceAccessors = new ConcurrentHashMap<>();
+
+  /**
+   * The parser of every file extension, whose parser does not depend on the content of the file. The parsers of Liquibase are shared by all threads anyway.
+   */
+  private final Map<String, ChangeLogParser> parsers = new ConcurrentHashMap<>();
+
+  /**
+   * The parser, that is used instead of the XML parser of Liquibase, so every XSD is only compiled once.
+   */
+  private ChangeLogParser xmlParser;
+
+  /**
+   * The parser, that is used instead of the JSON parser of Liquibase, so JSON changelogs are not read by SnakeYAML.
+   */
+  private final ChangeLogParser jsonParser = new GsonJsonChangeLogParser();
+
+  /**
+   * The parser, that parses large changelogs in chunks, or {@code null}, if the changelogs are not split.
+   */
+  @Nullable
+  private SplitChangelogParser splitParser;
+
+  /**
+   * The statistics of the converting.
+   */
+  private final ConvertStatistics statistics = new ConvertStatistics();
+
+  /**
+   * The file systems, on which the pass-through files can not be cloned in this run.
+   */
+  private final CloneSupport cloneSupport = new CloneSupport();
+
+  /**
+   * The handler that writes the log of this package to the error writer of the command.
+   */
+  private WriterLogHandler logHandler;
 
   @Override
   public Integer call() throws Exception
   {
-    // add the consoleHandler to the log, to always write to the console
-    log.addHandler(new ConsoleHandler());
+    // write the log of this package to the error writer of the command, to always write to the console of the caller
+    Logger packageLogger = Logger.getLogger(FormatConverter.class.getPackageName());
+    logHandler = WriterLogHandler.addTo(packageLogger, getErr());
+    try
+    {
+      return convert();
+    }
+    finally
+    {
+      logHandler.removeFrom(packageLogger);
+    }
+  }
 
-    if (format == Format.SQL && StringUtils.isBlank(databaseType))
+  /**
+   * Converts the input to the output.
+   *
+   * @return the exit code of the command
+   * @throws Exception Error while walking the input
+   */
+  private int convert() throws Exception
+  {
+    if (formats.contains(Format.SQL) && (databaseTypes == null || databaseTypes.stream().allMatch(StringUtils::isBlank)))
       // check that SQL format has a databaseType specified
       throw new ParameterException(spec.commandLine(), "Option '--database-type' is required, when format SQL is given");
 
+    if (threads < 1)
+      throw new ParameterException(spec.commandLine(), "Option '--threads' needs to be at least 1");
+
+    if (ioThreads < 0)
+      throw new ParameterException(spec.commandLine(), "Option '--io-threads' needs to be at least 0");
+
+    if (queueCapacity < 1)
+      throw new ParameterException(spec.commandLine(), "Option '--queue-capacity' needs to be at least 1");
+
+    if (virtualThreads && ioThreads == 0)
+      throw new ParameterException(spec.commandLine(), "Option '--virtual-threads' needs '--io-threads' to be at least 1");
+
+    if (yamlCodePointLimit < 1)
+      throw new ParameterException(spec.commandLine(), "Option '--yaml-code-point-limit' needs to be at least 1");
+
+    if (contentCacheSize < 0)
+      throw new ParameterException(spec.commandLine(), "Option '--content-cache-size' needs to be at least 0");
+
+    if (splitThreshold < 0)
+      throw new ParameterException(spec.commandLine(), "Option '--split-threshold' needs to be at least 0");
+
+    if (shard != null && !Files.isDirectory(input))
+      throw new ParameterException(spec.commandLine(), "Option '--shard' needs a directory as input");
+
+    try
+    {
+      inputWalker = new InputWalker(includes, excludes, gitignore);
+    }
+    catch (PatternSyntaxException pE)
+    {
+      throw new ParameterException(spec.commandLine(), String.format("Invalid glob pattern '%s' of option '--include' or '--exclude'", pE.getPattern()));
+    }
+
+    contentCache = new FileContentCache(contentCacheSize * 1024L * 1024L);
+    xmlParser = new SchemaCachingXmlChangeLogParser(!skipXsdValidation);
+    createTargets();
+
+    ForkJoinPool splitPool = splitThreshold > 0 ? new ForkJoinPool(Runtime.getRuntime().availableProcessors()) : null;
+    if (splitPool != null)
+      splitParser = new SplitChangelogParser(splitPool, contentCache, splitThreshold * 1024L * 1024L);
+
+    journal = new ConvertJournal(input, output, describeConverting(), shard, resume);
+    if (journal.getFinishedCount() > 0)
+      getOut().printf("Resuming the converting with %d finished file(s)%n", journal.getFinishedCount());
+    if (resume)
+    {
+      // the killed converting could not delete the files, that were written at this time
+      int deletedTempFiles = TempFiles.deleteAll(output);
+      if (deletedTempFiles > 0)
+        getOut().printf("Deleted %d temporary file(s) of the killed converting%n", deletedTempFiles);
+    }
+
+    try
+    {
+      convertInput();
+      journal.finish();
+    }
+    finally
+    {
+      journal.close();
+      if (splitPool != null)
+        splitPool.shutdownNow();
+      closeResourceAccessors();
+      parsers.clear();
+      contentCache.clear();
+    }
+
+    if (printStatistics)
+      statistics.print(getOut());
+
+    return printResult();
+  }
+
+  /**
+   * Converts all files of the input and transforms the includes afterwards.
+   *
+   * @throws Exception Error while walking the input
+   */
+  private void convertInput() throws Exception
+  {
     // convert all files
     if (Files.isDirectory(input))
     {
-      // multiple files, convert them all
-      try (Stream<Path> files = Files.walk(input))
-      {
-        files.filter(Predicate.not(Files::isDirectory))
-            .forEach(this::convertFile);
-      }
+      // multiple files, convert them all in a fixed order
+      List<Path> files = inputWalker.walk(input);
+      if (shard != null)
+        files = files.stream()
+            .filter(pFile -> shard.owns(ShardState.toKey(input.relativize(pFile))))
+            .collect(Collectors.toList());
+      convertFiles(files);
     }
     else
     {
       // single file, just convert
-      convertFile(input);
+      convertFile(input, getOut());
     }
 
 
-    // transform the includes after all files were transformed
-    if (!includeTransformer.getIncludeFiles().isEmpty())
+    for (ConvertTarget target : targets)
     {
-      transformIncludes();
-      System.out.println("The following files will not be converted, since they contain include/includeAll:");
-      System.out.println(includeTransformer.getIncludeFiles().stream().map(pPath -> " - " + pPath).collect(Collectors.joining("\n")));
-      System.out.println("If possible, the paths of those includes were transformed to use the new file ending.");
+      // transform the includes after all files were transformed
+      Set<Path> includeFiles = target.getIncludeTransformer().getIncludeFiles();
+      if (shard != null)
+        saveShardState(target);
+      else if (!includeFiles.isEmpty())
+      {
+        transformIncludes(target);
+        getOut().println("The following files will not be converted" + getFormatSuffix(target) + ", since they contain include/includeAll:");
+        getOut().println(includeFiles.stream().map(pPath -> " - " + pPath).collect(Collectors.joining("\n")));
+        getOut().println("If possible, the paths of those includes were transformed to use the new file ending.");
+      }
+
+      if (target.getManifest() != null)
+        target.getManifest().save();
     }
+  }
 
+  /**
+   * Saves the converted files and the files with includes of this shard, so the includes can be transformed with the files of all shards.
+   *
+   * @param pTarget the target
+   * @throws IOException Error while saving
+   */
+  private void saveShardState(@NonNull ConvertTarget pTarget) throws IOException
+  {
+    Map<Path, Path> includeFiles = new LinkedHashMap<>();
+    for (Path includeFile : pTarget.getIncludeTransformer().getIncludeFiles())
+      includeFiles.put(includeFile, generateNewFileName(pTarget, includeFile, false));
+    ShardState.save(shard, pTarget, input, pTarget.getIncludeTransformer().getConvertedFiles(), includeFiles);
 
+    if (!includeFiles.isEmpty())
+      getOut().printf("The %d file(s) with includes%s of shard %s are transformed by the merge-shards command%n", includeFiles.size(),
+                      getFormatSuffix(pTarget), shard);
+  }
+
+  /**
+   * Describes the converting, so only a journal of the same converting is resumed.
+   *
+   * @return the description
+   */
+  @NonNull
+  private String describeConverting()
+  {
+    return "input=" + input.toAbsolutePath().normalize() + ";formats=" + formats + ";databaseTypes=" + databaseTypes + ";shard=" + shard;
+  }
+
+  /**
+   * Closes the resource accessors of all directories.
+   */
+  private void closeResourceAccessors()
+  {
+    for (Map.Entry<Path, ResourceAccessor> entry : resourceAccessors.entrySet())
+    {
+      try
+      {
+        entry.getValue().close();
+      }
+      catch (Exception pE)
+      {
+        log.log(Level.FINE, String.format("could not close the resource accessor of directory '%s'", entry.getKey()), pE);
+      }
+    }
+    resourceAccessors.clear();
+  }
+
+  /**
+   * Prints the result of the converting.
+   *
+   * @return the exit code of the command
+   */
+  private int printResult()
+  {
     if (errorFiles.isEmpty())
       // no errors, everything was fine
       return 0;
@@ -111,16 +414,17 @@ public class FormatConverter implements Callable<Integer>
 
 
       // otherwise, print out every error with their files
-      System.err.println("Error converting " + numberOfErrors + " file(s):");
+      PrintWriter err = getErr();
+      err.println("Error converting " + numberOfErrors + " file(s):");
 
       for (Map.Entry<Error, Set<Path>> entry : errorFiles.entrySet())
       {
         Error error = entry.getKey();
 
-        System.err.println();
-        System.err.println(error.getErrText());
-        System.err.println(entry.getValue().stream().map(pPath -> " - " + pPath).collect(Collectors.joining("\n")));
-        System.err.println(error.getCopyText());
+        err.println();
+        err.println(error.getErrText());
+        err.println(entry.getValue().stream().map(pPath -> " - " + pPath).collect(Collectors.joining("\n")));
+        err.println(error.getCopyText());
       }
 
       return 3;
@@ -128,121 +432,804 @@ public class FormatConverter implements Callable<Integer>
   }
 
   /**
-   * Transforms the files with includes.
+   * Creates the targets for all given formats and database types. SQL is generated for every database type, every other format only once.
+   * If there is only one target, the files are written directly into the output directory. Otherwise, every target gets its own sub directory.
+   *
+   * @throws IOException Error while creating a sub directory
+   */
+  private void createTargets() throws IOException
+  {
+    List<String> distinctDatabaseTypes = databaseTypes == null ? List.of() : databaseTypes.stream()
+        .filter(StringUtils::isNotBlank)
+        .map(String::toLowerCase)
+        .distinct()
+        .collect(Collectors.toList());
+    // the file names of the other formats only contain the database type, if it is unique
+    String commonDatabaseType = distinctDatabaseTypes.size() == 1 ? distinctDatabaseTypes.get(0) : null;
+
+    Map<String, Map.Entry<Format, String>> targetNames = new LinkedHashMap<>();
+    for (Format format : formats.stream().distinct().collect(Collectors.toList()))
+    {
+      if (format == Format.SQL && distinctDatabaseTypes.size() > 1)
+        distinctDatabaseTypes.forEach(pDatabaseType -> targetNames.put(format.name().toLowerCase() + "-" + pDatabaseType, new AbstractMap.SimpleEntry<>(format, pDatabaseType)));
+      else
+        targetNames.put(format.name().toLowerCase(), new AbstractMap.SimpleEntry<>(format, commonDatabaseType));
+    }
+
+    for (Map.Entry<String, Map.Entry<Format, String>> targetName : targetNames.entrySet())
+    {
+      Format format = targetName.getValue().getKey();
+      String databaseType = targetName.getValue().getValue();
+
+      Path targetOutput = output;
+      if (targetNames.size() > 1)
+        targetOutput = Files.createDirectories(output.resolve(targetName.getKey()));
+
+      ConvertManifest manifest = incremental || incrementalChangeSets ? new ConvertManifest(input, targetOutput, format, databaseType, shard) : null;
+      ChangeSetManifest changeSetManifest = incrementalChangeSets ? new ChangeSetManifest(targetOutput) : null;
+      targets.add(new ConvertTarget(format, targetOutput, databaseType, manifest, changeSetManifest, contentCache, yamlCodePointLimit));
+    }
+  }
+
+  /**
+   * Converts the given files. If more than one thread is given, the files are converted concurrently.
+   * If I/O threads are given, the files are read by these threads, while the other threads parse and write the files that were read before.
+   * Files that are only copied are completely handled by the I/O threads, because they do not need a processor.
+   * The output of every file is collected and written in the order of the given files, so the output is always the same.
+   * <p>
+   * Only a limited number of files is read, converted or waiting for its output at the same time. When this limit is reached,
+   * the next file is only started after the output of the oldest file was written. So the memory does not depend on the number of files.
+   *
+   * @param pFiles the files that should be converted
+   * @throws Exception Error while converting a file, that was not handled by the converting
+   */
+  private void convertFiles(@NonNull List<Path> pFiles) throws Exception
+  {
+    if (threads == 1 && ioThreads == 0)
+    {
+      for (Path file : pFiles)
+        convertFile(file, getOut());
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    ExecutorService ioExecutor = createIoExecutor();
+    Semaphore openFiles = new Semaphore(Math.max(ioThreads, 1));
+    try
+    {
+      Deque<Future<String[]>> results = new ArrayDeque<>();
+      for (Path file : pFiles)
+      {
+        if (results.size() >= queueCapacity)
+          printOutput(results.poll());
+        results.add(submitFile(file, executor, ioExecutor, openFiles));
+      }
+
+      while (!results.isEmpty())
+        printOutput(results.poll());
+    }
+    finally
+    {
+      executor.shutdownNow();
+      if (ioExecutor != null)
+        ioExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Creates the executor for reading and copying the files.
+   *
+   * @return the executor or {@code null}, if no I/O threads are given
+   */
+  @Nullable
+  private ExecutorService createIoExecutor()
+  {
+    if (ioThreads == 0)
+      return null;
+
+    if (virtualThreads)
+    {
+      ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+      if (executor != null)
+        return executor;
+      log.fine("virtual threads are not supported by this Java version, platform threads are used instead");
+    }
+    return Executors.newFixedThreadPool(ioThreads);
+  }
+
+  /**
+   * Submits the converting of one file.
+   *
+   * @param pFile       the file that should be converted
+   * @param pExecutor   the executor, that converts the file
+   * @param pIoExecutor the executor, that reads or copies the file, or {@code null}, if the file is read while converting
+   * @param pOpenFiles  the permits for the files, that are read or copied by the I/O executor at the same time
+   * @return the output and the log of the converting
+   */
+  @NonNull
+  private Future<String[]> submitFile(@NonNull Path pFile, @NonNull ExecutorService pExecutor, @Nullable ExecutorService pIoExecutor,
+                                      @NonNull Semaphore pOpenFiles)
+  {
+    if (pIoExecutor == null)
+      return pExecutor.submit(() -> convertFileBuffered(pFile));
+
+    if (!isConvertedFile(pFile))
+      return CompletableFuture.supplyAsync(() -> withOpenFile(pOpenFiles, () -> convertFileBuffered(pFile)), pIoExecutor);
+
+    return CompletableFuture.supplyAsync(() -> withOpenFile(pOpenFiles, () -> readAhead(pFile)), pIoExecutor)
+        .thenApplyAsync(pIgnored -> convertFileBuffered(pFile), pExecutor);
+  }
+
+  /**
+   * Executes a task, while holding one of the permits for the open files.
+   *
+   * @param pOpenFiles the permits for the open files
+   * @param pTask      the task
+   * @param <T>        the type of the result
+   * @return the result of the task
+   */
+  private static <T> T withOpenFile(@NonNull Semaphore pOpenFiles, @NonNull Supplier<T> pTask)
+  {
+    try
+    {
+      pOpenFiles.acquire();
+    }
+    catch (InterruptedException pE)
+    {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("the converting was cancelled");
+    }
+
+    try
+    {
+      return pTask.get();
+    }
+    finally
+    {
+      pOpenFiles.release();
+    }
+  }
+
+  /**
+   * Checks whether a file is converted into at least one target. All other files are only copied.
+   *
+   * @param pFile the file
+   * @return {@code true}, if the file is converted
+   */
+  private boolean isConvertedFile(@NonNull Path pFile)
+  {
+    String extension = FilenameUtils.getExtension(pFile.toString());
+    return Format.isValidFormat(extension) && targets.stream().anyMatch(pTarget -> !pTarget.getFormat().isTargetFormat(extension));
+  }
+
+  /**
+   * Reads a file into the content cache before it is converted.
+   *
+   * @param pFile the file
+   * @return always {@code null}
+   */
+  @Nullable
+  private Void readAhead(@NonNull Path pFile)
+  {
+    long startTime = System.nanoTime();
+    loadContent(pFile);
+    statistics.addTime(ConvertStatistics.Step.READ_AHEAD, startTime);
+    return null;
+  }
+
+  /**
+   * Writes the output and the log of a converted file.
+   *
+   * @param pResult the result of the converting
+   * @throws Exception the exception that was thrown while converting
+   */
+  private void printOutput(@NonNull Future<String[]> pResult) throws Exception
+  {
+    String[] output = getResult(pResult);
+    getOut().print(output[0]);
+    getOut().flush();
+    getErr().print(output[1]);
+    getErr().flush();
+  }
+
+  /**
+   * Converts one file and collects its output and its log.
+   *
+   * @param pFile the file that should be converted
+   * @return the output and the log of the converting
+   */
+  @NonNull
+  private String[] convertFileBuffered(@NonNull Path pFile)
+  {
+    StringWriter outText = new StringWriter();
+    StringWriter errText = new StringWriter();
+    try (PrintWriter out = new PrintWriter(outText); PrintWriter err = new PrintWriter(errText))
+    {
+      logHandler.setThreadWriter(err);
+      convertFile(pFile, out);
+    }
+    finally
+    {
+      logHandler.setThreadWriter(null);
+    }
+    return new String[]{outText.toString(), errText.toString()};
+  }
+
+  /**
+   * Waits for the result of a converting.
+   *
+   * @param pResult the result of a converting
+   * @return the output and the log of the converting
+   * @throws Exception the exception that was thrown while converting
+   */
+  @NonNull
+  private String[] getResult(@NonNull Future<String[]> pResult) throws Exception
+  {
+    // picocli also has an ExecutionException, so the one of the future needs its full name
+    try
+    {
+      return pResult.get();
+    }
+    catch (java.util.concurrent.ExecutionException pE)
+    {
+      if (pE.getCause() instanceof Exception)
+        throw (Exception) pE.getCause();
+      throw pE;
+    }
+  }
+
+  /**
+   * Transforms the files with includes of one target.
+   *
+   * @param pTarget the target
    */
-  private void transformIncludes()
+  private void transformIncludes(@NonNull ConvertTarget pTarget)
   {
-    for (Path includeFile : includeTransformer.getIncludeFiles())
+    for (Path includeFile : pTarget.getIncludeTransformer().getIncludeFiles())
     {
       try
       {
-        System.out.printf("Transforming file '%s' with includes%n", relativizeInput(includeFile));
+        getOut().printf("Transforming file '%s' with includes%s%n", relativizeInput(includeFile), getFormatSuffix(pTarget));
 
-        includeTransformer.transformIncludes(input, includeFile, generateNewFileName(includeFile, false));
+        long startTime = System.nanoTime();
+        Path newFile = generateNewFileName(pTarget, includeFile, false);
+        // the old file could be a hard link to an input file, so it is replaced instead of overwritten
+        Files.deleteIfExists(newFile);
+        pTarget.getIncludeTransformer().transformIncludes(input, includeFile, newFile);
+        statistics.addTime(ConvertStatistics.Step.TRANSFORM_INCLUDES, startTime);
       }
       catch (Exception pE)
       {
-        log.log(Level.WARNING, String.format("error while transforming file with includes '%s' to format %s", includeFile, format), pE);
-        errorFiles.computeIfAbsent(Error.TRANSFORMING_INCLUDES, pKey -> new HashSet<>()).add(includeFile);
-        copyOldFile(includeFile);
+        log.log(Level.WARNING, String.format("error while transforming file with includes '%s' to format %s", includeFile, pTarget.getFormat()), pE);
+        addErrorFile(Error.TRANSFORMING_INCLUDES, includeFile);
+        copyOldFile(pTarget, includeFile);
       }
     }
   }
 
 
   /**
-   * Converts one file.
+   * Converts one file to all targets. The file is only parsed once, even if it is converted to multiple formats.
    *
    * @param pPathToConvert The full path to the existing file, that should be converted
+   * @param pOut           the writer for the output of the converting
    */
-  private void convertFile(@NonNull Path pPathToConvert)
+  private void convertFile(@NonNull Path pPathToConvert, @NonNull PrintWriter pOut)
   {
-
+    statistics.addFile();
     String extension = FilenameUtils.getExtension(pPathToConvert.toString());
-    if (!Format.isValidFormat(extension) || format.isTargetFormat(extension))
+    Boolean containsIncludes = null;
+    ParsedChangelog parsedChangelog = null;
+
+    try
     {
-      // invalid file format or file in the correct target format, just copy the old file to the new location
-      System.out.printf("Copying file '%s' to new location%n", relativizeInput(pPathToConvert));
+      for (ConvertTarget target : targets)
+      {
+        if (skipFinishedFile(target, pPathToConvert, pOut) || skipUnchangedFile(target, pPathToConvert, pOut))
+          continue;
+
+        if (!Format.isValidFormat(extension) || target.getFormat().isTargetFormat(extension))
+        {
+          // invalid file format or file in the correct target format, just copy the old file to the new location
+          pOut.printf("Copying file '%s' to new location%s%n", relativizeInput(pPathToConvert), getFormatSuffix(target));
 
-      copyOldFile(pPathToConvert);
+          Path newFile = copyOldFile(target, pPathToConvert);
+          if (newFile != null)
+            addHandledFile(target, pPathToConvert, ConvertManifest.Kind.COPIED, newFile);
+          continue;
+        }
+
+        if (containsIncludes == null)
+        {
+          // the content is needed for the include check and then either for the parsing or for the transforming of the includes
+          long startTime = System.nanoTime();
+          loadContent(pPathToConvert);
+          containsIncludes = target.getIncludeTransformer().checkForIncludes(pPathToConvert);
+          statistics.addTime(ConvertStatistics.Step.CHECK_INCLUDES, startTime);
+        }
+
+        if (containsIncludes)
+        {
+          // file with include will be transformed after all other files, save those files for later
+          target.getIncludeTransformer().getIncludeFiles().add(pPathToConvert);
+          addHandledFile(target, pPathToConvert, ConvertManifest.Kind.INCLUDE, null);
+        }
+        else
+        {
+          // valid file format, convert it
+          pOut.printf("Converting changeset '%s'%s%n", relativizeInput(pPathToConvert), getFormatSuffix(target));
+
+          long startTime = System.nanoTime();
+          if (convertChangedChangeSets(target, pPathToConvert))
+          {
+            statistics.addTime(ConvertStatistics.Step.CONVERT_CHANGED_CHANGE_SETS, startTime);
+            continue;
+          }
+
+          if (parsedChangelog == null)
+          {
+            parsedChangelog = parse(pPathToConvert);
+            statistics.addTime(ConvertStatistics.Step.PARSE, startTime);
+            startTime = System.nanoTime();
+          }
+
+          convertChangelog(target, pPathToConvert, parsedChangelog);
+          statistics.addTime(ConvertStatistics.Step.WRITE, startTime);
+        }
+      }
     }
-    else if (includeTransformer.checkForIncludes(pPathToConvert))
+    finally
     {
-      // file with include will be transformed after all other files, save those files for later
-      includeTransformer.getIncludeFiles().add(pPathToConvert);
+      // files with includes are still needed, when the includes are transformed
+      if (!Boolean.TRUE.equals(containsIncludes))
+        contentCache.evict(pPathToConvert);
     }
-    else
+  }
+
+  /**
+   * Loads the content of a file into the cache, if it fits into the cache.
+   *
+   * @param pFile the file
+   */
+  private void loadContent(@NonNull Path pFile)
+  {
+    try
+    {
+      contentCache.load(pFile);
+    }
+    catch (IOException pE)
     {
-      // valid file format, convert it
-      System.out.printf("Converting changeset '%s'%n", relativizeInput(pPathToConvert));
+      // the file will be read again and the error will be handled there
+      log.log(Level.FINE, String.format("could not load the content of file '%s'", pFile), pE);
+    }
+  }
 
-      try (ResourceAccessor resourceAccessor = new DirectoryResourceAccessor(pPathToConvert.getParent()))
-      {
-        Path fileName = pPathToConvert.getFileName();
+  /**
+   * Parses a changelog file. The file is parsed only once for all targets.
+   *
+   * @param pPathToConvert The full path to the existing file, that should be parsed
+   * @return the parsed changelog or the error while parsing
+   */
+  @NonNull
+  private ParsedChangelog parse(@NonNull Path pPathToConvert)
+  {
+    try
+    {
+      ResourceAccessor resourceAccessor = getResourceAccessor(pPathToConvert.getParent());
+      String fileName = pPathToConvert.getFileName().toString();
 
-        ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName.toString(), resourceAccessor);
+      ChangeLogParser parser = getParser(fileName, resourceAccessor);
 
-        DatabaseChangeLog changeLog = parser.parse(fileName.toString(), new ChangeLogParameters(), resourceAccessor);
+      if (splitParser != null)
+      {
+        List<ChangeSet> changeSets = splitParser.parse(parser, pPathToConvert);
+        if (changeSets != null)
+        {
+          statistics.addSplitFile();
+          return new ParsedChangelog(changeSets, null);
+        }
+      }
+
+      // the parameters can not be shared, because the properties of a changelog are added to them while parsing
+      return new ParsedChangelog(parser.parse(fileName, new ChangeLogParameters(), resourceAccessor).getChangeSets(), null);
+    }
+    catch (Exception pE)
+    {
+      return new ParsedChangelog(null, pE);
+    }
+  }
 
-        ChangeLogSerializer serializer = ChangeLogSerializerFactory.getInstance().getSerializer(format.getFileEnding());
-        Path newFilePath = generateNewFileName(pPathToConvert, true);
-        try (OutputStream outputStream = Files.newOutputStream(newFilePath))
+  /**
+   * Gets the resource accessor of a directory. It is only created once for all files of the directory.
+   *
+   * @param pDirectory the directory
+   * @return the resource accessor
+   * @throws FileNotFoundException the directory does not exist
+   */
+  @NonNull
+  private ResourceAccessor getResourceAccessor(@NonNull Path pDirectory) throws FileNotFoundException
+  {
+    try
+    {
+      // the resource accessor is created while the map is locked for the directory, so no other thread creates one, that would not be closed
+      return resourceAccessors.computeIfAbsent(pDirectory, pKey -> {
+        try
+        {
+          ResourceAccessor resourceAccessor = new CachedResourceAccessor(pKey, contentCache);
+          statistics.addResourceAccessor();
+          return resourceAccessor;
+        }
+        catch (FileNotFoundException pE)
         {
-          // set the new file path for the changelogs
-          changeLog.getChangeSets().forEach(pChangeSet -> pChangeSet.setFilePath(newFilePath.getFileName().toString()));
-          // and then write them
-          serializer.write(changeLog.getChangeSets(), outputStream);
+          throw new UncheckedIOException(pE);
+        }
+      });
+    }
+    catch (UncheckedIOException pE)
+    {
+      throw (FileNotFoundException) pE.getCause();
+    }
+  }
 
-          includeTransformer.addConvertedFile(pPathToConvert, newFilePath);
+
+  /**
+   * Gets the parser for a changelog file. The parser is only looked up once for every file extension.
+   * Only SQL files are looked up every time, because formatted SQL is found by the content of the file.
+   *
+   * @param pFileName         the name of the changelog file
+   * @param pResourceAccessor the resource accessor of the directory of the file
+   * @return the parser
+   * @throws LiquibaseException no parser was found
+   */
+  @NonNull
+  private ChangeLogParser getParser(@NonNull String pFileName, @NonNull ResourceAccessor pResourceAccessor) throws LiquibaseException
+  {
+    String extension = FilenameUtils.getExtension(pFileName).toLowerCase();
+    if (Format.SQL.isTargetFormat(extension))
+      return lookupParser(pFileName, pResourceAccessor);
+
+    try
+    {
+      // the parser is looked up while the map is locked for the extension, so no other thread looks it up at the same time
+      return parsers.computeIfAbsent(extension, pKey -> {
+        try
+        {
+          return lookupParser(pFileName, pResourceAccessor);
         }
-      }
-      catch (Exception pE)
+        catch (LiquibaseException pE)
+        {
+          throw new UnexpectedLiquibaseException(pE);
+        }
+      });
+    }
+    catch (UnexpectedLiquibaseException pE)
+    {
+      if (pE.getCause() instanceof LiquibaseException)
+        throw (LiquibaseException) pE.getCause();
+      throw pE;
+    }
+  }
+
+  /**
+   * Looks up the parser for a changelog file in the factory. The XML parser of Liquibase is replaced by the parser, that compiles every XSD only once,
+   * and the JSON parser of Liquibase by the parser, that reads the changelogs with Gson.
+   *
+   * @param pFileName         the name of the changelog file
+   * @param pResourceAccessor the resource accessor of the directory of the file
+   * @return the parser
+   * @throws LiquibaseException no parser was found
+   */
+  @NonNull
+  private ChangeLogParser lookupParser(@NonNull String pFileName, @NonNull ResourceAccessor pResourceAccessor) throws LiquibaseException
+  {
+    statistics.addParserLookup();
+    ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(pFileName, pResourceAccessor);
+    if (parser.getClass() == XMLChangeLogSAXParser.class)
+      return xmlParser;
+    if (parser.getClass() == JsonChangeLogParser.class)
+      return jsonParser;
+    return parser;
+  }
+
+  /**
+   * Writes a parsed changelog in the format of a target.
+   *
+   * @param pTarget         the target
+   * @param pPathToConvert  The full path to the existing file, that was parsed
+   * @param pParsedChangelog the parsed changelog
+   */
+  private void convertChangelog(@NonNull ConvertTarget pTarget, @NonNull Path pPathToConvert, @NonNull ParsedChangelog pParsedChangelog)
+  {
+    try
+    {
+      List<ChangeSet> changeSets = pParsedChangelog.getChangeSets();
+      if (changeSets == null)
+        throw Objects.requireNonNull(pParsedChangelog.getError());
+
+      Path newFilePath = generateNewFileName(pTarget, pPathToConvert, true);
+      // set the new file path for the changelogs
+      changeSets.forEach(pChangeSet -> pChangeSet.setFilePath(newFilePath.getFileName().toString()));
+      // and then write them
+      writeChangeSets(pTarget, changeSets, newFilePath);
+      if (pTarget.getChangeSetManifest() != null)
+        pTarget.getChangeSetManifest().add(pTarget, scanChangelog(pPathToConvert), changeSets, newFilePath);
+
+      pTarget.getIncludeTransformer().addConvertedFile(pPathToConvert, newFilePath);
+      addHandledFile(pTarget, pPathToConvert, ConvertManifest.Kind.CONVERTED, newFilePath);
+    }
+    catch (Exception pE)
+    {
+      log.log(Level.WARNING, String.format("error converting file '%s' to format %s", pPathToConvert, pTarget.getFormat()), pE);
+      addErrorFile(Error.CONVERTING_FILES, pPathToConvert);
+      copyOldFile(pTarget, pPathToConvert);
+    }
+  }
+
+
+  /**
+   * Converts only the new and changed changeSets of a file, if the changeSets of the last converting were stored.
+   *
+   * @param pTarget        the target
+   * @param pPathToConvert The full path to the existing file, that should be converted
+   * @return {@code true}, if the file was converted, {@code false}, if the file needs to be converted as a whole
+   */
+  private boolean convertChangedChangeSets(@NonNull ConvertTarget pTarget, @NonNull Path pPathToConvert)
+  {
+    ChangeSetManifest changeSetManifest = pTarget.getChangeSetManifest();
+    if (changeSetManifest == null)
+      return false;
+
+    try
+    {
+      ChangelogSplitter.Document changelog = scanChangelog(pPathToConvert);
+      if (changelog == null)
+        return false;
+
+      ResourceAccessor resourceAccessor = getResourceAccessor(pPathToConvert.getParent());
+      ChangeLogParser parser = getParser(pPathToConvert.getFileName().toString(), resourceAccessor);
+      Path newFilePath = generateNewFileName(pTarget, pPathToConvert, true);
+
+      int reusedChangeSets = changeSetManifest.convertChanged(pTarget, changelog, parser, pPathToConvert, newFilePath);
+      if (reusedChangeSets < 0)
+        return false;
+
+      statistics.addReusedChangeSets(reusedChangeSets);
+      pTarget.getIncludeTransformer().addConvertedFile(pPathToConvert, newFilePath);
+      addHandledFile(pTarget, pPathToConvert, ConvertManifest.Kind.CONVERTED, newFilePath);
+      return true;
+    }
+    catch (Exception pE)
+    {
+      // the file is converted as a whole and any error is reported there
+      log.log(Level.FINE, String.format("could not convert the changed changeSets of file '%s'", pPathToConvert), pE);
+      return false;
+    }
+  }
+
+  /**
+   * Scans the top-level entries of a changelog.
+   *
+   * @param pFile the changelog
+   * @return the scanned changelog or {@code null}, if the changelog can not be scanned
+   */
+  @Nullable
+  private ChangelogSplitter.Document scanChangelog(@NonNull Path pFile)
+  {
+    Format format = ChangelogSplitter.getFormat(pFile.getFileName().toString());
+    if (format == null)
+      return null;
+
+    try
+    {
+      byte[] content = contentCache.get(pFile);
+      if (content == null)
+        content = Files.readAllBytes(pFile);
+      return ChangelogSplitter.scan(content, format);
+    }
+    catch (IOException pE)
+    {
+      log.log(Level.FINE, String.format("could not scan file '%s'", pFile), pE);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the changeSets into a temporary file, that is moved to the new file afterwards. So a failure never leaves a partly written file.
+   *
+   * @param pTarget     the target
+   * @param pChangeSets the changeSets that should be written
+   * @param pNewFile    the new file
+   * @throws Exception Error while writing
+   */
+  private void writeChangeSets(@NonNull ConvertTarget pTarget, @NonNull List<ChangeSet> pChangeSets, @NonNull Path pNewFile) throws Exception
+  {
+    Path tempFile = TempFiles.createSibling(pNewFile);
+    try
+    {
+      try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile)))
       {
-        log.log(Level.WARNING, String.format("error converting file '%s' to format %s", pPathToConvert, format), pE);
-        errorFiles.computeIfAbsent(Error.CONVERTING_FILES, pKey -> new HashSet<>()).add(pPathToConvert);
-        copyOldFile(pPathToConvert);
+        pTarget.write(pChangeSets, outputStream);
       }
+      Files.move(tempFile, pNewFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally
+    {
+      Files.deleteIfExists(tempFile);
     }
   }
 
+  /**
+   * Skips a file, if it was finished by the converting, that is resumed, and did not change since then.
+   * The results of the finished file are registered again, so the includes can be transformed.
+   *
+   * @param pTarget        the target
+   * @param pPathToConvert the file
+   * @param pOut           the writer for the output of the converting
+   * @return {@code true}, if the file was finished
+   */
+  private boolean skipFinishedFile(@NonNull ConvertTarget pTarget, @NonNull Path pPathToConvert, @NonNull PrintWriter pOut)
+  {
+    ConvertJournal.Entry entry = journal.getFinishedEntry(pTarget, pPathToConvert);
+    if (entry == null)
+      return false;
+
+    Path outputFile = entry.getOutput() == null ? null : journal.getOutputFile(entry);
+    if (entry.getKind() == ConvertManifest.Kind.INCLUDE)
+      pTarget.getIncludeTransformer().getIncludeFiles().add(pPathToConvert);
+    else
+    {
+      if (entry.getKind() == ConvertManifest.Kind.CONVERTED)
+        pTarget.getIncludeTransformer().addConvertedFile(pPathToConvert, Objects.requireNonNull(outputFile));
+      pOut.printf("Skipping finished file '%s'%s%n", relativizeInput(pPathToConvert), getFormatSuffix(pTarget));
+    }
+    addToManifest(pTarget, pPathToConvert, entry.getKind(), outputFile);
+    return true;
+  }
 
   /**
-   * Copies an old file to the new location without converting.
+   * Skips a file, if it did not change since the last converting into the output directory.
+   * The results of the last converting are still registered, so the includes can be transformed.
    *
+   * @param pTarget        the target
+   * @param pPathToConvert The full path to the existing file, that should be converted
+   * @param pOut           the writer for the output of the converting
+   * @return {@code true}, if the file was skipped
+   */
+  private boolean skipUnchangedFile(@NonNull ConvertTarget pTarget, @NonNull Path pPathToConvert, @NonNull PrintWriter pOut)
+  {
+    ConvertManifest manifest = pTarget.getManifest();
+    if (manifest == null)
+      return false;
+
+    ConvertManifest.Entry entry;
+    try
+    {
+      entry = manifest.getUnchangedEntry(pPathToConvert);
+    }
+    catch (IOException pE)
+    {
+      // the file will be converted and the error will be handled there
+      log.log(Level.FINE, String.format("could not check file '%s' for changes", pPathToConvert), pE);
+      return false;
+    }
+
+    if (entry == null)
+      return false;
+
+    if (entry.getKind() == ConvertManifest.Kind.INCLUDE)
+      // files with includes are always transformed again, because any included file could have a new name
+      pTarget.getIncludeTransformer().getIncludeFiles().add(pPathToConvert);
+    else
+    {
+      if (entry.getKind() == ConvertManifest.Kind.CONVERTED)
+        pTarget.getIncludeTransformer().addConvertedFile(pPathToConvert, manifest.getOutputFile(entry));
+      pOut.printf("Skipping unchanged file '%s'%s%n", relativizeInput(pPathToConvert), getFormatSuffix(pTarget));
+    }
+    return true;
+  }
+
+  /**
+   * Adds a file that was handled successfully to the journal and to the manifest of the target, if there is any.
+   *
+   * @param pTarget     the target
+   * @param pFile       The input file
+   * @param pKind       how the file was handled
+   * @param pOutputFile the produced file or {@code null}, if the file contains includes
+   */
+  private void addHandledFile(@NonNull ConvertTarget pTarget, @NonNull Path pFile, @NonNull ConvertManifest.Kind pKind, @Nullable Path pOutputFile)
+  {
+    try
+    {
+      journal.add(pTarget, pFile, pKind, pOutputFile);
+    }
+    catch (IOException pE)
+    {
+      // the file will only be converted again, if the converting is resumed
+      log.log(Level.FINE, String.format("could not add file '%s' to the journal", pFile), pE);
+    }
+    addToManifest(pTarget, pFile, pKind, pOutputFile);
+  }
+
+  /**
+   * Adds a file that was handled successfully to the manifest of the target, if there is any.
+   *
+   * @param pTarget     the target
+   * @param pFile       The input file
+   * @param pKind       how the file was handled
+   * @param pOutputFile the produced file or {@code null}, if the file contains includes
+   */
+  private void addToManifest(@NonNull ConvertTarget pTarget, @NonNull Path pFile, @NonNull ConvertManifest.Kind pKind, @Nullable Path pOutputFile)
+  {
+    ConvertManifest manifest = pTarget.getManifest();
+    if (manifest == null)
+      return;
+
+    try
+    {
+      manifest.add(pFile, pKind, pOutputFile);
+    }
+    catch (IOException pE)
+    {
+      // the file will only be converted again on the next call
+      log.log(Level.FINE, String.format("could not add file '%s' to the manifest", pFile), pE);
+    }
+  }
+
+  /**
+   * Copies an old file to the new location of a target without converting.
+   *
+   * @param pTarget  the target
    * @param pOldFile The file that needs to be copied
+   * @return the new file or {@code null}, if the file could not be copied
    */
-  private void copyOldFile(Path pOldFile)
+  @Nullable
+  private Path copyOldFile(@NonNull ConvertTarget pTarget, Path pOldFile)
   {
     try
     {
-      Path newFile = generateNewFileName(pOldFile, false);
+      Path newFile = generateNewFileName(pTarget, pOldFile, false);
 
-      Files.copy(pOldFile, newFile, StandardCopyOption.REPLACE_EXISTING);
+      if (!passThrough.transfer(pOldFile, newFile, cloneSupport))
+        statistics.addIdenticalFile();
+      return newFile;
     }
     catch (IOException pE)
     {
-      errorFiles.computeIfAbsent(Error.COPYING_FILES, pKey -> new HashSet<>()).add(pOldFile);
+      addErrorFile(Error.COPYING_FILES, pOldFile);
       log.log(Level.WARNING, String.format("error copying file '%s' to new target dir", pOldFile), pE);
+      return null;
     }
   }
 
+  /**
+   * Adds a file that could not be converted.
+   *
+   * @param pError the error that occurred
+   * @param pFile  the file
+   */
+  private void addErrorFile(@NonNull Error pError, @NonNull Path pFile)
+  {
+    errorFiles.computeIfAbsent(pError, pKey -> new ConcurrentSkipListSet<>()).add(pFile);
+  }
+
   /**
    * Generate the new file name under which the new file should be saved.
    *
+   * @param pTarget       the target for which the new file is created
    * @param pToConvert    the current file (with full path) that should be converted
    * @param pChangeEnding if the ending should be changed
    * @return the new path and file name
    * @throws IOException Error while creating any necessary directories for the new output location.
    */
   @NonNull
-  private Path generateNewFileName(@NonNull Path pToConvert, boolean pChangeEnding) throws IOException
+  private Path generateNewFileName(@NonNull ConvertTarget pTarget, @NonNull Path pToConvert, boolean pChangeEnding) throws IOException
   {
     String newFileName;
     if (pChangeEnding)
     {
       // Find out file name with new extension
       String baseName = FilenameUtils.getBaseName(pToConvert.toString());
-      newFileName = baseName + (StringUtils.isBlank(databaseType) ? "" : ("." + databaseType.toLowerCase())) + format.getFileEnding();
+      newFileName = baseName + (pTarget.getDatabaseType() == null ? "" : ("." + pTarget.getDatabaseType())) + pTarget.getFormat().getFileEnding();
     }
     else
     {
@@ -253,7 +1240,7 @@ public class FormatConverter implements Callable<Integer>
     if (input.equals(pToConvert))
     {
       // if we have a single file, then we do not need to find out the location in the folder
-      newLocationInOutput = output;
+      newLocationInOutput = pTarget.getOutput();
     }
     else
     {
@@ -262,15 +1249,51 @@ public class FormatConverter implements Callable<Integer>
       Path relativePathInInput = input.relativize(pToConvert);
 
       // then find the new location with the same relative path in the output directory
-      newLocationInOutput = output.resolve(relativePathInInput).getParent();
-      if (Files.notExists(newLocationInOutput))
-        Files.createDirectories(newLocationInOutput);
+      newLocationInOutput = pTarget.getOutput().resolve(relativePathInInput).getParent();
+      // this does not fail, when another thread has created the directory at the same time
+      Files.createDirectories(newLocationInOutput);
     }
 
     // and finally, set the new file name
     return newLocationInOutput.resolve(newFileName);
   }
 
+  /**
+   * Gets the suffix for the output of a target, so the output of multiple formats can be distinguished.
+   *
+   * @param pTarget the target
+   * @return the suffix or an empty string, if there is only one target
+   */
+  @NonNull
+  private String getFormatSuffix(@NonNull ConvertTarget pTarget)
+  {
+    if (targets.size() == 1)
+      return "";
+    return " for format " + pTarget.getFormat() + (pTarget.getFormat() == Format.SQL && pTarget.getDatabaseType() != null ? " (" + pTarget.getDatabaseType() + ")" : "");
+  }
+
+  /**
+   * The writer for the normal output of the command. This should be used instead of {@link System#out}.
+   *
+   * @return the writer for the output
+   */
+  @NonNull
+  private PrintWriter getOut()
+  {
+    return spec.commandLine().getOut();
+  }
+
+  /**
+   * The writer for the error output of the command. This should be used instead of {@link System#err}.
+   *
+   * @return the writer for the error output
+   */
+  @NonNull
+  private PrintWriter getErr()
+  {
+    return spec.commandLine().getErr();
+  }
+
   /**
    * Relativizes a path to the input directory.
    *
@@ -283,4 +1306,24 @@ public class FormatConverter implements Callable<Integer>
     return input.getParent().relativize(pPath);
   }
 
+  /**
+   * The result of parsing a changelog file, that is shared by all targets.
+   */
+  @AllArgsConstructor
+  @Getter
+  private static class ParsedChangelog
+  {
+    /**
+     * The changeSets of the parsed changelog or {@code null}, if the file could not be parsed.
+     */
+    @Nullable
+    private final List<ChangeSet> changeSets;
+
+    /**
+     * The error while parsing or {@code null}, if the file was parsed.
+     */
+    @Nullable
+    private final Exception error;
+  }
+
 }
@@ -0,0 +1,298 @@
+package de.adito.convert;
+
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Collects the files of an input directory, that should be converted.
+ * <p>
+ * The directory is walked with {@link Files#walkFileTree(Path, FileVisitor)}, so the attributes of every entry are only read once.
+ * Excluded directories and directories ignored by {@code .gitignore} are skipped as a whole and their content is never read.
+ * <p>
+ * Glob patterns without a slash are matched against the name of every file and directory, all other patterns against the path relative to the input
+ * directory, e.g. {@code node_modules} excludes every directory with this name and {@code db/*.csv} only the CSV files directly in {@code db}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+class InputWalker
+{
+  /**
+   * The name of the files with the patterns of the files, that are ignored by git.
+   */
+  private static final String GITIGNORE_FILE = ".gitignore";
+
+  /**
+   * The name of the directory of git, that is always ignored, if the {@code .gitignore} files are used.
+   */
+  private static final String GIT_DIRECTORY = ".git";
+
+  /**
+   * The patterns of the files, that are collected. If there are no patterns, all files are collected.
+   */
+  private final List<Rule> includes;
+
+  /**
+   * The patterns of the files and directories, that are skipped.
+   */
+  private final List<Rule> excludes;
+
+  /**
+   * Whether the {@code .gitignore} files are used.
+   */
+  private final boolean gitignore;
+
+  /**
+   * Creates a new walker.
+   *
+   * @param pIncludes  the glob patterns of the files, that are collected, or {@code null}, if all files are collected
+   * @param pExcludes  the glob patterns of the files and directories, that are skipped, or {@code null}, if nothing is skipped
+   * @param pGitignore whether the files and directories ignored by the {@code .gitignore} files are skipped
+   * @throws PatternSyntaxException if a pattern is not a valid glob pattern
+   */
+  InputWalker(@Nullable List<String> pIncludes, @Nullable List<String> pExcludes, boolean pGitignore)
+  {
+    includes = createRules(pIncludes);
+    excludes = createRules(pExcludes);
+    gitignore = pGitignore;
+  }
+
+  /**
+   * Collects all files of a directory in a fixed order. Symbolic links to files are collected, symbolic links to directories are not followed.
+   *
+   * @param pDirectory the directory
+   * @return the sorted files
+   * @throws IOException Error while reading a directory
+   */
+  @NonNull
+  List<Path> walk(@NonNull Path pDirectory) throws IOException
+  {
+    List<Path> files = new ArrayList<>();
+    Deque<List<Rule>> ignoredRules = new ArrayDeque<>();
+
+    Files.walkFileTree(pDirectory, new SimpleFileVisitor<>()
+    {
+      @Override
+      public FileVisitResult preVisitDirectory(Path pDir, BasicFileAttributes pAttributes) throws IOException
+      {
+        if (!pDir.equals(pDirectory) && isSkipped(pDirectory, pDir, true, ignoredRules))
+          return FileVisitResult.SKIP_SUBTREE;
+
+        if (gitignore)
+          ignoredRules.push(readGitignore(pDirectory, pDir));
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttributes)
+      {
+        // only links need to be read again, to know whether they point to a directory
+        boolean directory = pAttributes.isDirectory() || (pAttributes.isSymbolicLink() && Files.isDirectory(pFile));
+        if (!directory && !isSkipped(pDirectory, pFile, false, ignoredRules) && isIncluded(pDirectory, pFile))
+          files.add(pFile);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path pDir, IOException pException) throws IOException
+      {
+        if (pException != null)
+          throw pException;
+        if (gitignore)
+          ignoredRules.pop();
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    Collections.sort(files);
+    return files;
+  }
+
+  /**
+   * Checks whether a file or directory is excluded or ignored by git.
+   *
+   * @param pRoot         the input directory
+   * @param pPath         the file or directory
+   * @param pDirectory    whether the path is a directory
+   * @param pIgnoredRules the rules of the {@code .gitignore} files of all parent directories, the innermost directory first
+   * @return {@code true}, if the path should be skipped
+   */
+  private boolean isSkipped(@NonNull Path pRoot, @NonNull Path pPath, boolean pDirectory, @NonNull Deque<List<Rule>> pIgnoredRules)
+  {
+    if (excludes.stream().anyMatch(pRule -> pRule.matches(pRoot, pPath, pDirectory)))
+      return true;
+    if (!gitignore)
+      return false;
+    if (pDirectory && GIT_DIRECTORY.equals(pPath.getFileName().toString()))
+      return true;
+
+    // the last matching rule decides, and the rules of the inner directories come after the rules of the outer directories
+    Iterator<List<Rule>> innerFirst = pIgnoredRules.iterator();
+    while (innerFirst.hasNext())
+    {
+      List<Rule> rules = innerFirst.next();
+      for (int i = rules.size() - 1; i >= 0; i--)
+      {
+        Rule rule = rules.get(i);
+        if (rule.matches(rule.base == null ? pRoot : rule.base, pPath, pDirectory))
+          return !rule.negated;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether a file matches the include patterns.
+   *
+   * @param pRoot the input directory
+   * @param pFile the file
+   * @return {@code true}, if there are no include patterns or the file matches one of them
+   */
+  private boolean isIncluded(@NonNull Path pRoot, @NonNull Path pFile)
+  {
+    return includes.isEmpty() || includes.stream().anyMatch(pRule -> pRule.matches(pRoot, pFile, false));
+  }
+
+  /**
+   * Creates the rules of the glob patterns from the command line.
+   *
+   * @param pPatterns the patterns or {@code null}
+   * @return the rules
+   */
+  @NonNull
+  private static List<Rule> createRules(@Nullable List<String> pPatterns)
+  {
+    List<Rule> rules = new ArrayList<>();
+    if (pPatterns != null)
+      for (String pattern : pPatterns)
+        if (!pattern.isBlank())
+          rules.add(new Rule(null, FileSystems.getDefault().getPathMatcher("glob:" + pattern), pattern.contains("/"), false, false));
+    return rules;
+  }
+
+  /**
+   * Reads the {@code .gitignore} file of a directory. Invalid patterns are ignored.
+   *
+   * @param pRoot      the input directory
+   * @param pDirectory the directory
+   * @return the rules of the file in their order, or an empty list, if the directory has no such file
+   * @throws IOException Error while reading the file
+   */
+  @NonNull
+  private static List<Rule> readGitignore(@NonNull Path pRoot, @NonNull Path pDirectory) throws IOException
+  {
+    Path file = pDirectory.resolve(GITIGNORE_FILE);
+    if (!Files.isRegularFile(file))
+      return List.of();
+
+    List<Rule> rules = new ArrayList<>();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8))
+    {
+      try
+      {
+        Rule rule = createGitignoreRule(pDirectory, line);
+        if (rule != null)
+          rules.add(rule);
+      }
+      catch (PatternSyntaxException pE)
+      {
+        log.log(Level.FINE, String.format("ignoring invalid pattern '%s' of file '%s'", line, pRoot.relativize(file)), pE);
+      }
+    }
+    return rules;
+  }
+
+  /**
+   * Creates the rule of one line of a {@code .gitignore} file.
+   *
+   * @param pDirectory the directory of the file
+   * @param pLine      the line
+   * @return the rule or {@code null}, if the line is empty or a comment
+   */
+  @Nullable
+  private static Rule createGitignoreRule(@NonNull Path pDirectory, @NonNull String pLine)
+  {
+    String pattern = pLine.stripTrailing();
+    if (pattern.isEmpty() || pattern.startsWith("#"))
+      return null;
+
+    boolean negated = pattern.startsWith("!");
+    if (negated)
+      pattern = pattern.substring(1);
+    else if (pattern.startsWith("\\!") || pattern.startsWith("\\#"))
+      pattern = pattern.substring(1);
+
+    boolean directoryOnly = pattern.endsWith("/");
+    if (directoryOnly)
+      pattern = pattern.substring(0, pattern.length() - 1);
+
+    // a slash at the beginning or in the middle binds the pattern to the directory of the file
+    boolean anchored = pattern.contains("/");
+    if (pattern.startsWith("/"))
+      pattern = pattern.substring(1);
+    if (pattern.isEmpty())
+      return null;
+
+    // braces are no special characters in git
+    String glob = pattern.replace("{", "\\{").replace("}", "\\}");
+    return new Rule(pDirectory, FileSystems.getDefault().getPathMatcher("glob:" + glob), anchored, negated, directoryOnly);
+  }
+
+  /**
+   * One glob pattern.
+   */
+  @AllArgsConstructor
+  private static class Rule
+  {
+    /**
+     * The directory to which the pattern is relative, or {@code null}, if it is relative to the input directory.
+     */
+    @Nullable
+    private final Path base;
+
+    /**
+     * The matcher of the pattern.
+     */
+    @NonNull
+    private final PathMatcher matcher;
+
+    /**
+     * Whether the pattern is matched against the relative path. Otherwise, it is matched against the name.
+     */
+    private final boolean anchored;
+
+    /**
+     * Whether a matching path is not skipped, although a previous pattern skipped it.
+     */
+    private final boolean negated;
+
+    /**
+     * Whether the pattern only matches directories.
+     */
+    private final boolean directoryOnly;
+
+    /**
+     * Checks whether a path matches the pattern.
+     *
+     * @param pBase      the directory to which the path is relativized for anchored patterns
+     * @param pPath      the path
+     * @param pDirectory whether the path is a directory
+     * @return {@code true}, if the path matches
+     */
+    boolean matches(@NonNull Path pBase, @NonNull Path pPath, boolean pDirectory)
+    {
+      if (directoryOnly && !pDirectory)
+        return false;
+      return matcher.matches(anchored ? pBase.relativize(pPath) : pPath.getFileName());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package de.adito.convert;
+
+import de.adito.util.*;
+import lombok.*;
+import lombok.extern.java.Log;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * The strategies for the files, that are not converted and only need to be in the output directory,
+ * e.g. the data files of {@code loadData} or the changelogs that are already in the target format.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+@AllArgsConstructor
+@Getter
+public enum PassThrough
+{
+  /**
+   * Copies every file.
+   */
+  COPY("copy"),
+
+  /**
+   * Copies only the files, whose target has a different size, modification time or content.
+   */
+  SKIP_IDENTICAL("skip-identical"),
+
+  /**
+   * Creates a hard link to every file. Files on another file system than the output are copied.
+   */
+  HARDLINK("hardlink"),
+
+  /**
+   * Clones every file with at least 1 MiB on file systems with copy on write. Smaller files and the files on all other file systems are copied
+   * by the operating system.
+   */
+  REFLINK("reflink");
+
+  /**
+   * The value of the strategy in the command line.
+   */
+  private final @NonNull String optionValue;
+
+  /**
+   * Brings a file into the output directory.
+   *
+   * @param pSource       the file
+   * @param pTarget       the file in the output directory
+   * @param pCloneSupport the file systems of the current run, on which cloning is not supported
+   * @return {@code true}, if the target was written, {@code false}, if it was already identical
+   * @throws IOException Error while writing the target
+   */
+  boolean transfer(@NonNull Path pSource, @NonNull Path pTarget, @NonNull CloneSupport pCloneSupport) throws IOException
+  {
+    switch (this)
+    {
+      case SKIP_IDENTICAL:
+        if (FileTransfers.isIdentical(pSource, pTarget))
+          return false;
+        FileTransfers.copyWithModificationTime(pSource, pTarget);
+        return true;
+
+      case HARDLINK:
+        try
+        {
+          FileTransfers.link(pSource, pTarget);
+        }
+        catch (FileSystemException | UnsupportedOperationException pE)
+        {
+          log.log(Level.FINE, String.format("could not link file '%s', it is copied instead", pSource), pE);
+          Files.copy(pSource, pTarget, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+
+      case REFLINK:
+        FileTransfers.cloneOrTransfer(pSource, pTarget, pCloneSupport);
+        return true;
+
+      default:
+        Files.copy(pSource, pTarget, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return optionValue;
+  }
+
+  /**
+   * Converts the value of the command line to the strategy.
+   */
+  public static class Converter implements CommandLine.ITypeConverter<PassThrough>
+  {
+    @Override
+    public PassThrough convert(String pValue)
+    {
+      return Arrays.stream(values())
+          .filter(pPassThrough -> pPassThrough.optionValue.equals(pValue))
+          .findFirst()
+          .orElseThrow(() -> new CommandLine.TypeConversionException(
+              String.format("expected one of %s but was '%s'", Arrays.stream(values()).map(PassThrough::getOptionValue).collect(Collectors.joining(", ", "[", "]")),
+                            pValue)));
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package de.adito.convert;
+
+import lombok.*;
+import picocli.CommandLine;
+
+/**
+ * One part of a converting, that is spread over multiple processes or machines.
+ * <p>
+ * Every file of the input directory belongs to exactly one shard. The shard is given by a stable hash of the path of the file relative to the input
+ * directory, so every machine assigns the same files to the same shard. A file with includes is therefore always found by the same owner shard.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@AllArgsConstructor
+@Getter
+public final class Shard
+{
+  /**
+   * The index of this shard, starting with 1.
+   */
+  private final int index;
+
+  /**
+   * The number of all shards.
+   */
+  private final int count;
+
+  /**
+   * Checks whether a file belongs to this shard.
+   *
+   * @param pRelativePath the path of the file relative to the input directory with slashes as separators
+   * @return {@code true}, if this shard converts the file
+   */
+  boolean owns(@NonNull String pRelativePath)
+  {
+    // the hash code of strings is specified, so it is the same on every machine and in every Java version
+    return Math.floorMod(pRelativePath.hashCode(), count) == index - 1;
+  }
+
+  /**
+   * Gets the name of this shard, that can be used in file names.
+   *
+   * @return the name, e.g. {@code 2-of-4}
+   */
+  @NonNull
+  String getName()
+  {
+    return index + "-of-" + count;
+  }
+
+  @Override
+  public String toString()
+  {
+    return index + "/" + count;
+  }
+
+  /**
+   * Converts the value of the command line in the form {@code INDEX/COUNT} to the shard.
+   */
+  public static class Converter implements CommandLine.ITypeConverter<Shard>
+  {
+    @Override
+    public Shard convert(String pValue)
+    {
+      String[] parts = pValue.split("/", -1);
+      try
+      {
+        if (parts.length == 2)
+        {
+          int index = Integer.parseInt(parts[0].trim());
+          int count = Integer.parseInt(parts[1].trim());
+          if (count >= 1 && index >= 1 && index <= count)
+            return new Shard(index, count);
+        }
+      }
+      catch (NumberFormatException pE)
+      {
+        // the same message as for all other invalid values
+      }
+      throw new CommandLine.TypeConversionException("expected INDEX/COUNT with 1 <= INDEX <= COUNT but was '" + pValue + "'");
+    }
+  }
+}
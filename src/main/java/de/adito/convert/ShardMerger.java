@@ -0,0 +1,264 @@
+package de.adito.convert;
+
+import de.adito.convert.include.IncludeTransformer;
+import de.adito.util.*;
+import lombok.*;
+import lombok.extern.java.Log;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.*;
+import java.util.stream.*;
+
+/**
+ * Transforms the includes of a converting, that was spread over multiple shards with {@code convert --shard}.
+ * <p>
+ * Every shard only knows the files it converted itself. This command combines the converted files of all shards, so the includes are transformed
+ * once with the new paths of all files. The output directories of all shards need to be combined into one output directory before.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@CommandLine.Command(name = "merge-shards", description = "Transforms the includes of the files, that were converted by all shards of convert --shard",
+    version = "1.0.0", mixinStandardHelpOptions = true,
+    exitCodeListHeading = "Exit codes\n",
+    exitCodeList = {
+        "0:Successful program execution",
+        "1:The states of the shards are missing or do not belong together",
+        "3:Partial successful programm execution (check output afterwards)"
+    })
+@NoArgsConstructor
+@Log
+public class ShardMerger implements Callable<Integer>
+{
+
+  @Parameters(description = "The input directory, that was given to all shards", index = "0", converter = ExistingFolderConverter.class)
+  private Path input;
+
+  @Parameters(description = "The output directory with the combined output of all shards", index = "1", converter = ExistingFolderConverter.class)
+  private Path output;
+
+  @Spec
+  private CommandSpec spec;
+
+  /**
+   * The files that could not be transformed or copied.
+   */
+  private final Map<Error, Set<Path>> errorFiles = new EnumMap<>(Error.class);
+
+  @Override
+  public Integer call() throws Exception
+  {
+    // write the log of this package to the error writer of the command, to always write to the console of the caller
+    Logger packageLogger = Logger.getLogger(ShardMerger.class.getPackageName());
+    WriterLogHandler logHandler = WriterLogHandler.addTo(packageLogger, getErr());
+    try
+    {
+      return merge();
+    }
+    finally
+    {
+      logHandler.removeFrom(packageLogger);
+    }
+  }
+
+  /**
+   * Checks the states of the shards of every target and transforms the includes.
+   *
+   * @return the exit code
+   * @throws IOException Error while reading the states
+   */
+  private int merge() throws IOException
+  {
+    List<Path> targetOutputs = findTargetOutputs();
+    if (targetOutputs.isEmpty())
+      throw new ParameterException(spec.commandLine(), String.format("No shards were found in the output directory '%s'", output));
+
+    Map<Path, List<ShardState>> statesByTarget = new LinkedHashMap<>();
+    for (Path targetOutput : targetOutputs)
+    {
+      List<ShardState> states = ShardState.loadAll(targetOutput);
+      String problem = checkStates(states);
+      if (problem != null)
+      {
+        getErr().printf("The shards in '%s' can not be merged: %s%n", targetOutput, problem);
+        return 1;
+      }
+      statesByTarget.put(targetOutput, states);
+    }
+
+    for (Map.Entry<Path, List<ShardState>> entry : statesByTarget.entrySet())
+      transformIncludes(entry.getKey(), entry.getValue(), statesByTarget.size() == 1);
+
+    return printResult();
+  }
+
+  /**
+   * Finds the output directories of all targets with states of shards. This is either the output directory itself,
+   * or its sub directories, if multiple formats or database types were converted.
+   *
+   * @return the sorted output directories of the targets
+   * @throws IOException Error while listing the output directory
+   */
+  @NonNull
+  private List<Path> findTargetOutputs() throws IOException
+  {
+    if (ShardState.exists(output))
+      return List.of(output);
+
+    try (Stream<Path> directories = Files.list(output))
+    {
+      return directories.filter(ShardState::exists).sorted().collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Checks that the states of exactly all shards of one converting exist.
+   *
+   * @param pStates the states sorted by their index
+   * @return the problem or {@code null}, if the states belong together
+   */
+  private static String checkStates(@NonNull List<ShardState> pStates)
+  {
+    ShardState first = pStates.get(0);
+    if (pStates.stream().anyMatch(pState -> pState.getCount() != first.getCount() || pState.getFormat() != first.getFormat()
+        || !Objects.equals(pState.getDatabaseType(), first.getDatabaseType())))
+      return "the shards have different counts, formats or database types";
+
+    Set<Integer> indexes = pStates.stream().map(ShardState::getIndex).collect(Collectors.toSet());
+    String missing = IntStream.rangeClosed(1, first.getCount())
+        .filter(pIndex -> !indexes.contains(pIndex))
+        .mapToObj(String::valueOf)
+        .collect(Collectors.joining(", "));
+    if (!missing.isEmpty())
+      return "missing shards " + missing + " of " + first.getCount();
+    return null;
+  }
+
+  /**
+   * Transforms the files with includes of all shards of one target with the converted files of all shards.
+   *
+   * @param pTargetOutput the output directory of the target
+   * @param pStates       the states of all shards
+   * @param pSingleTarget whether this is the only target, so the output does not need to contain the format
+   */
+  private void transformIncludes(@NonNull Path pTargetOutput, @NonNull List<ShardState> pStates, boolean pSingleTarget)
+  {
+    ShardState first = pStates.get(0);
+    String formatSuffix = pSingleTarget ? "" : " for format " + first.getFormat()
+        + (first.getFormat() == Format.SQL && first.getDatabaseType() != null ? " (" + first.getDatabaseType() + ")" : "");
+
+    IncludeTransformer includeTransformer = new IncludeTransformer();
+    Map<Path, Path> includeFiles = new TreeMap<>();
+    for (ShardState state : pStates)
+    {
+      state.getConvertedFiles().forEach((pInputFile, pOutputFile) -> includeTransformer.addConvertedFile(input.resolve(pInputFile),
+                                                                                                           pTargetOutput.resolve(pOutputFile)));
+      state.getIncludeFiles().forEach((pInputFile, pOutputFile) -> includeFiles.put(input.resolve(pInputFile), pTargetOutput.resolve(pOutputFile)));
+    }
+
+    for (Map.Entry<Path, Path> includeFile : includeFiles.entrySet())
+    {
+      Path relativeFile = input.getParent().relativize(includeFile.getKey());
+      try
+      {
+        getOut().printf("Transforming file '%s' with includes%s%n", relativeFile, formatSuffix);
+        Files.createDirectories(includeFile.getValue().getParent());
+        // the old file could be a hard link to an input file, so it is replaced instead of overwritten
+        Files.deleteIfExists(includeFile.getValue());
+        includeTransformer.transformIncludes(input, includeFile.getKey(), includeFile.getValue());
+      }
+      catch (Exception pE)
+      {
+        log.log(Level.WARNING, String.format("error while transforming file with includes '%s' to format %s", includeFile.getKey(), first.getFormat()), pE);
+        addErrorFile(Error.TRANSFORMING_INCLUDES, includeFile.getKey());
+        copyOldFile(includeFile.getKey(), includeFile.getValue());
+      }
+    }
+
+    if (!includeFiles.isEmpty())
+    {
+      getOut().println("The following files will not be converted" + formatSuffix + ", since they contain include/includeAll:");
+      getOut().println(includeFiles.keySet().stream().map(pPath -> " - " + pPath).collect(Collectors.joining("\n")));
+      getOut().println("If possible, the paths of those includes were transformed to use the new file ending.");
+    }
+  }
+
+  /**
+   * Copies a file with includes, that could not be transformed.
+   *
+   * @param pOldFile the file with includes
+   * @param pNewFile the file in the output directory
+   */
+  private void copyOldFile(@NonNull Path pOldFile, @NonNull Path pNewFile)
+  {
+    try
+    {
+      Files.copy(pOldFile, pNewFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (IOException pE)
+    {
+      addErrorFile(Error.COPYING_FILES, pOldFile);
+      log.log(Level.WARNING, String.format("error copying file '%s' to new target dir", pOldFile), pE);
+    }
+  }
+
+  /**
+   * Adds a file that could not be transformed.
+   *
+   * @param pError the error that occurred
+   * @param pFile  the file
+   */
+  private void addErrorFile(@NonNull Error pError, @NonNull Path pFile)
+  {
+    errorFiles.computeIfAbsent(pError, pKey -> new TreeSet<>()).add(pFile);
+  }
+
+  /**
+   * Prints the files, that could not be transformed.
+   *
+   * @return the exit code
+   */
+  private int printResult()
+  {
+    if (errorFiles.isEmpty())
+      return 0;
+
+    PrintWriter err = getErr();
+    err.println("Error converting " + errorFiles.values().stream().mapToInt(Set::size).sum() + " file(s):");
+    for (Map.Entry<Error, Set<Path>> entry : errorFiles.entrySet())
+    {
+      err.println();
+      err.println(entry.getKey().getErrText());
+      err.println(entry.getValue().stream().map(pPath -> " - " + pPath).collect(Collectors.joining("\n")));
+      err.println(entry.getKey().getCopyText());
+    }
+    return 3;
+  }
+
+  /**
+   * The writer for the normal output of the command. This should be used instead of {@link System#out}.
+   *
+   * @return the writer for the output
+   */
+  @NonNull
+  private PrintWriter getOut()
+  {
+    return spec.commandLine().getOut();
+  }
+
+  /**
+   * The writer for the error output of the command. This should be used instead of {@link System#err}.
+   *
+   * @return the writer for the error output
+   */
+  @NonNull
+  private PrintWriter getErr()
+  {
+    return spec.commandLine().getErr();
+  }
+}
@@ -0,0 +1,177 @@
+package de.adito.convert;
+
+import com.google.gson.*;
+import de.adito.util.TempFiles;
+import lombok.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * The result of one shard of a converting, that is needed to transform the includes of all shards together.
+ * It is stored in the output directory of the target, so the output directories of all shards can simply be combined.
+ * <p>
+ * All paths are stored relative to the input and output directory, so the shards can run on machines with different directories.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@AllArgsConstructor
+@Getter
+class ShardState
+{
+  /**
+   * The path of the directory with the states of all shards, relative to the output directory.
+   */
+  static final String SHARD_DIRECTORY = ".liquibase-extended-cli/shards";
+
+  /**
+   * The version of the state files. If the format changes, this version needs to be increased, so old states are not used.
+   */
+  private static final int VERSION = 1;
+
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+
+  /**
+   * The version of the state.
+   */
+  private final int version;
+
+  /**
+   * The index of the shard, starting with 1.
+   */
+  private final int index;
+
+  /**
+   * The number of all shards.
+   */
+  private final int count;
+
+  /**
+   * The target format of the converting.
+   */
+  private final Format format;
+
+  /**
+   * The database type of the converting.
+   */
+  @Nullable
+  private final String databaseType;
+
+  /**
+   * The produced files of the converted files by the path of the input file.
+   */
+  private final Map<String, String> convertedFiles;
+
+  /**
+   * The files, that the transformed files with includes should be written to, by the path of the file with includes.
+   */
+  private final Map<String, String> includeFiles;
+
+  /**
+   * Saves the state of a shard.
+   *
+   * @param pShard          the shard
+   * @param pTarget         the target
+   * @param pInput          the input directory
+   * @param pConvertedFiles the produced files by the converted input files
+   * @param pIncludeFiles   the produced files by the input files with includes
+   * @throws IOException Error while writing the state
+   */
+  static void save(@NonNull Shard pShard, @NonNull ConvertTarget pTarget, @NonNull Path pInput, @NonNull Map<Path, Path> pConvertedFiles,
+                   @NonNull Map<Path, Path> pIncludeFiles) throws IOException
+  {
+    ShardState state = new ShardState(VERSION, pShard.getIndex(), pShard.getCount(), pTarget.getFormat(), pTarget.getDatabaseType(),
+                                      relativize(pInput, pTarget.getOutput(), pConvertedFiles), relativize(pInput, pTarget.getOutput(), pIncludeFiles));
+
+    Path stateFile = pTarget.getOutput().resolve(SHARD_DIRECTORY).resolve(pShard.getName() + ".json");
+    Files.createDirectories(stateFile.getParent());
+    Path tempFile = TempFiles.createSibling(stateFile);
+    try
+    {
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8))
+      {
+        GSON.toJson(state, writer);
+      }
+      Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally
+    {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Loads the states of all shards of a target.
+   *
+   * @param pTargetOutput the output directory of the target
+   * @return the states sorted by their index
+   * @throws IOException Error while reading a state
+   */
+  @NonNull
+  static List<ShardState> loadAll(@NonNull Path pTargetOutput) throws IOException
+  {
+    List<ShardState> states = new ArrayList<>();
+    try (Stream<Path> files = Files.list(pTargetOutput.resolve(SHARD_DIRECTORY)))
+    {
+      for (Path file : files.filter(pFile -> pFile.getFileName().toString().endsWith(".json")).sorted().collect(Collectors.toList()))
+      {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+          ShardState state = GSON.fromJson(reader, ShardState.class);
+          if (state == null || state.version != VERSION || state.format == null || state.convertedFiles == null || state.includeFiles == null)
+            throw new IOException("invalid shard state " + file);
+          states.add(state);
+        }
+        catch (JsonParseException pE)
+        {
+          throw new IOException("invalid shard state " + file, pE);
+        }
+      }
+    }
+    states.sort(Comparator.comparingInt(ShardState::getIndex));
+    return states;
+  }
+
+  /**
+   * Checks whether a directory contains the states of shards.
+   *
+   * @param pTargetOutput the directory
+   * @return {@code true}, if there are states
+   */
+  static boolean exists(@NonNull Path pTargetOutput)
+  {
+    return Files.isDirectory(pTargetOutput.resolve(SHARD_DIRECTORY));
+  }
+
+  /**
+   * Transforms the paths of the files to the paths relative to the input and output directory.
+   *
+   * @param pInput  the input directory
+   * @param pOutput the output directory
+   * @param pFiles  the produced files by the input files
+   * @return the relative paths, sorted by the input files
+   */
+  @NonNull
+  private static Map<String, String> relativize(@NonNull Path pInput, @NonNull Path pOutput, @NonNull Map<Path, Path> pFiles)
+  {
+    Map<String, String> relativePaths = new TreeMap<>();
+    pFiles.forEach((pInputFile, pOutputFile) -> relativePaths.put(toKey(pInput.relativize(pInputFile)), toKey(pOutput.relativize(pOutputFile))));
+    return relativePaths;
+  }
+
+  /**
+   * Transforms a relative path to a key, that is the same on every operating system.
+   *
+   * @param pRelativePath the relative path
+   * @return the key
+   */
+  @NonNull
+  static String toKey(@NonNull Path pRelativePath)
+  {
+    return pRelativePath.toString().replace('\\', '/');
+  }
+}
@@ -0,0 +1,185 @@
+package de.adito.convert;
+
+import de.adito.util.FileContentCache;
+import liquibase.changelog.*;
+import liquibase.parser.ChangeLogParser;
+import liquibase.resource.*;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Parses large changelogs in chunks, that are parsed concurrently. The chunks are created by {@link ChangelogSplitter}.
+ * <p>
+ * The changeSets of all chunks are put together in the order of the changelog. If a chunk can not be parsed or the chunks contain the same changeSet,
+ * the changelog is not parsed in chunks, so it is parsed as a whole and every error is reported the same way as without the chunks.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+class SplitChangelogParser
+{
+  @NonNull
+  private final ForkJoinPool pool;
+
+  @NonNull
+  private final FileContentCache contentCache;
+
+  /**
+   * The minimum size in bytes of the changelogs, that are parsed in chunks.
+   */
+  private final long threshold;
+
+  /**
+   * Creates a new parser.
+   *
+   * @param pPool         the pool that parses the chunks
+   * @param pContentCache the cache with the content of the files, that were already read
+   * @param pThreshold    the minimum size in bytes of the changelogs, that are parsed in chunks
+   */
+  SplitChangelogParser(@NonNull ForkJoinPool pPool, @NonNull FileContentCache pContentCache, long pThreshold)
+  {
+    pool = pPool;
+    contentCache = pContentCache;
+    threshold = pThreshold;
+  }
+
+  /**
+   * Parses a changelog in chunks.
+   *
+   * @param pParser the parser for the changelog
+   * @param pFile   the changelog
+   * @return the changeSets of the changelog or {@code null}, if the changelog is too small, can not be split or can not be parsed in chunks
+   * @throws IOException          Error while reading the changelog
+   * @throws InterruptedException the thread was interrupted while waiting for the chunks
+   */
+  @Nullable
+  List<ChangeSet> parse(@NonNull ChangeLogParser pParser, @NonNull Path pFile) throws IOException, InterruptedException
+  {
+    Format format = ChangelogSplitter.getFormat(pFile.getFileName().toString());
+    if (format == null || Files.size(pFile) < threshold)
+      return null;
+
+    byte[] content = contentCache.get(pFile);
+    if (content == null)
+      content = Files.readAllBytes(pFile);
+
+    // more chunks than threads, so the threads are still busy, if some chunks need more time
+    List<byte[]> chunks = ChangelogSplitter.split(content, format, pool.getParallelism() * 4);
+    if (chunks == null)
+      return null;
+
+    List<Callable<List<ChangeSet>>> tasks = chunks.stream()
+        .map(pChunk -> (Callable<List<ChangeSet>>) () -> parseChunk(pParser, pFile, pChunk))
+        .collect(Collectors.toList());
+
+    List<ChangeSet> changeSets = new ArrayList<>();
+    Set<String> keys = new HashSet<>();
+    for (Future<List<ChangeSet>> result : pool.invokeAll(tasks))
+    {
+      List<ChangeSet> chunkChangeSets = getResult(pFile, result);
+      if (chunkChangeSets == null)
+        return null;
+
+      for (ChangeSet changeSet : chunkChangeSets)
+      {
+        // a duplicate changeSet is handled by Liquibase only within one changelog
+        if (!keys.add(changeSet.getId() + "::" + changeSet.getAuthor()))
+          return null;
+        changeSets.add(changeSet);
+      }
+    }
+    return changeSets;
+  }
+
+  /**
+   * Parses one chunk of a changelog. The chunk is parsed as if it was the changelog itself.
+   *
+   * @param pParser the parser for the changelog
+   * @param pFile   the changelog
+   * @param pChunk  the content of the chunk
+   * @return the changeSets of the chunk
+   * @throws Exception Error while parsing the chunk
+   */
+  @NonNull
+  static List<ChangeSet> parseChunk(@NonNull ChangeLogParser pParser, @NonNull Path pFile, byte @NonNull [] pChunk) throws Exception
+  {
+    try (ResourceAccessor resourceAccessor = new ChunkResourceAccessor(pFile, pChunk))
+    {
+      String fileName = pFile.getFileName().toString();
+      return pParser.parse(fileName, new ChangeLogParameters(), resourceAccessor).getChangeSets();
+    }
+  }
+
+  /**
+   * Waits for the result of a chunk.
+   *
+   * @param pFile   the changelog
+   * @param pResult the result of the chunk
+   * @return the changeSets of the chunk or {@code null}, if the chunk could not be parsed
+   * @throws InterruptedException the thread was interrupted
+   */
+  @Nullable
+  private static List<ChangeSet> getResult(@NonNull Path pFile, @NonNull Future<List<ChangeSet>> pResult) throws InterruptedException
+  {
+    try
+    {
+      return pResult.get();
+    }
+    catch (ExecutionException pE)
+    {
+      // the whole changelog is parsed again and the error is reported there
+      log.log(Level.FINE, String.format("could not parse a chunk of file '%s'", pFile), pE.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Resource accessor for the directory of a changelog, that returns the content of a chunk instead of the content of the changelog.
+   * All other files are read from the disk like in {@link DirectoryResourceAccessor}.
+   */
+  private static class ChunkResourceAccessor extends DirectoryResourceAccessor
+  {
+    @NonNull
+    private final Path file;
+
+    private final byte @NonNull [] chunk;
+
+    /**
+     * Creates a new resource accessor.
+     *
+     * @param pFile  the changelog
+     * @param pChunk the content of the chunk
+     * @throws FileNotFoundException the directory of the changelog does not exist
+     */
+    private ChunkResourceAccessor(@NonNull Path pFile, byte @NonNull [] pChunk) throws FileNotFoundException
+    {
+      super(pFile.toAbsolutePath().getParent());
+      file = pFile.toAbsolutePath().normalize();
+      chunk = pChunk;
+    }
+
+    @Override
+    protected Resource createResource(Path pFile, String pPathToAdd)
+    {
+      if (!file.equals(pFile.toAbsolutePath().normalize()))
+        return super.createResource(pFile, pPathToAdd);
+
+      return new PathResource(pPathToAdd, pFile)
+      {
+        @Override
+        public InputStream openInputStream()
+        {
+          return new ByteArrayInputStream(chunk);
+        }
+      };
+    }
+  }
+}
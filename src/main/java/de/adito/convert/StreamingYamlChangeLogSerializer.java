@@ -0,0 +1,69 @@
+package de.adito.convert;
+
+import liquibase.GlobalConfiguration;
+import liquibase.changelog.ChangeLogChild;
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
+import lombok.NonNull;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Serializer for YAML changelogs, that writes every changeSet as soon as it is serialized.
+ * {@link YamlChangeLogSerializer} creates the whole document as a string, before it is written.
+ * <p>
+ * The events of every changeSet are passed to one emitter for the whole document, so the output is the same as the output of
+ * {@link YamlChangeLogSerializer}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class StreamingYamlChangeLogSerializer extends YamlChangeLogSerializer
+{
+  private static final String DATABASE_CHANGE_LOG = "databaseChangeLog";
+
+  @Override
+  public <T extends ChangeLogChild> void write(List<T> pChildren, OutputStream pOutputStream) throws IOException
+  {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(pOutputStream, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()));
+    Emitter emitter = new Emitter(writer, createDumperOptions());
+
+    // the events of the document with one placeholder in the list of changeSets
+    List<Event> documentEvents = yaml.serialize(yaml.represent(Map.of(DATABASE_CHANGE_LOG, List.of(DATABASE_CHANGE_LOG))));
+    int placeholderIndex = findPlaceholder(documentEvents);
+
+    for (Event event : documentEvents.subList(0, placeholderIndex))
+      emitter.emit(event);
+
+    for (T child : pChildren)
+    {
+      List<Event> childEvents = yaml.serialize(yaml.represent(toMap(child)));
+      // only the content of the document is needed
+      for (Event event : childEvents.subList(2, childEvents.size() - 2))
+        emitter.emit(event);
+    }
+
+    for (Event event : documentEvents.subList(placeholderIndex + 1, documentEvents.size()))
+      emitter.emit(event);
+
+    writer.write("\n");
+    writer.flush();
+  }
+
+  /**
+   * Finds the event of the placeholder in the list of changeSets.
+   *
+   * @param pDocumentEvents the events of the document
+   * @return the index of the placeholder
+   */
+  private static int findPlaceholder(@NonNull List<Event> pDocumentEvents)
+  {
+    for (int i = 0; i < pDocumentEvents.size(); i++)
+    {
+      if (pDocumentEvents.get(i) instanceof SequenceStartEvent)
+        return i + 1;
+    }
+    throw new IllegalStateException("the document does not contain a list of changeSets");
+  }
+}
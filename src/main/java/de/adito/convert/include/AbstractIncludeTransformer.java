@@ -1,14 +1,12 @@
 package de.adito.convert.include;
 
+import de.adito.util.FileContentCache;
 import lombok.*;
 import lombok.extern.java.Log;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.*;
 import java.nio.file.*;
-import java.util.Map;
-import java.util.logging.*;
-import java.util.regex.*;
+import java.util.logging.Level;
 
 /**
  * Abstract transformer for changing the content of any include file
@@ -18,17 +16,24 @@ import java.util.regex.*;
 @Log
 abstract class AbstractIncludeTransformer
 {
+  /**
+   * The cache with the content of the files, that were already read.
+   */
+  @NonNull
+  private final FileContentCache contentCache;
 
   /**
-   * Adds the {@link ConsoleHandler} when creating the instance to the logger, in order to always log to the console.
+   * Creates a new transformer.
+   *
+   * @param pContentCache the cache with the content of the files, that were already read
    */
-  protected AbstractIncludeTransformer()
+  protected AbstractIncludeTransformer(@NonNull FileContentCache pContentCache)
   {
-    log.addHandler(new ConsoleHandler());
+    contentCache = pContentCache;
   }
 
   /**
-   * Checks for includes in a given file.
+   * Checks for includes in a given file. The file is only read until the first include is found, if its content is not in the cache.
    *
    * @param pPathToConvert The file that should be checked for includes
    * @return {@code true}, if includes are in the file, {@code false} when no includes are there
@@ -37,10 +42,10 @@ abstract class AbstractIncludeTransformer
   {
     try
     {
-      String content = Files.readString(pPathToConvert, StandardCharsets.UTF_8);
-
-      Matcher matcher = getPattern().matcher(content);
-      return matcher.find();
+      byte[] content = contentCache.get(pPathToConvert);
+      if (content != null)
+        return IncludeScanner.containsInclude(content, getSyntax());
+      return IncludeScanner.containsInclude(pPathToConvert, getSyntax());
     }
     catch (IOException pE)
     {
@@ -50,52 +55,64 @@ abstract class AbstractIncludeTransformer
   }
 
   /**
-   * Gets the pattern for detecting includes in a file.
+   * Opens a stream to the content of a file. The content is taken from the cache, if it is there.
+   *
+   * @param pFile the file
+   * @return the stream to the content
+   * @throws IOException Error while opening the file
+   */
+  @NonNull
+  protected InputStream openInputStream(@NonNull Path pFile) throws IOException
+  {
+    return contentCache.openInputStream(pFile);
+  }
+
+  /**
+   * Gets the syntax for detecting includes in a file.
    *
-   * @return the pattern for detaching includes.
+   * @return the syntax of the includes
    */
   @NonNull
-  protected abstract Pattern getPattern();
+  protected abstract IncludeScanner.Syntax getSyntax();
 
 
   /**
    * Modifies the content of a file with includes.
    *
-   * @param pConvertedFiles the currently converted files with their old and new path
+   * @param pConvertedFiles the index of the currently converted files with their old and new path
    * @param pInput          the given input root path by the user
    * @param pIncludeFile    the file with the includes
    * @param pNewIncludeFile the path were the new include file should be stored
    * @throws Exception when any error during modifying the include file occurs
    */
-  public abstract void modifyContent(@NonNull Map<Path, Path> pConvertedFiles, @NonNull Path pInput,
+  public abstract void modifyContent(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput,
                                      @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
       throws Exception; // NOSONAR we want to throw all exceptions here
 
 
   /**
    * Changes the value of the file element in the include files.
+   * The converted file is found by one lookup in the index, instead of comparing the relative path of every converted file.
    *
-   * @param pConvertedFiles      the currently converted files with their old and new path
+   * @param pConvertedFiles      the index of the currently converted files with their old and new path
    * @param pInput               the given input root path by the user
    * @param pIncludeFile         the file with the includes
    * @param pOldFile             the old value given in the file attribute
    * @param pRelativeToChangelog if the file is relative to the current changelog
    * @return the new file path
    */
-  protected String changeFile(@NonNull Map<Path, Path> pConvertedFiles, @NonNull Path pInput,
+  protected String changeFile(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput,
                               @NonNull Path pIncludeFile, @NonNull String pOldFile, boolean pRelativeToChangelog)
   {
+    Path basis = pRelativeToChangelog ? pIncludeFile.getParent() : pInput;
+    Path oldPath = pConvertedFiles.findOldPath(basis, pOldFile);
 
-    for (Map.Entry<Path, Path> fileHandled : pConvertedFiles.entrySet())
+    // only the exact relative path of a converted file is replaced
+    if (oldPath != null && pOldFile.equals(relativize(basis, oldPath)))
     {
-      Path oldPath = fileHandled.getKey();
-      Path newPath = fileHandled.getValue();
-
-      String relativePath = pRelativeToChangelog ? relativize(pIncludeFile.getParent(), oldPath) : relativize(pInput, oldPath);
-
-      if (pOldFile.equals(relativePath))
-        // replace the old with the new name
-        return pOldFile.replace(oldPath.getFileName().toString(), newPath.getFileName().toString());
+      Path newPath = pConvertedFiles.getNewPath(oldPath);
+      // replace the old with the new name
+      return pOldFile.replace(oldPath.getFileName().toString(), newPath.getFileName().toString());
     }
 
     return pOldFile;
@@ -0,0 +1,74 @@
+package de.adito.convert.include;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Index of the files that were converted, so the new path of an included file can be found by a single lookup.
+ * <p>
+ * The files are indexed by their normalized path. A relative path of an include, no matter if it is relative to the input or to the changelog,
+ * is resolved against its basis and can then be found in this index.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ConvertedFiles
+{
+  /**
+   * The converted files with their old and new path.
+   */
+  private final Map<Path, Path> convertedFiles;
+
+  /**
+   * The old paths of the converted files by their normalized path.
+   */
+  private final Map<Path, Path> oldPathsByNormalizedPath;
+
+  /**
+   * Creates the index for the given files.
+   *
+   * @param pConvertedFiles the converted files with their old and new path
+   */
+  ConvertedFiles(@NonNull Map<Path, Path> pConvertedFiles)
+  {
+    convertedFiles = Map.copyOf(pConvertedFiles);
+    oldPathsByNormalizedPath = new HashMap<>(convertedFiles.size() * 2);
+    for (Path oldPath : convertedFiles.keySet())
+      oldPathsByNormalizedPath.put(oldPath.normalize(), oldPath);
+  }
+
+  /**
+   * Finds the old path of a converted file, that could be given by a relative path.
+   *
+   * @param pBasis        the basis of the relative path
+   * @param pRelativePath the relative path with {@code /} as path separator
+   * @return the old path of the converted file or {@code null}, if there is no converted file at this path
+   */
+  @Nullable
+  Path findOldPath(@NonNull Path pBasis, @NonNull String pRelativePath)
+  {
+    try
+    {
+      return oldPathsByNormalizedPath.get(pBasis.resolve(pRelativePath).normalize());
+    }
+    catch (InvalidPathException pE)
+    {
+      // this can not be the path of any converted file
+      return null;
+    }
+  }
+
+  /**
+   * Gets the new path of a converted file.
+   *
+   * @param pOldPath the old path of the converted file
+   * @return the new path
+   */
+  @NonNull
+  Path getNewPath(@NonNull Path pOldPath)
+  {
+    return Objects.requireNonNull(convertedFiles.get(pOldPath));
+  }
+}
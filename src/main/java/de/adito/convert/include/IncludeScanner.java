@@ -0,0 +1,285 @@
+package de.adito.convert.include;
+
+import lombok.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Scanner for {@code include} and {@code includeAll} in changelog files.
+ * <p>
+ * The scanner works on the bytes of a file, that are read in chunks. Nothing is decoded, because all searched characters are ASCII
+ * and the bytes of other characters in UTF-8 can never be ASCII. The scanning stops at the first include, so the rest of the file is not read.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class IncludeScanner
+{
+  /**
+   * The size of the chunks, that are read from the file.
+   */
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * The syntax of the includes in the different formats.
+   * In the patterns, a space stands for any number of whitespaces and the characters in parentheses are optional.
+   * So {@code include} and {@code includeAll} are found by one pattern.
+   */
+  @AllArgsConstructor
+  enum Syntax
+  {
+    /**
+     * An include element. Elements in comments or CDATA sections are ignored.
+     */
+    XML("< include"),
+
+    /**
+     * An include entry in a sequence.
+     */
+    YAML("- include(All) :"),
+
+    /**
+     * An include key with an object as value.
+     */
+    JSON("include(All) \" : {");
+
+    /**
+     * The pattern of an include.
+     */
+    private final @NonNull String pattern;
+  }
+
+  /**
+   * Checks if a file contains an include.
+   *
+   * @param pFile   the file
+   * @param pSyntax the syntax of the includes in the file
+   * @return {@code true}, if the file contains an include
+   * @throws IOException Error while reading the file
+   */
+  static boolean containsInclude(@NonNull Path pFile, @NonNull Syntax pSyntax) throws IOException
+  {
+    ByteMatcher matcher = createMatcher(pSyntax);
+    ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+    byte[] bytes = buffer.array();
+
+    try (SeekableByteChannel channel = Files.newByteChannel(pFile, StandardOpenOption.READ))
+    {
+      int count;
+      while ((count = channel.read(buffer)) >= 0)
+      {
+        if (accept(matcher, bytes, count))
+          return true;
+        buffer.clear();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the content of a file contains an include.
+   *
+   * @param pContent the content of the file
+   * @param pSyntax  the syntax of the includes in the file
+   * @return {@code true}, if the content contains an include
+   */
+  static boolean containsInclude(@NonNull byte[] pContent, @NonNull Syntax pSyntax)
+  {
+    return accept(createMatcher(pSyntax), pContent, pContent.length);
+  }
+
+  /**
+   * Creates the matcher for a syntax.
+   *
+   * @param pSyntax the syntax of the includes
+   * @return the new matcher
+   */
+  @NonNull
+  private static ByteMatcher createMatcher(@NonNull Syntax pSyntax)
+  {
+    return pSyntax == Syntax.XML ? new XmlMatcher() : new SequenceMatcher(pSyntax.pattern);
+  }
+
+  /**
+   * Passes bytes to a matcher, until the pattern of the matcher ends.
+   *
+   * @param pMatcher the matcher
+   * @param pBytes   the bytes
+   * @param pCount   the number of bytes, that should be passed
+   * @return {@code true}, if the pattern ends in the bytes
+   */
+  private static boolean accept(@NonNull ByteMatcher pMatcher, @NonNull byte[] pBytes, int pCount)
+  {
+    for (int i = 0; i < pCount; i++)
+    {
+      if (pMatcher.accept(pBytes[i]))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks if a byte is a whitespace, like {@code \s} of a regular expression.
+   *
+   * @param pByte the byte
+   * @return {@code true}, if it is a whitespace
+   */
+  private static boolean isWhitespace(byte pByte)
+  {
+    return pByte == ' ' || pByte == '\t' || pByte == '\n' || pByte == 0x0B || pByte == '\f' || pByte == '\r';
+  }
+
+  /**
+   * Matcher, that gets the bytes of a file one by one.
+   */
+  private interface ByteMatcher
+  {
+    /**
+     * Accepts the next byte.
+     *
+     * @param pByte the byte
+     * @return {@code true}, if the pattern ends with this byte
+     */
+    boolean accept(byte pByte);
+  }
+
+  /**
+   * Matcher for a sequence of ASCII characters. A space in the sequence matches any number of whitespaces
+   * and the characters in parentheses are optional, but only as a whole.
+   * <p>
+   * When a byte does not match, the matching starts again with this byte. This is only correct, because the first character of every used sequence
+   * is not repeated in the sequence.
+   */
+  private static class SequenceMatcher implements ByteMatcher
+  {
+    private final byte[] sequence;
+
+    /**
+     * For every character of the sequence, if it is part of an optional group.
+     */
+    private final boolean[] optional;
+
+    /**
+     * For every character of the sequence, if it is the first character of an optional group.
+     */
+    private final boolean[] optionalStart;
+
+    private int index;
+
+    /**
+     * Creates a new matcher.
+     *
+     * @param pSequence the sequence, that does not start with a space and does not end with a space or an optional group
+     */
+    private SequenceMatcher(@NonNull String pSequence)
+    {
+      String characters = pSequence.replace("(", "").replace(")", "");
+      sequence = characters.getBytes(StandardCharsets.US_ASCII);
+      optional = new boolean[sequence.length];
+      optionalStart = new boolean[sequence.length];
+
+      int position = 0;
+      boolean inGroup = false;
+      for (char character : pSequence.toCharArray())
+      {
+        if (character == '(' || character == ')')
+          inGroup = character == '(';
+        else
+        {
+          optional[position] = inGroup;
+          optionalStart[position] = inGroup && (position == 0 || !optional[position - 1]);
+          position++;
+        }
+      }
+    }
+
+    @Override
+    public boolean accept(byte pByte)
+    {
+      while (sequence[index] != pByte)
+      {
+        if (sequence[index] == ' ' && isWhitespace(pByte))
+          return false;
+
+        if (sequence[index] == ' ' || optionalStart[index])
+        {
+          // skip the whitespaces or the optional group
+          boolean skipOptional = optionalStart[index];
+          do
+            index++;
+          while (skipOptional && optional[index]);
+        }
+        else if (index > 0)
+          // start again with this byte
+          reset();
+        else
+          return false;
+      }
+
+      index++;
+      if (index < sequence.length)
+        return false;
+      reset();
+      return true;
+    }
+
+    /**
+     * Starts the matching again.
+     */
+    private void reset()
+    {
+      index = 0;
+    }
+  }
+
+  /**
+   * Matcher for include elements in XML, that skips comments and CDATA sections.
+   */
+  private static class XmlMatcher implements ByteMatcher
+  {
+    private final SequenceMatcher include = new SequenceMatcher(Syntax.XML.pattern);
+    private final SequenceMatcher commentStart = new SequenceMatcher("<!--");
+    private final SequenceMatcher cdataStart = new SequenceMatcher("<![CDATA[");
+
+    /**
+     * The character, that is repeated at the end of the current comment or CDATA section, or {@code 0}, if there is no comment or CDATA section.
+     */
+    private byte endCharacter;
+
+    /**
+     * The number of end characters, that were directly before the current byte.
+     */
+    private int endCharacters;
+
+    @Override
+    public boolean accept(byte pByte)
+    {
+      if (endCharacter != 0)
+      {
+        // a comment ends with "-->" and a CDATA section ends with "]]>"
+        if (pByte == '>' && endCharacters >= 2)
+          endCharacter = 0;
+        else
+          endCharacters = pByte == endCharacter ? endCharacters + 1 : 0;
+        return false;
+      }
+
+      boolean isComment = commentStart.accept(pByte);
+      boolean isCdata = cdataStart.accept(pByte);
+      if (isComment || isCdata)
+      {
+        endCharacter = (byte) (isComment ? '-' : ']');
+        endCharacters = 0;
+        include.reset();
+        commentStart.reset();
+        cdataStart.reset();
+        return false;
+      }
+      return include.accept(pByte);
+    }
+  }
+}
@@ -1,33 +1,40 @@
 package de.adito.convert.include;
 
+import de.adito.util.FileContentCache;
 import lombok.*;
 import org.apache.commons.io.FilenameUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Transform the includes of the changelog files.
  *
  * @author r.hartinger, 27.06.2024
  */
-@AllArgsConstructor
 public class IncludeTransformer
 {
   /**
-   * The files that contains includes
+   * The files that contains includes. These are sorted, so they are always transformed in the same order.
    */
   @NonNull
   @Getter
-  private final Set<Path> includeFiles = new HashSet<>();
+  private final Set<Path> includeFiles = new ConcurrentSkipListSet<>();
 
 
   /**
    * The files that were converted during the execution of the CLI.
    */
   @NonNull
-  private final Map<Path, Path> convertedFiles = new HashMap<>();
+  private final Map<Path, Path> convertedFiles = new ConcurrentHashMap<>();
+
+  /**
+   * The index of the converted files. It is created once, when the first includes are transformed, and reset, when another file was converted.
+   */
+  @Nullable
+  private volatile ConvertedFiles convertedFilesIndex;
 
   /**
    * All the detailed included transformers.
@@ -37,11 +44,31 @@ public class IncludeTransformer
    *   <li><b>Value:</b> the include transformer for this file type</li>
    * </ul>
    */
-  private final Map<String, AbstractIncludeTransformer> includeTransformers = Map.of(
-      "xml", new XmlIncludeTransformer(),
-      "yaml", new YamlIncludeTransformer(),
-      "json", new JsonIncludeTransformer()
-  );
+  private final Map<String, AbstractIncludeTransformer> includeTransformers;
+
+
+  /**
+   * Creates a new transformer, that reads every file from the disk and uses the same limit for YAML files as Liquibase.
+   */
+  public IncludeTransformer()
+  {
+    this(new FileContentCache(0), YamlIncludeTransformer.DEFAULT_CODE_POINT_LIMIT);
+  }
+
+  /**
+   * Creates a new transformer.
+   *
+   * @param pContentCache       the cache with the content of the files, that were already read
+   * @param pYamlCodePointLimit the maximum number of code points of a YAML file, that can not be transformed event by event and is loaded as a whole
+   */
+  public IncludeTransformer(@NonNull FileContentCache pContentCache, int pYamlCodePointLimit)
+  {
+    includeTransformers = Map.of(
+        "xml", new XmlIncludeTransformer(pContentCache),
+        "yaml", new YamlIncludeTransformer(pContentCache, pYamlCodePointLimit),
+        "json", new JsonIncludeTransformer(pContentCache)
+    );
+  }
 
 
   /**
@@ -53,6 +80,18 @@ public class IncludeTransformer
   public void addConvertedFile(@NonNull Path pOldPath, @NonNull Path pNewPath)
   {
     convertedFiles.put(pOldPath, pNewPath);
+    convertedFilesIndex = null;
+  }
+
+  /**
+   * Gets the files that were converted.
+   *
+   * @return the new paths by the old paths of the files
+   */
+  @NonNull
+  public Map<Path, Path> getConvertedFiles()
+  {
+    return Collections.unmodifiableMap(convertedFiles);
   }
 
   /**
@@ -69,7 +108,24 @@ public class IncludeTransformer
   {
     AbstractIncludeTransformer transformer = getTransformer(pIncludeFile);
     if (transformer != null)
-      transformer.modifyContent(convertedFiles, pInput, pIncludeFile, pNewIncludeFile);
+      transformer.modifyContent(getConvertedFilesIndex(), pInput, pIncludeFile, pNewIncludeFile);
+  }
+
+  /**
+   * Gets the index of the converted files. The index is only created again, if any file was converted since the last call.
+   *
+   * @return the index of the converted files
+   */
+  @NonNull
+  private ConvertedFiles getConvertedFilesIndex()
+  {
+    ConvertedFiles index = convertedFilesIndex;
+    if (index == null)
+    {
+      index = new ConvertedFiles(convertedFiles);
+      convertedFilesIndex = index;
+    }
+    return index;
   }
 
   /**
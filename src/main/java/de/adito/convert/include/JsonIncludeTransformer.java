@@ -1,70 +1,200 @@
 package de.adito.convert.include;
 
 import com.google.gson.*;
+import com.google.gson.stream.*;
+import de.adito.util.FileContentCache;
 import lombok.NonNull;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * Transforms the includes in JSON files.
+ * <p>
+ * The file is streamed token by token from a {@link JsonReader} to a {@link JsonWriter}. Only the objects of the {@code include} entries
+ * in the {@code databaseChangeLog} array are read completely, because their {@code file} can only be changed after {@code relativeToChangelogFile} is known.
+ * Everything else, including the {@code includeAll} entries, is passed through, so the memory does not depend on the size of the file.
  *
  * @author r.hartinger, 27.06.2024
  */
 class JsonIncludeTransformer extends AbstractIncludeTransformer
 {
+  private static final String DATABASE_CHANGE_LOG = "databaseChangeLog";
+  private static final String INCLUDE = "include";
+  private static final String FILE = "file";
+  private static final String RELATIVE_TO_CHANGELOG_FILE = "relativeToChangelogFile";
+
+  /**
+   * The adapter for writing the buffered include objects. It is the same adapter that is used by {@link Gson#toJson(JsonElement, JsonWriter)}.
+   */
+  private static final TypeAdapter<JsonElement> JSON_ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
   /**
-   * The pattern for detecting {@code include} and {@code includeAll} in JSON files.
+   * Creates a new transformer.
+   *
+   * @param pContentCache the cache with the content of the files, that were already read
    */
-  private static final Pattern JSON_PATTERN = Pattern.compile("\\s*(include|includeAll)\\s*\"\\s*:\\s*\\{");
+  JsonIncludeTransformer(@NonNull FileContentCache pContentCache)
+  {
+    super(pContentCache);
+  }
 
   @Override
-  protected @NonNull Pattern getPattern()
+  protected @NonNull IncludeScanner.Syntax getSyntax()
   {
-    return JSON_PATTERN;
+    return IncludeScanner.Syntax.JSON;
   }
 
   @Override
-  public void modifyContent(@NonNull Map<Path, Path> pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
+  public void modifyContent(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
       throws IOException
   {
-    Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-    JsonObject jsonObject;
-    // Read JSON file
-    try (BufferedReader reader = Files.newBufferedReader(pIncludeFile, StandardCharsets.UTF_8))
+    try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(openInputStream(pIncludeFile), StandardCharsets.UTF_8)));
+         JsonWriter writer = new JsonWriter(Files.newBufferedWriter(pNewIncludeFile, StandardCharsets.UTF_8)))
     {
-      jsonObject = JsonParser.parseReader(reader).getAsJsonObject();
-    }
+      // the same settings that were used by the pretty printing of Gson
+      reader.setStrictness(Strictness.LENIENT);
+      writer.setIndent("  ");
+      writer.setHtmlSafe(true);
+      writer.setSerializeNulls(true);
 
-    // Get the "databaseChangeLog" array
-    JsonArray databaseChangeLogArray = jsonObject.getAsJsonArray("databaseChangeLog");
+      reader.beginObject();
+      writer.beginObject();
+      while (reader.hasNext())
+      {
+        String name = reader.nextName();
+        writer.name(name);
+        if (DATABASE_CHANGE_LOG.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY)
+          copyChangeLogEntries(pConvertedFiles, pInput, pIncludeFile, reader, writer);
+        else
+          copyValue(reader, writer);
+      }
+      reader.endObject();
+      writer.endObject();
+    }
+  }
 
-    // Iterate through each element in the "databaseChangeLog" array
-    for (JsonElement element : databaseChangeLogArray)
+  /**
+   * Copies the entries of the {@code databaseChangeLog} array and changes the {@code file} of every {@code include} entry.
+   *
+   * @param pConvertedFiles the index of the converted files
+   * @param pInput          the input directory
+   * @param pIncludeFile    the file with the includes
+   * @param pReader         the reader, that is positioned before the array
+   * @param pWriter         the writer of the new file
+   * @throws IOException Error while reading or writing
+   */
+  private void copyChangeLogEntries(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile,
+                                    @NonNull JsonReader pReader, @NonNull JsonWriter pWriter) throws IOException
+  {
+    pReader.beginArray();
+    pWriter.beginArray();
+    while (pReader.hasNext())
     {
-      JsonObject changeLogEntry = element.getAsJsonObject();
-      JsonObject includeObject = changeLogEntry.getAsJsonObject("include");
-
-      if (includeObject != null)
+      if (pReader.peek() != JsonToken.BEGIN_OBJECT)
       {
-        // Replace the "file" value with a modified value
-        String originalFileValue = includeObject.get("file").getAsString();
-        boolean relativeToChangelogFile = includeObject.has("relativeToChangelogFile") &&
-            includeObject.get("relativeToChangelogFile").getAsBoolean();
+        copyValue(pReader, pWriter);
+        continue;
+      }
 
-        includeObject.addProperty("file", this.changeFile(pConvertedFiles, pInput, pIncludeFile, originalFileValue, relativeToChangelogFile));
+      pReader.beginObject();
+      pWriter.beginObject();
+      while (pReader.hasNext())
+      {
+        String name = pReader.nextName();
+        pWriter.name(name);
+        if (INCLUDE.equals(name) && pReader.peek() == JsonToken.BEGIN_OBJECT)
+        {
+          JsonObject includeObject = JsonParser.parseReader(pReader).getAsJsonObject();
+          changeInclude(pConvertedFiles, pInput, pIncludeFile, includeObject);
+          JSON_ELEMENT_ADAPTER.write(pWriter, includeObject);
+        }
+        else
+          copyValue(pReader, pWriter);
       }
+      pReader.endObject();
+      pWriter.endObject();
     }
+    pReader.endArray();
+    pWriter.endArray();
+  }
+
+  /**
+   * Changes the {@code file} of an include object to the new path of the included file.
+   *
+   * @param pConvertedFiles the index of the converted files
+   * @param pInput          the input directory
+   * @param pIncludeFile    the file with the includes
+   * @param pIncludeObject  the include object
+   */
+  private void changeInclude(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull JsonObject pIncludeObject)
+  {
+    JsonElement fileElement = pIncludeObject.get(FILE);
+    if (fileElement == null || !fileElement.isJsonPrimitive())
+      return;
+
+    String originalFileValue = fileElement.getAsString();
+    boolean relativeToChangelogFile = pIncludeObject.has(RELATIVE_TO_CHANGELOG_FILE) && pIncludeObject.get(RELATIVE_TO_CHANGELOG_FILE).getAsBoolean();
 
-    // Write the modified JSON back to a file
-    try (BufferedWriter writer = Files.newBufferedWriter(pNewIncludeFile, StandardCharsets.UTF_8))
+    pIncludeObject.addProperty(FILE, this.changeFile(pConvertedFiles, pInput, pIncludeFile, originalFileValue, relativeToChangelogFile));
+  }
+
+  /**
+   * Copies the next value of the reader to the writer. Objects and arrays are copied token by token.
+   *
+   * @param pReader the reader
+   * @param pWriter the writer
+   * @throws IOException Error while reading or writing
+   */
+  private static void copyValue(@NonNull JsonReader pReader, @NonNull JsonWriter pWriter) throws IOException
+  {
+    int depth = 0;
+    do
     {
-      gson.toJson(jsonObject, writer);
+      switch (pReader.peek())
+      {
+        case BEGIN_ARRAY:
+          pReader.beginArray();
+          pWriter.beginArray();
+          depth++;
+          break;
+        case END_ARRAY:
+          pReader.endArray();
+          pWriter.endArray();
+          depth--;
+          break;
+        case BEGIN_OBJECT:
+          pReader.beginObject();
+          pWriter.beginObject();
+          depth++;
+          break;
+        case END_OBJECT:
+          pReader.endObject();
+          pWriter.endObject();
+          depth--;
+          break;
+        case NAME:
+          pWriter.name(pReader.nextName());
+          break;
+        case STRING:
+          pWriter.value(pReader.nextString());
+          break;
+        case NUMBER:
+          // the number is written as it is in the file, so no precision is lost
+          pWriter.jsonValue(pReader.nextString());
+          break;
+        case BOOLEAN:
+          pWriter.value(pReader.nextBoolean());
+          break;
+        case NULL:
+          pReader.nextNull();
+          pWriter.nullValue();
+          break;
+        default:
+          throw new IOException("unexpected token " + pReader.peek() + " at " + pReader.getPath());
+      }
     }
-
+    while (depth > 0);
   }
 }
@@ -1,83 +1,490 @@
 package de.adito.convert.include;
 
+import de.adito.util.FileContentCache;
 import lombok.NonNull;
-import org.w3c.dom.*;
 
 import javax.xml.XMLConstants;
-import javax.xml.parsers.*;
-import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.nio.file.Path;
-import java.util.Map;
-import java.util.regex.Pattern;
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.Arrays;
 
 /**
- * Transforms the includes in XML files
+ * Transforms the includes in XML files.
+ * <p>
+ * The file is read with a streaming StAX reader and only the value of the {@code file} attribute of every {@code include} element is replaced.
+ * Everything else is copied unchanged, so the formatting, the XML declaration and the comments are kept
+ * and the memory does not depend on the size of the file.
  *
  * @author r.hartinger, 27.06.2024
  */
 class XmlIncludeTransformer extends AbstractIncludeTransformer
 {
+  private static final String INCLUDE = "include";
+  private static final String FILE = "file";
+  private static final String RELATIVE_TO_CHANGELOG_FILE = "relativeToChangelogFile";
+
   /**
-   * The pattern for detecting {@code include} and {@code includeAll} in XML files.
+   * The character that may be at the start of a file to mark its encoding. It is not passed to the XML reader, but copied to the new file.
    */
-  private static final Pattern XML_PATTERN = Pattern.compile("<\\s*(include|includeAll)");
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
 
+  /**
+   * Creates a new transformer.
+   *
+   * @param pContentCache the cache with the content of the files, that were already read
+   */
+  XmlIncludeTransformer(@NonNull FileContentCache pContentCache)
+  {
+    super(pContentCache);
+  }
 
   @Override
-  protected @NonNull Pattern getPattern()
+  protected @NonNull IncludeScanner.Syntax getSyntax()
   {
-    return XML_PATTERN;
+    return IncludeScanner.Syntax.XML;
   }
 
   @Override
-  public void modifyContent(@NonNull Map<Path, Path> pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
+  public void modifyContent(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
       throws Exception
   {
+    XMLInputFactory inputFactory = XMLInputFactory.newDefaultFactory();
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    inputFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+
+    Charset charset = getCharset(inputFactory, pIncludeFile);
+
+    try (Reader parseReader = new BufferedReader(new InputStreamReader(openInputStream(pIncludeFile), charset));
+         Reader copyReader = new InputStreamReader(openInputStream(pIncludeFile), charset);
+         Writer writer = Files.newBufferedWriter(pNewIncludeFile, charset))
+    {
+      // the byte order mark is not passed to the XML reader, but the copier copies it like any other text
+      skipByteOrderMark(parseReader);
+      CharacterCopier copier = new CharacterCopier(copyReader, writer);
+
+      XMLStreamReader reader = inputFactory.createXMLStreamReader(parseReader);
+      try
+      {
+        // the locations of the XML reader do not match the characters of the file, e.g. for line breaks, so the start elements are counted instead
+        int startElement = -1;
+        while (reader.hasNext())
+        {
+          if (reader.next() != XMLStreamConstants.START_ELEMENT)
+            continue;
+          startElement++;
+
+          if (INCLUDE.equals(reader.getLocalName()) && (reader.getPrefix() == null || reader.getPrefix().isEmpty()))
+          {
+            String fileValue = reader.getAttributeValue(null, FILE);
+            boolean relativeToChangelogFileValue = Boolean.parseBoolean(reader.getAttributeValue(null, RELATIVE_TO_CHANGELOG_FILE));
+            if (fileValue != null)
+            {
+              String newFileValue = this.changeFile(pConvertedFiles, pInput, pIncludeFile, fileValue, relativeToChangelogFileValue);
+              if (!newFileValue.equals(fileValue))
+                copier.replaceAttribute(startElement, FILE, newFileValue);
+            }
+          }
+        }
+      }
+      finally
+      {
+        reader.close();
+      }
+
+      copier.copyRemaining();
+    }
+  }
+
+  /**
+   * Gets the charset of an XML file. This is the encoding of the XML declaration or the encoding detected by the XML reader.
+   *
+   * @param pInputFactory the factory for the XML reader
+   * @param pFile         the XML file
+   * @return the charset of the file
+   * @throws IOException        Error while reading the file
+   * @throws XMLStreamException the start of the file is no valid XML
+   */
+  @NonNull
+  private Charset getCharset(@NonNull XMLInputFactory pInputFactory, @NonNull Path pFile) throws IOException, XMLStreamException
+  {
+    try (InputStream inputStream = openInputStream(pFile))
+    {
+      XMLStreamReader reader = pInputFactory.createXMLStreamReader(inputStream);
+      try
+      {
+        String encoding = reader.getEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+      }
+      finally
+      {
+        reader.close();
+      }
+    }
+  }
+
+  /**
+   * Skips the byte order mark at the start of a reader, if there is any.
+   *
+   * @param pReader the reader, that needs to support marks
+   * @return {@code true}, if the byte order mark was skipped
+   * @throws IOException Error while reading
+   */
+  private boolean skipByteOrderMark(@NonNull Reader pReader) throws IOException
+  {
+    pReader.mark(1);
+    if (pReader.read() == BYTE_ORDER_MARK)
+      return true;
+    pReader.reset();
+    return false;
+  }
+
+  /**
+   * Copies the characters of the original file to the new file and replaces attribute values in start tags.
+   * <p>
+   * The start tags are counted on the copied characters, so every start element of the XML reader is found at its exact position,
+   * whatever line breaks the file uses. Comments, CDATA sections, processing instructions and declarations are skipped while counting.
+   */
+  private static class CharacterCopier
+  {
+    private final Reader reader;
+    private final Writer writer;
+
+    /**
+     * The characters, that were read from the original file.
+     */
+    private final char[] buffer = new char[8192];
+
+    /**
+     * The index of the next character in the buffer, that is read.
+     */
+    private int position;
+
+    /**
+     * The number of characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The index of the first character in the buffer, that was not copied or captured yet.
+     */
+    private int copied;
+
+    /**
+     * The characters of the markup, that is currently captured instead of copied, or {@code null}, if the characters are copied.
+     */
+    private StringBuilder capture;
+
+    /**
+     * The number of start tags, that were already read.
+     */
+    private int startTags;
+
+    /**
+     * Creates a new copier.
+     *
+     * @param pReader the reader of the original file
+     * @param pWriter the writer of the new file
+     */
+    private CharacterCopier(@NonNull Reader pReader, @NonNull Writer pWriter)
+    {
+      reader = pReader;
+      writer = pWriter;
+    }
 
-    DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-    dbFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-    dbFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-    DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+    /**
+     * Replaces the value of an attribute in a start tag. All characters before the start tag are copied unchanged.
+     *
+     * @param pStartTag  the index of the start tag in the file, starting with 0
+     * @param pAttribute the name of the attribute
+     * @param pValue     the new, not escaped value of the attribute
+     * @throws IOException Error while reading or writing
+     */
+    private void replaceAttribute(int pStartTag, @NonNull String pAttribute, @NonNull String pValue) throws IOException
+    {
+      String tag = copyUntilStartTag(pStartTag);
+      writer.write(replaceAttribute(tag, pAttribute, pValue));
+    }
 
-    // parse the document
-    Document document = dBuilder.parse(pIncludeFile.toFile());
+    /**
+     * Copies all characters, that were not copied yet.
+     *
+     * @throws IOException Error while reading or writing
+     */
+    private void copyRemaining() throws IOException
+    {
+      position = limit;
+      flush();
+      reader.transferTo(writer);
+    }
 
-    // Normalize the document to ensure that all text nodes are correct
-    document.getDocumentElement().normalize();
+    /**
+     * Copies all characters before the start tag with the given index. Only this start tag is kept in the memory.
+     *
+     * @param pStartTag the index of the start tag in the file, starting with 0
+     * @return the start tag, that was not copied
+     * @throws IOException Error while reading or writing or the file is shorter than expected
+     */
+    @NonNull
+    private String copyUntilStartTag(int pStartTag) throws IOException
+    {
+      int character;
+      while ((character = read()) >= 0)
+      {
+        if (character != '<')
+          continue;
 
-    // Get the root element
-    Element root = document.getDocumentElement();
+        // the markup is captured, until it is known whether it is the start tag
+        startCapture();
+        int type = read();
+        if (type == '!' || type == '?' || type == '/')
+        {
+          stopCapture();
+          skipMarkup(type);
+        }
+        else if (startTags++ == pStartTag)
+        {
+          skipTag();
+          flush();
+          String tag = capture.toString();
+          capture = null;
+          return tag;
+        }
+        else
+        {
+          stopCapture();
+          skipTag();
+        }
+      }
+      throw new EOFException("unexpected end of the XML file");
+    }
 
-    // get all include nodes
-    NodeList includeList = root.getElementsByTagName("include");
+    /**
+     * Skips a markup, that is no start tag.
+     *
+     * @param pType the character after the {@code <}
+     * @throws IOException Error while reading or writing or the file is shorter than expected
+     */
+    private void skipMarkup(int pType) throws IOException
+    {
+      if (pType == '?')
+        skipUntil("?>");
+      else if (pType == '/')
+        skipUntil(">");
+      else
+      {
+        int character = read();
+        if (character == '-')
+          skipUntil("-->");
+        else if (character == '[')
+          skipUntil("]]>");
+        else
+          skipDeclaration();
+      }
+    }
 
-    for (int i = 0; i < includeList.getLength(); i++)
+    /**
+     * Skips the rest of a start tag. A {@code >} in the value of an attribute does not end the tag.
+     *
+     * @throws IOException Error while reading or writing or the file is shorter than expected
+     */
+    private void skipTag() throws IOException
     {
-      Node includeNode = includeList.item(i);
-      if (includeNode.getNodeType() == Node.ELEMENT_NODE)
+      int quote = 0;
+      int character;
+      while ((character = read()) >= 0)
       {
-        Element includeElement = (Element) includeNode;
+        if (quote != 0)
+        {
+          if (character == quote)
+            quote = 0;
+        }
+        else if (character == '"' || character == '\'')
+          quote = character;
+        else if (character == '>')
+          return;
+      }
+      throw new EOFException("unexpected end of the XML file");
+    }
 
+    /**
+     * Skips the rest of a declaration like {@code <!DOCTYPE ...>}, that can contain other declarations in brackets.
+     *
+     * @throws IOException Error while reading or writing or the file is shorter than expected
+     */
+    private void skipDeclaration() throws IOException
+    {
+      int quote = 0;
+      int depth = 0;
+      int character;
+      while ((character = read()) >= 0)
+      {
+        if (quote != 0)
+        {
+          if (character == quote)
+            quote = 0;
+        }
+        else if (character == '"' || character == '\'')
+          quote = character;
+        else if (character == '[')
+          depth++;
+        else if (character == ']')
+          depth--;
+        else if (character == '>' && depth <= 0)
+          return;
+      }
+      throw new EOFException("unexpected end of the XML file");
+    }
 
-        String fileValue = includeElement.getAttribute("file");
-        boolean relativeToChangelogFileValue = Boolean.parseBoolean(includeElement.getAttribute("relativeToChangelogFile"));
+    /**
+     * Skips all characters until the given end was read.
+     *
+     * @param pEnd the characters at the end of the markup
+     * @throws IOException Error while reading or writing or the file is shorter than expected
+     */
+    private void skipUntil(@NonNull String pEnd) throws IOException
+    {
+      char[] end = pEnd.toCharArray();
+      char[] last = new char[end.length];
+      int count = 0;
+      int character;
+      while ((character = read()) >= 0)
+      {
+        System.arraycopy(last, 1, last, 0, last.length - 1);
+        last[last.length - 1] = (char) character;
+        if (++count >= last.length && Arrays.equals(last, end))
+          return;
+      }
+      throw new EOFException("unexpected end of the XML file");
+    }
 
-        // set the new file value
-        includeElement.setAttribute("file", this.changeFile(pConvertedFiles, pInput, pIncludeFile, fileValue, relativeToChangelogFileValue));
+    /**
+     * Reads the next character. The characters before are copied or captured, when the buffer is filled again.
+     *
+     * @return the character or {@code -1} at the end of the file
+     * @throws IOException Error while reading or writing
+     */
+    private int read() throws IOException
+    {
+      if (position == limit)
+      {
+        flush();
+        limit = Math.max(0, reader.read(buffer, 0, buffer.length));
+        position = 0;
+        copied = 0;
+        if (limit == 0)
+          return -1;
       }
+      return buffer[position++];
+    }
+
+    /**
+     * Starts to capture the characters from the {@code <}, that was read last.
+     *
+     * @throws IOException Error while writing
+     */
+    private void startCapture() throws IOException
+    {
+      position--;
+      flush();
+      position++;
+      capture = new StringBuilder();
+    }
+
+    /**
+     * Copies the captured characters and copies all further characters.
+     *
+     * @throws IOException Error while writing
+     */
+    private void stopCapture() throws IOException
+    {
+      flush();
+      writer.append(capture);
+      capture = null;
     }
 
+    /**
+     * Copies or captures all characters, that were read and not copied or captured yet.
+     *
+     * @throws IOException Error while writing
+     */
+    private void flush() throws IOException
+    {
+      if (capture == null)
+        writer.write(buffer, copied, position - copied);
+      else
+        capture.append(buffer, copied, position - copied);
+      copied = position;
+    }
 
-    TransformerFactory transformerFactory = TransformerFactory.newInstance();
-    transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-    transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-    Transformer transformer = transformerFactory.newTransformer();
+    /**
+     * Replaces the value of an attribute in a start tag. Only the value is changed, the quotes and the whitespaces around the attribute are kept.
+     *
+     * @param pTag       the start tag
+     * @param pAttribute the name of the attribute
+     * @param pValue     the new, not escaped value of the attribute
+     * @return the start tag with the new value
+     * @throws IOException the attribute is not in the start tag
+     */
+    @NonNull
+    private static String replaceAttribute(@NonNull String pTag, @NonNull String pAttribute, @NonNull String pValue) throws IOException
+    {
+      // skip the name of the element
+      int index = 1;
+      while (index < pTag.length() && !isWhitespaceOrEnd(pTag.charAt(index)))
+        index++;
 
-    // write the changed document back
-    DOMSource source = new DOMSource(document);
-    StreamResult result = new StreamResult(pNewIncludeFile.toFile());
-    transformer.transform(source, result);
+      while (index < pTag.length())
+      {
+        while (index < pTag.length() && Character.isWhitespace(pTag.charAt(index)))
+          index++;
+        int startOfName = index;
+        while (index < pTag.length() && pTag.charAt(index) != '=' && !isWhitespaceOrEnd(pTag.charAt(index)))
+          index++;
+        String name = pTag.substring(startOfName, index);
+        if (name.isEmpty())
+          break;
+
+        int startOfQuote = pTag.indexOf('=', index) + 1;
+        while (Character.isWhitespace(pTag.charAt(startOfQuote)))
+          startOfQuote++;
+        char quote = pTag.charAt(startOfQuote);
+        int endOfQuote = pTag.indexOf(quote, startOfQuote + 1);
+
+        if (name.equals(pAttribute))
+          return pTag.substring(0, startOfQuote + 1) + escape(pValue, quote) + pTag.substring(endOfQuote);
+        index = endOfQuote + 1;
+      }
+
+      throw new IOException("attribute '" + pAttribute + "' was not found in " + pTag);
+    }
+
+    /**
+     * Checks if a character ends a name in a start tag.
+     *
+     * @param pCharacter the character
+     * @return {@code true}, if the name ends
+     */
+    private static boolean isWhitespaceOrEnd(char pCharacter)
+    {
+      return Character.isWhitespace(pCharacter) || pCharacter == '/' || pCharacter == '>';
+    }
+
+    /**
+     * Escapes the value of an attribute.
+     *
+     * @param pValue the value
+     * @param pQuote the quote around the value
+     * @return the escaped value
+     */
+    @NonNull
+    private static String escape(@NonNull String pValue, char pQuote)
+    {
+      String escaped = pValue.replace("&", "&amp;").replace("<", "&lt;");
+      return pQuote == '"' ? escaped.replace("\"", "&quot;") : escaped.replace("'", "&apos;");
+    }
   }
 }
@@ -1,60 +1,282 @@
 package de.adito.convert.include;
 
+import de.adito.util.FileContentCache;
 import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.*;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
 import org.yaml.snakeyaml.representer.Representer;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.logging.Level;
 
 /**
  * Transforms the include in YAML files.
+ * <p>
+ * The events of the file are read by the parser of SnakeYAML and written again by its emitter. Only the {@code file} of the {@code include} entries
+ * is replaced, so the styles of the scalars and the comments are kept and the memory does not depend on the size of the file.
+ * If the emitter can not write the events, e.g. because of a comment at an unusual position, the file is loaded and dumped as a whole.
  *
  * @author r.hartinger, 27.06.2024
  */
+@Log
 class YamlIncludeTransformer extends AbstractIncludeTransformer
 {
   /**
-   * The pattern for detecting {@code include} and {@code includeAll} in YAML files.
+   * The default limit for the code points of a file, that is loaded as a whole. This is the same limit that Liquibase uses.
    */
-  private static final Pattern YAML_PATTERN = java.util.regex.Pattern.compile("-\\s*(include|includeAll)\\s*:");
+  static final int DEFAULT_CODE_POINT_LIMIT = Integer.MAX_VALUE;
+
+  /**
+   * The plain values that are read as {@code true} by SnakeYAML.
+   */
+  private static final Set<String> TRUE_VALUES = Set.of("true", "yes", "on");
+
+  private static final String DATABASE_CHANGE_LOG = "databaseChangeLog";
+  private static final String INCLUDE = "include";
+  private static final String FILE = "file";
+  private static final String RELATIVE_TO_CHANGELOG_FILE = "relativeToChangelogFile";
+
+  /**
+   * The maximum number of code points of a file, that is loaded as a whole.
+   */
+  private final int codePointLimit;
+
+  /**
+   * Creates a new transformer.
+   *
+   * @param pContentCache   the cache with the content of the files, that were already read
+   * @param pCodePointLimit the maximum number of code points of a file, that is loaded as a whole
+   */
+  YamlIncludeTransformer(@NonNull FileContentCache pContentCache, int pCodePointLimit)
+  {
+    super(pContentCache);
+    codePointLimit = pCodePointLimit;
+  }
 
   @Override
-  protected @NonNull Pattern getPattern()
+  protected @NonNull IncludeScanner.Syntax getSyntax()
   {
-    return YAML_PATTERN;
+    return IncludeScanner.Syntax.YAML;
   }
 
   @Override
-  public void modifyContent(@NonNull Map<Path, Path> pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
+  public void modifyContent(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
       throws IOException
   {
+    try
+    {
+      modifyEvents(pConvertedFiles, pInput, pIncludeFile, pNewIncludeFile);
+    }
+    catch (YAMLException pE)
+    {
+      log.log(Level.FINE, String.format("could not transform the events of file '%s', loading the whole file", pIncludeFile), pE);
+      modifyTree(pConvertedFiles, pInput, pIncludeFile, pNewIncludeFile);
+    }
+  }
+
+  /**
+   * Modifies the content of a file with includes by copying the events of the file.
+   *
+   * @param pConvertedFiles the index of the converted files
+   * @param pInput          the input directory
+   * @param pIncludeFile    the file with the includes
+   * @param pNewIncludeFile the path were the new include file should be stored
+   * @throws IOException Error while reading or writing
+   */
+  private void modifyEvents(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
+      throws IOException
+  {
+    LoaderOptions loaderOptions = new LoaderOptions();
+    loaderOptions.setProcessComments(true);
+    // the events are not kept, so there is no need for a limit
+    loaderOptions.setCodePointLimit(Integer.MAX_VALUE);
+
+    DumperOptions dumperOptions = new DumperOptions();
+    dumperOptions.setProcessComments(true);
+    dumperOptions.setSplitLines(false);
+
+    try (Reader reader = new BufferedReader(new InputStreamReader(openInputStream(pIncludeFile), StandardCharsets.UTF_8));
+         Writer writer = Files.newBufferedWriter(pNewIncludeFile, StandardCharsets.UTF_8))
+    {
+      EventCopier copier = new EventCopier(new Yaml(loaderOptions).parse(reader).iterator(), new Emitter(writer, dumperOptions));
+      while (copier.hasNext())
+      {
+        Event event = copier.copyNext();
+        if (event.is(Event.ID.DocumentStart))
+        {
+          Event root = copier.copyNext();
+          if (root.is(Event.ID.MappingStart))
+            copyMapping(copier, DATABASE_CHANGE_LOG, Event.ID.SequenceStart,
+                        () -> copyChangeLogEntries(pConvertedFiles, pInput, pIncludeFile, copier));
+          else
+            copier.copyNode(root);
+        }
+      }
+    }
+  }
+
+  /**
+   * Copies the entries of the {@code databaseChangeLog} sequence and changes the {@code file} of every {@code include} entry.
+   *
+   * @param pConvertedFiles the index of the converted files
+   * @param pInput          the input directory
+   * @param pIncludeFile    the file with the includes
+   * @param pCopier         the copier, that already copied the start of the sequence
+   * @throws IOException Error while writing
+   */
+  private void copyChangeLogEntries(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile,
+                                    @NonNull EventCopier pCopier) throws IOException
+  {
+    Event entry;
+    while (!(entry = pCopier.copyNext()).is(Event.ID.SequenceEnd))
+    {
+      if (entry.is(Event.ID.MappingStart))
+        copyMapping(pCopier, INCLUDE, Event.ID.MappingStart, () -> pCopier.emit(changeInclude(pConvertedFiles, pInput, pIncludeFile, pCopier.readMapping())));
+      else
+        pCopier.copyNode(entry);
+    }
+  }
+
+  /**
+   * Copies the rest of a mapping. The value of the given key is handled by the given action, if the value starts with the given event.
+   *
+   * @param pCopier     the copier, that already copied the start of the mapping
+   * @param pKey        the key, whose value is handled by the action
+   * @param pValueStart the event with which the value needs to start
+   * @param pAction     the action, that handles the rest of the value
+   * @throws IOException Error while writing
+   */
+  private void copyMapping(@NonNull EventCopier pCopier, @NonNull String pKey, @NonNull Event.ID pValueStart, @NonNull ValueAction pAction)
+      throws IOException
+  {
+    Event key;
+    while (!(key = pCopier.copyNext()).is(Event.ID.MappingEnd))
+    {
+      pCopier.copyNode(key);
+      if (key instanceof ScalarEvent && pKey.equals(((ScalarEvent) key).getValue()) && pCopier.peek().is(pValueStart))
+      {
+        pCopier.copyNext();
+        pAction.run();
+      }
+      else
+        pCopier.copyNode(pCopier.copyNext());
+    }
+  }
+
+  /**
+   * Changes the {@code file} of an include mapping to the new path of the included file.
+   *
+   * @param pConvertedFiles the index of the converted files
+   * @param pInput          the input directory
+   * @param pIncludeFile    the file with the includes
+   * @param pEvents         the events of the include mapping without its start
+   * @return the events of the include mapping with the new file
+   */
+  @NonNull
+  private List<Event> changeInclude(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull List<Event> pEvents)
+  {
+    int fileIndex = -1;
+    boolean relativeToChangelog = false;
+
+    String key = null;
+    boolean isKey = true;
+    int depth = 1;
+    for (int i = 0; i < pEvents.size(); i++)
+    {
+      Event event = pEvents.get(i);
+      if (event.is(Event.ID.Comment))
+        continue;
+
+      if (depth == 1)
+      {
+        if (isKey)
+          key = event instanceof ScalarEvent ? ((ScalarEvent) event).getValue() : null;
+        else if (event instanceof ScalarEvent && FILE.equals(key))
+          fileIndex = i;
+        else if (event instanceof ScalarEvent && RELATIVE_TO_CHANGELOG_FILE.equals(key))
+          relativeToChangelog = isTrue((ScalarEvent) event);
+        isKey = !isKey;
+      }
+
+      if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart))
+        depth++;
+      else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd))
+        depth--;
+    }
+
+    if (fileIndex >= 0)
+    {
+      ScalarEvent file = (ScalarEvent) pEvents.get(fileIndex);
+      String newFile = changeFile(pConvertedFiles, pInput, pIncludeFile, file.getValue(), relativeToChangelog);
+      if (!newFile.equals(file.getValue()))
+        pEvents.set(fileIndex, new ScalarEvent(file.getAnchor(), file.getTag(), file.getImplicit(), newFile,
+                                               file.getStartMark(), file.getEndMark(), file.getScalarStyle()));
+    }
+    return pEvents;
+  }
+
+  /**
+   * Checks if a scalar is read as {@code true}.
+   *
+   * @param pEvent the event of the scalar
+   * @return {@code true}, if the scalar is {@code true}
+   */
+  private static boolean isTrue(@NonNull ScalarEvent pEvent)
+  {
+    if (pEvent.getScalarStyle() == DumperOptions.ScalarStyle.PLAIN)
+      return TRUE_VALUES.contains(pEvent.getValue().toLowerCase());
+    return Boolean.parseBoolean(pEvent.getValue());
+  }
+
+  /**
+   * Modifies the content of a file with includes by loading the whole file.
+   *
+   * @param pConvertedFiles the index of the converted files
+   * @param pInput          the input directory
+   * @param pIncludeFile    the file with the includes
+   * @param pNewIncludeFile the path were the new include file should be stored
+   * @throws IOException Error while reading or writing
+   */
+  private void modifyTree(@NonNull ConvertedFiles pConvertedFiles, @NonNull Path pInput, @NonNull Path pIncludeFile, @NonNull Path pNewIncludeFile)
+      throws IOException
+  {
+    LoaderOptions loaderOptions = new LoaderOptions();
+    loaderOptions.setCodePointLimit(codePointLimit);
+
     DumperOptions dumperOptions = new DumperOptions();
     dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
 
-    Yaml yaml = new Yaml(new Constructor(DatabaseChangeLogData.class, new LoaderOptions()), new Representer(dumperOptions));
+    Yaml yaml = new Yaml(new Constructor(DatabaseChangeLogData.class, loaderOptions), new Representer(dumperOptions));
 
     // read the data
-    DatabaseChangeLogData databaseChangeLogData = yaml.load(Files.readString(pIncludeFile, StandardCharsets.UTF_8));
+    DatabaseChangeLogData databaseChangeLogData;
+    try (Reader reader = new BufferedReader(new InputStreamReader(openInputStream(pIncludeFile), StandardCharsets.UTF_8)))
+    {
+      databaseChangeLogData = yaml.load(reader);
+    }
 
     // change the data
     for (Map<String, Object> entry : databaseChangeLogData.getDatabaseChangeLog())
     {
-      if (entry.containsKey("include"))
+      if (entry.containsKey(INCLUDE))
       {
         //noinspection unchecked
-        Map<String, Object> includeMap = (Map<String, Object>) entry.get("include");
+        Map<String, Object> includeMap = (Map<String, Object>) entry.get(INCLUDE);
 
-        Object file = includeMap.get("file");
-        Object relativeToChangelogValue = includeMap.get("relativeToChangelogFile");
+        Object file = includeMap.get(FILE);
+        Object relativeToChangelogValue = includeMap.get(RELATIVE_TO_CHANGELOG_FILE);
         boolean relativeToChangelog = relativeToChangelogValue != null && Boolean.parseBoolean(relativeToChangelogValue.toString());
 
         if (file != null)
-          includeMap.put("file", changeFile(pConvertedFiles, pInput, pIncludeFile, file.toString(), relativeToChangelog));
+          includeMap.put(FILE, changeFile(pConvertedFiles, pInput, pIncludeFile, file.toString(), relativeToChangelog));
       }
     }
 
@@ -66,6 +288,185 @@ class YamlIncludeTransformer extends AbstractIncludeTransformer
   }
 
 
+  /**
+   * Handles the rest of a value in a mapping, after its start was copied.
+   */
+  @FunctionalInterface
+  private interface ValueAction
+  {
+    /**
+     * Handles the rest of the value.
+     *
+     * @throws IOException Error while writing
+     */
+    void run() throws IOException;
+  }
+
+  /**
+   * Copies the events of the parser to the emitter. The comments are always copied directly, so the callers only see the other events.
+   */
+  private static class EventCopier
+  {
+    private final Iterator<Event> events;
+    private final Emitter emitter;
+
+    /**
+     * The next event, that is not a comment, or {@code null}, if it was not read yet.
+     */
+    @Nullable
+    private Event next;
+
+    /**
+     * Creates a new copier.
+     *
+     * @param pEvents  the events of the parser
+     * @param pEmitter the emitter of the new file
+     */
+    private EventCopier(@NonNull Iterator<Event> pEvents, @NonNull Emitter pEmitter)
+    {
+      events = pEvents;
+      emitter = pEmitter;
+    }
+
+    /**
+     * Checks if there are more events.
+     *
+     * @return {@code true}, if there is another event, that is not a comment
+     * @throws IOException Error while writing the comments
+     */
+    private boolean hasNext() throws IOException
+    {
+      if (next != null)
+        return true;
+      while (events.hasNext())
+      {
+        Event event = events.next();
+        if (!event.is(Event.ID.Comment))
+        {
+          next = event;
+          return true;
+        }
+        emitter.emit(event);
+      }
+      return false;
+    }
+
+    /**
+     * Gets the next event, that is not a comment, without copying it.
+     *
+     * @return the next event
+     * @throws IOException Error while writing the comments
+     */
+    @NonNull
+    private Event peek() throws IOException
+    {
+      if (!hasNext())
+        throw new YAMLException("unexpected end of the YAML file");
+      return Objects.requireNonNull(next);
+    }
+
+    /**
+     * Copies the next event, that is not a comment.
+     *
+     * @return the copied event
+     * @throws IOException Error while writing
+     */
+    @NonNull
+    private Event copyNext() throws IOException
+    {
+      Event event = peek();
+      next = null;
+      emitter.emit(event);
+      return event;
+    }
+
+    /**
+     * Copies the rest of a node, whose first event was already copied.
+     *
+     * @param pStart the first event of the node
+     * @throws IOException Error while writing
+     */
+    private void copyNode(@NonNull Event pStart) throws IOException
+    {
+      int depth = isStart(pStart) ? 1 : 0;
+      while (depth > 0)
+      {
+        Event event = copyNext();
+        if (isStart(event))
+          depth++;
+        else if (isEnd(event))
+          depth--;
+      }
+    }
+
+    /**
+     * Reads the rest of a mapping, whose start was already copied, without copying it. This includes the comments in the mapping.
+     *
+     * @return the read events, including the end of the mapping
+     */
+    @NonNull
+    private List<Event> readMapping()
+    {
+      List<Event> mapping = new ArrayList<>();
+      int depth = 1;
+      while (depth > 0)
+      {
+        Event event;
+        if (next != null)
+        {
+          event = next;
+          next = null;
+        }
+        else if (events.hasNext())
+          event = events.next();
+        else
+          throw new YAMLException("unexpected end of the YAML file");
+
+        mapping.add(event);
+        if (isStart(event))
+          depth++;
+        else if (isEnd(event))
+          depth--;
+      }
+      return mapping;
+    }
+
+    /**
+     * Writes the given events.
+     *
+     * @param pEvents the events
+     * @throws IOException Error while writing
+     */
+    private void emit(@NonNull List<Event> pEvents) throws IOException
+    {
+      for (Event event : pEvents)
+        emitter.emit(event);
+    }
+
+    /**
+     * Checks if an event starts a mapping or a sequence.
+     *
+     * @param pEvent the event
+     * @return {@code true}, if the event starts a mapping or a sequence
+     */
+    private static boolean isStart(@NonNull Event pEvent)
+    {
+      return pEvent.is(Event.ID.MappingStart) || pEvent.is(Event.ID.SequenceStart);
+    }
+
+    /**
+     * Checks if an event ends a mapping or a sequence.
+     *
+     * @param pEvent the event
+     * @return {@code true}, if the event ends a mapping or a sequence
+     */
+    private static boolean isEnd(@NonNull Event pEvent)
+    {
+      return pEvent.is(Event.ID.MappingEnd) || pEvent.is(Event.ID.SequenceEnd);
+    }
+  }
+
+
   /**
    * The database changelog for YAML conversion.
    */
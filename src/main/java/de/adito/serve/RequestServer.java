@@ -0,0 +1,180 @@
+package de.adito.serve;
+
+import com.google.gson.*;
+import de.adito.LiquibaseExtendedCli;
+import lombok.*;
+import org.jetbrains.annotations.Nullable;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Keeps the JVM alive and executes the other commands in-process.
+ * <p>
+ * Every line read from stdin is one request in JSON, e.g. {@code {"id": 1, "cmd": "context", "args": ["C:\\dev\\changelog.xml"]}}.
+ * For every request, exactly one line with the response is written to stdout, e.g. {@code {"id": 1, "exitCode": 0, "out": "[\"example\"]\n", "err": ""}}.
+ * This saves the startup of the JVM and the initialization of Liquibase for every call.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Command(name = "serve", description = "Reads newline-delimited JSON requests from stdin and executes them in the same JVM",
+    version = "1.0.0", mixinStandardHelpOptions = true)
+@NoArgsConstructor
+public class RequestServer implements Callable<Integer>
+{
+  /**
+   * The name of this command. This command cannot be called by a request.
+   */
+  private static final String COMMAND_NAME = "serve";
+
+  /**
+   * The exit code for invalid requests. This is the same exit code that picocli uses for invalid user input.
+   */
+  private static final int INVALID_REQUEST_EXIT_CODE = 2;
+
+  /**
+   * The gson used for reading the requests and writing the responses. Every response needs to be written in one line.
+   */
+  private final Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+
+  @Spec
+  private CommandSpec spec;
+
+  @Override
+  public Integer call() throws IOException
+  {
+    PrintWriter out = spec.commandLine().getOut();
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null)
+    {
+      if (line.isBlank())
+        continue;
+
+      out.println(gson.toJson(handle(line)));
+      out.flush();
+    }
+
+    return 0;
+  }
+
+  /**
+   * Handles one request.
+   *
+   * @param pLine the line with the request
+   * @return the response for the request
+   */
+  @NonNull
+  Response handle(@NonNull String pLine)
+  {
+    Request request;
+    try
+    {
+      request = gson.fromJson(pLine, Request.class);
+    }
+    catch (JsonParseException pE)
+    {
+      return Response.invalid(null, "Invalid request '" + pLine + "': " + pE.getMessage());
+    }
+
+    if (request == null || request.cmd == null || request.cmd.isBlank())
+      return Response.invalid(request == null ? null : request.id, "Missing required value 'cmd' in request '" + pLine + "'");
+
+    if (COMMAND_NAME.equals(request.cmd))
+      return Response.invalid(request.id, "Command '" + COMMAND_NAME + "' cannot be called by a request");
+
+    List<String> args = new ArrayList<>();
+    args.add(request.cmd);
+    if (request.args != null)
+      args.addAll(request.args);
+
+    StringWriter outText = new StringWriter();
+    StringWriter errText = new StringWriter();
+    int exitCode;
+    try (PrintWriter out = new PrintWriter(outText); PrintWriter err = new PrintWriter(errText))
+    {
+      // every request gets a new command line, so that no options from previous requests are still set
+      CommandLine commandLine = new CommandLine(new LiquibaseExtendedCli());
+      commandLine.setOut(out);
+      commandLine.setErr(err);
+      exitCode = commandLine.execute(args.toArray(String[]::new));
+    }
+
+    return new Response(request.id, exitCode, outText.toString(), errText.toString());
+  }
+
+  /**
+   * One request that was read from stdin.
+   */
+  @NoArgsConstructor
+  static class Request
+  {
+    /**
+     * Any id given by the caller. This id will be returned in the response unchanged.
+     */
+    @Nullable
+    private JsonElement id;
+
+    /**
+     * The name of the command that should be executed, e.g. {@code context}.
+     */
+    @Nullable
+    private String cmd;
+
+    /**
+     * The arguments that should be passed to the command.
+     */
+    @Nullable
+    private List<String> args;
+  }
+
+  /**
+   * The response that is written to stdout for every request.
+   */
+  @AllArgsConstructor
+  @Getter
+  static class Response
+  {
+    /**
+     * The id given in the request.
+     */
+    @Nullable
+    private final JsonElement id;
+
+    /**
+     * The exit code of the command.
+     */
+    private final int exitCode;
+
+    /**
+     * The text that the command has written to its output.
+     */
+    @NonNull
+    private final String out;
+
+    /**
+     * The text that the command has written to its error output.
+     */
+    @NonNull
+    private final String err;
+
+    /**
+     * Creates a response for a request that could not be executed.
+     *
+     * @param pId      the id given in the request
+     * @param pMessage the message, why the request could not be executed
+     * @return the created response
+     */
+    @NonNull
+    static Response invalid(@Nullable JsonElement pId, @NonNull String pMessage)
+    {
+      return new Response(pId, INVALID_REQUEST_EXIT_CODE, "", pMessage + System.lineSeparator());
+    }
+  }
+}
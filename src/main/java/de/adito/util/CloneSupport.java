@@ -0,0 +1,77 @@
+package de.adito.util;
+
+import lombok.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the file systems, on which files can not be cloned with {@code cp --reflink=always}, so no further process is started for them.
+ * Every run has its own instance, so a file system, that did not support cloning in one run, is tried again in the next run.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class CloneSupport
+{
+  /**
+   * The command, that clones a file. The paths of the source and the target are appended.
+   */
+  @Getter(AccessLevel.PACKAGE)
+  private final @NonNull List<String> command;
+
+  /**
+   * The file stores of the source and the target of every clone, that was rejected by the command.
+   */
+  private final Set<List<FileStore>> unsupportedStores = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates the support for cloning with {@code cp --reflink=always}.
+   */
+  public CloneSupport()
+  {
+    this(List.of("cp", "--reflink=always"));
+  }
+
+  /**
+   * Checks whether a file can be cloned from the file system of the source to the file system of the target.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file, that must exist
+   * @return {@code true}, if no clone between both file systems was rejected before
+   * @throws IOException Error while reading the file systems
+   */
+  boolean isSupported(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    return !unsupportedStores.contains(getStores(pSource, pTarget));
+  }
+
+  /**
+   * Stores that no file can be cloned from the file system of the source to the file system of the target.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file, that must exist
+   * @throws IOException Error while reading the file systems
+   */
+  void setUnsupported(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    unsupportedStores.add(getStores(pSource, pTarget));
+  }
+
+  /**
+   * Returns the file stores of both files. The clones between two file systems may fail, even if both file systems support cloning,
+   * so the file store of the source is stored together with the one of the target.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file
+   * @return the file stores
+   * @throws IOException Error while reading the file systems
+   */
+  @NonNull
+  private static List<FileStore> getStores(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    return List.of(Files.getFileStore(pSource), Files.getFileStore(pTarget));
+  }
+}
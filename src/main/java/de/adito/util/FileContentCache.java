@@ -0,0 +1,158 @@
+package de.adito.util;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for the content of files, so a file that is needed multiple times during one call is only read once from the disk.
+ * <p>
+ * The cache has a budget of bytes. A file is only loaded, if its content fits into the remaining budget. Files that are not loaded
+ * are read from the disk as usual. The content of a file should be evicted as soon as it is no longer needed.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+public class FileContentCache
+{
+  /**
+   * The maximum number of bytes of all loaded files.
+   */
+  private final long budget;
+
+  /**
+   * The number of bytes of all loaded files.
+   */
+  private final AtomicLong usedBytes = new AtomicLong();
+
+  /**
+   * The content of the loaded files by their normalized absolute path.
+   */
+  private final Map<Path, byte[]> contents = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new cache.
+   *
+   * @param pBudget the maximum number of bytes of all loaded files, {@code 0} disables the cache
+   */
+  public FileContentCache(long pBudget)
+  {
+    budget = pBudget;
+  }
+
+  /**
+   * Loads the content of a file into the cache, if it fits into the remaining budget.
+   *
+   * @param pFile the file
+   * @return {@code true}, if the content is in the cache
+   * @throws IOException Error while reading the file
+   */
+  public boolean load(@NonNull Path pFile) throws IOException
+  {
+    Path key = getKey(pFile);
+    if (contents.containsKey(key))
+      return true;
+
+    long size = Files.size(pFile);
+    if (!reserve(size))
+      return false;
+
+    byte[] content;
+    try
+    {
+      content = Files.readAllBytes(pFile);
+    }
+    catch (IOException | RuntimeException pE)
+    {
+      usedBytes.addAndGet(-size);
+      throw pE;
+    }
+
+    // the file could have changed its size since it was checked
+    usedBytes.addAndGet(content.length - size);
+    if (contents.putIfAbsent(key, content) != null)
+      usedBytes.addAndGet(-content.length);
+    return true;
+  }
+
+  /**
+   * Gets the content of a file, if it was loaded.
+   *
+   * @param pFile the file
+   * @return the content or {@code null}, if the file is not in the cache
+   */
+  @Nullable
+  public byte[] get(@NonNull Path pFile)
+  {
+    return contents.get(getKey(pFile));
+  }
+
+  /**
+   * Opens a stream to the content of a file. The content is taken from the cache, if it was loaded, otherwise the file is read from the disk.
+   *
+   * @param pFile the file
+   * @return the stream to the content
+   * @throws IOException Error while opening the file
+   */
+  @NonNull
+  public InputStream openInputStream(@NonNull Path pFile) throws IOException
+  {
+    byte[] content = get(pFile);
+    return content == null ? Files.newInputStream(pFile) : new ByteArrayInputStream(content);
+  }
+
+  /**
+   * Removes the content of a file from the cache, so its bytes can be used for other files.
+   *
+   * @param pFile the file
+   */
+  public void evict(@NonNull Path pFile)
+  {
+    byte[] content = contents.remove(getKey(pFile));
+    if (content != null)
+      usedBytes.addAndGet(-content.length);
+  }
+
+  /**
+   * Removes the content of all files from the cache.
+   */
+  public void clear()
+  {
+    contents.keySet().forEach(this::evict);
+  }
+
+  /**
+   * Reserves bytes of the budget.
+   *
+   * @param pSize the number of bytes
+   * @return {@code true}, if the bytes were reserved, {@code false}, if there are not enough bytes left
+   */
+  private boolean reserve(long pSize)
+  {
+    long used;
+    do
+    {
+      used = usedBytes.get();
+      if (used + pSize > budget)
+        return false;
+    }
+    while (!usedBytes.compareAndSet(used, used + pSize));
+    return true;
+  }
+
+  /**
+   * Gets the key of a file in the cache.
+   *
+   * @param pFile the file
+   * @return the normalized absolute path of the file
+   */
+  @NonNull
+  private static Path getKey(@NonNull Path pFile)
+  {
+    return pFile.toAbsolutePath().normalize();
+  }
+}
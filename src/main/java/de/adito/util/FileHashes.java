@@ -0,0 +1,91 @@
+package de.adito.util;
+
+import lombok.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.security.*;
+
+/**
+ * Util class for calculating the hash of the content of files.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FileHashes
+{
+  /**
+   * The algorithm used for all hashes.
+   */
+  private static final String ALGORITHM = "SHA-256";
+
+  /**
+   * Calculates the hash of the content of a file. The file is read in chunks, so that the file does not need to fit in the memory.
+   *
+   * @param pFile the file
+   * @return the hash as lower case hex string
+   * @throws IOException Error while reading the file
+   */
+  @NonNull
+  public static String hash(@NonNull Path pFile) throws IOException
+  {
+    MessageDigest digest = createDigest();
+    byte[] buffer = new byte[64 * 1024];
+    try (InputStream inputStream = Files.newInputStream(pFile))
+    {
+      int read;
+      while ((read = inputStream.read(buffer)) != -1)
+        digest.update(buffer, 0, read);
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Calculates the hash of a part of some content, that is already in the memory.
+   *
+   * @param pContent the content
+   * @param pOffset  the start of the part
+   * @param pLength  the length of the part
+   * @return the hash as lower case hex string
+   */
+  @NonNull
+  public static String hash(byte @NonNull [] pContent, int pOffset, int pLength)
+  {
+    MessageDigest digest = createDigest();
+    digest.update(pContent, pOffset, pLength);
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Creates a new digest. Every JVM needs to support SHA-256, so this should not fail.
+   *
+   * @return the created digest
+   */
+  @NonNull
+  private static MessageDigest createDigest()
+  {
+    try
+    {
+      return MessageDigest.getInstance(ALGORITHM);
+    }
+    catch (NoSuchAlgorithmException pE)
+    {
+      throw new IllegalStateException(ALGORITHM + " is not supported by this JVM", pE);
+    }
+  }
+
+  /**
+   * Transforms the bytes to a hex string.
+   *
+   * @param pBytes the bytes
+   * @return the lower case hex string
+   */
+  @NonNull
+  private static String toHex(byte @NonNull [] pBytes)
+  {
+    StringBuilder builder = new StringBuilder(pBytes.length * 2);
+    for (byte b : pBytes)
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    return builder.toString();
+  }
+}
@@ -0,0 +1,200 @@
+package de.adito.util;
+
+import lombok.*;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Util class for transferring files into an output directory without reading them into the memory.
+ * <p>
+ * Every file is first created as a temporary file next to the target and then moved to the target, so a failure never leaves a partly written file
+ * and a target, that is a hard link, is replaced instead of changing the linked file.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FileTransfers
+{
+  /**
+   * The maximum time in seconds for cloning one file with {@code cp}.
+   */
+  private static final long CLONE_TIMEOUT = 60;
+
+  /**
+   * The minimum size in bytes of the files, that are cloned. Starting a {@code cp} process takes longer than copying a small file,
+   * so smaller files are always copied by the operating system.
+   */
+  static final long CLONE_THRESHOLD = 1024 * 1024;
+
+  /**
+   * Checks whether the target has the same content as the source. Files with the same size and the same modification time are identical
+   * without reading them. Files with the same size and different modification times are compared byte by byte and the modification time
+   * of an identical target is updated, so the next check does not need to read the files again.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file, that does not need to exist
+   * @return {@code true}, if the target exists and has the same content
+   * @throws IOException Error while reading the files
+   */
+  public static boolean isIdentical(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    BasicFileAttributes targetAttributes;
+    try
+    {
+      targetAttributes = Files.readAttributes(pTarget, BasicFileAttributes.class);
+    }
+    catch (NoSuchFileException pE)
+    {
+      return false;
+    }
+
+    BasicFileAttributes sourceAttributes = Files.readAttributes(pSource, BasicFileAttributes.class);
+    if (!targetAttributes.isRegularFile() || sourceAttributes.size() != targetAttributes.size())
+      return false;
+    if (sourceAttributes.lastModifiedTime().equals(targetAttributes.lastModifiedTime()))
+      return true;
+    if (Files.mismatch(pSource, pTarget) != -1)
+      return false;
+
+    Files.setLastModifiedTime(pTarget, sourceAttributes.lastModifiedTime());
+    return true;
+  }
+
+  /**
+   * Copies a file and sets the modification time of the target to the one of the source, so {@link #isIdentical(Path, Path)} can check it
+   * without reading the files.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file
+   * @throws IOException Error while copying
+   */
+  public static void copyWithModificationTime(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    Files.copy(pSource, pTarget, StandardCopyOption.REPLACE_EXISTING);
+    Files.setLastModifiedTime(pTarget, Files.getLastModifiedTime(pSource));
+  }
+
+  /**
+   * Creates a hard link to the source. A target, that already is a link to the source, is kept.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file
+   * @throws IOException Error while linking, e.g. if the files are on different file systems
+   */
+  public static void link(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    if (Files.exists(pTarget) && Files.isSameFile(pSource, pTarget))
+      return;
+
+    Path tempFile = TempFiles.createSibling(pTarget);
+    try
+    {
+      Files.delete(tempFile);
+      Files.createLink(tempFile, pSource);
+      Files.move(tempFile, pTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally
+    {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Clones a file with {@code cp --reflink=always}, so the target shares the blocks of the source on file systems with copy on write.
+   * Every clone starts a process, so only files with at least {@link #CLONE_THRESHOLD} bytes are cloned.
+   * Smaller files and all files, that could not be cloned, are copied with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+   * which lets the operating system copy the content without passing it through the memory of the JVM.
+   *
+   * @param pSource       the source file
+   * @param pTarget       the target file
+   * @param pCloneSupport the file systems of the current run, on which cloning is not supported
+   * @throws IOException Error while copying
+   */
+  public static void cloneOrTransfer(@NonNull Path pSource, @NonNull Path pTarget, @NonNull CloneSupport pCloneSupport) throws IOException
+  {
+    Path tempFile = TempFiles.createSibling(pTarget);
+    try
+    {
+      if (Files.size(pSource) < CLONE_THRESHOLD || !cloneFile(pSource, tempFile, pCloneSupport))
+        transferFile(pSource, tempFile);
+      Files.move(tempFile, pTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally
+    {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Clones a file with {@code cp}. After {@code cp} rejected a clone, no further file is cloned between the same file systems in the current run.
+   * A timeout or an error while starting the process only affects the current file.
+   *
+   * @param pSource       the source file
+   * @param pTarget       the existing target file
+   * @param pCloneSupport the file systems of the current run, on which cloning is not supported
+   * @return {@code true}, if the file was cloned
+   */
+  private static boolean cloneFile(@NonNull Path pSource, @NonNull Path pTarget, @NonNull CloneSupport pCloneSupport)
+  {
+    try
+    {
+      if (!pCloneSupport.isSupported(pSource, pTarget))
+        return false;
+
+      List<String> command = new ArrayList<>(pCloneSupport.getCommand());
+      command.add(pSource.toString());
+      command.add(pTarget.toString());
+      Process process = new ProcessBuilder(command)
+          .redirectErrorStream(true)
+          .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+          .start();
+      if (!process.waitFor(CLONE_TIMEOUT, TimeUnit.SECONDS))
+      {
+        process.destroyForcibly();
+        log.log(Level.FINE, String.format("cloning file '%s' timed out, it is copied instead", pSource));
+        return false;
+      }
+      if (process.exitValue() == 0)
+        return true;
+
+      // cp rejects the clone, if one of the file systems does not support cloning or if they are different file systems
+      pCloneSupport.setUnsupported(pSource, pTarget);
+    }
+    catch (IOException pE)
+    {
+      log.log(Level.FINE, String.format("could not clone file '%s', it is copied instead", pSource), pE);
+    }
+    catch (InterruptedException pE)
+    {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  /**
+   * Copies a file with the channels of both files.
+   *
+   * @param pSource the source file
+   * @param pTarget the target file, that is overwritten
+   * @throws IOException Error while copying
+   */
+  private static void transferFile(@NonNull Path pSource, @NonNull Path pTarget) throws IOException
+  {
+    try (FileChannel source = FileChannel.open(pSource, StandardOpenOption.READ);
+         FileChannel target = FileChannel.open(pTarget, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+    {
+      long size = source.size();
+      long position = 0;
+      while (position < size)
+        position += source.transferTo(position, size - position, target);
+    }
+  }
+}
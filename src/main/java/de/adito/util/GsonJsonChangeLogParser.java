@@ -0,0 +1,290 @@
+package de.adito.util;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.*;
+import liquibase.*;
+import liquibase.changelog.*;
+import liquibase.exception.*;
+import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.json.JsonChangeLogParser;
+import liquibase.resource.*;
+import liquibase.util.FileUtil;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Parser for JSON changelogs, that reads the changelogs with Gson. Liquibase reads JSON changelogs with SnakeYAML, which is much slower.
+ * <p>
+ * The changelog is read into the same maps, lists and values as SnakeYAML would create, and these are handled the same way as in
+ * {@link liquibase.parser.core.yaml.YamlChangeLogParser}, so the same {@link DatabaseChangeLog} is created.
+ * Files that are no strict JSON, but can be read by SnakeYAML, are parsed by Liquibase.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+public class GsonJsonChangeLogParser extends JsonChangeLogParser
+{
+  private static final String DATABASE_CHANGE_LOG = "databaseChangeLog";
+
+  @Override
+  public int getPriority()
+  {
+    return super.getPriority() + 1;
+  }
+
+  @Override
+  public DatabaseChangeLog parse(String pPhysicalChangeLogLocation, ChangeLogParameters pChangeLogParameters, ResourceAccessor pResourceAccessor)
+      throws ChangeLogParseException
+  {
+    try
+    {
+      Resource resource = pResourceAccessor.get(pPhysicalChangeLogLocation);
+      if (!resource.exists())
+        throw new ChangeLogParseException(pPhysicalChangeLogLocation + " does not exist");
+
+      Map<String, Object> changeLogMap;
+      try (InputStream inputStream = resource.openInputStream())
+      {
+        changeLogMap = read(inputStream);
+      }
+      if (changeLogMap == null)
+        // SnakeYAML should report the error or read the file the same way as before
+        return super.parse(pPhysicalChangeLogLocation, pChangeLogParameters, pResourceAccessor);
+
+      return createChangeLog(pPhysicalChangeLogLocation, changeLogMap, pChangeLogParameters, pResourceAccessor);
+    }
+    catch (ChangeLogParseException pE)
+    {
+      throw pE;
+    }
+    catch (Exception pE)
+    {
+      throw new ChangeLogParseException("Error parsing " + pPhysicalChangeLogLocation + " : " + pE.getMessage(), pE);
+    }
+  }
+
+  /**
+   * Reads the content of a changelog.
+   *
+   * @param pInputStream the content of the changelog
+   * @return the object of the changelog or {@code null}, if the content is no strict JSON object
+   * @throws IOException Error while reading
+   */
+  @Nullable
+  private Map<String, Object> read(@NonNull InputStream pInputStream) throws IOException
+  {
+    // SnakeYAML handles the BOM the same way
+    try (JsonReader reader = new JsonReader(new UnicodeReader(new BufferedInputStream(pInputStream))))
+    {
+      reader.setStrictness(Strictness.STRICT);
+      if (reader.peek() != JsonToken.BEGIN_OBJECT)
+        return null;
+
+      Map<String, Object> changeLogMap = readObject(reader);
+      return reader.peek() == JsonToken.END_DOCUMENT ? changeLogMap : null;
+    }
+    catch (MalformedJsonException | EOFException pE)
+    {
+      log.log(Level.FINE, "changelog is no strict JSON", pE);
+      return null;
+    }
+  }
+
+  /**
+   * Reads any value like SnakeYAML would read it.
+   *
+   * @param pReader the reader, positioned before the value
+   * @return the value
+   * @throws IOException Error while reading
+   */
+  @Nullable
+  private Object readValue(@NonNull JsonReader pReader) throws IOException
+  {
+    switch (pReader.peek())
+    {
+      case BEGIN_OBJECT:
+        return readObject(pReader);
+      case BEGIN_ARRAY:
+        List<Object> list = new ArrayList<>();
+        pReader.beginArray();
+        while (pReader.hasNext())
+          list.add(readValue(pReader));
+        pReader.endArray();
+        return list;
+      case NUMBER:
+        return toNumber(pReader.nextString());
+      case BOOLEAN:
+        return pReader.nextBoolean();
+      case NULL:
+        pReader.nextNull();
+        return null;
+      default:
+        return pReader.nextString();
+    }
+  }
+
+  /**
+   * Reads an object into a map. The same as in SnakeYAML, the last value of a duplicate key wins and is at the position of its last occurrence.
+   *
+   * @param pReader the reader, positioned before the object
+   * @return the map with all keys of the object
+   * @throws IOException Error while reading
+   */
+  @NonNull
+  private Map<String, Object> readObject(@NonNull JsonReader pReader) throws IOException
+  {
+    Map<String, Object> map = new LinkedHashMap<>();
+    pReader.beginObject();
+    while (pReader.hasNext())
+    {
+      String name = pReader.nextName();
+      Object value = readValue(pReader);
+      map.remove(name);
+      map.put(name, value);
+    }
+    pReader.endObject();
+    return map;
+  }
+
+  /**
+   * Converts a JSON number to the same type as SnakeYAML does: integers are {@link Integer}, {@link Long} or {@link BigInteger}
+   * depending on their size and all other numbers are {@link Double}.
+   *
+   * @param pNumber the number as in the file
+   * @return the number
+   */
+  @NonNull
+  private static Number toNumber(@NonNull String pNumber)
+  {
+    if (pNumber.indexOf('.') >= 0 || pNumber.indexOf('e') >= 0 || pNumber.indexOf('E') >= 0)
+      return Double.valueOf(pNumber);
+
+    BigInteger number = new BigInteger(pNumber);
+    if (number.bitLength() < Integer.SIZE)
+      return number.intValue();
+    if (number.bitLength() < Long.SIZE)
+      return number.longValue();
+    return number;
+  }
+
+  /**
+   * Creates the changelog from the read object. This is the same as {@link liquibase.parser.core.yaml.YamlChangeLogParser} does after reading the file.
+   *
+   * @param pPhysicalChangeLogLocation the location of the changelog
+   * @param pChangeLogMap              the read object of the changelog
+   * @param pChangeLogParameters       the parameters of the changelog
+   * @param pResourceAccessor          the resource accessor
+   * @return the changelog
+   * @throws Exception Error while creating the changelog
+   */
+  @NonNull
+  private DatabaseChangeLog createChangeLog(@NonNull String pPhysicalChangeLogLocation, @NonNull Map<String, Object> pChangeLogMap,
+                                            ChangeLogParameters pChangeLogParameters, @NonNull ResourceAccessor pResourceAccessor) throws Exception
+  {
+    if (pChangeLogMap.isEmpty())
+      throw new ChangeLogParseException("Empty file" + pPhysicalChangeLogLocation);
+
+    DatabaseChangeLog changeLog = new DatabaseChangeLog(DatabaseChangeLog.normalizePath(pPhysicalChangeLogLocation));
+    if (!pChangeLogMap.containsKey(DATABASE_CHANGE_LOG))
+      throw new ChangeLogParseException("Could not find databaseChangeLog node");
+
+    Object rootList = pChangeLogMap.get(DATABASE_CHANGE_LOG);
+    if (rootList == null)
+    {
+      changeLog.setChangeLogParameters(pChangeLogParameters);
+      return changeLog;
+    }
+    if (!(rootList instanceof List))
+      throw new ChangeLogParseException("databaseChangeLog does not contain a list of entries. Each changeSet must begin ' - changeSet:'");
+
+    for (Object entry : (List<?>) rootList)
+    {
+      if (entry instanceof Map && ((Map<?, ?>) entry).containsKey("property"))
+        setProperty(changeLog, (Map<?, ?>) ((Map<?, ?>) entry).get("property"), pChangeLogParameters, pResourceAccessor);
+    }
+
+    replaceParameters(pChangeLogMap, pChangeLogParameters, changeLog);
+    changeLog.setChangeLogParameters(pChangeLogParameters);
+
+    ParsedNode databaseChangeLogNode = new ParsedNode(null, DATABASE_CHANGE_LOG);
+    databaseChangeLogNode.setValue(rootList);
+    changeLog.load(databaseChangeLogNode, pResourceAccessor);
+    return changeLog;
+  }
+
+  /**
+   * Sets a property of the changelog, either directly or from a properties file.
+   *
+   * @param pChangeLog           the changelog
+   * @param pProperty            the property entry
+   * @param pChangeLogParameters the parameters of the changelog
+   * @param pResourceAccessor    the resource accessor
+   * @throws Exception Error while setting the property
+   */
+  private void setProperty(@NonNull DatabaseChangeLog pChangeLog, @NonNull Map<?, ?> pProperty, ChangeLogParameters pChangeLogParameters,
+                           @NonNull ResourceAccessor pResourceAccessor) throws Exception
+  {
+    ContextExpression context = new ContextExpression((String) pProperty.get("context"));
+    Labels labels = new Labels((String) pProperty.get("labels"));
+    Boolean global = (Boolean) pProperty.get("global");
+    if (global == null)
+      global = true;
+    String dbms = (String) pProperty.get("dbms");
+
+    if (pProperty.containsKey("name"))
+      pChangeLogParameters.set((String) pProperty.get("name"), pProperty.get("value"), context, labels, dbms, global, pChangeLog);
+    else if (pProperty.containsKey("file"))
+    {
+      Properties properties = loadProperties(pChangeLog, pProperty, pResourceAccessor);
+      for (Map.Entry<Object, Object> entry : properties.entrySet())
+        pChangeLogParameters.set(entry.getKey().toString(), entry.getValue().toString(), context, labels, dbms, global, pChangeLog);
+    }
+  }
+
+  /**
+   * Loads the properties file of a property entry.
+   *
+   * @param pChangeLog        the changelog
+   * @param pProperty         the property entry
+   * @param pResourceAccessor the resource accessor
+   * @return the loaded properties, empty if the file does not exist and this is no error
+   * @throws IOException Error while reading the file
+   */
+  @NonNull
+  private Properties loadProperties(@NonNull DatabaseChangeLog pChangeLog, @NonNull Map<?, ?> pProperty, @NonNull ResourceAccessor pResourceAccessor)
+      throws IOException
+  {
+    Boolean relativeToChangelogFile = (Boolean) pProperty.get("relativeToChangelogFile");
+    Boolean errorIfMissing = (Boolean) pProperty.get("errorIfMissing");
+    String file = (String) pProperty.get("file");
+
+    Resource resource;
+    if (Boolean.TRUE.equals(relativeToChangelogFile))
+      resource = pResourceAccessor.get(pChangeLog.getPhysicalFilePath()).resolveSibling(file);
+    else
+      resource = pResourceAccessor.get(file);
+
+    Properties properties = new Properties();
+    if (!resource.exists())
+    {
+      if (errorIfMissing == null || errorIfMissing)
+        throw new UnexpectedLiquibaseException(FileUtil.getFileNotFoundMessage(file));
+      Scope.getCurrentScope().getLog(getClass()).warning(FileUtil.getFileNotFoundMessage(file));
+    }
+    else
+    {
+      try (InputStream inputStream = resource.openInputStream())
+      {
+        properties.load(inputStream);
+      }
+    }
+    return properties;
+  }
+}
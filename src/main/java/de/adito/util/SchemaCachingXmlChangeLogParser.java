@@ -0,0 +1,200 @@
+package de.adito.util;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.xml.*;
+import liquibase.resource.*;
+import liquibase.util.BomAwareInputStream;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.*;
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.validation.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Parser for XML changelogs, that compiles the XSDs of every {@code xsi:schemaLocation} only once. Liquibase would load and compile the XSDs
+ * again for every file. All changelogs with the same {@code xsi:schemaLocation} are validated against the same compiled schema.
+ * <p>
+ * The compiled schemas are shared by all instances and all threads, so they are kept for the whole run.
+ * Changelogs without a {@code xsi:schemaLocation} or with XSDs that are not part of Liquibase are validated by Liquibase itself.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+public class SchemaCachingXmlChangeLogParser extends XMLChangeLogSAXParser
+{
+  /**
+   * The parser for every {@code xsi:schemaLocation}, that validates against the compiled schema,
+   * or an empty optional, if the XSDs could not be compiled.
+   */
+  private static final Map<String, Optional<SchemaCachingXmlChangeLogParser>> SCHEMA_PARSERS = new ConcurrentHashMap<>();
+
+  /**
+   * The factory for reading the {@code xsi:schemaLocation} of the root element.
+   */
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+  /**
+   * If the changelogs should be validated against the compiled schemas.
+   */
+  private final boolean useSchemaCache;
+
+  /**
+   * Creates a new parser.
+   *
+   * @param pValidate {@code true}, if the changelogs should be validated against their XSDs, {@code false}, if the input is trusted and not validated at all
+   */
+  public SchemaCachingXmlChangeLogParser(boolean pValidate)
+  {
+    if (!pValidate)
+      getSaxParserFactory().setValidating(false);
+    // Liquibase may be configured to not validate at all
+    useSchemaCache = getSaxParserFactory().isValidating();
+  }
+
+  /**
+   * Creates a new parser, that validates every changelog against the given schema.
+   *
+   * @param pSchema the compiled schema
+   */
+  private SchemaCachingXmlChangeLogParser(@NonNull Schema pSchema)
+  {
+    // the schema is given to the parser, so the XSDs of the changelogs are not loaded again
+    getSaxParserFactory().setValidating(false);
+    getSaxParserFactory().setSchema(pSchema);
+    useSchemaCache = false;
+  }
+
+  @Override
+  public int getPriority()
+  {
+    return super.getPriority() + 1;
+  }
+
+  @Override
+  protected ParsedNode parseToNode(String pPhysicalChangeLogLocation, ChangeLogParameters pChangeLogParameters, ResourceAccessor pResourceAccessor)
+      throws ChangeLogParseException
+  {
+    if (useSchemaCache)
+    {
+      String schemaLocation = readSchemaLocation(pPhysicalChangeLogLocation, pResourceAccessor);
+      if (schemaLocation != null)
+      {
+        Optional<SchemaCachingXmlChangeLogParser> schemaParser = SCHEMA_PARSERS.computeIfAbsent(schemaLocation, SchemaCachingXmlChangeLogParser::compile);
+        if (schemaParser.isPresent())
+          return schemaParser.get().parseToNode(pPhysicalChangeLogLocation, pChangeLogParameters, pResourceAccessor);
+      }
+    }
+    return super.parseToNode(pPhysicalChangeLogLocation, pChangeLogParameters, pResourceAccessor);
+  }
+
+  /**
+   * Reads the {@code xsi:schemaLocation} of the root element of a changelog. Only the start of the file is read.
+   *
+   * @param pPhysicalChangeLogLocation the location of the changelog
+   * @param pResourceAccessor          the resource accessor for the changelog
+   * @return the schema location with normalized whitespaces or {@code null}, if there is none or the file can not be read
+   */
+  @Nullable
+  private static String readSchemaLocation(@NonNull String pPhysicalChangeLogLocation, @NonNull ResourceAccessor pResourceAccessor)
+  {
+    try
+    {
+      Resource resource = pResourceAccessor.get(pPhysicalChangeLogLocation);
+      if (!resource.exists())
+        return null;
+
+      try (InputStream inputStream = new BomAwareInputStream(resource.openInputStream()))
+      {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try
+        {
+          while (reader.hasNext())
+          {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT)
+            {
+              String schemaLocation = reader.getAttributeValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation");
+              return schemaLocation == null || schemaLocation.isBlank() ? null : schemaLocation.trim().replaceAll("\\s+", " ");
+            }
+          }
+          return null;
+        }
+        finally
+        {
+          reader.close();
+        }
+      }
+    }
+    catch (IOException | XMLStreamException pE)
+    {
+      // the error is reported by Liquibase while parsing
+      log.log(Level.FINE, String.format("could not read the schema location of '%s'", pPhysicalChangeLogLocation), pE);
+      return null;
+    }
+  }
+
+  /**
+   * Compiles the XSDs of a schema location. Only the XSDs, that are part of Liquibase or its extensions, are used. No XSD is loaded from the network.
+   *
+   * @param pSchemaLocation the schema location with normalized whitespaces
+   * @return the parser for the compiled schema or an empty optional, if the XSDs could not be compiled
+   */
+  @NonNull
+  private static Optional<SchemaCachingXmlChangeLogParser> compile(@NonNull String pSchemaLocation)
+  {
+    String[] tokens = pSchemaLocation.split(" ");
+    if (tokens.length % 2 != 0)
+      return Optional.empty();
+
+    try
+    {
+      LiquibaseEntityResolver resolver = new LiquibaseEntityResolver();
+      List<Source> sources = new ArrayList<>();
+      // the schema location consists of pairs of namespace and location
+      for (int i = 1; i < tokens.length; i += 2)
+      {
+        InputSource inputSource = resolver.resolveEntity(null, null, null, tokens[i]);
+        if (inputSource == null)
+          return Optional.empty();
+        inputSource.setSystemId(tokens[i]);
+        sources.add(new SAXSource(inputSource));
+      }
+
+      SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+      schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+      schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      return Optional.of(new SchemaCachingXmlChangeLogParser(schemaFactory.newSchema(sources.toArray(Source[]::new))));
+    }
+    catch (Exception pE)
+    {
+      // Liquibase validates these changelogs like before
+      log.log(Level.FINE, String.format("could not compile the schema location '%s'", pSchemaLocation), pE);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Creates the factory for reading the root element. No DTDs and external entities are read.
+   *
+   * @return the factory
+   */
+  @NonNull
+  private static XMLInputFactory createInputFactory()
+  {
+    XMLInputFactory inputFactory = XMLInputFactory.newDefaultFactory();
+    inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return inputFactory;
+  }
+}
@@ -0,0 +1,85 @@
+package de.adito.util;
+
+import lombok.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Util class for the temporary files, that are written next to a file and moved to the file afterwards, so a failure never leaves a partly
+ * written file.
+ * <p>
+ * Unlike {@link Files#createTempFile(Path, String, String, java.nio.file.attribute.FileAttribute[])}, which only allows the owner to read
+ * the file, the temporary files are created with the default permissions of the process, so the moved file has the same permissions
+ * as any other file written by the process.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TempFiles
+{
+  /**
+   * The prefix of the names of all temporary files, so left over files can be recognized.
+   */
+  public static final String PREFIX = ".liquibase-extended-cli-";
+
+  /**
+   * The suffix of the names of all temporary files.
+   */
+  public static final String SUFFIX = ".tmp";
+
+  /**
+   * Creates an empty temporary file in the directory of the given file.
+   *
+   * @param pFile the file, to which the temporary file will be moved
+   * @return the temporary file
+   * @throws IOException Error while creating the file
+   */
+  @NonNull
+  public static Path createSibling(@NonNull Path pFile) throws IOException
+  {
+    Path directory = pFile.toAbsolutePath().getParent();
+    while (true)
+    {
+      Path tempFile = directory.resolve(PREFIX + pFile.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + SUFFIX);
+      try
+      {
+        // without any file attributes, the file gets the default permissions given by the umask
+        Files.newByteChannel(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+        return tempFile;
+      }
+      catch (FileAlreadyExistsException pE)
+      {
+        // another file has the same random name, so another name is tried
+      }
+    }
+  }
+
+  /**
+   * Deletes all temporary files in a directory and its sub directories, that were left over by a process, that was killed.
+   * The temporary files of a process, that still runs, must not be in the directory.
+   *
+   * @param pDirectory the directory
+   * @return the number of deleted files
+   * @throws IOException Error while reading the directory or deleting a file
+   */
+  public static int deleteAll(@NonNull Path pDirectory) throws IOException
+  {
+    AtomicInteger deleted = new AtomicInteger();
+    Files.walkFileTree(pDirectory, new SimpleFileVisitor<>()
+    {
+      @Override
+      public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttributes) throws IOException
+      {
+        String name = pFile.getFileName().toString();
+        if (pAttributes.isRegularFile() && name.startsWith(PREFIX) && name.endsWith(SUFFIX) && Files.deleteIfExists(pFile))
+          deleted.incrementAndGet();
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    return deleted.get();
+  }
+}
@@ -0,0 +1,69 @@
+package de.adito.util;
+
+import lombok.*;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+
+/**
+ * Access to the virtual threads of Java 21 and newer, while this project is still compiled for older Java versions.
+ * <p>
+ * The factory method of the executor is looked up once at runtime. On older Java versions, or when the virtual threads are only a preview feature
+ * that was not enabled, no executor is returned and the caller has to use platform threads instead.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@Log
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class VirtualThreads
+{
+  /**
+   * The handle of {@code Executors#newVirtualThreadPerTaskExecutor()} or {@code null}, if this Java version has no virtual threads.
+   */
+  @Nullable
+  private static final MethodHandle EXECUTOR_FACTORY = findExecutorFactory();
+
+  /**
+   * Creates an executor, that starts a new virtual thread for every task.
+   *
+   * @return the executor or {@code null}, if virtual threads are not supported by this Java version
+   */
+  @Nullable
+  public static ExecutorService newThreadPerTaskExecutor()
+  {
+    if (EXECUTOR_FACTORY == null)
+      return null;
+
+    try
+    {
+      return (ExecutorService) EXECUTOR_FACTORY.invokeExact();
+    }
+    catch (Throwable pE)
+    {
+      // Java 19 and 20 have the method, but throw an UnsupportedOperationException, if the preview features are not enabled
+      log.log(Level.FINE, "virtual threads could not be created", pE);
+      return null;
+    }
+  }
+
+  /**
+   * Looks up the factory method of the executor with virtual threads.
+   *
+   * @return the handle of the method or {@code null}, if the method does not exist
+   */
+  @Nullable
+  private static MethodHandle findExecutorFactory()
+  {
+    try
+    {
+      return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+    }
+    catch (NoSuchMethodException | IllegalAccessException pE)
+    {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package de.adito.util;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintWriter;
+import java.util.logging.*;
+
+/**
+ * Log handler that writes all log records to a {@link PrintWriter}.
+ * <p>
+ * This is used to write the log of a command to the error writer of the command, instead of writing it to the {@link System#err} of the process.
+ * This is needed, so that every command execution has its own isolated output, even when multiple commands are executed in the same JVM.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+public class WriterLogHandler extends Handler
+{
+  /**
+   * The writer to which the log records are written.
+   */
+  @NonNull
+  private final PrintWriter writer;
+
+  /**
+   * The writers that are used instead of {@link #writer} for the log records of single threads.
+   */
+  private final ThreadLocal<PrintWriter> threadWriters = new ThreadLocal<>();
+
+  /**
+   * Creates a new handler with the {@link SimpleFormatter}.
+   *
+   * @param pWriter the writer to which the log records should be written
+   */
+  public WriterLogHandler(@NonNull PrintWriter pWriter)
+  {
+    writer = pWriter;
+    setFormatter(new SimpleFormatter());
+  }
+
+  @Override
+  public synchronized void publish(LogRecord pRecord)
+  {
+    if (isLoggable(pRecord))
+    {
+      PrintWriter currentWriter = getWriter();
+      currentWriter.print(getFormatter().format(pRecord));
+      currentWriter.flush();
+    }
+  }
+
+  /**
+   * Sets the writer, to which all log records of the current thread should be written.
+   * This can be used to collect the log of a single task and write it in a deterministic order afterward.
+   *
+   * @param pWriter the writer for the current thread or {@code null}, if the log records should be written to the writer of this handler again
+   */
+  public void setThreadWriter(@Nullable PrintWriter pWriter)
+  {
+    if (pWriter == null)
+      threadWriters.remove();
+    else
+      threadWriters.set(pWriter);
+  }
+
+  /**
+   * Gets the writer for the current thread.
+   *
+   * @return the writer set by {@link #setThreadWriter(PrintWriter)} or the writer of this handler
+   */
+  @NonNull
+  private PrintWriter getWriter()
+  {
+    PrintWriter threadWriter = threadWriters.get();
+    return threadWriter == null ? writer : threadWriter;
+  }
+
+  @Override
+  public void flush()
+  {
+    writer.flush();
+  }
+
+  @Override
+  public void close()
+  {
+    // the writer belongs to the command, therefore it is only flushed and not closed
+    flush();
+  }
+
+  /**
+   * Adds a new handler for the given writer to the given logger.
+   * The returned handler needs to be removed from the logger after the command execution, for example via {@link #removeFrom(Logger)}.
+   *
+   * @param pLogger the logger to which the handler should be added
+   * @param pWriter the writer to which the log records should be written
+   * @return the added handler
+   */
+  @NonNull
+  public static WriterLogHandler addTo(@NonNull Logger pLogger, @NonNull PrintWriter pWriter)
+  {
+    WriterLogHandler handler = new WriterLogHandler(pWriter);
+    pLogger.addHandler(handler);
+    return handler;
+  }
+
+  /**
+   * Removes this handler from the given logger and flushes the writer.
+   *
+   * @param pLogger the logger from which the handler should be removed
+   */
+  public void removeFrom(@NonNull Logger pLogger)
+  {
+    pLogger.removeHandler(this);
+    flush();
+  }
+}
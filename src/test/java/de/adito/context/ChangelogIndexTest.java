@@ -0,0 +1,211 @@
+package de.adito.context;
+
+import de.adito.CliTestUtils;
+import de.adito.CliTestUtils.CallResults;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ChangelogIndex}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ChangelogIndexTest
+{
+  private static final String CHANGELOG = "--liquibase formatted sql\n\n--changeset test:1 context:%s\nselect 1;\n";
+
+  /**
+   * Tests that unchanged files are not scanned again, when the index was saved.
+   *
+   * @param pTempDir the directory for the changelog
+   */
+  @Test
+  @SneakyThrows
+  void shouldUseStoredScanForUnchangedFile(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = writeOld(pTempDir.resolve("changelog.sql"), String.format(CHANGELOG, "first"));
+
+    ChangelogIndex firstIndex = new ChangelogIndex(pTempDir);
+    firstIndex.getScan(changelog, new SqlChangelogScanner());
+    firstIndex.save();
+
+    AbstractChangelogScanner scanner = mock(AbstractChangelogScanner.class);
+    ChangelogScan scan = new ChangelogIndex(pTempDir).getScan(changelog, scanner);
+
+    assertAll(
+        () -> assertThat(pTempDir.resolve(ChangelogIndex.INDEX_FILE)).exists(),
+        () -> assertEquals(Set.of("first"), scan.getChangeSetContexts()),
+        () -> verify(scanner, never()).scan(any()),
+        () -> {
+          // the index gets the same permissions as the changelogs
+          if (Files.getFileAttributeView(pTempDir, PosixFileAttributeView.class) != null)
+            assertEquals(Files.getPosixFilePermissions(changelog), Files.getPosixFilePermissions(pTempDir.resolve(ChangelogIndex.INDEX_FILE)));
+        }
+    );
+  }
+
+  /**
+   * Tests that files with another content are scanned again, even if size and the last modified time did not change.
+   *
+   * @param pTempDir the directory for the changelog
+   */
+  @Test
+  @SneakyThrows
+  void shouldScanChangedFileAgain(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = writeOld(pTempDir.resolve("changelog.sql"), String.format(CHANGELOG, "first"));
+    FileTime lastModified = Files.getLastModifiedTime(changelog);
+
+    ChangelogIndex firstIndex = new ChangelogIndex(pTempDir);
+    firstIndex.getScan(changelog, new SqlChangelogScanner());
+    firstIndex.save();
+
+    // same size and same last modified time, only the content differs
+    Files.writeString(changelog, String.format(CHANGELOG, "other"));
+    Files.setLastModifiedTime(changelog, lastModified);
+    ChangelogIndex secondIndex = new ChangelogIndex(pTempDir);
+    ChangelogScan secondScan = secondIndex.getScan(changelog, new SqlChangelogScanner());
+
+    assertEquals(Set.of("first"), secondScan.getChangeSetContexts(), "the file is trusted, because it was not changed shortly before the first scan");
+
+    // a file with another size is always scanned again
+    writeOld(changelog, String.format(CHANGELOG, "changed"));
+    ChangelogScan thirdScan = new ChangelogIndex(pTempDir).getScan(changelog, new SqlChangelogScanner());
+
+    assertEquals(Set.of("changed"), thirdScan.getChangeSetContexts());
+  }
+
+  /**
+   * Tests that files, that were changed shortly before they were scanned, are always checked by their hash.
+   *
+   * @param pTempDir the directory for the changelog
+   */
+  @Test
+  @SneakyThrows
+  void shouldCheckHashOfRecentlyChangedFile(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = pTempDir.resolve("changelog.sql");
+    Files.writeString(changelog, String.format(CHANGELOG, "first"));
+    FileTime lastModified = Files.getLastModifiedTime(changelog);
+
+    ChangelogIndex firstIndex = new ChangelogIndex(pTempDir);
+    firstIndex.getScan(changelog, new SqlChangelogScanner());
+    firstIndex.save();
+
+    Files.writeString(changelog, String.format(CHANGELOG, "other"));
+    Files.setLastModifiedTime(changelog, lastModified);
+    ChangelogScan scan = new ChangelogIndex(pTempDir).getScan(changelog, new SqlChangelogScanner());
+
+    assertEquals(Set.of("other"), scan.getChangeSetContexts());
+  }
+
+  /**
+   * Tests that the entries of another root changelog in the same directory are kept, when the index is saved,
+   * and that the entries of deleted files are dropped.
+   *
+   * @param pTempDir the directory for the changelogs
+   */
+  @Test
+  @SneakyThrows
+  void shouldKeepEntriesOfOtherRootChangelog(@TempDir @NonNull Path pTempDir)
+  {
+    Path first = writeOld(pTempDir.resolve("first.sql"), String.format(CHANGELOG, "first"));
+    Path second = writeOld(pTempDir.resolve("second.sql"), String.format(CHANGELOG, "second"));
+    Path deleted = writeOld(pTempDir.resolve("deleted.sql"), String.format(CHANGELOG, "deleted"));
+
+    ChangelogIndex firstIndex = new ChangelogIndex(pTempDir);
+    firstIndex.getScan(first, new SqlChangelogScanner());
+    firstIndex.getScan(deleted, new SqlChangelogScanner());
+    firstIndex.save();
+
+    Files.delete(deleted);
+    ChangelogIndex secondIndex = new ChangelogIndex(pTempDir);
+    secondIndex.getScan(second, new SqlChangelogScanner());
+    secondIndex.save();
+
+    AbstractChangelogScanner scanner = mock(AbstractChangelogScanner.class);
+    ChangelogScan scan = new ChangelogIndex(pTempDir).getScan(first, scanner);
+    String indexContent = Files.readString(pTempDir.resolve(ChangelogIndex.INDEX_FILE));
+
+    assertAll(
+        () -> assertEquals(Set.of("first"), scan.getChangeSetContexts()),
+        () -> verify(scanner, never()).scan(any()),
+        () -> assertThat(indexContent).contains("second.sql").doesNotContain("deleted.sql")
+    );
+  }
+
+  /**
+   * Tests that an invalid index file is ignored.
+   *
+   * @param pTempDir the directory for the changelog
+   */
+  @Test
+  @SneakyThrows
+  void shouldIgnoreInvalidIndex(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = writeOld(pTempDir.resolve("changelog.sql"), String.format(CHANGELOG, "first"));
+    Path indexFile = pTempDir.resolve(ChangelogIndex.INDEX_FILE);
+    Files.createDirectories(indexFile.getParent());
+    Files.writeString(indexFile, "{\"version\": 1, \"files\": {\"changelog.sql\": {\"size\": 1}}");
+
+    ChangelogScan scan = new ChangelogIndex(pTempDir).getScan(changelog, new SqlChangelogScanner());
+
+    assertEquals(Set.of("first"), scan.getChangeSetContexts());
+  }
+
+  /**
+   * Tests that the context command creates the index and returns the same contexts, when the index is used.
+   *
+   * @param pTempDir the directory for the changelogs
+   */
+  @Test
+  @SneakyThrows
+  void shouldResolveContextsWithIndex(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = Files.writeString(pTempDir.resolve("changelog.yaml"), "databaseChangeLog:\n"
+        + "  - include:\n"
+        + "      file: changelogs/first.sql\n"
+        + "      context: include\n");
+    Files.createDirectories(pTempDir.resolve("changelogs"));
+    writeOld(pTempDir.resolve("changelogs/first.sql"), String.format(CHANGELOG, "first"));
+
+    CallResults firstCall = CliTestUtils.call("context", "--index", changelog.toString());
+
+    writeOld(pTempDir.resolve("changelogs/first.sql"), String.format(CHANGELOG, "changed"));
+    CallResults secondCall = CliTestUtils.call("context", "--index", changelog.toString());
+
+    assertAll(
+        () -> assertEquals(0, firstCall.getErrorCode(), firstCall.getErrText()),
+        () -> assertEquals("[\"first\",\"include\"]", firstCall.getOutText().trim()),
+        () -> assertThat(pTempDir.resolve(ChangelogIndex.INDEX_FILE)).exists(),
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertEquals("[\"changed\",\"include\"]", secondCall.getOutText().trim())
+    );
+  }
+
+  /**
+   * Writes a file and sets its last modified time to one hour ago, so it is not seen as recently changed by the index.
+   *
+   * @param pFile    the file
+   * @param pContent the content
+   * @return the file
+   */
+  @SneakyThrows
+  @NonNull
+  private Path writeOld(@NonNull Path pFile, @NonNull String pContent)
+  {
+    Files.writeString(pFile, pContent);
+    return Files.setLastModifiedTime(pFile, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+  }
+}
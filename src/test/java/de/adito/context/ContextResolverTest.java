@@ -112,6 +112,28 @@ class ContextResolverTest
           () -> assertArrayEquals(pResult.toArray(String[]::new), actual, pDisplayName + ": out message")
       );
     }
+
+    /**
+     * Tests that the contexts are the same, when the changelogs are parsed by Liquibase.
+     *
+     * @param pDisplayName   the display name of the test
+     * @param pResult        the result of the method, given as an array
+     * @param pChangelogPath the absolute path to the root changelog file
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("shouldResolveContext")
+    @SneakyThrows
+    void shouldResolveContextWithFullParse(@NonNull String pDisplayName, @NonNull List<String> pResult, @NonNull String pChangelogPath)
+    {
+      CallResults callResults = CliTestUtils.call("context", "--full-parse", pChangelogPath);
+
+      String[] actual = new Gson().fromJson(callResults.getOutText().trim(), String[].class);
+
+      assertAll(
+          () -> assertEquals(0, callResults.getErrorCode(), pDisplayName + ": errorCode"),
+          () -> assertArrayEquals(pResult.toArray(String[]::new), actual, pDisplayName + ": out message")
+      );
+    }
   }
 
   /**
@@ -0,0 +1,198 @@
+package de.adito.context;
+
+import com.google.gson.Gson;
+import de.adito.CliTestUtils;
+import de.adito.CliTestUtils.CallResults;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.*;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link StreamingContextResolver}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class StreamingContextResolverTest
+{
+  private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n"
+      + "   xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+      + "   xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog\n"
+      + "                       http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd\"%s>\n";
+
+  /**
+   * Tests that the contexts of all test changelogs can be resolved without Liquibase and are the same as the contexts resolved by Liquibase.
+   *
+   * @param pChangelog the root changelog
+   */
+  @ParameterizedTest
+  @MethodSource
+  @SneakyThrows
+  void shouldResolveSameContextsAsLiquibase(@NonNull Path pChangelog)
+  {
+    Set<String> contexts = new StreamingContextResolver(pChangelog.getParent()).resolve(pChangelog);
+
+    assertEquals(resolveWithLiquibase(pChangelog), sort(contexts));
+  }
+
+  /**
+   * @return all root changelogs of the context tests
+   */
+  @NonNull
+  private static Stream<Path> shouldResolveSameContextsAsLiquibase()
+  {
+    return Stream.of("json", "sql", "xml", "yaml")
+        .flatMap(pFormat -> Stream.of("noContext-changelog", "example-changelog", "utf8-changelog", "three-changelogs", "nested-changelog")
+            .map(pName -> pName + "." + ("sql".equals(pFormat) && "nested-changelog".equals(pName) ? "xml" : pFormat))
+            .map(pName -> CliTestUtils.loadResource("context/" + pFormat + "/" + pName)));
+  }
+
+  /**
+   * Tests that the contexts of changelogs and includes are only used, if there is any changeSet in them.
+   * The context of a changeSet is only used, when there is no contextFilter.
+   *
+   * @param pTempDir the directory for the changelogs
+   */
+  @Test
+  @SneakyThrows
+  void shouldInheritContextsLikeLiquibase(@TempDir @NonNull Path pTempDir)
+  {
+    Path root = write(pTempDir, "root.xml", String.format(XML_HEADER, " context=\"root\"")
+        + "  <include file=\"empty.xml\" context=\"unused-include\" relativeToChangelogFile=\"true\"/>\n"
+        + "  <include file=\"sub/changelog.yaml\" contextFilter=\"filter-include\" context=\"unused-context\"/>\n"
+        + "  <includeAll path=\"all/\" context=\"all\" relativeToChangelogFile=\"true\"/>\n"
+        + "</databaseChangeLog>");
+    write(pTempDir, "empty.xml", String.format(XML_HEADER, " context=\"unused-changelog\"") + "</databaseChangeLog>");
+    write(pTempDir, "sub/changelog.yaml", "databaseChangeLog:\n"
+        + "  - context: yaml-changelog\n"
+        + "  - changeSet:\n"
+        + "      id: 1\n"
+        + "      author: test\n"
+        + "      contextFilter: \"Filter, second\"\n"
+        + "      context: unused-changeset\n"
+        + "      changes:\n"
+        + "        - sql:\n"
+        + "            sql: select 1\n");
+    write(pTempDir, "all/a.sql", "--liquibase formatted sql\n\n--changeset test:1 contextFilter:\"sql a\" context:unused\nselect 1;\n");
+    write(pTempDir, "all/b.txt", "not a changelog");
+
+    Set<String> contexts = new StreamingContextResolver(pTempDir).resolve(root);
+
+    assertAll(
+        () -> assertEquals(List.of("all", "filter", "filter-include", "root", "second", "sql a", "yaml-changelog"), sort(contexts)),
+        () -> assertEquals(resolveWithLiquibase(root), sort(contexts), "same as Liquibase")
+    );
+  }
+
+  /**
+   * Tests that changelogs which could lead to another result than Liquibase are not supported.
+   *
+   * @param pFileName the name of the changelog
+   * @param pContent  the content of the changelog
+   * @param pTempDir  the directory for the changelog
+   */
+  @ParameterizedTest(name = "{0}")
+  @MethodSource
+  @SneakyThrows
+  void shouldNotSupportChangelogs(@NonNull String pFileName, @NonNull String pContent, @TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = write(pTempDir, pFileName, pContent);
+
+    StreamingContextResolver resolver = new StreamingContextResolver(pTempDir);
+    assertThrows(UnsupportedChangelogException.class, () -> resolver.resolve(changelog));
+  }
+
+  /**
+   * @return the arguments for {@link #shouldNotSupportChangelogs(String, String, Path)}
+   */
+  @NonNull
+  private static Stream<Arguments> shouldNotSupportChangelogs()
+  {
+    return Stream.of(
+        Arguments.of("parameter.xml", String.format(XML_HEADER, "") + "<changeSet id=\"1\" author=\"a\" context=\"${ctx}\"/></databaseChangeLog>"),
+        Arguments.of("circular.xml", String.format(XML_HEADER, "") + "<include file=\"circular.xml\"/></databaseChangeLog>"),
+        Arguments.of("missing.xml", String.format(XML_HEADER, "") + "<include file=\"missing.xml\" relativeToChangelogFile=\"true\"/></databaseChangeLog>"),
+        Arguments.of("outside.xml", String.format(XML_HEADER, "") + "<include file=\"../outside.xml\" relativeToChangelogFile=\"true\"/></databaseChangeLog>"),
+        Arguments.of("filter.xml", String.format(XML_HEADER, "") + "<includeAll path=\"dir\" resourceFilter=\"a.b.C\"/></databaseChangeLog>"),
+        Arguments.of("invalid.xml", String.format(XML_HEADER, "") + "<changeSet>"),
+        Arguments.of("alias.yaml", "databaseChangeLog:\n  - changeSet: &cs\n      id: 1\n  - changeSet: *cs\n"),
+        Arguments.of("number.yaml", "databaseChangeLog:\n  - changeSet:\n      id: 1\n      context: 2\n"),
+        Arguments.of("missing.json", "{\"other\": []}"),
+        Arguments.of("ignore.sql", "--liquibase formatted sql\n--ignoreLines:start\n--changeset a:1 context:hidden\n--ignoreLines:end\n"),
+        Arguments.of("empty.sql", "  \n\n")
+    );
+  }
+
+  /**
+   * Tests that the context command falls back to Liquibase, when a changelog is not supported.
+   *
+   * @param pTempDir the directory for the changelog
+   */
+  @Test
+  @SneakyThrows
+  void shouldFallBackToLiquibase(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = write(pTempDir, "changelog.xml", String.format(XML_HEADER, "")
+        + "  <property name=\"ctx\" value=\"replaced\"/>\n"
+        + "  <changeSet id=\"1\" author=\"test\" context=\"${ctx}\"><sql>select 1</sql></changeSet>\n"
+        + "</databaseChangeLog>");
+
+    CallResults callResults = CliTestUtils.call("context", changelog.toString());
+
+    assertAll(
+        () -> assertEquals(0, callResults.getErrorCode(), callResults.getErrText()),
+        () -> assertEquals("[\"replaced\"]", callResults.getOutText().trim())
+    );
+  }
+
+  /**
+   * Resolves the contexts with Liquibase.
+   *
+   * @param pChangelog the root changelog
+   * @return the contexts in the order of the command
+   */
+  @NonNull
+  private List<String> resolveWithLiquibase(@NonNull Path pChangelog)
+  {
+    CallResults callResults = CliTestUtils.call("context", "--full-parse", pChangelog.toString());
+    assertEquals(0, callResults.getErrorCode(), callResults.getErrText());
+    return List.of(new Gson().fromJson(callResults.getOutText().trim(), String[].class));
+  }
+
+  /**
+   * Sorts the contexts the same way the command does.
+   *
+   * @param pContexts the contexts
+   * @return the sorted contexts
+   */
+  @NonNull
+  private List<String> sort(@NonNull Set<String> pContexts)
+  {
+    return pContexts.stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList());
+  }
+
+  /**
+   * Writes a file.
+   *
+   * @param pDirectory the directory
+   * @param pName      the relative name of the file
+   * @param pContent   the content of the file
+   * @return the written file
+   */
+  @SneakyThrows
+  @NonNull
+  private Path write(@NonNull Path pDirectory, @NonNull String pName, @NonNull String pContent)
+  {
+    Path file = pDirectory.resolve(pName);
+    Files.createDirectories(file.getParent());
+    return Files.writeString(file, pContent);
+  }
+}
@@ -0,0 +1,211 @@
+package de.adito.convert;
+
+import de.adito.CliTestUtils;
+import de.adito.CliTestUtils.CallResults;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ChangeSetManifest}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ChangeSetManifestTest
+{
+  @TempDir
+  private Path tempDir;
+
+  private Path input;
+  private Path output;
+
+  /**
+   * Creates the input and output directory.
+   */
+  @BeforeEach
+  @SneakyThrows
+  void setUp()
+  {
+    input = Files.createDirectories(tempDir.resolve("input"));
+    output = Files.createDirectories(tempDir.resolve("output"));
+  }
+
+  /**
+   * Tests that only the new and changed changeSets are converted again and the result is the same as converting the whole file.
+   *
+   * @param pExtension the extension of the input file
+   * @param pFormat    the target format
+   */
+  @ParameterizedTest
+  @CsvSource({"xml, YAML", "xml, JSON", "xml, SQL", "yaml, XML", "yaml, JSON", "yaml, SQL"})
+  @SneakyThrows
+  void shouldConvertOnlyChangedChangeSets(@NonNull String pExtension, @NonNull String pFormat)
+  {
+    Path changelog = input.resolve("changelog." + pExtension);
+    Files.writeString(changelog, createChangelog(pExtension, "person", IntStream.range(0, 20)));
+    CallResults firstCall = convert(pFormat);
+
+    // one changeSet is changed, one is removed and two are added
+    Files.writeString(changelog, createChangelog(pExtension, "person", IntStream.concat(IntStream.range(0, 22).filter(pIndex -> pIndex != 7), IntStream.of(105)))
+        .replace("values (3, ", "values (33, "));
+    CallResults secondCall = convert(pFormat);
+
+    assertAll(
+        () -> assertEquals(0, firstCall.getErrorCode(), firstCall.getErrText()),
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(secondCall.getOutText()).contains(" - reused changeSets: 18", " - converting changed changeSets: 1 times"),
+        () -> assertEquals(convertWhole(pFormat), Files.readString(getOutputFile(pFormat))),
+        () -> assertDefaultPermissions(getOutputFile(pFormat))
+    );
+  }
+
+  /**
+   * Tests that the whole file is converted again, if the properties of the changelog changed.
+   */
+  @Test
+  @SneakyThrows
+  void shouldConvertWholeFileWithChangedProperties()
+  {
+    Path changelog = input.resolve("changelog.xml");
+    Files.writeString(changelog, createChangelog("xml", "person", IntStream.range(0, 10)));
+    convert("YAML");
+
+    Files.writeString(changelog, createChangelog("xml", "company", IntStream.range(0, 11)));
+    CallResults secondCall = convert("YAML");
+
+    assertAll(
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(secondCall.getOutText()).contains(" - reused changeSets: 0", " - parsing: 1 times"),
+        () -> assertThat(Files.readString(getOutputFile("YAML"))).contains("insert into company").doesNotContain("insert into person"),
+        () -> assertEquals(convertWhole("YAML"), Files.readString(getOutputFile("YAML")))
+    );
+  }
+
+  /**
+   * Tests that the whole file is converted again, if the produced file was changed after the last converting.
+   */
+  @Test
+  @SneakyThrows
+  void shouldConvertWholeFileWithChangedOutput()
+  {
+    Path changelog = input.resolve("changelog.yaml");
+    Files.writeString(changelog, createChangelog("yaml", "person", IntStream.range(0, 10)));
+    convert("XML");
+    Files.writeString(getOutputFile("XML"), Files.readString(getOutputFile("XML")).replace("values (1, ", "values (11, "));
+
+    Files.writeString(changelog, createChangelog("yaml", "person", IntStream.range(0, 11)));
+    CallResults secondCall = convert("XML");
+
+    assertAll(
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(secondCall.getOutText()).contains(" - reused changeSets: 0", " - parsing: 1 times"),
+        () -> assertEquals(convertWhole("XML"), Files.readString(getOutputFile("XML")))
+    );
+  }
+
+  /**
+   * Creates a changelog with a property, that is used in every changeSet.
+   *
+   * @param pExtension the extension of the changelog
+   * @param pTable     the value of the property
+   * @param pIndexes   the indexes of the changeSets
+   * @return the content of the changelog
+   */
+  @NonNull
+  private static String createChangelog(@NonNull String pExtension, @NonNull String pTable, @NonNull IntStream pIndexes)
+  {
+    if ("xml".equals(pExtension))
+      return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+          + "    xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd\">\n"
+          + "  <property name=\"table\" value=\"" + pTable + "\"/>\n"
+          + pIndexes.mapToObj(pIndex -> "  <changeSet id=\"" + pIndex + "\" author=\"test\">\n"
+              + "    <sql>insert into ${table} (id, name) values (" + pIndex + ", 'name')</sql>\n  </changeSet>\n")
+          .collect(Collectors.joining())
+          + "</databaseChangeLog>\n";
+
+    return "databaseChangeLog:\n"
+        + "- property:\n    name: table\n    value: " + pTable + "\n"
+        + pIndexes.mapToObj(pIndex -> "- changeSet:\n    id: " + pIndex + "\n    author: test\n    changes:\n"
+            + "    - sql:\n        sql: insert into ${table} (id, name) values (" + pIndex + ", 'name')\n")
+        .collect(Collectors.joining());
+  }
+
+  /**
+   * Converts the input directory with the changeSets of the last converting.
+   *
+   * @param pFormat the target format
+   * @return the results of the call
+   */
+  @NonNull
+  private CallResults convert(@NonNull String pFormat)
+  {
+    return CliTestUtils.call("convert", "--incremental-changesets", "--statistics", "--format", pFormat, "--database-type", getDatabaseType(pFormat),
+                             input.toString(), output.toString());
+  }
+
+  /**
+   * Converts the input directory as a whole into a new output directory.
+   *
+   * @param pFormat the target format
+   * @return the content of the produced file
+   */
+  @NonNull
+  @SneakyThrows
+  private String convertWhole(@NonNull String pFormat)
+  {
+    Path wholeOutput = Files.createDirectories(tempDir.resolve("whole"));
+    CallResults call = CliTestUtils.call("convert", "--format", pFormat, "--database-type", getDatabaseType(pFormat), input.toString(),
+                                         wholeOutput.toString());
+    assertEquals(0, call.getErrorCode(), call.getErrText());
+    return Files.readString(wholeOutput.resolve(output.relativize(getOutputFile(pFormat))));
+  }
+
+  /**
+   * Gets the database type for a target format. Only SQL has a database type, because it would be part of the file names of all other formats.
+   *
+   * @param pFormat the target format
+   * @return the database type or an empty string
+   */
+  @NonNull
+  private static String getDatabaseType(@NonNull String pFormat)
+  {
+    return Format.valueOf(pFormat) == Format.SQL ? "postgresql" : "";
+  }
+
+  /**
+   * Checks that a file has the same permissions as any other new file, if the file system has POSIX permissions.
+   *
+   * @param pFile the file
+   */
+  @SneakyThrows
+  private void assertDefaultPermissions(@NonNull Path pFile)
+  {
+    if (Files.getFileAttributeView(pFile, PosixFileAttributeView.class) == null)
+      return;
+    Path normalFile = Files.createFile(tempDir.resolve("normal"));
+    assertEquals(Files.getPosixFilePermissions(normalFile), Files.getPosixFilePermissions(pFile));
+  }
+
+  /**
+   * Gets the produced file of the changelog.
+   *
+   * @param pFormat the target format
+   * @return the produced file
+   */
+  @NonNull
+  private Path getOutputFile(@NonNull String pFormat)
+  {
+    Format format = Format.valueOf(pFormat);
+    return output.resolve("changelog" + (format == Format.SQL ? ".postgresql" : "") + format.getFileEnding());
+  }
+}
@@ -0,0 +1,139 @@
+package de.adito.convert;
+
+import lombok.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ChangelogSplitter}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ChangelogSplitterTest
+{
+  private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\">";
+
+  /**
+   * Tests that a XML changelog is split at its changeSets and every chunk contains the properties before its changeSets.
+   */
+  @Test
+  void shouldSplitXml()
+  {
+    String content = XML_HEADER + "\n  <property name=\"first\" value=\"1\"/>\n"
+        + "  <changeSet id=\"1\" author=\"test\"><sql>select '&lt;/changeSet>'</sql></changeSet>\n"
+        + "  <!-- <changeSet id=\"comment\" author=\"test\"> -->\n"
+        + "  <property name=\"second\" value=\"a > b\"/>\n"
+        + "  <changeSet id=\"2\" author=\"test\"><sql><![CDATA[select '</changeSet>']]></sql></changeSet>\n"
+        + "</databaseChangeLog>\n";
+
+    List<String> chunks = split(content, Format.XML, 2);
+
+    assertEquals(List.of(XML_HEADER + "\n<property name=\"first\" value=\"1\"/>\n"
+                             + "<changeSet id=\"1\" author=\"test\"><sql>select '&lt;/changeSet>'</sql></changeSet>\n"
+                             + "</databaseChangeLog>\n",
+                         XML_HEADER + "\n<property name=\"first\" value=\"1\"/>\n"
+                             + "<property name=\"second\" value=\"a > b\"/>\n"
+                             + "<changeSet id=\"2\" author=\"test\"><sql><![CDATA[select '</changeSet>']]></sql></changeSet>\n"
+                             + "</databaseChangeLog>\n"), chunks);
+  }
+
+  /**
+   * Tests that a YAML changelog is split at its changeSets and every chunk contains all properties.
+   */
+  @Test
+  void shouldSplitYaml()
+  {
+    String content = "# generated\ndatabaseChangeLog:\n"
+        + "  - changeSet:\n      id: 1\n      author: test\n      changes:\n        - sql:\n            sql: |\n              select 1\n\n              - changeSet:\n"
+        + "  - property:\n      name: first\n      value: 1\n"
+        + "  # the last changeSet\n"
+        + "  - changeSet:\n      id: 2\n      author: test\n";
+
+    List<String> chunks = split(content, Format.YAML, 2);
+
+    assertEquals(List.of("# generated\ndatabaseChangeLog:\n\n"
+                             + "  - changeSet:\n      id: 1\n      author: test\n      changes:\n        - sql:\n            sql: |\n              select 1\n\n"
+                             + "              - changeSet:\n\n"
+                             + "  - property:\n      name: first\n      value: 1\n  # the last changeSet\n\n",
+                         "# generated\ndatabaseChangeLog:\n\n"
+                             + "  - property:\n      name: first\n      value: 1\n  # the last changeSet\n\n"
+                             + "  - changeSet:\n      id: 2\n      author: test\n\n"), chunks);
+  }
+
+  /**
+   * Tests that the changeSets are distributed over the given number of chunks in their order.
+   */
+  @Test
+  void shouldCreateChunksInOrder()
+  {
+    String content = XML_HEADER + IntStream.range(0, 100)
+        .mapToObj(pIndex -> "<changeSet id=\"" + pIndex + "\" author=\"test\"/>")
+        .collect(Collectors.joining()) + "</databaseChangeLog>";
+
+    List<String> chunks = split(content, Format.XML, 4);
+
+    assertThat(chunks).hasSize(4);
+    assertEquals(content, XML_HEADER + chunks.stream()
+        .map(pChunk -> pChunk.substring(XML_HEADER.length(), pChunk.length() - "</databaseChangeLog>".length()).replace("\n", ""))
+        .collect(Collectors.joining()) + "</databaseChangeLog>");
+  }
+
+  /**
+   * Tests that changelogs, that are not understood or that only have one changeSet, are not split.
+   *
+   * @param pContent the content of the changelog
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "<!DOCTYPE databaseChangeLog []><databaseChangeLog><changeSet id=\"1\" author=\"a\"/><changeSet id=\"2\" author=\"a\"/></databaseChangeLog>",
+      "<databaseChangeLog><changeSet id=\"1\" author=\"a\"/></databaseChangeLog>",
+      "<databaseChangeLog/>",
+      "<databaseChangeLog><changeSet id=\"1\" author=\"a\"/><changeSet id=\"2\" author=\"a\"/>",
+  })
+  void shouldNotSplitXml(@NonNull String pContent)
+  {
+    assertNull(ChangelogSplitter.split(pContent.getBytes(StandardCharsets.UTF_8), Format.XML, 2));
+  }
+
+  /**
+   * Tests that changelogs, that are not understood or that only have one changeSet, are not split.
+   *
+   * @param pContent the content of the changelog
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "databaseChangeLog: [{changeSet: {id: 1, author: a}}, {changeSet: {id: 2, author: a}}]\n",
+      "databaseChangeLog:\n- changeSet:\n    id: 1\n    author: a\n",
+      "databaseChangeLog:\n-\n  changeSet:\n    id: 1\n    author: a\n-\n  changeSet:\n    id: 2\n    author: a\n",
+      "changeLog:\n- changeSet:\n    id: 1\n- changeSet:\n    id: 2\n",
+  })
+  void shouldNotSplitYaml(@NonNull String pContent)
+  {
+    assertNull(ChangelogSplitter.split(pContent.getBytes(StandardCharsets.UTF_8), Format.YAML, 2));
+  }
+
+  /**
+   * Splits a changelog.
+   *
+   * @param pContent    the content of the changelog
+   * @param pFormat     the format of the changelog
+   * @param pChunkCount the maximum number of chunks
+   * @return the content of the chunks
+   */
+  @NonNull
+  private static List<String> split(@NonNull String pContent, @NonNull Format pFormat, int pChunkCount)
+  {
+    List<byte[]> chunks = ChangelogSplitter.split(pContent.getBytes(StandardCharsets.UTF_8), pFormat, pChunkCount);
+    assertNotNull(chunks);
+    return chunks.stream().map(pChunk -> new String(pChunk, StandardCharsets.UTF_8)).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,167 @@
+package de.adito.convert;
+
+import de.adito.CliTestUtils;
+import de.adito.CliTestUtils.CallResults;
+import de.adito.util.*;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ConvertJournal}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ConvertJournalTest
+{
+  @TempDir
+  private Path tempDir;
+
+  private Path input;
+  private Path output;
+  private ConvertTarget target;
+
+  /**
+   * Creates the input and output directory.
+   */
+  @BeforeEach
+  @SneakyThrows
+  void setUp()
+  {
+    input = Files.createDirectories(tempDir.resolve("input"));
+    output = Files.createDirectories(tempDir.resolve("output"));
+    target = new ConvertTarget(Format.YAML, output, null, null, null, new FileContentCache(0), Integer.MAX_VALUE);
+  }
+
+  /**
+   * Tests that the finished files are only resumed, if they did not change and the journal belongs to the same converting.
+   */
+  @Test
+  @SneakyThrows
+  void shouldResumeFinishedFiles()
+  {
+    Path converted = Files.writeString(input.resolve("converted.xml"), "converted");
+    Path changed = Files.writeString(input.resolve("changed.xml"), "changed");
+    Path include = Files.writeString(input.resolve("include.xml"), "include");
+    Files.writeString(output.resolve("converted.yaml"), "converted");
+    Files.writeString(output.resolve("changed.yaml"), "changed");
+
+    try (ConvertJournal journal = new ConvertJournal(input, output, "first", null, false))
+    {
+      journal.add(target, converted, ConvertManifest.Kind.CONVERTED, output.resolve("converted.yaml"));
+      journal.add(target, changed, ConvertManifest.Kind.CONVERTED, output.resolve("changed.yaml"));
+      journal.add(target, include, ConvertManifest.Kind.INCLUDE, null);
+    }
+    Files.writeString(changed, "changed again");
+
+    try (ConvertJournal journal = new ConvertJournal(input, output, "first", null, true))
+    {
+      ConvertJournal.Entry entry = journal.getFinishedEntry(target, converted);
+      assertAll(
+          () -> assertNotNull(entry),
+          () -> assertEquals(output.resolve("converted.yaml"), journal.getOutputFile(entry)),
+          () -> assertNull(journal.getFinishedEntry(target, changed), "changed file"),
+          () -> assertNotNull(journal.getFinishedEntry(target, include), "include file without output")
+      );
+    }
+
+    try (ConvertJournal journal = new ConvertJournal(input, output, "second", null, true))
+    {
+      assertEquals(0, journal.getFinishedCount(), "journal of another converting");
+    }
+  }
+
+  /**
+   * Tests that a line, that was only written partly, is ignored and the next entries are still read.
+   */
+  @Test
+  @SneakyThrows
+  void shouldIgnorePartlyWrittenLine()
+  {
+    Path first = Files.writeString(input.resolve("first.xml"), "first");
+    Path second = Files.writeString(input.resolve("second.xml"), "second");
+    Files.writeString(output.resolve("first.yaml"), "first");
+    Files.writeString(output.resolve("second.yaml"), "second");
+
+    Path journalFile;
+    try (ConvertJournal journal = new ConvertJournal(input, output, "config", null, false))
+    {
+      journal.add(target, first, ConvertManifest.Kind.CONVERTED, output.resolve("first.yaml"));
+      journalFile = journal.getJournalFile();
+    }
+    Files.writeString(journalFile, "{\"target\":\"\",\"file\":\"sec", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    try (ConvertJournal journal = new ConvertJournal(input, output, "config", null, true))
+    {
+      journal.add(target, second, ConvertManifest.Kind.CONVERTED, output.resolve("second.yaml"));
+    }
+
+    try (ConvertJournal journal = new ConvertJournal(input, output, "config", null, true))
+    {
+      assertAll(
+          () -> assertEquals(2, journal.getFinishedCount()),
+          () -> assertNotNull(journal.getFinishedEntry(target, first)),
+          () -> assertNotNull(journal.getFinishedEntry(target, second))
+      );
+    }
+  }
+
+  /**
+   * Tests that a converting, that did not finish, is resumed without converting the finished files again,
+   * that the includes are transformed with the converted files of both convertings and that the left over temporary files are deleted.
+   */
+  @Test
+  @SneakyThrows
+  void shouldResumeKilledConverting()
+  {
+    Path changelogs = Files.createDirectories(input.resolve("changelogs"));
+    Files.copy(CliTestUtils.loadResource("context/xml/changelogs/changelog1.xml"), changelogs.resolve("changelog1.xml"));
+    Files.copy(CliTestUtils.loadResource("context/xml/changelogs/changelog2.xml"), changelogs.resolve("changelog2.xml"));
+    Files.writeString(input.resolve("master.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\">\n"
+        + "  <include file=\"changelogs/changelog1.xml\" relativeToChangelogFile=\"true\"/>\n"
+        + "  <include file=\"changelogs/changelog2.xml\" relativeToChangelogFile=\"true\"/>\n"
+        + "</databaseChangeLog>\n");
+
+    CallResults killed;
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class, CALLS_REAL_METHODS))
+    {
+      // the journal is not deleted, like a converting that was killed before it finished
+      filesMockedStatic.when(() -> Files.deleteIfExists(argThat(pPath -> pPath != null && pPath.endsWith("convert-journal"))))
+          .thenThrow(new IOException("killed"));
+      killed = CliTestUtils.call("convert", "--format", "YAML", input.toString(), output.toString());
+    }
+    Files.writeString(changelogs.resolve("changelog2.xml"), Files.readString(changelogs.resolve("changelog2.xml")).replace("</databaseChangeLog>",
+        "  <changeSet id=\"new\" author=\"test\"><sql>select 1</sql></changeSet>\n</databaseChangeLog>"));
+    // the killed converting could not delete the temporary files, that it was writing
+    Path staleTempFile = TempFiles.createSibling(output.resolve("changelogs/changelog2.yaml"));
+    Path otherTempFile = Files.writeString(output.resolve("changelogs/other.tmp"), "not written by the converting");
+
+    CallResults resumed = CliTestUtils.call("convert", "--format", "YAML", "--resume", input.toString(), output.toString());
+
+    assertAll(
+        () -> assertNotEquals(0, killed.getErrorCode()),
+        () -> assertEquals(0, resumed.getErrorCode(), resumed.getErrText()),
+        () -> assertThat(resumed.getOutText()).contains("Resuming the converting with 3 finished file(s)",
+                                                        "Skipping finished file 'input/changelogs/changelog1.xml'",
+                                                        "Converting changeset 'input/changelogs/changelog2.xml'",
+                                                        "Transforming file 'input/master.xml' with includes"),
+        () -> assertThat(Files.readString(output.resolve("changelogs/changelog2.yaml"))).contains("select 1"),
+        () -> assertThat(Files.readString(output.resolve("master.xml"))).contains("changelogs/changelog1.yaml", "changelogs/changelog2.yaml"),
+        () -> assertThat(output.resolve(ConvertJournal.JOURNAL_FILE)).doesNotExist(),
+        () -> assertThat(resumed.getOutText()).contains("Deleted 1 temporary file(s) of the killed converting"),
+        () -> assertThat(staleTempFile).doesNotExist(),
+        () -> assertThat(otherTempFile).exists()
+    );
+  }
+}
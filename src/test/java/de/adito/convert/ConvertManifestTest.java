@@ -0,0 +1,144 @@
+package de.adito.convert;
+
+import de.adito.CliTestUtils;
+import de.adito.CliTestUtils.CallResults;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ConvertManifest}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ConvertManifestTest
+{
+  @TempDir
+  private Path tempDir;
+
+  private Path input;
+  private Path output;
+
+  /**
+   * Creates the input directory with changelogs in every format, a changelog with includes and a file that is no changelog.
+   */
+  @BeforeEach
+  @SneakyThrows
+  void setUp()
+  {
+    input = Files.createDirectories(tempDir.resolve("input"));
+    output = Files.createDirectories(tempDir.resolve("output"));
+    for (String fileName : new String[]{"XML.xml", "JSON.json", "YAML.yaml", "XML-include.xml"})
+      Files.copy(CliTestUtils.loadResource("convert/" + fileName), input.resolve(fileName));
+    Files.writeString(input.resolve("notes.txt"), "no changelog");
+  }
+
+  /**
+   * Tests that unchanged files are skipped, when the output directory was already converted.
+   */
+  @Test
+  @SneakyThrows
+  void shouldSkipUnchangedFiles()
+  {
+    CallResults firstCall = convert("YAML");
+    String convertedXml = Files.readString(output.resolve("XML.yaml"));
+
+    CallResults secondCall = convert("YAML");
+
+    assertAll(
+        () -> assertEquals(0, firstCall.getErrorCode(), firstCall.getErrText()),
+        () -> assertThat(output.resolve(ConvertManifest.MANIFEST_FILE)).exists(),
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(secondCall.getOutText())
+            .contains("Skipping unchanged file 'input" + File.separator + "XML.xml'",
+                      "Skipping unchanged file 'input" + File.separator + "notes.txt'",
+                      "Transforming file 'input" + File.separator + "XML-include.xml' with includes")
+            .doesNotContain("Converting changeset", "Copying file"),
+        () -> assertEquals(convertedXml, Files.readString(output.resolve("XML.yaml"))),
+        () -> assertThat(Files.readString(output.resolve("XML-include.xml"))).contains("file=\"XML.yaml\"")
+    );
+  }
+
+  /**
+   * Tests that files are converted again, if their content changed or their produced file was deleted.
+   */
+  @Test
+  @SneakyThrows
+  void shouldConvertChangedFiles()
+  {
+    convert("YAML");
+
+    Files.writeString(input.resolve("JSON.json"), Files.readString(input.resolve("JSON.json")) + "\n");
+    Files.delete(output.resolve("XML.yaml"));
+    CallResults secondCall = convert("YAML");
+
+    assertAll(
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(secondCall.getOutText())
+            .contains("Converting changeset 'input" + File.separator + "JSON.json'",
+                      "Converting changeset 'input" + File.separator + "XML.xml'",
+                      "Skipping unchanged file 'input" + File.separator + "YAML.yaml'"),
+        () -> assertThat(output.resolve("XML.yaml")).exists()
+    );
+  }
+
+  /**
+   * Tests that all files are converted again, if another format is used for the same output directory.
+   */
+  @Test
+  void shouldConvertAllFilesForOtherFormat()
+  {
+    convert("YAML");
+
+    CallResults secondCall = convert("JSON");
+
+    assertAll(
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(secondCall.getOutText()).doesNotContain("Skipping unchanged file"),
+        () -> assertThat(output.resolve("XML.json")).exists()
+    );
+  }
+
+  /**
+   * Tests that an unchanged file with includes is transformed again, when an included file has a new name.
+   */
+  @Test
+  @SneakyThrows
+  void shouldTransformUnchangedIncludeFileWithRenamedFile()
+  {
+    Path json = input.resolve("JSON.json");
+    String validJson = Files.readString(json);
+    Files.writeString(json, "{ invalid");
+
+    CallResults firstCall = convert("YAML");
+    String firstIncludeFile = Files.readString(output.resolve("XML-include.xml"));
+
+    Files.writeString(json, validJson);
+    CallResults secondCall = convert("YAML");
+
+    assertAll(
+        () -> assertEquals(3, firstCall.getErrorCode(), "the invalid file is only copied"),
+        () -> assertThat(firstIncludeFile).contains("file=\"JSON.json\""),
+        () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+        () -> assertThat(Files.readString(output.resolve("XML-include.xml"))).contains("file=\"JSON.yaml\"", "file=\"XML.yaml\"")
+    );
+  }
+
+  /**
+   * Converts the input directory incremental.
+   *
+   * @param pFormat the target format
+   * @return the results of the call
+   */
+  @NonNull
+  private CallResults convert(@NonNull String pFormat)
+  {
+    return CliTestUtils.call("convert", "--incremental", "--format", pFormat, input.toString(), output.toString());
+  }
+}
@@ -2,16 +2,18 @@ package de.adito.convert;
 
 import de.adito.CliTestUtils;
 import liquibase.Scope;
-import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.*;
 import liquibase.command.*;
 import liquibase.command.core.helpers.*;
 import liquibase.database.Database;
 import liquibase.database.core.MockDatabase;
 import liquibase.exception.CommandExecutionException;
+import liquibase.parser.*;
 import liquibase.resource.*;
 import lombok.*;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.api.io.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.*;
@@ -20,7 +22,9 @@ import org.mockito.MockedStatic;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -160,6 +164,62 @@ class FormatConverterTest
           "convert", "--format", Format.XML.name(), input.toString(), outputDir.toFile().getAbsolutePath());
     }
 
+    /**
+     * Tests that the converted files get the same permissions as any other new file, although they are written into a temporary file first.
+     */
+    @Test
+    @SneakyThrows
+    void shouldWriteConvertedFilesWithDefaultPermissions()
+    {
+      Assumptions.assumeTrue(Files.getFileAttributeView(outputDir, PosixFileAttributeView.class) != null, "the file system has no POSIX permissions");
+      Path input = Files.createDirectories(outputDir.resolve("input"));
+      Path output = Files.createDirectories(outputDir.resolve("output"));
+      Files.copy(getPathForFormat(Format.XML), input.resolve("changelog.xml"));
+      Path normalFile = Files.createFile(outputDir.resolve("normal.yaml"));
+
+      CallResults callResults = CliTestUtils.call("convert", "--format", "YAML", input.toString(), output.toString());
+
+      assertAll(
+          () -> assertEquals(0, callResults.getErrorCode(), callResults.getErrText()),
+          () -> assertEquals(Files.getPosixFilePermissions(normalFile), Files.getPosixFilePermissions(output.resolve("changelog.yaml")))
+      );
+    }
+
+    /**
+     * Tests that every strategy for the files, that are not converted, gives the same files in the output directory,
+     * also when the output directory already contains the files of the last converting.
+     *
+     * @param pPassThrough the strategy for the files, that are not converted
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"copy", "skip-identical", "hardlink", "reflink"})
+    @SneakyThrows
+    void shouldCopyWithEveryPassThrough(@NonNull String pPassThrough)
+    {
+      Path input = Files.createDirectories(outputDir.resolve("input"));
+      Path output = Files.createDirectories(outputDir.resolve("output"));
+      Files.writeString(input.resolve("data.csv"), "id;name\n1;name\n");
+      Files.copy(getPathForFormat(Format.XML), input.resolve("changelog.xml"));
+
+      CallResults firstCall = CliTestUtils.call("convert", "--format", "XML", "--pass-through", pPassThrough, input.toString(), output.toString());
+      // the output of the last converting was replaced, so it needs to be copied again. It is not written, because it could be a link to the input.
+      Files.delete(output.resolve("data.csv"));
+      Files.writeString(output.resolve("data.csv"), "id;name\n2;name\n");
+      CallResults secondCall = CliTestUtils.call("convert", "--format", "XML", "--pass-through", pPassThrough, "--statistics",
+                                                 input.toString(), output.toString());
+
+      assertAll(
+          () -> assertEquals(0, firstCall.getErrorCode(), firstCall.getErrText()),
+          () -> assertEquals(0, secondCall.getErrorCode(), secondCall.getErrText()),
+          () -> assertThat(secondCall.getOutText()).contains(copyText.apply("input/data.csv"), copyText.apply("input/changelog.xml"),
+                                                              " - identical files: " + ("skip-identical".equals(pPassThrough) ? 1 : 0)),
+          () -> assertThat(input.resolve("data.csv")).hasContent("id;name\n1;name\n"),
+          () -> assertThat(output.resolve("data.csv")).hasSameTextualContentAs(input.resolve("data.csv")),
+          () -> assertThat(output.resolve("changelog.xml")).hasSameTextualContentAs(input.resolve("changelog.xml")),
+          () -> assertEquals("hardlink".equals(pPassThrough), Files.isSameFile(input.resolve("data.csv"), output.resolve("data.csv")))
+      );
+    }
+
     /**
      * Tests that an error while copying is handled correctly.
      */
@@ -499,6 +559,233 @@ class FormatConverterTest
     }
 
 
+    /**
+     * Tests that a folder with many files converted by multiple threads gives the same files and the same output as the converting with one thread.
+     * This is also tested with threads, that read the files ahead, with virtual threads, that read and copy the files,
+     * and with a small number of files, that are converted at the same time.
+     *
+     * @param pThreadArgs the arguments for the threads
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"--threads=4", "--threads=2,--io-threads=2,--queue-capacity=3", "--io-threads=1,--queue-capacity=1",
+        "--threads=2,--virtual-threads,--io-threads=8"})
+    @SneakyThrows
+    void shouldWorkWithMultipleThreads(@NonNull String pThreadArgs)
+    {
+      Path input = outputDir.resolve("input");
+      for (Format format : Format.values())
+      {
+        Path folder = input.resolve(format.name().toLowerCase());
+        Files.createDirectories(folder);
+        for (int i = 0; i < 5; i++)
+          Files.copy(getPathForFormat(format), folder.resolve("changelog" + i + format.getFileEnding()));
+      }
+
+      Path singleThreadOutput = Files.createDirectories(outputDir.resolve("single"));
+      Path multiThreadOutput = Files.createDirectories(outputDir.resolve("multi"));
+
+      CallResults singleThread = CliTestUtils.call("convert", "--format", "YAML", input.toString(), singleThreadOutput.toString());
+      List<String> multiThreadArgs = new ArrayList<>(List.of("convert", "--format", "YAML"));
+      multiThreadArgs.addAll(List.of(pThreadArgs.split(",")));
+      multiThreadArgs.addAll(List.of(input.toString(), multiThreadOutput.toString()));
+      CallResults multiThread = CliTestUtils.call(multiThreadArgs.toArray(String[]::new));
+
+      assertAll(
+          () -> assertEquals(0, multiThread.getErrorCode(), multiThread.getErrText()),
+          () -> assertEquals(singleThread.getOutText(), multiThread.getOutText(), "output should be in the same order"),
+          () -> assertEquals(singleThread.getErrText(), multiThread.getErrText()),
+          () -> assertThat(getFilesInDirectory(multiThreadOutput)).hasSize(24).isEqualTo(getFilesInDirectory(singleThreadOutput)),
+          () -> {
+            for (String file : getFilesInDirectory(singleThreadOutput))
+            {
+              Path singleThreadFile = singleThreadOutput.resolve(file);
+              if (Files.isRegularFile(singleThreadFile))
+                assertEquals(Files.readString(singleThreadFile), Files.readString(multiThreadOutput.resolve(file)), file);
+            }
+          }
+      );
+    }
+
+    /**
+     * Tests that a folder can be converted to multiple formats in one call and gives the same files as one call for every format.
+     */
+    @Test
+    @SneakyThrows
+    void shouldWorkWithMultipleFormats()
+    {
+      Path input = outputDir.resolve("input");
+      Files.createDirectories(input);
+      for (Format format : Format.values())
+        Files.copy(getPathForFormat(format), input.resolve(format.name() + format.getFileEnding()));
+
+      Path multiFormatOutput = Files.createDirectories(outputDir.resolve("multi"));
+      CallResults multiFormat = CliTestUtils.call("convert", "--format", "YAML,JSON,SQL", "--database-type", "mariadb",
+                                                  input.toString(), multiFormatOutput.toString());
+
+      List<Executable> asserts = new ArrayList<>();
+      asserts.add(() -> assertEquals(0, multiFormat.getErrorCode(), multiFormat.getErrText()));
+      asserts.add(() -> assertThat(multiFormat.getOutText()).contains(convertText.apply("input" + File.separator + "XML.xml") + " for format JSON"));
+      for (Format format : List.of(Format.YAML, Format.JSON, Format.SQL))
+      {
+        Path singleFormatOutput = Files.createDirectories(outputDir.resolve("single-" + format));
+        CliTestUtils.call("convert", "--format", format.name(), "--database-type", "mariadb", input.toString(), singleFormatOutput.toString());
+
+        Path formatOutput = multiFormatOutput.resolve(format.name().toLowerCase());
+        asserts.add(() -> assertThat(getFilesInDirectory(formatOutput)).hasSize(4).isEqualTo(getFilesInDirectory(singleFormatOutput)));
+        for (String file : getFilesInDirectory(singleFormatOutput))
+          asserts.add(() -> assertEquals(Files.readString(singleFormatOutput.resolve(file)), Files.readString(formatOutput.resolve(file)), file));
+      }
+
+      assertAll(asserts);
+    }
+
+    /**
+     * Tests that SQL for multiple database types can be generated in one call and gives the same files as one call for every database type.
+     * The other formats do not contain any database type in their file names.
+     */
+    @Test
+    @SneakyThrows
+    void shouldWorkWithMultipleDatabaseTypes()
+    {
+      Path input = outputDir.resolve("input");
+      Files.createDirectories(input);
+      Files.copy(getPathForFormat(Format.XML), input.resolve("XML.xml"));
+
+      Path multiOutput = Files.createDirectories(outputDir.resolve("multi"));
+      CallResults multiCall = CliTestUtils.call("convert", "--format", "SQL,YAML", "--database-type", "postgresql,oracle",
+                                                input.toString(), multiOutput.toString());
+
+      List<Executable> asserts = new ArrayList<>();
+      asserts.add(() -> assertEquals(0, multiCall.getErrorCode(), multiCall.getErrText()));
+      asserts.add(() -> assertThat(getFilesInDirectory(multiOutput))
+          .containsExactlyInAnyOrder("sql-postgresql", "sql-postgresql" + File.separator + "XML.postgresql.sql",
+                                     "sql-oracle", "sql-oracle" + File.separator + "XML.oracle.sql",
+                                     "yaml", "yaml" + File.separator + "XML.yaml"));
+      for (String databaseType : List.of("postgresql", "oracle"))
+      {
+        Path singleOutput = Files.createDirectories(outputDir.resolve("single-" + databaseType));
+        CliTestUtils.call("convert", "--format", "SQL", "--database-type", databaseType, input.toString(), singleOutput.toString());
+
+        String fileName = "XML." + databaseType + ".sql";
+        asserts.add(() -> assertEquals(Files.readString(singleOutput.resolve(fileName)),
+                                       Files.readString(multiOutput.resolve("sql-" + databaseType).resolve(fileName))));
+      }
+
+      assertAll(asserts);
+    }
+
+    /**
+     * Tests that the resource accessors are only created once for every directory and the parsers only once for every file extension.
+     * The first lookup of a parser waits until a second thread looks up a parser too, so a second lookup for the same extension would always be found.
+     */
+    @Test
+    @SneakyThrows
+    void shouldReuseResourceAccessorsAndParsers()
+    {
+      Path input = outputDir.resolve("input");
+      for (String folderName : List.of("first", "second"))
+      {
+        Path folder = Files.createDirectories(input.resolve(folderName));
+        for (int i = 0; i < 3; i++)
+          Files.copy(getPathForFormat(Format.XML), folder.resolve("changelog" + i + ".xml"));
+      }
+
+      Path output = Files.createDirectories(outputDir.resolve("output"));
+      ChangeLogParser waitingParser = new WaitingChangeLogParser(2);
+      ChangeLogParserFactory.getInstance().register(waitingParser);
+      CallResults callResults;
+      try
+      {
+        callResults = CliTestUtils.call("convert", "--format", "YAML", "--threads", "2", "--statistics", input.toString(), output.toString());
+      }
+      finally
+      {
+        ChangeLogParserFactory.getInstance().unregister(waitingParser);
+      }
+
+      assertAll(
+          () -> assertEquals(0, callResults.getErrorCode(), callResults.getErrText()),
+          () -> assertThat(callResults.getOutText())
+              .contains("Statistics:", " - files: 6", " - resource accessors: 2", " - parser lookups: 1", " - parsing: 6 times")
+      );
+    }
+
+    /**
+     * Tests that only the included files are converted and that excluded directories and files ignored by git are not in the output.
+     */
+    @Test
+    @SneakyThrows
+    void shouldExcludeFiles()
+    {
+      Path input = Files.createDirectories(outputDir.resolve("input"));
+      Files.createDirectories(input.resolve("node_modules"));
+      Files.createDirectories(input.resolve("build"));
+      Files.copy(getPathForFormat(Format.XML), input.resolve("changelog.xml"));
+      Files.copy(getPathForFormat(Format.XML), input.resolve("node_modules/changelog.xml"));
+      Files.copy(getPathForFormat(Format.XML), input.resolve("build/changelog.xml"));
+      Files.writeString(input.resolve("notes.txt"), "notes");
+      Files.writeString(input.resolve(".gitignore"), "build/\n");
+      Path output = Files.createDirectories(outputDir.resolve("output"));
+
+      CallResults callResults = CliTestUtils.call("convert", "--format", "YAML", "--exclude", "node_modules", "--gitignore", "--include", "*.xml",
+                                                  input.toString(), output.toString());
+
+      assertAll(
+          () -> assertEquals(0, callResults.getErrorCode(), callResults.getErrText()),
+          () -> assertEquals("Converting changeset 'input/changelog.xml'", callResults.getOutText().strip()),
+          () -> assertThat(output.resolve("changelog.yaml")).exists(),
+          () -> assertThat(output.resolve("node_modules")).doesNotExist(),
+          () -> assertThat(output.resolve("build")).doesNotExist(),
+          () -> assertThat(output.resolve("notes.txt")).doesNotExist()
+      );
+    }
+
+    /**
+     * Tests that large changelogs, that are parsed in chunks, give the same files as the changelogs parsed as a whole.
+     * The properties of the changelogs need to be replaced in every chunk.
+     */
+    @Test
+    @SneakyThrows
+    void shouldSplitLargeChangelogs()
+    {
+      Path input = Files.createDirectories(outputDir.resolve("input"));
+      // every changelog has more than 1 MiB
+      Files.writeString(input.resolve("large-xml.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+          + "    xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd\">\n"
+          + "  <property name=\"table\" value=\"person\"/>\n"
+          + IntStream.range(0, 8000)
+          .mapToObj(pIndex -> "  <changeSet id=\"" + pIndex + "\" author=\"test\">\n    <comment>changeSet " + pIndex + " äöü</comment>\n"
+              + "    <sql>insert into ${table} (id, name) values (" + pIndex + ", 'name " + pIndex + "')</sql>\n  </changeSet>\n")
+          .collect(Collectors.joining())
+          + "</databaseChangeLog>\n");
+      Files.writeString(input.resolve("large-yaml.yaml"), "databaseChangeLog:\n"
+          + "- property:\n    name: table\n    value: person\n"
+          + IntStream.range(0, 8000)
+          .mapToObj(pIndex -> "- changeSet:\n    id: " + pIndex + "\n    author: test\n    comment: changeSet " + pIndex + " äöü\n    changes:\n"
+              + "    - sql:\n        sql: insert into ${table} (id, name) values (" + pIndex + ", 'name " + pIndex + "')\n")
+          .collect(Collectors.joining()));
+
+      Path splitOutput = Files.createDirectories(outputDir.resolve("split"));
+      CallResults splitCall = CliTestUtils.call("convert", "--format", "YAML,XML", "--split-threshold", "1", "--statistics",
+                                                  input.toString(), splitOutput.toString());
+      Path wholeOutput = Files.createDirectories(outputDir.resolve("whole"));
+      CallResults wholeCall = CliTestUtils.call("convert", "--format", "YAML,XML", input.toString(), wholeOutput.toString());
+
+      List<Executable> asserts = new ArrayList<>();
+      asserts.add(() -> assertEquals(0, splitCall.getErrorCode(), splitCall.getErrText()));
+      asserts.add(() -> assertThat(splitCall.getOutText()).contains(" - split files: 2"));
+      asserts.add(() -> assertEquals(0, wholeCall.getErrorCode(), wholeCall.getErrText()));
+      for (String file : List.of("yaml/large-xml.yaml", "xml/large-yaml.xml"))
+      {
+        Path splitFile = splitOutput.resolve(file);
+        asserts.add(() -> assertThat(splitFile).exists().hasSameTextualContentAs(wholeOutput.resolve(file)));
+      }
+      asserts.add(() -> assertThat(Files.readString(splitOutput.resolve("yaml/large-xml.yaml"))).contains("insert into person (id, name) values (7999, 'name 7999')"));
+
+      assertAll(asserts);
+    }
+
     /**
      * Returns the relative paths for all files and folders in the given directory.
      *
@@ -545,7 +832,7 @@ class FormatConverterTest
 
       try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class, CALLS_REAL_METHODS))
       {
-        filesMockedStatic.when(() -> Files.readString(file, StandardCharsets.UTF_8)).thenThrow(IOException.class);
+        filesMockedStatic.when(() -> Files.newByteChannel(file, StandardOpenOption.READ)).thenThrow(IOException.class);
 
         assertCall(
             ExpectedCallResults.builder()
@@ -553,7 +840,8 @@ class FormatConverterTest
                 .outText(convertText.apply("XML.xml"))
                 .errText("WARNING: error reading file for reading includes in file '" + file + "'")
                 .build(),
-            "convert", "--format", Format.YAML.name(), file.toString(), outputDir.toFile().getAbsolutePath());
+            // without the cache, the include check reads the file from the disk
+            "convert", "--format", Format.YAML.name(), "--content-cache-size", "0", file.toString(), outputDir.toFile().getAbsolutePath());
       }
     }
 
@@ -613,32 +901,32 @@ class FormatConverterTest
             Arguments.of(
                 List.of(
                     "<include file=\"XML.xml\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"JSON.json\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"YAML.yaml\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"),
+                    "<include file=\"JSON.json\" context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
+                    "<include context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" file=\"YAML.yaml\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"),
                 List.of(), pFormat, Format.XML),
             Arguments.of(
                 List.of(
                     "<include file=\"XML" + pFormat.getFileEnding() + "\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"JSON.json\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"YAML.yaml\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
+                    "<include file=\"JSON.json\" context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
+                    "<include context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" file=\"YAML.yaml\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
                 ), List.of(Format.XML), pFormat, Format.XML),
             Arguments.of(
                 List.of(
                     "<include file=\"XML.xml\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"JSON" + pFormat.getFileEnding() + "\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"YAML.yaml\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
+                    "<include file=\"JSON" + pFormat.getFileEnding() + "\" context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
+                    "<include context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" file=\"YAML.yaml\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
                 ), List.of(Format.JSON), pFormat, Format.XML),
             Arguments.of(
                 List.of(
                     "<include file=\"XML.xml\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"JSON.json\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"YAML" + pFormat.getFileEnding() + "\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
+                    "<include file=\"JSON.json\" context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
+                    "<include context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" file=\"YAML" + pFormat.getFileEnding() + "\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
                 ), List.of(Format.YAML), pFormat, Format.XML),
             Arguments.of(
                 List.of(
                     "<include file=\"XML" + pFormat.getFileEnding() + "\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"JSON" + pFormat.getFileEnding() + "\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
-                    "<include context=\"bar\" errorIfMissing=\"false\" file=\"YAML" + pFormat.getFileEnding() + "\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
+                    "<include file=\"JSON" + pFormat.getFileEnding() + "\" context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" labels=\"baz\" relativeToChangelogFile=\"false\"/>",
+                    "<include context=\"bar\" errorIfMissing=\"false\" ignore=\"false\" file=\"YAML" + pFormat.getFileEnding() + "\" labels=\"baz\" relativeToChangelogFile=\"true\"/>"
                 ), List.of(Format.XML, Format.JSON, Format.YAML), pFormat, Format.XML));
 
 
@@ -742,12 +1030,12 @@ class FormatConverterTest
               " - " + CliTestUtils.loadResource(xmlContextPath) + File.separatorChar + "changelogs" + File.separatorChar + "changelog3.xml",
               SECOND_EXPECTED_INCLUDE_CONVERSION_MESSAGE
           ),
-          pFormat -> new String[]{"<include context=\"xml-junit\" file=\"changelogs/changelog1" + pFormat.getFileEnding() + "\" relativeToChangelogFile=\"true\"/>",
-                                  "<include context=\"xml-junit\" file=\"changelogs/changelog2" + pFormat.getFileEnding() + "\" relativeToChangelogFile=\"true\"/>",
-                                  "<include context=\"xml-junit\" file=\"changelogs/changelog3.xml\" relativeToChangelogFile=\"true\"/>"},
-          pFormat -> new String[]{"<includeAll context=\"xml-v1\" path=\"version1\" relativeToChangelogFile=\"true\"/>",
-                                  "<include context=\"xml-v2\" file=\"version2/v2changelog1" + pFormat.getFileEnding() + "\" relativeToChangelogFile=\"true\"/>",
-                                  "<include context=\"xml-v2\" file=\"version2/v2changelog2" + pFormat.getFileEnding() + "\" relativeToChangelogFile=\"true\"/>"}
+          pFormat -> new String[]{"<include file=\"changelogs/changelog1" + pFormat.getFileEnding() + "\" context=\"xml-junit\" relativeToChangelogFile=\"true\" />",
+                                  "<include file=\"changelogs/changelog2" + pFormat.getFileEnding() + "\" context=\"xml-junit\" relativeToChangelogFile=\"true\" />",
+                                  "<include file=\"changelogs/changelog3.xml\" context=\"xml-junit\" relativeToChangelogFile=\"true\" />"},
+          pFormat -> new String[]{"<includeAll path=\"version1\" relativeToChangelogFile=\"true\" context=\"xml-v1\" />",
+                                  "<include relativeToChangelogFile=\"true\" file=\"version2/v2changelog1" + pFormat.getFileEnding() + "\" context=\"xml-v2\" />",
+                                  "<include relativeToChangelogFile=\"true\" file=\"version2/v2changelog2" + pFormat.getFileEnding() + "\" context=\"xml-v2\" />"}
       );
 
       String yamlContextPath = "context/yaml";
@@ -1001,11 +1289,29 @@ class FormatConverterTest
 
       return Stream.of(
           Arguments.of("Missing required options and parameters: '--format=<format>', '<input>', '<output>'", new String[]{"convert"}),
-          Arguments.of("Invalid value for option '--format': expected one of [SQL, YAML, XML, JSON] (case-sensitive) but was 'invalid'", new String[]{"convert", "-f", "invalid", path.toString(), path.toString()}),
+          Arguments.of("Invalid value for option '--format' (<format>): expected one of [SQL, YAML, XML, JSON] (case-sensitive) but was 'invalid'", new String[]{"convert", "-f", "invalid", path.toString(), path.toString()}),
           Arguments.of("Invalid value for positional parameter at index 0 (<input>): Specified file '/not/valid/dir' does not exist", new String[]{"convert", "-f", "YAML", "/not/valid/dir", path.toString()}),
           Arguments.of("Invalid value for positional parameter at index 1 (<output>): Specified file '/not/valid/dir' does not exist", new String[]{"convert", "-f", "YAML", path.toString(), "/not/valid/dir"}),
           Arguments.of("Unmatched argument at index 5: 'foo'", new String[]{"convert", "-f", "YAML", path.toString(), path.toString(), "foo"}),
-          Arguments.of("Option '--database-type' is required, when format SQL is given", new String[]{"convert", "-f", "SQL", path.toString(), path.toString(),})
+          Arguments.of("Option '--database-type' is required, when format SQL is given", new String[]{"convert", "-f", "SQL", path.toString(), path.toString(),}),
+          Arguments.of("Option '--threads' needs to be at least 1", new String[]{"convert", "-f", "YAML", "--threads", "0", path.toString(), path.toString()}),
+          Arguments.of("Option '--io-threads' needs to be at least 0", new String[]{"convert", "-f", "YAML", "--io-threads", "-1", path.toString(), path.toString()}),
+          Arguments.of("Option '--queue-capacity' needs to be at least 1",
+                       new String[]{"convert", "-f", "YAML", "--queue-capacity", "0", path.toString(), path.toString()}),
+          Arguments.of("Invalid value for option '--pass-through': expected one of [copy, skip-identical, hardlink, reflink] but was 'move'",
+                       new String[]{"convert", "-f", "YAML", "--pass-through", "move", path.toString(), path.toString()}),
+          Arguments.of("Invalid glob pattern '[a-' of option '--include' or '--exclude'",
+                       new String[]{"convert", "-f", "YAML", "--exclude", "[a-", path.toString(), path.toString()}),
+          Arguments.of("Invalid value for option '--shard': expected INDEX/COUNT with 1 <= INDEX <= COUNT but was '4/3'",
+                       new String[]{"convert", "-f", "YAML", "--shard", "4/3", path.toString(), path.toString()}),
+          Arguments.of("Option '--shard' needs a directory as input",
+                       new String[]{"convert", "-f", "YAML", "--shard", "1/3", path.resolve("pom.xml").toString(), path.toString()}),
+          Arguments.of("Option '--virtual-threads' needs '--io-threads' to be at least 1",
+                       new String[]{"convert", "-f", "YAML", "--virtual-threads", path.toString(), path.toString()}),
+          Arguments.of("Option '--yaml-code-point-limit' needs to be at least 1",
+                       new String[]{"convert", "-f", "YAML", "--yaml-code-point-limit", "0", path.toString(), path.toString()}),
+          Arguments.of("Option '--content-cache-size' needs to be at least 0",
+                       new String[]{"convert", "-f", "YAML", "--content-cache-size", "-1", path.toString(), path.toString()})
       );
     }
 
@@ -1119,4 +1425,41 @@ class FormatConverterTest
   }
 
 
+  /**
+   * Parser, that never supports any file, but lets the first lookups of parsers for XML files wait until the given number of threads look up
+   * a parser at the same time. It waits at most two seconds, so a single thread is not blocked forever.
+   */
+  @RequiredArgsConstructor
+  private static class WaitingChangeLogParser implements ChangeLogParser
+  {
+    private final int threadCount;
+    private final Set<Thread> waitingThreads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public DatabaseChangeLog parse(String pPhysicalChangeLogLocation, ChangeLogParameters pChangeLogParameters, ResourceAccessor pResourceAccessor)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @SneakyThrows
+    public boolean supports(String pChangeLogFile, ResourceAccessor pResourceAccessor)
+    {
+      if (pChangeLogFile.endsWith(".xml") && waitingThreads.size() < threadCount)
+      {
+        waitingThreads.add(Thread.currentThread());
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (waitingThreads.size() < threadCount && System.nanoTime() < end)
+          Thread.sleep(10);
+      }
+      return false;
+    }
+
+    @Override
+    public int getPriority()
+    {
+      // the factory asks the parsers with the highest priority first
+      return Integer.MAX_VALUE;
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package de.adito.convert;
+
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link InputWalker}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class InputWalkerTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Creates some files in the temp dir.
+   */
+  @BeforeEach
+  @SneakyThrows
+  void setUp()
+  {
+    for (String file : List.of("changelog.xml", "db/data.csv", "db/seed/big.csv", "db/changelog.yaml", "node_modules/lib/changelog.xml",
+                               "target/classes/changelog.xml", ".git/config", "logs/run.log", "b.xml", "a/z.xml"))
+    {
+      Path path = tempDir.resolve(file);
+      Files.createDirectories(path.getParent());
+      Files.writeString(path, file);
+    }
+  }
+
+  /**
+   * Tests that all files are collected in their sorted order without any patterns.
+   */
+  @Test
+  void shouldCollectAllFilesSorted()
+  {
+    assertEquals(List.of(".git/config", "a/z.xml", "b.xml", "changelog.xml", "db/changelog.yaml", "db/data.csv", "db/seed/big.csv", "logs/run.log",
+                         "node_modules/lib/changelog.xml", "target/classes/changelog.xml"),
+                 walk(new InputWalker(null, null, false)));
+  }
+
+  /**
+   * Tests that excluded directories and files are skipped and that only included files are collected.
+   */
+  @Test
+  void shouldIncludeAndExcludeFiles()
+  {
+    assertAll(
+        () -> assertEquals(List.of("a/z.xml", "b.xml", "changelog.xml", "db/changelog.yaml", "db/data.csv", "db/seed/big.csv"),
+                           walk(new InputWalker(null, List.of(".git", "node_modules", "target", "*.log"), false))),
+        () -> assertEquals(List.of("db/changelog.yaml", "db/data.csv"),
+                           walk(new InputWalker(List.of("db/*"), null, false))),
+        () -> assertEquals(List.of("a/z.xml", "b.xml", "changelog.xml", "db/changelog.yaml"),
+                           walk(new InputWalker(List.of("*.xml", "*.yaml"), List.of("node_modules", "target/**"), false)))
+    );
+  }
+
+  /**
+   * Tests that the files ignored by git are skipped, including the negated patterns and the patterns of the nested files.
+   */
+  @Test
+  @SneakyThrows
+  void shouldSkipFilesIgnoredByGit()
+  {
+    Files.writeString(tempDir.resolve(".gitignore"), "# build output\n/target/\nnode_modules/\n*.log\n*.csv\n!data.csv\n");
+    Files.writeString(tempDir.resolve("db/.gitignore"), "/changelog.yaml\n");
+
+    assertEquals(List.of(".gitignore", "a/z.xml", "b.xml", "changelog.xml", "db/.gitignore", "db/data.csv"),
+                 walk(new InputWalker(null, null, true)));
+  }
+
+  /**
+   * Tests that invalid patterns are reported.
+   */
+  @Test
+  void shouldRejectInvalidPattern()
+  {
+    List<String> patterns = List.of("[a-");
+    assertThrows(PatternSyntaxException.class, () -> new InputWalker(null, patterns, false));
+  }
+
+  /**
+   * Walks the temp dir.
+   *
+   * @param pWalker the walker
+   * @return the relative paths of the collected files
+   */
+  @NonNull
+  @SneakyThrows
+  private List<String> walk(@NonNull InputWalker pWalker)
+  {
+    return pWalker.walk(tempDir).stream()
+        .map(pPath -> tempDir.relativize(pPath).toString().replace('\\', '/'))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,139 @@
+package de.adito.convert;
+
+import de.adito.*;
+import de.adito.CliTestUtils.CallResults;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ShardMerger} and the option {@code --shard} of {@link FormatConverter}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class ShardMergerTest
+{
+  private static final int SHARD_COUNT = 3;
+
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that the shards, that run as separate processes into the same output directory, and the merging of the shards
+   * give the same files as the converting of all files in one process.
+   */
+  @Test
+  @SneakyThrows
+  void shouldGiveSameFilesAsConvertingWithoutShards()
+  {
+    Path input = CliTestUtils.loadResource("context/xml");
+    Path shardOutput = Files.createDirectories(tempDir.resolve("shards"));
+
+    List<Process> processes = new ArrayList<>();
+    for (int index = 1; index <= SHARD_COUNT; index++)
+      processes.add(new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-cp", System.getProperty("java.class.path"),
+                                       LiquibaseExtendedCli.class.getName(), "convert", "--format", "YAML", "--shard", index + "/" + SHARD_COUNT,
+                                       input.toString(), shardOutput.toString())
+                        .redirectErrorStream(true)
+                        .redirectOutput(tempDir.resolve("shard-" + index + ".log").toFile())
+                        .start());
+    for (Process process : processes)
+    {
+      assertTrue(process.waitFor(2, TimeUnit.MINUTES), "shard did not finish");
+      assertEquals(0, process.exitValue(), () -> readLogs());
+    }
+
+    CallResults merge = CliTestUtils.call("merge-shards", input.toString(), shardOutput.toString());
+    Path wholeOutput = Files.createDirectories(tempDir.resolve("whole"));
+    CallResults whole = CliTestUtils.call("convert", "--format", "YAML", input.toString(), wholeOutput.toString());
+
+    assertAll(
+        () -> assertEquals(0, merge.getErrorCode(), merge.getErrText()),
+        () -> assertEquals(0, whole.getErrorCode(), whole.getErrText()),
+        () -> assertThat(merge.getOutText()).contains("Transforming file 'xml/nested-changelog.xml' with includes",
+                                                      "Transforming file 'xml/changelogs/changelog3.xml' with includes"),
+        () -> assertThat(Files.readString(shardOutput.resolve("nested-changelog.xml"))).contains("changelogs/changelog1.yaml"),
+        () -> assertEquals(readFiles(wholeOutput), readFiles(shardOutput))
+    );
+  }
+
+  /**
+   * Tests that the shards are not merged, if any shard is missing.
+   */
+  @Test
+  @SneakyThrows
+  void shouldNotMergeWithMissingShard()
+  {
+    Path input = CliTestUtils.loadResource("context/xml");
+    Path output = Files.createDirectories(tempDir.resolve("shards"));
+    CallResults first = CliTestUtils.call("convert", "--format", "YAML", "--shard", "1/3", input.toString(), output.toString());
+    CallResults third = CliTestUtils.call("convert", "--format", "YAML", "--shard", "3/3", input.toString(), output.toString());
+
+    CallResults merge = CliTestUtils.call("merge-shards", input.toString(), output.toString());
+
+    assertAll(
+        () -> assertEquals(0, first.getErrorCode(), first.getErrText()),
+        () -> assertEquals(0, third.getErrorCode(), third.getErrText()),
+        () -> assertEquals(1, merge.getErrorCode()),
+        () -> assertThat(merge.getErrText()).contains("can not be merged: missing shards 2 of 3")
+    );
+  }
+
+  /**
+   * Tests that every file belongs to exactly one shard.
+   */
+  @Test
+  void shouldAssignEveryFileToOneShard()
+  {
+    List<Shard> shards = IntStream.rangeClosed(1, 4).mapToObj(pIndex -> new Shard(pIndex, 4)).collect(Collectors.toList());
+
+    for (String file : List.of("changelog.xml", "db/data.csv", "a/b/c.yaml", "äöü.json"))
+      assertEquals(1, shards.stream().filter(pShard -> pShard.owns(file)).count(), file);
+  }
+
+  /**
+   * Reads all files of a directory without the files of the CLI.
+   *
+   * @param pDirectory the directory
+   * @return the contents by the relative paths
+   */
+  @NonNull
+  @SneakyThrows
+  private static Map<String, String> readFiles(@NonNull Path pDirectory)
+  {
+    Map<String, String> files = new TreeMap<>();
+    try (Stream<Path> paths = Files.walk(pDirectory))
+    {
+      for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList()))
+      {
+        String relativePath = pDirectory.relativize(path).toString().replace('\\', '/');
+        if (!relativePath.startsWith(".liquibase-extended-cli/"))
+          files.put(relativePath, Files.readString(path));
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Reads the logs of all shards.
+   *
+   * @return the logs
+   */
+  @NonNull
+  @SneakyThrows
+  private String readLogs()
+  {
+    StringBuilder logs = new StringBuilder();
+    for (int index = 1; index <= SHARD_COUNT; index++)
+      logs.append(Files.readString(tempDir.resolve("shard-" + index + ".log")));
+    return logs.toString();
+  }
+}
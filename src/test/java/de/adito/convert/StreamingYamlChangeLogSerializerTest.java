@@ -0,0 +1,102 @@
+package de.adito.convert;
+
+import de.adito.CliTestUtils;
+import liquibase.changelog.*;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.DirectoryResourceAccessor;
+import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
+import lombok.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link StreamingYamlChangeLogSerializer}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class StreamingYamlChangeLogSerializerTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that the changeSets are written the same way as by the YAML serializer of Liquibase.
+   *
+   * @param pResource the changelog in the resources
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"convert/XML.xml", "convert/XML-pre.xml", "convert/JSON.json", "convert/YAML.yaml", "convert/SQL.sql"})
+  @SneakyThrows
+  void shouldWriteSameAsLiquibase(@NonNull String pResource)
+  {
+    List<ChangeSet> changeSets = parse(CliTestUtils.loadResource(pResource));
+
+    assertEquals(write(new YamlChangeLogSerializer(), changeSets), write(new StreamingYamlChangeLogSerializer(), changeSets));
+  }
+
+  /**
+   * Tests that many changeSets are written the same way as by the YAML serializer of Liquibase.
+   */
+  @Test
+  @SneakyThrows
+  void shouldWriteManyChangeSetsSameAsLiquibase()
+  {
+    Path file = Files.writeString(tempDir.resolve("changelog.yaml"), "databaseChangeLog:\n" + IntStream.range(0, 100)
+        .mapToObj(pIndex -> "- changeSet:\n    id: " + pIndex + "\n    author: test\n    context: context" + (pIndex % 3) + "\n    changes:\n"
+            + "    - sql:\n        sql: select " + pIndex + "\n")
+        .collect(Collectors.joining()));
+    List<ChangeSet> changeSets = parse(file);
+
+    assertAll(
+        () -> assertEquals(100, changeSets.size()),
+        () -> assertEquals(write(new YamlChangeLogSerializer(), changeSets), write(new StreamingYamlChangeLogSerializer(), changeSets)),
+        () -> assertEquals(write(new YamlChangeLogSerializer(), List.of()), write(new StreamingYamlChangeLogSerializer(), List.of()))
+    );
+  }
+
+  /**
+   * Parses a changelog.
+   *
+   * @param pFile the changelog
+   * @return the changeSets of the changelog
+   * @throws Exception Error while parsing
+   */
+  @NonNull
+  private List<ChangeSet> parse(@NonNull Path pFile) throws Exception
+  {
+    try (DirectoryResourceAccessor resourceAccessor = new DirectoryResourceAccessor(pFile.getParent()))
+    {
+      String fileName = pFile.getFileName().toString();
+      return ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor)
+          .parse(fileName, new ChangeLogParameters(), resourceAccessor)
+          .getChangeSets();
+    }
+  }
+
+  /**
+   * Writes the changeSets with a serializer.
+   *
+   * @param pSerializer the serializer
+   * @param pChangeSets the changeSets
+   * @return the written text
+   * @throws Exception Error while writing
+   */
+  @NonNull
+  private String write(@NonNull ChangeLogSerializer pSerializer, @NonNull List<ChangeSet> pChangeSets) throws Exception
+  {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    pSerializer.write(pChangeSets, outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,78 @@
+package de.adito.convert.include;
+
+import lombok.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link IncludeScanner}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class IncludeScannerTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * @return the arguments for {@link #shouldFindIncludes(boolean, IncludeScanner.Syntax, String)}
+   */
+  @NonNull
+  private static Stream<Arguments> shouldFindIncludes()
+  {
+    return Stream.of(
+        Arguments.of(true, IncludeScanner.Syntax.XML, "<databaseChangeLog>\n  <include file=\"a.xml\"/>\n</databaseChangeLog>"),
+        Arguments.of(true, IncludeScanner.Syntax.XML, "<databaseChangeLog><includeAll path=\"sub\"/></databaseChangeLog>"),
+        Arguments.of(true, IncludeScanner.Syntax.XML, "<databaseChangeLog><\n include file=\"a.xml\"/></databaseChangeLog>"),
+        Arguments.of(true, IncludeScanner.Syntax.XML, "<!-- <include file=\"a.xml\"/> ---><include file=\"b.xml\"/>"),
+        Arguments.of(true, IncludeScanner.Syntax.XML, "<![CDATA[ ]]]><include file=\"b.xml\"/>"),
+        Arguments.of(false, IncludeScanner.Syntax.XML, "<databaseChangeLog><!-- <include file=\"a.xml\"/> --></databaseChangeLog>"),
+        Arguments.of(false, IncludeScanner.Syntax.XML, "<sql><![CDATA[select '<include file=\"a.xml\"/>']]></sql>"),
+        Arguments.of(false, IncludeScanner.Syntax.XML, "<databaseChangeLog><changeSet id=\"include\" author=\"äöü\"/></databaseChangeLog>"),
+        Arguments.of(true, IncludeScanner.Syntax.YAML, "databaseChangeLog:\n  - include:\n      file: a.yaml"),
+        Arguments.of(true, IncludeScanner.Syntax.YAML, "databaseChangeLog:\n- includeAll :\n    path: sub"),
+        Arguments.of(false, IncludeScanner.Syntax.YAML, "databaseChangeLog:\n  - changeSet:\n      id: include"),
+        Arguments.of(true, IncludeScanner.Syntax.JSON, "{\"databaseChangeLog\": [{\"include\" : {\"file\": \"a.json\"}}]}"),
+        Arguments.of(true, IncludeScanner.Syntax.JSON, "{\"databaseChangeLog\": [{\"includeAll\":\n{\"path\": \"sub\"}}]}"),
+        Arguments.of(false, IncludeScanner.Syntax.JSON, "{\"databaseChangeLog\": [{\"changeSet\": {\"id\": \"include\"}}]}")
+    );
+  }
+
+  /**
+   * Tests that the includes are found in the files of every format.
+   *
+   * @param pExpected the expected result
+   * @param pSyntax   the syntax of the includes
+   * @param pContent  the content of the file
+   */
+  @ParameterizedTest
+  @MethodSource
+  @SneakyThrows
+  void shouldFindIncludes(boolean pExpected, @NonNull IncludeScanner.Syntax pSyntax, @NonNull String pContent)
+  {
+    Path file = Files.writeString(tempDir.resolve("changelog"), pContent, StandardCharsets.UTF_8);
+
+    assertEquals(pExpected, IncludeScanner.containsInclude(file, pSyntax));
+  }
+
+  /**
+   * Tests that an include is found, that is split between two chunks of the file.
+   */
+  @Test
+  @SneakyThrows
+  void shouldFindIncludeBetweenChunks()
+  {
+    String content = "<databaseChangeLog>" + " ".repeat(64 * 1024 - 23) + "<include file=\"a.xml\"/></databaseChangeLog>";
+    Path file = Files.writeString(tempDir.resolve("changelog.xml"), content, StandardCharsets.UTF_8);
+
+    assertTrue(IncludeScanner.containsInclude(file, IncludeScanner.Syntax.XML));
+  }
+}
@@ -0,0 +1,100 @@
+package de.adito.convert.include;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.*;
+
+/**
+ * Benchmark for transforming the includes of a changelog with many includes, while many files were converted.
+ * <p>
+ * The number of includes and the number of converted files grow together, so the time per transforming should only grow linearly.
+ * Run its {@link #main(String[])} method with the test classpath, e.g. with the commands in the README.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncludeTransformerBenchmark
+{
+  /**
+   * The number of includes in the changelog and the number of converted files.
+   */
+  @Param({"500", "1000", "2000", "5000"})
+  private int files;
+
+  private Path directory;
+  private Path includeFile;
+  private Path newIncludeFile;
+  private IncludeTransformer includeTransformer;
+
+  /**
+   * Creates the changelog with the includes and registers all included files as converted.
+   *
+   * @throws IOException Error while writing the changelog
+   */
+  @Setup
+  public void setUp() throws IOException
+  {
+    directory = Files.createTempDirectory("include-benchmark");
+    Path changelogs = Files.createDirectories(directory.resolve("changelogs"));
+    includeFile = directory.resolve("changelog.yaml");
+    newIncludeFile = directory.resolve("changelog-new.yaml");
+
+    includeTransformer = new IncludeTransformer();
+    for (int i = 0; i < files; i++)
+      includeTransformer.addConvertedFile(changelogs.resolve("changelog" + i + ".xml"), changelogs.resolve("changelog" + i + ".yaml"));
+
+    Files.writeString(includeFile, "databaseChangeLog:\n" + IntStream.range(0, files)
+        .mapToObj(pIndex -> "  - include:\n      file: changelogs/changelog" + pIndex + ".xml\n      relativeToChangelogFile: " + (pIndex % 2 == 0) + "\n")
+        .collect(Collectors.joining()));
+  }
+
+  /**
+   * Deletes all created files.
+   *
+   * @throws IOException Error while deleting
+   */
+  @TearDown
+  public void tearDown() throws IOException
+  {
+    try (Stream<Path> walk = Files.walk(directory))
+    {
+      for (Path path : walk.sorted((pFirst, pSecond) -> pSecond.compareTo(pFirst)).collect(Collectors.toList()))
+        Files.delete(path);
+    }
+  }
+
+  /**
+   * Transforms all includes of the changelog.
+   *
+   * @throws Exception Error while transforming
+   */
+  @Benchmark
+  public void transformIncludes() throws Exception
+  {
+    includeTransformer.transformIncludes(directory, includeFile, newIncludeFile);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param pArgs the arguments, not used
+   * @throws RunnerException Error while running the benchmark
+   */
+  public static void main(String[] pArgs) throws RunnerException
+  {
+    new Runner(new OptionsBuilder()
+                   .include(IncludeTransformerBenchmark.class.getSimpleName())
+                   .build())
+        .run();
+  }
+}
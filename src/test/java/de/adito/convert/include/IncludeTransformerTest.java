@@ -1,8 +1,10 @@
 package de.adito.convert.include;
 
-import lombok.SneakyThrows;
+import lombok.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import java.nio.file.*;
 
@@ -45,6 +47,177 @@ class IncludeTransformerTest
 
       assertThat(tempDir).isEmptyDirectory();
     }
+
+    /**
+     * Tests that only the {@code file} attributes of the includes in an XML file are changed. Everything else, like the XML declaration,
+     * the comments, the quotes, the line endings and the order of the attributes, needs to stay the same.
+     */
+    @Test
+    @SneakyThrows
+    void shouldOnlyChangeFileAttributeInXml()
+    {
+      Files.createDirectories(tempDir.resolve("sub"));
+      IncludeTransformer includeTransformer = new IncludeTransformer();
+      includeTransformer.addConvertedFile(tempDir.resolve("a&b.xml"), tempDir.resolve("a&b.yaml"));
+      includeTransformer.addConvertedFile(tempDir.resolve("sub/c.xml"), tempDir.resolve("sub/c.yaml"));
+
+      String content = "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\r\n"
+          + "<!-- include file=\"a&b.xml\" -->\r\n"
+          + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\">\r\n"
+          + "  <include   context='x'\r\n      file='a&amp;b.xml' />\r\n"
+          + "  <include file=\"c.xml\" relativeToChangelogFile=\"true\"></include>\r\n"
+          + "  <include file=\"sub/c.xml\"/>\r\n"
+          + "  <changeSet id=\"1\" author=\"ä\"><sql><![CDATA[select '<include file=\"sub/c.xml\"/>']]></sql></changeSet>\r\n"
+          + "</databaseChangeLog>\r\n";
+      Path includeFile = Files.writeString(tempDir.resolve("changelog.xml"), content);
+      Path newIncludeFile = tempDir.resolve("new.xml");
+
+      includeTransformer.transformIncludes(tempDir, includeFile, newIncludeFile);
+
+      assertEquals(content.replace("file='a&amp;b.xml'", "file='a&amp;b.yaml'").replace("<include file=\"sub/c.xml\"/>\r\n", "<include file=\"sub/c.yaml\"/>\r\n"),
+                   Files.readString(newIncludeFile));
+    }
+
+    /**
+     * Tests that the includes of XML files are found at their exact position with every kind of line break and with or without a byte order mark.
+     * The line breaks are also used inside of tags, in comments and in CDATA sections, because the XML reader normalizes them.
+     *
+     * @param pLineBreak     the name of the line break of the file
+     * @param pByteOrderMark whether the file starts with a byte order mark
+     */
+    @ParameterizedTest
+    @CsvSource({"LF, false", "CRLF, false", "CR, false", "CRLF, true"})
+    @SneakyThrows
+    void shouldChangeFileAttributeInXmlWithLineBreaks(@NonNull String pLineBreak, boolean pByteOrderMark)
+    {
+      String lineBreak = pLineBreak.replace("CR", "\r").replace("LF", "\n");
+      IncludeTransformer includeTransformer = new IncludeTransformer();
+      includeTransformer.addConvertedFile(tempDir.resolve("sub/a.xml"), tempDir.resolve("sub/a.yaml"));
+      includeTransformer.addConvertedFile(tempDir.resolve("sub/b.xml"), tempDir.resolve("sub/b.yaml"));
+
+      String content = (pByteOrderMark ? "\uFEFF" : "") + String.join(lineBreak,
+                                                                      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                                                                      "<databaseChangeLog",
+                                                                      "    xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\">",
+                                                                      "  <!-- <include file=\"sub/a.xml\"/>",
+                                                                      "  -->",
+                                                                      "",
+                                                                      "  <include file=\"sub/a.xml\"/>",
+                                                                      "  <changeSet id=\"1\" author=\"a > b\"><sql><![CDATA[select '<x>'",
+                                                                      "  ]]></sql></changeSet>",
+                                                                      "  <include",
+                                                                      "      file=\"sub/b.xml\"",
+                                                                      "  />",
+                                                                      "</databaseChangeLog>",
+                                                                      "");
+      Path includeFile = Files.writeString(tempDir.resolve("changelog.xml"), content);
+      Path newIncludeFile = tempDir.resolve("new.xml");
+
+      includeTransformer.transformIncludes(tempDir, includeFile, newIncludeFile);
+
+      assertEquals(content.replace("  <include file=\"sub/a.xml\"/>" + lineBreak, "  <include file=\"sub/a.yaml\"/>" + lineBreak)
+                       .replace("file=\"sub/b.xml\"", "file=\"sub/b.yaml\""),
+                   Files.readString(newIncludeFile));
+    }
+
+    /**
+     * Tests that only the {@code file} of the includes in a JSON file are changed, even if {@code relativeToChangelogFile} comes after the {@code file}.
+     * All other values, like the {@code includeAll} entries and the numbers, need to be written unchanged.
+     */
+    @Test
+    @SneakyThrows
+    void shouldOnlyChangeFileInJson()
+    {
+      Files.createDirectories(tempDir.resolve("sub"));
+      IncludeTransformer includeTransformer = new IncludeTransformer();
+      includeTransformer.addConvertedFile(tempDir.resolve("a.xml"), tempDir.resolve("a.json"));
+      includeTransformer.addConvertedFile(tempDir.resolve("sub/c.xml"), tempDir.resolve("sub/c.json"));
+
+      Path includeFile = Files.writeString(tempDir.resolve("changelog.json"),
+                                           "{\"databaseChangeLog\": [{\"property\": {\"name\": \"x\", \"value\": 1.50, \"global\": true, \"dbms\": null}},"
+                                               + "{\"include\": {\"file\": \"a.xml\"}},"
+                                               + "{\"include\": {\"file\": \"c.xml\", \"relativeToChangelogFile\": true}},"
+                                               + "{\"include\": {\"file\": \"sub/c.xml\", \"relativeToChangelogFile\": false}},"
+                                               + "{\"includeAll\": {\"path\": \"sub\", \"errorIfMissingOrEmpty\": false}}]}");
+      Path newIncludeFile = tempDir.resolve("new.json");
+
+      includeTransformer.transformIncludes(tempDir, includeFile, newIncludeFile);
+
+      assertEquals(String.join("\n",
+                               "{",
+                               "  \"databaseChangeLog\": [",
+                               "    {",
+                               "      \"property\": {",
+                               "        \"name\": \"x\",",
+                               "        \"value\": 1.50,",
+                               "        \"global\": true,",
+                               "        \"dbms\": null",
+                               "      }",
+                               "    },",
+                               "    {",
+                               "      \"include\": {",
+                               "        \"file\": \"a.json\"",
+                               "      }",
+                               "    },",
+                               "    {",
+                               "      \"include\": {",
+                               "        \"file\": \"c.xml\",",
+                               "        \"relativeToChangelogFile\": true",
+                               "      }",
+                               "    },",
+                               "    {",
+                               "      \"include\": {",
+                               "        \"file\": \"sub/c.json\",",
+                               "        \"relativeToChangelogFile\": false",
+                               "      }",
+                               "    },",
+                               "    {",
+                               "      \"includeAll\": {",
+                               "        \"path\": \"sub\",",
+                               "        \"errorIfMissingOrEmpty\": false",
+                               "      }",
+                               "    }",
+                               "  ]",
+                               "}"),
+                   Files.readString(newIncludeFile));
+    }
+
+    /**
+     * Tests that only the {@code file} of the includes in a YAML file are changed, even if {@code relativeToChangelogFile} comes after the {@code file}.
+     * The comments and the styles of the scalars need to be kept.
+     */
+    @Test
+    @SneakyThrows
+    void shouldOnlyChangeFileInYaml()
+    {
+      Files.createDirectories(tempDir.resolve("sub"));
+      IncludeTransformer includeTransformer = new IncludeTransformer();
+      includeTransformer.addConvertedFile(tempDir.resolve("a.xml"), tempDir.resolve("a.yaml"));
+      includeTransformer.addConvertedFile(tempDir.resolve("sub/c.xml"), tempDir.resolve("sub/c.yaml"));
+
+      String content = "# the master changelog\n"
+          + "databaseChangeLog:\n"
+          + "- property:\n"
+          + "    name: 'x'\n"
+          + "    value: \"1.50\"\n"
+          + "- include:\n"
+          + "    file: a.xml # converted\n"
+          + "- include:\n"
+          + "    file: c.xml\n"
+          + "    relativeToChangelogFile: true\n"
+          + "- include:\n"
+          + "    file: 'sub/c.xml'\n"
+          + "    relativeToChangelogFile: false\n"
+          + "- includeAll:\n"
+          + "    path: sub\n";
+      Path includeFile = Files.writeString(tempDir.resolve("changelog.yaml"), content);
+      Path newIncludeFile = tempDir.resolve("new.yaml");
+
+      includeTransformer.transformIncludes(tempDir, includeFile, newIncludeFile);
+
+      assertEquals(content.replace("file: a.xml", "file: a.yaml").replace("file: 'sub/c.xml'", "file: 'sub/c.yaml'"),
+                   Files.readString(newIncludeFile));
+    }
   }
 
 
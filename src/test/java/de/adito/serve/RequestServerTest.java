@@ -0,0 +1,132 @@
+package de.adito.serve;
+
+import com.google.gson.*;
+import de.adito.CliTestUtils;
+import de.adito.CliTestUtils.CallResults;
+import lombok.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static com.github.stefanbirkner.systemlambda.SystemLambda.withTextFromSystemIn;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link RequestServer}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class RequestServerTest
+{
+
+  /**
+   * Tests that a context request is executed and the output is given in the response.
+   */
+  @Test
+  void shouldExecuteContextRequest()
+  {
+    Path changelog = CliTestUtils.loadResource("context/xml/three-changelogs.xml");
+
+    List<JsonObject> responses = serve(createRequest(1, "context", changelog.toString()));
+
+    assertAll(
+        () -> assertEquals(1, responses.size(), "number of responses"),
+        () -> assertEquals(1, responses.get(0).get("id").getAsInt(), "id"),
+        () -> assertEquals(0, responses.get(0).get("exitCode").getAsInt(), "exitCode"),
+        () -> assertArrayEquals(new String[]{"xml-bar", "xml-baz", "xml-foo"},
+                                new Gson().fromJson(responses.get(0).get("out").getAsString().trim(), String[].class), "out"),
+        () -> assertEquals("", responses.get(0).get("err").getAsString(), "err")
+    );
+  }
+
+  /**
+   * Tests that multiple requests are answered in the order they were given and that every request has its own output and exit code.
+   *
+   * @param pTempDir the output directory for the convert request
+   */
+  @Test
+  void shouldExecuteMultipleRequestsIsolated(@TempDir @NonNull Path pTempDir)
+  {
+    Path changelog = CliTestUtils.loadResource("context/yaml/example-changelog.yaml");
+
+    List<JsonObject> responses = serve(
+        createRequest("first", "convert", "--format", "XML", changelog.toString(), pTempDir.toString()),
+        createRequest("second", "context", "not_existing_file"),
+        createRequest("third", "context", changelog.toString()));
+
+    assertAll(
+        () -> assertEquals(List.of("first", "second", "third"),
+                           responses.stream().map(pResponse -> pResponse.get("id").getAsString()).collect(Collectors.toList()), "ids"),
+        () -> assertEquals(0, responses.get(0).get("exitCode").getAsInt(), "exitCode of convert"),
+        () -> assertThat(responses.get(0).get("out").getAsString()).as("out of convert").contains("Converting changeset 'example-changelog.yaml'"),
+        () -> assertThat(pTempDir.resolve("example-changelog.xml")).as("converted file").exists(),
+        () -> assertEquals(2, responses.get(1).get("exitCode").getAsInt(), "exitCode of invalid context"),
+        () -> assertThat(responses.get(1).get("err").getAsString()).as("err of invalid context").contains("Specified file 'not_existing_file' does not exist"),
+        () -> assertEquals("", responses.get(1).get("out").getAsString(), "out of invalid context"),
+        () -> assertEquals("[\"yaml-context\"]", responses.get(2).get("out").getAsString().trim(), "out of context"),
+        () -> assertEquals("", responses.get(2).get("err").getAsString(), "err of context")
+    );
+  }
+
+  /**
+   * Tests that invalid requests are answered with exit code 2 and do not stop the server.
+   */
+  @Test
+  void shouldHandleInvalidRequests()
+  {
+    List<JsonObject> responses = serve("not a json", "{\"id\": 2}", createRequest(3, "serve"), "", createRequest(4, "unknown"));
+
+    assertAll(
+        () -> assertEquals(4, responses.size(), "number of responses, blank lines should be ignored"),
+        () -> assertThat(responses).allSatisfy(pResponse -> assertEquals(2, pResponse.get("exitCode").getAsInt(), "exitCode")),
+        () -> assertTrue(responses.get(0).get("id").isJsonNull(), "id of invalid json"),
+        () -> assertThat(responses.get(0).get("err").getAsString()).contains("Invalid request 'not a json'"),
+        () -> assertThat(responses.get(1).get("err").getAsString()).contains("Missing required value 'cmd'"),
+        () -> assertThat(responses.get(2).get("err").getAsString()).contains("Command 'serve' cannot be called by a request"),
+        () -> assertThat(responses.get(3).get("err").getAsString()).contains("Unmatched argument at index 0: 'unknown'")
+    );
+  }
+
+  /**
+   * Creates a request as JSON.
+   *
+   * @param pId   the id of the request
+   * @param pCmd  the command
+   * @param pArgs the arguments of the command
+   * @return the request as JSON in one line
+   */
+  @NonNull
+  private String createRequest(@NonNull Object pId, @NonNull String pCmd, String @NonNull ... pArgs)
+  {
+    Map<String, Object> request = new LinkedHashMap<>();
+    request.put("id", pId);
+    request.put("cmd", pCmd);
+    request.put("args", List.of(pArgs));
+    return new Gson().toJson(request);
+  }
+
+  /**
+   * Calls the {@code serve} command with the given lines in stdin.
+   *
+   * @param pLines the lines that should be written to stdin
+   * @return the parsed responses
+   */
+  @SneakyThrows
+  @NonNull
+  private List<JsonObject> serve(String @NonNull ... pLines)
+  {
+    AtomicReference<CallResults> callResults = new AtomicReference<>();
+    withTextFromSystemIn(pLines).execute(() -> callResults.set(CliTestUtils.call("serve")));
+
+    assertEquals(0, callResults.get().getErrorCode(), "exit code of serve: " + callResults.get().getErrText());
+
+    return callResults.get().getOutText().lines()
+        .map(pLine -> JsonParser.parseString(pLine).getAsJsonObject())
+        .collect(Collectors.toList());
+  }
+}
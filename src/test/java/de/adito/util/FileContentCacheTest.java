@@ -0,0 +1,64 @@
+package de.adito.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FileContentCache}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class FileContentCacheTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that the files are only loaded, while their content fits into the budget, and that evicted files free the budget again.
+   */
+  @Test
+  @SneakyThrows
+  void shouldOnlyLoadFilesWithinBudget()
+  {
+    Path first = Files.writeString(tempDir.resolve("first.xml"), "123456");
+    Path second = Files.writeString(tempDir.resolve("second.xml"), "7890");
+    FileContentCache cache = new FileContentCache(8);
+
+    boolean firstLoaded = cache.load(first);
+    boolean secondLoaded = cache.load(second);
+    cache.evict(first);
+    boolean secondLoadedAfterEvict = cache.load(second);
+
+    assertAll(
+        () -> assertTrue(firstLoaded),
+        () -> assertFalse(secondLoaded, "the budget is exceeded"),
+        () -> assertTrue(secondLoadedAfterEvict),
+        () -> assertNull(cache.get(first)),
+        () -> assertArrayEquals("7890".getBytes(), cache.get(second.resolve("..").resolve("second.xml")))
+    );
+  }
+
+  /**
+   * Tests that the content is taken from the cache, even if the file was changed after loading it.
+   */
+  @Test
+  @SneakyThrows
+  void shouldOpenCachedContent()
+  {
+    Path file = Files.writeString(tempDir.resolve("changelog.xml"), "cached");
+    FileContentCache cache = new FileContentCache(1024);
+    cache.load(file);
+    Files.writeString(file, "changed");
+
+    try (InputStream inputStream = cache.openInputStream(file))
+    {
+      assertEquals("cached", new String(inputStream.readAllBytes()));
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package de.adito.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FileTransfers}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class FileTransfersTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that files are identical, if they have the same content, and that the modification time of an identical target is updated.
+   */
+  @Test
+  @SneakyThrows
+  void shouldCheckIdenticalFiles()
+  {
+    Path source = Files.writeString(tempDir.resolve("source.csv"), "1;a\n");
+    Path target = tempDir.resolve("target.csv");
+    assertFalse(FileTransfers.isIdentical(source, target), "missing target");
+
+    Files.writeString(target, "2;a\n");
+    Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+    assertTrue(FileTransfers.isIdentical(source, target), "the content is not read with the same size and modification time");
+
+    Files.setLastModifiedTime(target, FileTime.fromMillis(0));
+    assertFalse(FileTransfers.isIdentical(source, target), "other content with the same size");
+
+    Files.writeString(target, "1;a\n");
+    Files.setLastModifiedTime(target, FileTime.fromMillis(0));
+    assertTrue(FileTransfers.isIdentical(source, target), "same content with another modification time");
+    assertEquals(Files.getLastModifiedTime(source), Files.getLastModifiedTime(target));
+  }
+
+  /**
+   * Tests that a hard link replaces an existing file, without changing the file.
+   */
+  @Test
+  @SneakyThrows
+  void shouldReplaceExistingFileWithLink()
+  {
+    Path source = Files.writeString(tempDir.resolve("source.csv"), "1;a\n");
+    Path other = Files.writeString(tempDir.resolve("other.csv"), "2;b\n");
+    Path target = tempDir.resolve("target.csv");
+    Files.createLink(target, other);
+
+    FileTransfers.link(source, target);
+
+    assertAll(
+        () -> assertTrue(Files.isSameFile(source, target)),
+        () -> assertThat(other).hasContent("2;b"),
+        () -> assertThat(tempDir).isDirectoryNotContaining("glob:**.tmp")
+    );
+  }
+
+  /**
+   * Tests that a file is cloned or copied with the same content and with the same permissions as any other new file.
+   */
+  @Test
+  @SneakyThrows
+  void shouldCloneOrTransferFile()
+  {
+    Path source = Files.write(tempDir.resolve("source.bin"), new byte[3 * 1024 * 1024 + 7]);
+    Path target = Files.writeString(tempDir.resolve("target.bin"), "old");
+
+    FileTransfers.cloneOrTransfer(source, target, new CloneSupport());
+
+    assertAll(
+        () -> assertEquals(-1, Files.mismatch(source, target)),
+        () -> assertFalse(Files.isSameFile(source, target)),
+        () -> assertThat(tempDir).isDirectoryNotContaining("glob:**.tmp"),
+        () -> {
+          if (Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null)
+            assertEquals(Files.getPosixFilePermissions(Files.createFile(tempDir.resolve("normal.bin"))), Files.getPosixFilePermissions(target));
+        }
+    );
+  }
+
+  /**
+   * Tests that a clone, that was rejected in one run, is only remembered for this run and that an error while starting the process
+   * does not prevent the next clones.
+   */
+  @Test
+  @SneakyThrows
+  void shouldForgetFailedCloneInNextRun()
+  {
+    Path source = Files.write(tempDir.resolve("source.bin"), new byte[2 * 1024 * 1024]);
+
+    CloneSupport missingCommand = new CloneSupport(List.of(tempDir.resolve("missing-cp").toString()));
+    FileTransfers.cloneOrTransfer(source, tempDir.resolve("missing.bin"), missingCommand);
+
+    CloneSupport failedRun = new CloneSupport(List.of("false"));
+    FileTransfers.cloneOrTransfer(source, tempDir.resolve("failed.bin"), failedRun);
+
+    CloneSupport nextRun = new CloneSupport();
+
+    assertAll(
+        () -> assertTrue(missingCommand.isSupported(source, tempDir), "an error while starting the process only affects the current file"),
+        () -> assertFalse(failedRun.isSupported(source, tempDir), "the rejected clone is remembered in the same run"),
+        () -> assertTrue(nextRun.isSupported(source, tempDir), "the rejected clone does not affect the next run"),
+        () -> assertEquals(-1, Files.mismatch(source, tempDir.resolve("missing.bin"))),
+        () -> assertEquals(-1, Files.mismatch(source, tempDir.resolve("failed.bin")))
+    );
+  }
+}
@@ -0,0 +1,105 @@
+package de.adito.util;
+
+import de.adito.CliTestUtils;
+import liquibase.changelog.*;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.core.json.JsonChangeLogParser;
+import liquibase.resource.DirectoryResourceAccessor;
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
+import lombok.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link GsonJsonChangeLogParser}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class GsonJsonChangeLogParserTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that the changelogs are parsed the same way as by the JSON parser of Liquibase.
+   *
+   * @param pResource the changelog in the resources
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"convert/JSON.json", "convert/JSON-pre.json", "context/json/example-changelog.json", "context/json/utf8-changelog.json",
+      "context/json/noContext-changelog.json"})
+  @SneakyThrows
+  void shouldParseSameAsLiquibase(@NonNull String pResource)
+  {
+    Path file = CliTestUtils.loadResource(pResource);
+
+    assertEquals(parseToYaml(new JsonChangeLogParser(), file), parseToYaml(new GsonJsonChangeLogParser(), file));
+  }
+
+  /**
+   * Tests that properties, numbers and duplicate keys are read the same way as by the JSON parser of Liquibase.
+   */
+  @Test
+  @SneakyThrows
+  void shouldHandlePropertiesAndValuesSameAsLiquibase()
+  {
+    Path file = Files.writeString(tempDir.resolve("changelog.json"), "{\"databaseChangeLog\": [\n"
+        + "  {\"property\": {\"name\": \"table\", \"value\": \"person\"}},\n"
+        + "  {\"changeSet\": {\"id\": 1, \"author\": \"test\", \"author\": \"other\", \"changes\": [\n"
+        + "    {\"createTable\": {\"tableName\": \"${table}\", \"columns\": [\n"
+        + "      {\"column\": {\"name\": \"id\", \"type\": \"int\", \"defaultValueNumeric\": 12345678901}},\n"
+        + "      {\"column\": {\"name\": \"price\", \"type\": \"decimal\", \"defaultValueNumeric\": 1.5e2}}\n"
+        + "    ]}}\n"
+        + "  ]}}\n"
+        + "]}");
+
+    String expected = parseToYaml(new JsonChangeLogParser(), file);
+
+    assertAll(
+        () -> assertEquals(expected, parseToYaml(new GsonJsonChangeLogParser(), file)),
+        () -> assertTrue(expected.contains("tableName: person"), expected),
+        () -> assertTrue(expected.contains("author: other"), expected)
+    );
+  }
+
+  /**
+   * Tests that a file, that is no strict JSON, is still parsed by Liquibase.
+   */
+  @Test
+  @SneakyThrows
+  void shouldParseNoStrictJsonWithLiquibase()
+  {
+    Path file = Files.writeString(tempDir.resolve("changelog.json"), "{'databaseChangeLog': [{'changeSet': {'id': '1', 'author': 'test', "
+        + "'changes': [{'sql': {'sql': 'select 1'}}]}}]}");
+
+    assertEquals(parseToYaml(new JsonChangeLogParser(), file), parseToYaml(new GsonJsonChangeLogParser(), file));
+  }
+
+  /**
+   * Parses a changelog and writes its changeSets as YAML, so the results of the parsers can be compared.
+   *
+   * @param pParser the parser
+   * @param pFile   the changelog
+   * @return the changeSets as YAML
+   * @throws Exception Error while parsing or writing
+   */
+  @NonNull
+  private String parseToYaml(@NonNull ChangeLogParser pParser, @NonNull Path pFile) throws Exception
+  {
+    try (DirectoryResourceAccessor resourceAccessor = new DirectoryResourceAccessor(pFile.getParent()))
+    {
+      DatabaseChangeLog changeLog = pParser.parse(pFile.getFileName().toString(), new ChangeLogParameters(), resourceAccessor);
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      new YamlChangeLogSerializer().write(changeLog.getChangeSets(), outputStream);
+      return outputStream.toString(StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package de.adito.util;
+
+import liquibase.changelog.*;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.core.json.JsonChangeLogParser;
+import liquibase.resource.DirectoryResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.*;
+
+/**
+ * Benchmark for parsing large JSON changelogs with the JSON parser of Liquibase, that uses SnakeYAML, and with the {@link GsonJsonChangeLogParser}.
+ * <p>
+ * Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=de.adito.util.JsonChangeLogParserBenchmark}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonChangeLogParserBenchmark
+{
+  private static final String FILE_NAME = "changelog.json";
+
+  /**
+   * The number of changeSets in the changelog.
+   */
+  @Param({"1000", "10000"})
+  private int changeSets;
+
+  private Path directory;
+  private DirectoryResourceAccessor resourceAccessor;
+  private final ChangeLogParser liquibaseParser = new JsonChangeLogParser();
+  private final ChangeLogParser gsonParser = new GsonJsonChangeLogParser();
+
+  /**
+   * Creates the changelog with the changeSets.
+   *
+   * @throws IOException Error while writing the changelog
+   */
+  @Setup
+  public void setUp() throws IOException
+  {
+    directory = Files.createTempDirectory("json-parser-benchmark");
+    Files.writeString(directory.resolve(FILE_NAME), "{\"databaseChangeLog\": [\n" + IntStream.range(0, changeSets)
+        .mapToObj(pIndex -> "  {\"changeSet\": {\"id\": \"" + pIndex + "\", \"author\": \"benchmark\", \"context\": \"context" + (pIndex % 10) + "\",\n"
+            + "    \"changes\": [{\"createTable\": {\"tableName\": \"table" + pIndex + "\", \"columns\": [\n"
+            + "      {\"column\": {\"name\": \"id\", \"type\": \"int\", \"constraints\": {\"primaryKey\": true, \"nullable\": false}}},\n"
+            + "      {\"column\": {\"name\": \"name\", \"type\": \"varchar(50)\"}}]}}]}}")
+        .collect(Collectors.joining(",\n")) + "\n]}");
+    resourceAccessor = new DirectoryResourceAccessor(directory);
+  }
+
+  /**
+   * Deletes all created files.
+   *
+   * @throws Exception Error while deleting
+   */
+  @TearDown
+  public void tearDown() throws Exception
+  {
+    resourceAccessor.close();
+    try (Stream<Path> walk = Files.walk(directory))
+    {
+      for (Path path : walk.sorted((pFirst, pSecond) -> pSecond.compareTo(pFirst)).collect(Collectors.toList()))
+        Files.delete(path);
+    }
+  }
+
+  /**
+   * Parses the changelog with the JSON parser of Liquibase.
+   *
+   * @return the parsed changelog
+   * @throws ChangeLogParseException Error while parsing
+   */
+  @Benchmark
+  public DatabaseChangeLog parseWithLiquibase() throws ChangeLogParseException
+  {
+    return liquibaseParser.parse(FILE_NAME, new ChangeLogParameters(), resourceAccessor);
+  }
+
+  /**
+   * Parses the changelog with the {@link GsonJsonChangeLogParser}.
+   *
+   * @return the parsed changelog
+   * @throws ChangeLogParseException Error while parsing
+   */
+  @Benchmark
+  public DatabaseChangeLog parseWithGson() throws ChangeLogParseException
+  {
+    return gsonParser.parse(FILE_NAME, new ChangeLogParameters(), resourceAccessor);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param pArgs the arguments, not used
+   * @throws RunnerException Error while running the benchmark
+   */
+  public static void main(String[] pArgs) throws RunnerException
+  {
+    new Runner(new OptionsBuilder()
+                   .include(JsonChangeLogParserBenchmark.class.getSimpleName())
+                   .build())
+        .run();
+  }
+}
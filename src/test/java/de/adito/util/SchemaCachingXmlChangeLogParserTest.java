@@ -0,0 +1,88 @@
+package de.adito.util;
+
+import liquibase.changelog.*;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.resource.DirectoryResourceAccessor;
+import lombok.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SchemaCachingXmlChangeLogParser}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class SchemaCachingXmlChangeLogParserTest
+{
+  private static final String CHANGELOG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+      + "    xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd\">\n"
+      + "  <changeSet id=\"1\" author=\"test\" %s>\n"
+      + "    <createTable tableName=\"person\">\n"
+      + "      <column name=\"id\" type=\"int\"/>\n"
+      + "    </createTable>\n"
+      + "  </changeSet>\n"
+      + "</databaseChangeLog>\n";
+
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that multiple changelogs with the same schema location are parsed and validated with the compiled schema.
+   */
+  @Test
+  @SneakyThrows
+  void shouldParseValidChangelogs()
+  {
+    Files.writeString(tempDir.resolve("first.xml"), String.format(CHANGELOG, ""));
+    Files.writeString(tempDir.resolve("second.xml"), String.format(CHANGELOG, "contextFilter=\"test\""));
+    SchemaCachingXmlChangeLogParser parser = new SchemaCachingXmlChangeLogParser(true);
+
+    DatabaseChangeLog first = parse(parser, "first.xml");
+    DatabaseChangeLog second = parse(parser, "second.xml");
+
+    assertAll(
+        () -> assertEquals(1, first.getChangeSets().size()),
+        () -> assertEquals(1, second.getChangeSets().size()),
+        () -> assertEquals("test", second.getChangeSets().get(0).getContextFilter().toString())
+    );
+  }
+
+  /**
+   * Tests that a changelog, that does not match the XSD, is only rejected, if it is validated.
+   */
+  @Test
+  @SneakyThrows
+  void shouldOnlyRejectInvalidChangelogWithValidation()
+  {
+    Files.writeString(tempDir.resolve("invalid.xml"), String.format(CHANGELOG, "unknownAttribute=\"foo\""));
+
+    ChangeLogParseException exception = assertThrows(ChangeLogParseException.class,
+                                                     () -> parse(new SchemaCachingXmlChangeLogParser(true), "invalid.xml"));
+    assertAll(
+        () -> assertTrue(exception.getMessage().contains("unknownAttribute"), exception.getMessage()),
+        () -> assertEquals(1, parse(new SchemaCachingXmlChangeLogParser(false), "invalid.xml").getChangeSets().size())
+    );
+  }
+
+  /**
+   * Parses a changelog of the temporary directory.
+   *
+   * @param pParser   the parser
+   * @param pFileName the name of the changelog
+   * @return the parsed changelog
+   * @throws Exception Error while parsing
+   */
+  @NonNull
+  private DatabaseChangeLog parse(@NonNull SchemaCachingXmlChangeLogParser pParser, @NonNull String pFileName) throws Exception
+  {
+    try (DirectoryResourceAccessor resourceAccessor = new DirectoryResourceAccessor(tempDir))
+    {
+      return pParser.parse(pFileName, new ChangeLogParameters(), resourceAccessor);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package de.adito.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for {@link TempFiles}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class TempFilesTest
+{
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Tests that the temporary files are created next to the file with the recognizable prefix and different names.
+   */
+  @Test
+  @SneakyThrows
+  void shouldCreateSibling()
+  {
+    Path file = tempDir.resolve("a.yaml");
+
+    Path first = TempFiles.createSibling(file);
+    Path second = TempFiles.createSibling(file);
+
+    assertAll(
+        () -> assertEquals(tempDir, first.getParent()),
+        () -> assertThat(first).isEmptyFile(),
+        () -> assertThat(first.getFileName().toString()).startsWith(TempFiles.PREFIX + "a.yaml").endsWith(TempFiles.SUFFIX),
+        () -> assertNotEquals(first, second),
+        () -> assertThat(file).doesNotExist()
+    );
+  }
+
+  /**
+   * Tests that only the temporary files are deleted in all sub directories.
+   */
+  @Test
+  @SneakyThrows
+  void shouldDeleteAllTempFiles()
+  {
+    Path subDirectory = Files.createDirectories(tempDir.resolve("sub"));
+    Path file = Files.writeString(subDirectory.resolve("a.yaml"), "a");
+    Path otherFile = Files.writeString(subDirectory.resolve("other.tmp"), "b");
+    TempFiles.createSibling(file);
+    TempFiles.createSibling(tempDir.resolve("b.yaml"));
+
+    int deleted = TempFiles.deleteAll(tempDir);
+
+    assertAll(
+        () -> assertEquals(2, deleted),
+        () -> assertThat(tempDir).isDirectoryNotContaining("glob:**/" + TempFiles.PREFIX + "*"),
+        () -> assertThat(subDirectory).isDirectoryNotContaining("glob:**/" + TempFiles.PREFIX + "*"),
+        () -> assertThat(file).exists(),
+        () -> assertThat(otherFile).exists()
+    );
+  }
+
+  /**
+   * Tests that the temporary files get the same permissions as any other new file, and not only the permissions for the owner.
+   */
+  @Test
+  @SneakyThrows
+  void shouldUseDefaultPermissions()
+  {
+    assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null, "the file system has no POSIX permissions");
+    Path normalFile = Files.createFile(tempDir.resolve("normal.yaml"));
+
+    Path tempFile = TempFiles.createSibling(tempDir.resolve("a.yaml"));
+
+    assertEquals(Files.getPosixFilePermissions(normalFile), Files.getPosixFilePermissions(tempFile));
+  }
+}
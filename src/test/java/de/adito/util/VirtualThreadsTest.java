@@ -0,0 +1,41 @@
+package de.adito.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link VirtualThreads}.
+ *
+ * @author r.hartinger, 16.10.2026
+ */
+class VirtualThreadsTest
+{
+  /**
+   * Tests that an executor with virtual threads is only created on Java 21 or newer and that it executes the tasks.
+   */
+  @Test
+  @SneakyThrows
+  void shouldCreateExecutorOnlyWithVirtualThreads()
+  {
+    ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+    if (Runtime.version().feature() < 21)
+    {
+      assertNull(executor);
+      return;
+    }
+
+    assertNotNull(executor);
+    try
+    {
+      assertEquals("done", executor.submit(() -> "done").get(10, TimeUnit.SECONDS));
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+}